@@ -13,6 +13,7 @@
 package org.openhab.automation.groovyscripting.internal;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -22,23 +23,43 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.automation.module.script.AbstractScriptEngineFactory;
 import org.openhab.core.automation.module.script.ScriptEngineFactory;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 
 /**
  * This is an implementation of a {@link ScriptEngineFactory} for Groovy.
  *
  * @author Wouter Born - Initial contribution
  */
-@Component(service = ScriptEngineFactory.class)
+@Component(service = ScriptEngineFactory.class, configurationPid = "org.openhab.groovyscripting")
 @NonNullByDefault
 public class GroovyScriptEngineFactory extends AbstractScriptEngineFactory {
 
+    private static final String CONFIG_ENGINE_POOL_SIZE = "enginePoolSize";
+
     private final org.codehaus.groovy.jsr223.GroovyScriptEngineFactory factory = new org.codehaus.groovy.jsr223.GroovyScriptEngineFactory();
 
     private final List<String> scriptTypes = (List<String>) Stream.of(factory.getExtensions(), factory.getMimeTypes())
             .flatMap(List::stream) //
             .collect(Collectors.toUnmodifiableList());
 
+    private final @Nullable ScriptEnginePool enginePool;
+
+    @Activate
+    public GroovyScriptEngineFactory(Map<String, Object> config) {
+        int enginePoolSize = ScriptEnginePool.getSize(config, CONFIG_ENGINE_POOL_SIZE);
+        this.enginePool = enginePoolSize > 0 ? new ScriptEnginePool(factory::getScriptEngine, enginePoolSize) : null;
+    }
+
+    @Deactivate
+    public void deactivate() {
+        ScriptEnginePool localEnginePool = enginePool;
+        if (localEnginePool != null) {
+            localEnginePool.close();
+        }
+    }
+
     @Override
     public List<String> getScriptTypes() {
         return scriptTypes;
@@ -46,6 +67,10 @@ public class GroovyScriptEngineFactory extends AbstractScriptEngineFactory {
 
     @Override
     public @Nullable ScriptEngine createScriptEngine(String scriptType) {
-        return scriptTypes.contains(scriptType) ? factory.getScriptEngine() : null;
+        if (!scriptTypes.contains(scriptType)) {
+            return null;
+        }
+        ScriptEnginePool localEnginePool = enginePool;
+        return localEnginePool != null ? localEnginePool.take() : factory.getScriptEngine();
     }
 }
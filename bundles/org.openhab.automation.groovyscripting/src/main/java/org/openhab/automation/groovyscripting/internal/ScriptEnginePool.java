@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.groovyscripting.internal;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import javax.script.ScriptEngine;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a number of unused script engines that are created in the background, so loading a script does not have to
+ * wait for the creation of its engine. Engines are never reused, every engine is handed out only once.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class ScriptEnginePool {
+    private final Logger logger = LoggerFactory.getLogger(ScriptEnginePool.class);
+    private final ExecutorService executor = ThreadPoolManager.getPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+    private final Supplier<@Nullable ScriptEngine> engineFactory;
+    private final BlockingQueue<ScriptEngine> engines;
+    private final AtomicBoolean filling = new AtomicBoolean();
+    private volatile boolean closed = false;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong createdEngines = new AtomicLong();
+    private final AtomicLong creationTimeNanos = new AtomicLong();
+
+    /**
+     * @param engineFactory creates a new engine
+     * @param size the number of engines to keep, at least one
+     */
+    ScriptEnginePool(Supplier<@Nullable ScriptEngine> engineFactory, int size) {
+        this.engineFactory = engineFactory;
+        this.engines = new ArrayBlockingQueue<>(Math.max(1, size));
+        fill();
+    }
+
+    /**
+     * @return an unused engine from the pool or a new one if the pool is empty
+     */
+    @Nullable
+    ScriptEngine take() {
+        ScriptEngine engine = engines.poll();
+        fill();
+        if (engine != null) {
+            hits.incrementAndGet();
+            return engine;
+        }
+        misses.incrementAndGet();
+        logger.debug("No pre-initialized script engine available");
+        return createEngine();
+    }
+
+    /**
+     * Drops the unused engines and stops refilling the pool.
+     */
+    void close() {
+        closed = true;
+        engines.clear();
+        logger.info("Closed {}", this);
+    }
+
+    /**
+     * @return number of engines, which were taken from the pool
+     */
+    long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * @return number of engines, which had to be created because the pool was empty
+     */
+    long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return number of unused engines in the pool
+     */
+    int getAvailableEngines() {
+        return engines.size();
+    }
+
+    /**
+     * @return average time in milliseconds to create an engine
+     */
+    long getAverageCreationTime() {
+        long created = createdEngines.get();
+        return created > 0 ? TimeUnit.NANOSECONDS.toMillis(creationTimeNanos.get() / created) : 0;
+    }
+
+    /**
+     * Gets the pool size from the configuration of the add-on.
+     *
+     * @return the configured size or 0, which disables the pool, if it is not set or invalid
+     */
+    static int getSize(Map<String, Object> config, String key) {
+        Object size = config.get(key);
+        if (size == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(size.toString().trim());
+        } catch (NumberFormatException e) {
+            LoggerFactory.getLogger(ScriptEnginePool.class).warn("Invalid {} '{}', not using a script engine pool", key,
+                    size);
+            return 0;
+        }
+    }
+
+    private void fill() {
+        if (!closed && engines.remainingCapacity() > 0 && filling.compareAndSet(false, true)) {
+            // engines pick up the context class loader, so they are created with the one of the caller like the
+            // engines which are created when the pool is empty
+            ClassLoader callerClassLoader = Thread.currentThread().getContextClassLoader();
+            executor.execute(() -> fill(callerClassLoader));
+        }
+    }
+
+    private void fill(ClassLoader callerClassLoader) {
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(callerClassLoader);
+        try {
+            boolean created;
+            do {
+                created = addEngines();
+                filling.set(false);
+                // an engine taken after the last check of the queue was not refilled, because filling was still set
+            } while (created && !closed && engines.remainingCapacity() > 0 && filling.compareAndSet(false, true));
+        } catch (RuntimeException e) {
+            filling.set(false);
+            logger.warn("Failed to create a script engine for the pool: {}", e.getMessage());
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+            if (closed) {
+                engines.clear();
+            }
+        }
+    }
+
+    /**
+     * @return false if an engine could not be created
+     */
+    private boolean addEngines() {
+        while (!closed && engines.remainingCapacity() > 0) {
+            ScriptEngine engine = createEngine();
+            if (engine == null) {
+                return false;
+            }
+            engines.offer(engine);
+        }
+        return true;
+    }
+
+    private @Nullable ScriptEngine createEngine() {
+        long start = System.nanoTime();
+        ScriptEngine engine = engineFactory.get();
+        long time = System.nanoTime() - start;
+        createdEngines.incrementAndGet();
+        creationTimeNanos.addAndGet(time);
+        logger.debug("Created script engine in {} ms", TimeUnit.NANOSECONDS.toMillis(time));
+        return engine;
+    }
+
+    @Override
+    public String toString() {
+        return "script engine pool (" + hits.get() + " engines taken from the pool, " + misses.get()
+                + " created on demand, " + getAverageCreationTime() + " ms average creation time)";
+    }
+}
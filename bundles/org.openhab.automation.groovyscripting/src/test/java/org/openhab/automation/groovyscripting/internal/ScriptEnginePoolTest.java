@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.groovyscripting.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import javax.script.ScriptEngine;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the {@link ScriptEnginePool}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ScriptEnginePoolTest {
+
+    private final Set<ScriptEngine> createdEngines = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger backgroundCreations = new AtomicInteger();
+    private final Thread testThread = Thread.currentThread();
+    private @Nullable Semaphore backgroundPermits;
+    private @Nullable ScriptEnginePool testedPool;
+
+    @AfterEach
+    public void tearDown() {
+        ScriptEnginePool localPool = testedPool;
+        if (localPool != null) {
+            localPool.close();
+        }
+        Semaphore localPermits = backgroundPermits;
+        if (localPermits != null) {
+            localPermits.release(100);
+        }
+    }
+
+    @Test
+    public void takeReturnsEnginesCreatedInTheBackground() throws InterruptedException {
+        ScriptEnginePool pool = createPool(2);
+        waitFor(() -> pool.getAvailableEngines() == 2);
+
+        ScriptEngine engine = pool.take();
+
+        assertTrue(createdEngines.contains(engine));
+        assertEquals(1, pool.getHits());
+        assertEquals(0, pool.getMisses());
+        // the taken engine is replaced
+        waitFor(() -> pool.getAvailableEngines() == 2);
+        assertEquals(3, backgroundCreations.get());
+    }
+
+    @Test
+    public void takeCreatesAnEngineIfThePoolIsEmpty() throws InterruptedException {
+        Semaphore permits = new Semaphore(0);
+        backgroundPermits = permits;
+        ScriptEnginePool pool = createPool(1);
+
+        ScriptEngine engine = pool.take();
+
+        assertNotNull(engine);
+        assertEquals(0, pool.getHits());
+        assertEquals(1, pool.getMisses());
+        assertEquals(0, backgroundCreations.get());
+
+        permits.release();
+        waitFor(() -> pool.getAvailableEngines() == 1);
+        assertNotSame(engine, pool.take());
+        assertEquals(1, pool.getHits());
+    }
+
+    @Test
+    public void poolIsRefilledAfterConcurrentTakes() throws Exception {
+        ScriptEnginePool pool = createPool(2);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int round = 0; round < 200; round++) {
+                Future<?>[] takes = new Future<?>[4];
+                for (int i = 0; i < takes.length; i++) {
+                    takes[i] = executor.submit(pool::take);
+                }
+                for (Future<?> take : takes) {
+                    take.get(5, TimeUnit.SECONDS);
+                }
+                // no take is left to trigger a refill, so the pool has to be refilled by the running fill
+                waitFor(() -> pool.getAvailableEngines() == 2);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(800, pool.getHits() + pool.getMisses());
+    }
+
+    @Test
+    public void closeDropsTheEnginesAndStopsRefilling() throws InterruptedException {
+        ScriptEnginePool pool = createPool(2);
+        waitFor(() -> pool.getAvailableEngines() == 2);
+
+        pool.close();
+        ScriptEngine engine = pool.take();
+
+        assertNotNull(engine);
+        assertEquals(0, pool.getAvailableEngines());
+        assertEquals(1, pool.getMisses());
+        // the pool was full before, so no fill was running, and take did not start one
+        assertEquals(2, backgroundCreations.get());
+    }
+
+    @Test
+    public void failingFactoryDoesNotFillThePool() {
+        ScriptEnginePool pool = new ScriptEnginePool(() -> null, 2);
+        testedPool = pool;
+
+        assertNull(pool.take());
+        assertEquals(0, pool.getAvailableEngines());
+    }
+
+    @Test
+    public void sizeIsReadFromTheConfiguration() {
+        assertEquals(3, ScriptEnginePool.getSize(Map.of("enginePoolSize", " 3"), "enginePoolSize"));
+        assertEquals(4, ScriptEnginePool.getSize(Map.of("enginePoolSize", 4), "enginePoolSize"));
+        assertEquals(0, ScriptEnginePool.getSize(Map.of(), "enginePoolSize"));
+        assertEquals(0, ScriptEnginePool.getSize(Map.of("enginePoolSize", "four"), "enginePoolSize"));
+    }
+
+    private ScriptEnginePool createPool(int size) {
+        ScriptEnginePool pool = new ScriptEnginePool(this::createEngine, size);
+        testedPool = pool;
+        return pool;
+    }
+
+    private ScriptEngine createEngine() {
+        if (Thread.currentThread() != testThread) {
+            Semaphore localPermits = backgroundPermits;
+            if (localPermits != null) {
+                localPermits.acquireUninterruptibly();
+            }
+            backgroundCreations.incrementAndGet();
+        }
+        ScriptEngine engine = mock(ScriptEngine.class);
+        createdEngines.add(engine);
+        return engine;
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < end, "Timeout");
+            Thread.sleep(1);
+        }
+    }
+}
@@ -17,13 +17,16 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
+import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.automation.jythonscripting.internal.ScriptEnginePool;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.automation.module.script.AbstractScriptEngineFactory;
 import org.openhab.core.automation.module.script.ScriptEngineFactory;
@@ -37,13 +40,14 @@ import org.osgi.service.component.annotations.Deactivate;
  * @author Scott Rushworth - Initial contribution
  * @author Wouter Born - Initial contribution
  */
-@Component(service = ScriptEngineFactory.class)
+@Component(service = ScriptEngineFactory.class, configurationPid = "org.openhab.jythonscripting")
 @NonNullByDefault
 public class JythonScriptEngineFactory extends AbstractScriptEngineFactory {
 
     private static final String PYTHON_CACHEDIR = "python.cachedir";
     private static final String PYTHON_HOME = "python.home";
     private static final String PYTHON_PATH = "python.path";
+    private static final String CONFIG_ENGINE_POOL_SIZE = "enginePoolSize";
 
     private static final String DEFAULT_PYTHON_PATH = Paths
             .get(OpenHAB.getConfigFolder(), "automation", "lib", "python").toString();
@@ -51,8 +55,12 @@ public class JythonScriptEngineFactory extends AbstractScriptEngineFactory {
     private static final String SCRIPT_TYPE = "py";
     private static final javax.script.ScriptEngineManager ENGINE_MANAGER = new javax.script.ScriptEngineManager();
 
+    private final @Nullable javax.script.ScriptEngineFactory jythonFactory;
+    private final List<String> scriptTypes;
+    private final @Nullable ScriptEnginePool enginePool;
+
     @Activate
-    public JythonScriptEngineFactory() {
+    public JythonScriptEngineFactory(Map<String, Object> config) {
         logger.debug("Loading JythonScriptEngineFactory");
 
         String pythonHome = JythonScriptEngineFactory.class.getProtectionDomain().getCodeSource().getLocation()
@@ -73,6 +81,25 @@ public class JythonScriptEngineFactory extends AbstractScriptEngineFactory {
                 .toString());
 
         logPythonPaths();
+
+        javax.script.ScriptEngineFactory jythonFactory = null;
+        List<String> scriptTypes = new ArrayList<>();
+        for (javax.script.ScriptEngineFactory factory : ENGINE_MANAGER.getEngineFactories()) {
+            List<String> extensions = factory.getExtensions();
+
+            if (extensions.contains(SCRIPT_TYPE)) {
+                jythonFactory = factory;
+                scriptTypes.addAll(extensions);
+                scriptTypes.addAll(factory.getMimeTypes());
+            }
+        }
+        this.jythonFactory = jythonFactory;
+        this.scriptTypes = scriptTypes;
+
+        int enginePoolSize = ScriptEnginePool.getSize(config, CONFIG_ENGINE_POOL_SIZE);
+        this.enginePool = jythonFactory != null && enginePoolSize > 0
+                ? new ScriptEnginePool(this::createJythonEngine, enginePoolSize)
+                : null;
     }
 
     private void logPythonPaths() {
@@ -84,21 +111,16 @@ public class JythonScriptEngineFactory extends AbstractScriptEngineFactory {
 
     @Override
     public List<String> getScriptTypes() {
-        List<String> scriptTypes = new ArrayList<>();
-
-        for (javax.script.ScriptEngineFactory factory : ENGINE_MANAGER.getEngineFactories()) {
-            List<String> extensions = factory.getExtensions();
-
-            if (extensions.contains(SCRIPT_TYPE)) {
-                scriptTypes.addAll(extensions);
-                scriptTypes.addAll(factory.getMimeTypes());
-            }
-        }
         return scriptTypes;
     }
 
     @Override
     public @Nullable ScriptEngine createScriptEngine(String scriptType) {
+        if (scriptTypes.contains(scriptType)) {
+            ScriptEnginePool localEnginePool = enginePool;
+            return localEnginePool != null ? localEnginePool.take() : createJythonEngine();
+        }
+
         ScriptEngine scriptEngine = ENGINE_MANAGER.getEngineByExtension(scriptType);
         if (scriptEngine == null) {
             scriptEngine = ENGINE_MANAGER.getEngineByMimeType(scriptType);
@@ -109,10 +131,30 @@ public class JythonScriptEngineFactory extends AbstractScriptEngineFactory {
         return scriptEngine;
     }
 
+    /**
+     * Creates an engine with the Jython factory that was looked up once, instead of searching the engine manager for
+     * every script.
+     */
+    private @Nullable ScriptEngine createJythonEngine() {
+        javax.script.ScriptEngineFactory localJythonFactory = jythonFactory;
+        if (localJythonFactory == null) {
+            return null;
+        }
+        ScriptEngine scriptEngine = localJythonFactory.getScriptEngine();
+        // same as ScriptEngineManager.getEngineByExtension
+        scriptEngine.setBindings(ENGINE_MANAGER.getBindings(), ScriptContext.GLOBAL_SCOPE);
+        return scriptEngine;
+    }
+
     @Deactivate
     public void removePythonPath() {
         logger.debug("Unloading JythonScriptEngineFactory");
 
+        ScriptEnginePool localEnginePool = enginePool;
+        if (localEnginePool != null) {
+            localEnginePool.close();
+        }
+
         String existingPythonPath = System.getProperty(PYTHON_PATH);
         if (existingPythonPath != null && existingPythonPath.contains(DEFAULT_PYTHON_PATH)) {
             Set<String> newPythonPathList = new TreeSet<>(Arrays.asList(existingPythonPath.split(File.pathSeparator)));
@@ -15,15 +15,14 @@ package org.openhab.automation.pidcontroller.internal.handler;
 import static org.openhab.automation.pidcontroller.internal.PIDControllerConstants.*;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
@@ -32,7 +31,7 @@ import org.openhab.core.automation.ModuleHandlerCallback;
 import org.openhab.core.automation.Trigger;
 import org.openhab.core.automation.handler.BaseTriggerModuleHandler;
 import org.openhab.core.automation.handler.TriggerHandlerCallback;
-import org.openhab.core.common.NamedThreadFactory;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.config.core.Configuration;
 import org.openhab.core.events.Event;
 import org.openhab.core.events.EventFilter;
@@ -54,6 +53,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Triggers the rule with the output of the PID controller every loop time and when the input or setpoint changes.
+ *
+ * All controllers share one scheduler. The calculations of a controller never run concurrently, changes of the input
+ * or setpoint that arrive while a calculation is pending are handled by that calculation.
  *
  * @author Hilbrand Bouwkamp - Initial Contribution
  * @author Fabian Wolter - Add PID debug output values
@@ -63,12 +66,12 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
     public static final String MODULE_TYPE_ID = AUTOMATION_NAME + ".trigger";
     private static final Set<String> SUBSCRIBED_EVENT_TYPES = Set.of(ItemStateEvent.TYPE, ItemStateChangedEvent.TYPE);
     private final Logger logger = LoggerFactory.getLogger(PIDControllerTriggerHandler.class);
-    private final ScheduledExecutorService scheduler = Executors
-            .newSingleThreadScheduledExecutor(new NamedThreadFactory("automation-" + AUTOMATION_NAME, true));
+    private final ScheduledExecutorService scheduler;
     private final ServiceRegistration<?> eventSubscriberRegistration;
     private final PIDController controller;
     private final int loopTimeMs;
     private @Nullable ScheduledFuture<?> controllerjob;
+    private final AtomicBoolean calculationPending = new AtomicBoolean();
     private long previousTimeMs = System.currentTimeMillis();
     private Item inputItem;
     private Item setpointItem;
@@ -78,8 +81,15 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
 
     public PIDControllerTriggerHandler(Trigger module, ItemRegistry itemRegistry, EventPublisher eventPublisher,
             BundleContext bundleContext) {
+        this(module, itemRegistry, eventPublisher, bundleContext,
+                ThreadPoolManager.getScheduledPool("automation-" + AUTOMATION_NAME));
+    }
+
+    PIDControllerTriggerHandler(Trigger module, ItemRegistry itemRegistry, EventPublisher eventPublisher,
+            BundleContext bundleContext, ScheduledExecutorService scheduler) {
         super(module);
         this.eventPublisher = eventPublisher;
+        this.scheduler = scheduler;
 
         Configuration config = module.getConfiguration();
 
@@ -142,7 +152,15 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
         return ((BigDecimal) Objects.requireNonNull(config.get(key), key + " is not set")).doubleValue();
     }
 
-    private void calculate() {
+    private void calculateIfPending() {
+        if (calculationPending.get()) {
+            calculate();
+        }
+    }
+
+    private synchronized void calculate() {
+        calculationPending.set(false);
+
         double input;
         double setpoint;
 
@@ -165,13 +183,12 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
         PIDOutputDTO output = controller.calculate(input, setpoint, now - previousTimeMs, loopTimeMs);
         previousTimeMs = now;
 
-        Map<String, BigDecimal> outputs = new HashMap<>();
-
-        putBigDecimal(outputs, OUTPUT, output.getOutput());
-        putBigDecimal(outputs, P_INSPECTOR, output.getProportionalPart());
-        putBigDecimal(outputs, I_INSPECTOR, output.getIntegralPart());
-        putBigDecimal(outputs, D_INSPECTOR, output.getDerivativePart());
-        putBigDecimal(outputs, E_INSPECTOR, output.getError());
+        // the rule is executed asynchronously, so the outputs cannot be reused for the next calculation
+        Map<String, BigDecimal> outputs = Map.of(OUTPUT, BigDecimal.valueOf(output.getOutput()), //
+                P_INSPECTOR, BigDecimal.valueOf(output.getProportionalPart()), //
+                I_INSPECTOR, BigDecimal.valueOf(output.getIntegralPart()), //
+                D_INSPECTOR, BigDecimal.valueOf(output.getDerivativePart()), //
+                E_INSPECTOR, BigDecimal.valueOf(output.getError()));
 
         ModuleHandlerCallback localCallback = callback;
         if (localCallback != null && localCallback instanceof TriggerHandlerCallback) {
@@ -181,10 +198,6 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
         }
     }
 
-    private void putBigDecimal(Map<String, BigDecimal> map, String key, double value) {
-        map.put(key, BigDecimal.valueOf(value));
-    }
-
     private double getItemValueAsNumber(Item item) throws PIDException {
         State setpointState = item.getState();
 
@@ -211,14 +224,16 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
             if (commandTopic.isPresent() && event.getTopic().equals(commandTopic.get())) {
                 ItemStateChangedEvent changedEvent = (ItemStateChangedEvent) event;
                 if ("RESET".equals(changedEvent.getItemState().toString())) {
-                    controller.setIntegralResult(0);
-                    controller.setDerivativeResult(0);
+                    synchronized (this) {
+                        controller.setIntegralResult(0);
+                        controller.setDerivativeResult(0);
+                    }
                     eventPublisher.post(ItemEventFactory.createStateEvent(changedEvent.getItemName(), UnDefType.NULL));
                 } else if (changedEvent.getItemState() != UnDefType.NULL) {
                     logger.warn("Unknown command: {}", changedEvent.getItemState());
                 }
-            } else {
-                calculate();
+            } else if (calculationPending.compareAndSet(false, true)) {
+                scheduler.execute(this::calculateIfPending);
             }
         }
     }
@@ -239,11 +254,10 @@ public class PIDControllerTriggerHandler extends BaseTriggerModuleHandler implem
 
         ScheduledFuture<?> localControllerjob = controllerjob;
         if (localControllerjob != null) {
-            localControllerjob.cancel(true);
+            // the scheduler is shared, so a running calculation is not interrupted
+            localControllerjob.cancel(false);
         }
 
-        scheduler.shutdown();
-
         super.dispose();
     }
 }
@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.automation.pidcontroller.internal.handler;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.openhab.automation.pidcontroller.internal.PIDControllerConstants.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.core.automation.Trigger;
+import org.openhab.core.automation.handler.TriggerHandlerCallback;
+import org.openhab.core.config.core.Configuration;
+import org.openhab.core.events.EventPublisher;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.items.events.ItemEventFactory;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.ServiceRegistration;
+
+/**
+ * Tests the scheduling of {@link PIDControllerTriggerHandler}. The tasks of the scheduler are run by the tests.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class PIDControllerTriggerHandlerTest {
+    private static final int LOOP_TIME_MS = 100;
+
+    private final ItemRegistry itemRegistry = mock(ItemRegistry.class);
+    private final EventPublisher eventPublisher = mock(EventPublisher.class);
+    private final BundleContext bundleContext = mock(BundleContext.class);
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final ScheduledFuture<?> controllerJob = mock(ScheduledFuture.class);
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final List<PIDControllerTriggerHandler> handlers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        NumberItem input = new NumberItem("input");
+        input.setState(new DecimalType(20));
+        NumberItem setpoint = new NumberItem("setpoint");
+        setpoint.setState(new DecimalType(21));
+        when(itemRegistry.getItem("input")).thenReturn(input);
+        when(itemRegistry.getItem("setpoint")).thenReturn(setpoint);
+        doReturn(mock(ServiceRegistration.class)).when(bundleContext).registerService(anyString(), any(), any());
+        doReturn(controllerJob).when(scheduler).scheduleWithFixedDelay(any(), anyLong(), anyLong(), any());
+        doAnswer(invocation -> tasks.add(invocation.getArgument(0))).when(scheduler).execute(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        handlers.forEach(PIDControllerTriggerHandler::dispose);
+    }
+
+    @Test
+    void controllersShareTheSchedulerAndKeepTheirLoopTime() {
+        int controllers = 500;
+        List<Map<String, ?>> triggered = new ArrayList<>();
+        for (int i = 0; i < controllers; i++) {
+            createHandler(LOOP_TIME_MS, triggered::add);
+        }
+
+        ArgumentCaptor<Runnable> loops = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(controllers)).scheduleWithFixedDelay(loops.capture(), eq(0L), eq((long) LOOP_TIME_MS),
+                eq(TimeUnit.MILLISECONDS));
+        loops.getAllValues().forEach(Runnable::run);
+
+        assertEquals(controllers, triggered.size());
+        triggered.forEach(outputs -> assertEquals(5, outputs.size()));
+    }
+
+    @Test
+    void inputChangesAreCoalesced() {
+        List<Map<String, ?>> triggered = new ArrayList<>();
+        PIDControllerTriggerHandler handler = createHandler(LOOP_TIME_MS, triggered::add);
+
+        for (int i = 0; i < 100; i++) {
+            handler.receive(ItemEventFactory.createStateChangedEvent("input", new DecimalType(i), new DecimalType(20)));
+        }
+        assertEquals(1, tasks.size());
+        assertTrue(triggered.isEmpty());
+
+        tasks.remove().run();
+        assertEquals(1, triggered.size());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    void inputChangesDuringCalculationAreCalculatedOnceMore() {
+        List<Map<String, ?>> triggered = new ArrayList<>();
+        List<PIDControllerTriggerHandler> handler = new ArrayList<>();
+        handler.add(createHandler(LOOP_TIME_MS, outputs -> {
+            triggered.add(outputs);
+            if (triggered.size() == 1) {
+                for (int i = 0; i < 100; i++) {
+                    handler.get(0).receive(ItemEventFactory.createStateChangedEvent("input", new DecimalType(i),
+                            new DecimalType(19)));
+                }
+            }
+        }));
+
+        handler.get(0).receive(ItemEventFactory.createStateChangedEvent("input", new DecimalType(19),
+                new DecimalType(20)));
+        tasks.remove().run();
+        // one calculation for the first change, one for all changes while it was running
+        assertEquals(1, tasks.size());
+
+        tasks.remove().run();
+        assertEquals(2, triggered.size());
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    void disposeDoesNotInterruptTheSharedScheduler() {
+        createHandler(LOOP_TIME_MS, outputs -> {
+        }).dispose();
+
+        verify(controllerJob).cancel(false);
+        verify(controllerJob, never()).cancel(true);
+    }
+
+    private PIDControllerTriggerHandler createHandler(int loopTimeMs, OutputConsumer outputConsumer) {
+        Configuration config = new Configuration(Map.of(CONFIG_INPUT_ITEM, "input", CONFIG_SETPOINT_ITEM, "setpoint",
+                CONFIG_LOOP_TIME, BigDecimal.valueOf(loopTimeMs), CONFIG_KP_GAIN, BigDecimal.ONE, CONFIG_KI_GAIN,
+                BigDecimal.ONE, CONFIG_KD_GAIN, BigDecimal.ONE, CONFIG_KD_TIMECONSTANT, BigDecimal.ONE));
+        Trigger trigger = mock(Trigger.class);
+        when(trigger.getConfiguration()).thenReturn(config);
+
+        TriggerHandlerCallback callback = mock(TriggerHandlerCallback.class);
+        doAnswer(invocation -> {
+            outputConsumer.accept(invocation.getArgument(1));
+            return null;
+        }).when(callback).triggered(any(), any());
+
+        PIDControllerTriggerHandler handler = new PIDControllerTriggerHandler(trigger, itemRegistry, eventPublisher,
+                bundleContext, scheduler);
+        handler.setCallback(callback);
+        handlers.add(handler);
+        return handler;
+    }
+
+    @FunctionalInterface
+    private interface OutputConsumer {
+        void accept(Map<String, ?> outputs);
+    }
+}
@@ -23,7 +23,6 @@ import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
-import javax.net.ssl.HttpsURLConnection;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -31,6 +30,9 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.http.HttpHeader;
 import org.openhab.binding.amazonechocontrol.internal.handler.AccountHandler;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonBluetoothStates;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonBluetoothStates.BluetoothState;
@@ -78,12 +80,15 @@ public class AccountServlet extends HttpServlet {
     private final String id;
     private @Nullable Connection connectionToInitialize;
     private final Gson gson;
+    private final HttpClient httpClient;
 
-    public AccountServlet(HttpService httpService, String id, AccountHandler account, Gson gson) {
+    public AccountServlet(HttpService httpService, String id, AccountHandler account, Gson gson,
+            HttpClient httpClient) {
         this.httpService = httpService;
         this.account = account;
         this.id = id;
         this.gson = gson;
+        this.httpClient = httpClient;
 
         try {
             servletUrlWithoutRoot = "amazonechocontrol/" + URLEncoder.encode(id, "UTF8");
@@ -100,7 +105,7 @@ public class AccountServlet extends HttpServlet {
         if (oldConnection == null) {
             oldConnection = account.findConnection();
         }
-        return new Connection(oldConnection, this.gson);
+        return new Connection(oldConnection, this.gson, this.httpClient);
     }
 
     public void dispose() {
@@ -153,7 +158,7 @@ public class AccountServlet extends HttpServlet {
             }
             String domain = domainArray[0];
             String loginData = connection.serializeLoginData();
-            Connection newConnection = new Connection(null, this.gson);
+            Connection newConnection = new Connection(null, this.gson, this.httpClient);
             if (newConnection.tryRestoreLogin(loginData, domain)) {
                 account.setConnection(newConnection);
             }
@@ -284,7 +289,7 @@ public class AccountServlet extends HttpServlet {
                 }
                 // handle commands
                 if (baseUrl.equals("/newdevice") || baseUrl.equals("/newdevice/")) {
-                    this.connectionToInitialize = new Connection(null, this.gson);
+                    this.connectionToInitialize = new Connection(null, this.gson, this.httpClient);
                     this.account.setConnection(null);
                     resp.sendRedirect(this.servletUrl);
                     return;
@@ -628,7 +633,7 @@ public class AccountServlet extends HttpServlet {
 
     void handleProxyRequest(Connection connection, HttpServletResponse resp, String verb, String url,
             @Nullable String referer, @Nullable String postData, boolean json, String site) throws IOException {
-        HttpsURLConnection urlConnection;
+        ContentResponse response;
         try {
             Map<String, String> headers = null;
             if (referer != null) {
@@ -636,10 +641,10 @@ public class AccountServlet extends HttpServlet {
                 headers.put("Referer", referer);
             }
 
-            urlConnection = connection.makeRequest(verb, url, postData, json, false, headers, 0);
-            if (urlConnection.getResponseCode() == 302) {
+            response = connection.makeRequest(verb, url, postData, json, false, headers, 0);
+            if (response.getStatus() == 302) {
                 {
-                    String location = urlConnection.getHeaderField("location");
+                    String location = response.getHeaders().get(HttpHeader.LOCATION);
                     if (location.contains("/ap/maplanding")) {
                         try {
                             connection.registerConnectionAsApp(location);
@@ -681,8 +686,7 @@ public class AccountServlet extends HttpServlet {
             returnError(resp, e.getLocalizedMessage());
             return;
         }
-        String response = connection.convertStream(urlConnection);
-        returnHtml(connection, resp, response, site);
+        returnHtml(connection, resp, response.getContentAsString(), site);
     }
 
     private void returnHtml(Connection connection, HttpServletResponse resp, String html) {
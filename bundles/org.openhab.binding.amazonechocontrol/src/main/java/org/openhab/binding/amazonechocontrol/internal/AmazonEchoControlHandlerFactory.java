@@ -18,6 +18,8 @@ import java.util.*;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.util.HttpCookieStore;
 import org.openhab.binding.amazonechocontrol.internal.discovery.AmazonEchoDiscovery;
 import org.openhab.binding.amazonechocontrol.internal.discovery.SmartHomeDevicesDiscovery;
 import org.openhab.binding.amazonechocontrol.internal.handler.AccountHandler;
@@ -26,6 +28,7 @@ import org.openhab.binding.amazonechocontrol.internal.handler.FlashBriefingProfi
 import org.openhab.binding.amazonechocontrol.internal.handler.SmartHomeDeviceHandler;
 import org.openhab.core.config.discovery.AbstractDiscoveryService;
 import org.openhab.core.config.discovery.DiscoveryService;
+import org.openhab.core.io.net.http.HttpClientFactory;
 import org.openhab.core.storage.Storage;
 import org.openhab.core.storage.StorageService;
 import org.openhab.core.thing.Bridge;
@@ -64,14 +67,29 @@ public class AmazonEchoControlHandlerFactory extends BaseThingHandlerFactory {
     private final StorageService storageService;
     private final BindingServlet bindingServlet;
     private final Gson gson;
+    private final HttpClient httpClient;
 
     @Activate
     public AmazonEchoControlHandlerFactory(@Reference HttpService httpService,
-            @Reference StorageService storageService) {
+            @Reference StorageService storageService, @Reference HttpClientFactory httpClientFactory) {
         this.storageService = storageService;
         this.httpService = httpService;
         this.gson = new Gson();
         this.bindingServlet = new BindingServlet(httpService);
+        // the cookies are handled per account by the connection
+        this.httpClient = httpClientFactory.createHttpClient(BINDING_ID);
+        this.httpClient.setCookieStore(new HttpCookieStore.Empty());
+        this.httpClient.setFollowRedirects(false);
+    }
+
+    @Override
+    protected void activate(ComponentContext componentContext) {
+        super.activate(componentContext);
+        try {
+            httpClient.start();
+        } catch (Exception e) {
+            logger.warn("Unable to start Jetty HttpClient {}", e.getMessage());
+        }
     }
 
     @Override
@@ -84,6 +102,11 @@ public class AmazonEchoControlHandlerFactory extends BaseThingHandlerFactory {
     protected void deactivate(ComponentContext componentContext) {
         bindingServlet.dispose();
         super.deactivate(componentContext);
+        try {
+            httpClient.stop();
+        } catch (Exception e) {
+            logger.warn("Unable to stop Jetty HttpClient {}", e.getMessage());
+        }
     }
 
     @Override
@@ -93,7 +116,7 @@ public class AmazonEchoControlHandlerFactory extends BaseThingHandlerFactory {
         if (thingTypeUID.equals(THING_TYPE_ACCOUNT)) {
             Storage<String> storage = storageService.getStorage(thing.getUID().toString(),
                     String.class.getClassLoader());
-            AccountHandler bridgeHandler = new AccountHandler((Bridge) thing, httpService, storage, gson);
+            AccountHandler bridgeHandler = new AccountHandler((Bridge) thing, httpService, storage, gson, httpClient);
             accountHandlers.add(bridgeHandler);
             registerDiscoveryService(bridgeHandler);
             bindingServlet.addAccountThing(thing);
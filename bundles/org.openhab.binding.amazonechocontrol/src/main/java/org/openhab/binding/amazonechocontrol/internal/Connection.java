@@ -13,38 +13,41 @@
 package org.openhab.binding.amazonechocontrol.internal;
 
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InterruptedIOException;
-import java.io.OutputStream;
 import java.net.CookieManager;
 import java.net.CookieStore;
 import java.net.HttpCookie;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.net.URL;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
-import java.util.zip.GZIPInputStream;
-
-import javax.net.ssl.HttpsURLConnection;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpContentResponse;
+import org.eclipse.jetty.client.api.ContentResponse;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.client.util.BufferingResponseListener;
+import org.eclipse.jetty.client.util.StringContentProvider;
+import org.eclipse.jetty.http.HttpHeader;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonActivities;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonActivities.Activity;
 import org.openhab.binding.amazonechocontrol.internal.jsons.JsonAnnouncementContent;
@@ -119,7 +122,10 @@ import com.google.gson.JsonSyntaxException;
 public class Connection {
     private static final String THING_THREADPOOL_NAME = "thingHandler";
     private static final long EXPIRES_IN = 432000; // five days
-    private static final Pattern CHARSET_PATTERN = Pattern.compile("(?i)\\bcharset=\\s*\"?([^\\s;\"]*)");
+    private static final int REQUEST_TIMEOUT_SECONDS = 30;
+    // a request can be redirected and repeated several times
+    private static final int RESULT_TIMEOUT_SECONDS = 120;
+    private static final int MAX_RESPONSE_SIZE = 10 * 1024 * 1024;
     private static final String DEVICE_TYPE = "A2IVLV5VM2W81";
 
     private final Logger logger = LoggerFactory.getLogger(Connection.class);
@@ -130,6 +136,9 @@ public class Connection {
     private final CookieManager cookieManager = new CookieManager();
     private final Gson gson;
     private final Gson gsonWithNullSerialization;
+    private final HttpClient httpClient;
+    private final Map<String, CompletableFuture<String>> pendingRequests = new ConcurrentHashMap<>();
+    private final Map<String, ParsedResponse> lastResponses = new ConcurrentHashMap<>();
 
     private String amazonSite = "amazon.com";
     private String alexaServer = "https://alexa.amazon.com";
@@ -164,8 +173,9 @@ public class Connection {
         TEXT_COMMAND
     }
 
-    public Connection(@Nullable Connection oldConnection, Gson gson) {
+    public Connection(@Nullable Connection oldConnection, Gson gson, HttpClient httpClient) {
         this.gson = gson;
+        this.httpClient = httpClient;
         String frc = null;
         String serial = null;
         String deviceId = null;
@@ -281,6 +291,13 @@ public class Connection {
         return alexaServer;
     }
 
+    /**
+     * Sends the requests to another server, e.g. a local stub server in tests.
+     */
+    void setAlexaServer(String alexaServer) {
+        this.alexaServer = alexaServer;
+    }
+
     public String getDeviceName() {
         String deviceName = this.deviceName;
         if (deviceName == null) {
@@ -475,12 +492,12 @@ public class Connection {
     }
 
     private @Nullable Authentication tryGetBootstrap() throws IOException, URISyntaxException, InterruptedException {
-        HttpsURLConnection connection = makeRequest("GET", alexaServer + "/api/bootstrap", null, false, false, null, 0);
-        String contentType = connection.getContentType();
-        if (connection.getResponseCode() == 200 && contentType != null
+        ContentResponse response = makeRequest("GET", alexaServer + "/api/bootstrap", null, false, false, null, 0);
+        String contentType = response.getMediaType();
+        if (response.getStatus() == 200 && contentType != null
                 && contentType.toLowerCase().startsWith("application/json")) {
             try {
-                String bootstrapResultJson = convertStream(connection);
+                String bootstrapResultJson = response.getContentAsString();
                 JsonBootstrapResult result = parseJson(bootstrapResultJson, JsonBootstrapResult.class);
                 Authentication authentication = result.authentication;
                 if (authentication != null && authentication.authenticated) {
@@ -498,207 +515,218 @@ public class Connection {
         return null;
     }
 
-    public String convertStream(HttpsURLConnection connection) throws IOException {
-        InputStream input = connection.getInputStream();
-        if (input == null) {
-            return "";
-        }
-
-        InputStream readerStream;
-        if ("gzip".equalsIgnoreCase(connection.getContentEncoding())) {
-            readerStream = new GZIPInputStream(connection.getInputStream());
-        } else {
-            readerStream = input;
-        }
-        String contentType = connection.getContentType();
-        String charSet = null;
-        if (contentType != null) {
-            Matcher m = CHARSET_PATTERN.matcher(contentType);
-            if (m.find()) {
-                charSet = m.group(1).trim().toUpperCase();
-            }
-        }
-
-        Scanner inputScanner = charSet == null || charSet.isEmpty()
-                ? new Scanner(readerStream, StandardCharsets.UTF_8.name())
-                : new Scanner(readerStream, charSet);
-        Scanner scannerWithoutDelimiter = inputScanner.useDelimiter("\\A");
-        String result = scannerWithoutDelimiter.hasNext() ? scannerWithoutDelimiter.next() : null;
-        inputScanner.close();
-        scannerWithoutDelimiter.close();
-        input.close();
-        if (result == null) {
-            result = "";
-        }
-        return result;
+    public String makeRequestAndReturnString(String url) throws IOException, URISyntaxException, InterruptedException {
+        return getResult(makeRequestAndReturnStringAsync(url, null));
     }
 
-    public String makeRequestAndReturnString(String url) throws IOException, URISyntaxException, InterruptedException {
-        return makeRequestAndReturnString("GET", url, null, false, null);
+    /**
+     * Make a GET request without waiting for the result
+     * <p>
+     * A request for an url with the same headers that is still in progress is not sent again, the caller gets the
+     * result of the request in progress instead. The future fails with a {@link TimeoutException} if there is no
+     * result in time.
+     *
+     * @param url the url
+     * @param customHeaders additional headers
+     * @return the future response
+     */
+    CompletableFuture<String> makeRequestAndReturnStringAsync(String url, @Nullable Map<String, String> customHeaders) {
+        String key = customHeaders == null || customHeaders.isEmpty() ? url : url + " " + new TreeMap<>(customHeaders);
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> pendingFuture = pendingRequests.putIfAbsent(key, future);
+        if (pendingFuture != null) {
+            logger.debug("Request to {} is already in progress", url);
+            return pendingFuture;
+        }
+        future.orTimeout(RESULT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .whenComplete((result, exception) -> pendingRequests.remove(key, future));
+        sendRequest(new RequestContext("GET", url, null, false, true, customHeaders, 3))
+                .whenComplete((response, exception) -> {
+                    if (exception != null) {
+                        future.completeExceptionally(exception);
+                    } else {
+                        String result = response.getContentAsString();
+                        logger.debug("Result of GET {}:{}", url, result);
+                        future.complete(result);
+                    }
+                });
+        return future;
     }
 
     public String makeRequestAndReturnString(String verb, String url, @Nullable String postData, boolean json,
             @Nullable Map<String, String> customHeaders) throws IOException, URISyntaxException, InterruptedException {
-        HttpsURLConnection connection = makeRequest(verb, url, postData, json, true, customHeaders, 3);
-        String result = convertStream(connection);
+        ContentResponse response = makeRequest(verb, url, postData, json, true, customHeaders, 3);
+        String result = response.getContentAsString();
         logger.debug("Result of {} {}:{}", verb, url, result);
         return result;
     }
 
-    public HttpsURLConnection makeRequest(String verb, String url, @Nullable String postData, boolean json,
+    public ContentResponse makeRequest(String verb, String url, @Nullable String postData, boolean json,
             boolean autoredirect, @Nullable Map<String, String> customHeaders, int badRequestRepeats)
             throws IOException, URISyntaxException, InterruptedException {
-        String currentUrl = url;
-        int redirectCounter = 0;
-        int retryCounter = 0;
-        // loop for handling redirect and bad request, using automatic redirect is not
-        // possible, because all response headers must be catched
-        while (true) {
-            int code;
-            HttpsURLConnection connection = null;
-            try {
-                logger.debug("Make request to {}", url);
-                connection = (HttpsURLConnection) new URL(currentUrl).openConnection();
-                connection.setRequestMethod(verb);
-                connection.setRequestProperty("Accept-Language", "en-US");
-                if (customHeaders == null || !customHeaders.containsKey("User-Agent")) {
-                    connection.setRequestProperty("User-Agent", userAgent);
-                }
-                connection.setRequestProperty("Accept-Encoding", "gzip");
-                connection.setRequestProperty("DNT", "1");
-                connection.setRequestProperty("Upgrade-Insecure-Requests", "1");
-                if (customHeaders != null) {
-                    for (String key : customHeaders.keySet()) {
-                        String value = customHeaders.get(key);
-                        if (value != null && !value.isEmpty()) {
-                            connection.setRequestProperty(key, value);
-                        }
-                    }
-                }
-                connection.setInstanceFollowRedirects(false);
-
-                // add cookies
-                URI uri = connection.getURL().toURI();
-
-                if (customHeaders == null || !customHeaders.containsKey("Cookie")) {
-                    StringBuilder cookieHeaderBuilder = new StringBuilder();
-                    for (HttpCookie cookie : cookieManager.getCookieStore().get(uri)) {
-                        if (cookieHeaderBuilder.length() > 0) {
-                            cookieHeaderBuilder.append(";");
-                        }
-                        cookieHeaderBuilder.append(cookie.getName());
-                        cookieHeaderBuilder.append("=");
-                        cookieHeaderBuilder.append(cookie.getValue());
-                        if (cookie.getName().equals("csrf")) {
-                            connection.setRequestProperty("csrf", cookie.getValue());
-                        }
-
-                    }
-                    if (cookieHeaderBuilder.length() > 0) {
-                        String cookies = cookieHeaderBuilder.toString();
-                        connection.setRequestProperty("Cookie", cookies);
-                    }
-                }
-                if (postData != null) {
-                    logger.debug("{}: {}", verb, postData);
-                    // post data
-                    byte[] postDataBytes = postData.getBytes(StandardCharsets.UTF_8);
-                    int postDataLength = postDataBytes.length;
-
-                    connection.setFixedLengthStreamingMode(postDataLength);
+        return getResult(sendRequest(
+                new RequestContext(verb, url, postData, json, autoredirect, customHeaders, badRequestRepeats)));
+    }
 
-                    if (json) {
-                        connection.setRequestProperty("Content-Type", "application/json; charset=UTF-8");
+    /**
+     * Wait for the result of an asynchronous request
+     *
+     * @param future the future result
+     * @return the result
+     */
+    private <T> T getResult(CompletableFuture<T> future) throws IOException, URISyntaxException, InterruptedException {
+        try {
+            return future.get(RESULT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new IOException("No result received in time", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof URISyntaxException) {
+                throw (URISyntaxException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private CompletableFuture<ContentResponse> sendRequest(RequestContext context) {
+        logger.debug("Make request to {}", context.url);
+        Request request = httpClient.newRequest(context.currentUrl).method(context.verb).followRedirects(false)
+                .timeout(REQUEST_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        Map<String, String> customHeaders = context.customHeaders;
+        request.header(HttpHeader.ACCEPT_LANGUAGE, "en-US");
+        if (customHeaders == null || !customHeaders.containsKey("User-Agent")) {
+            request.agent(userAgent);
+        }
+        request.header("DNT", "1");
+        request.header("Upgrade-Insecure-Requests", "1");
+        if (customHeaders != null) {
+            for (String key : customHeaders.keySet()) {
+                String value = customHeaders.get(key);
+                if (value != null && !value.isEmpty()) {
+                    if ("User-Agent".equals(key)) {
+                        request.agent(value);
                     } else {
-                        connection.setRequestProperty("Content-Type", "application/x-www-form-urlencoded");
-                    }
-                    connection.setRequestProperty("Content-Length", Integer.toString(postDataLength));
-                    if ("POST".equals(verb)) {
-                        connection.setRequestProperty("Expect", "100-continue");
+                        request.header(key, value);
                     }
+                }
+            }
+        }
 
-                    connection.setDoOutput(true);
-                    OutputStream outputStream = connection.getOutputStream();
-                    outputStream.write(postDataBytes);
-                    outputStream.close();
+        // add cookies
+        URI uri;
+        try {
+            uri = new URI(context.currentUrl);
+        } catch (URISyntaxException e) {
+            context.future.completeExceptionally(e);
+            return context.future;
+        }
+        if (customHeaders == null || !customHeaders.containsKey("Cookie")) {
+            StringBuilder cookieHeaderBuilder = new StringBuilder();
+            for (HttpCookie cookie : cookieManager.getCookieStore().get(uri)) {
+                if (cookieHeaderBuilder.length() > 0) {
+                    cookieHeaderBuilder.append(";");
                 }
-                // handle result
-                code = connection.getResponseCode();
-                String location = null;
-
-                // handle response headers
-                Map<@Nullable String, List<String>> headerFields = connection.getHeaderFields();
-                for (Map.Entry<@Nullable String, List<String>> header : headerFields.entrySet()) {
-                    String key = header.getKey();
-                    if (key != null && !key.isEmpty()) {
-                        if (key.equalsIgnoreCase("Set-Cookie")) {
-                            // store cookie
-                            for (String cookieHeader : header.getValue()) {
-                                if (!cookieHeader.isEmpty()) {
-                                    List<HttpCookie> cookies = HttpCookie.parse(cookieHeader);
-                                    for (HttpCookie cookie : cookies) {
-                                        cookieManager.getCookieStore().add(uri, cookie);
-                                    }
-                                }
-                            }
-                        }
-                        if (key.equalsIgnoreCase("Location")) {
-                            // get redirect location
-                            location = header.getValue().get(0);
-                            if (!location.isEmpty()) {
-                                location = uri.resolve(location).toString();
-                                // check for https
-                                if (location.toLowerCase().startsWith("http://")) {
-                                    // always use https
-                                    location = "https://" + location.substring(7);
-                                    logger.debug("Redirect corrected to {}", location);
-                                }
-                            }
-                        }
-                    }
+                cookieHeaderBuilder.append(cookie.getName());
+                cookieHeaderBuilder.append("=");
+                cookieHeaderBuilder.append(cookie.getValue());
+                if (cookie.getName().equals("csrf")) {
+                    request.header("csrf", cookie.getValue());
                 }
-                if (code == 200) {
-                    logger.debug("Call to {} succeeded", url);
-                    return connection;
-                } else if (code == 302 && location != null) {
-                    logger.debug("Redirected to {}", location);
-                    redirectCounter++;
-                    if (redirectCounter > 30) {
-                        throw new ConnectionException("Too many redirects");
-                    }
-                    currentUrl = location;
-                    if (autoredirect) {
-                        continue; // repeat with new location
-                    }
-                    return connection;
-                } else {
-                    logger.debug("Retry call to {}", url);
-                    retryCounter++;
-                    if (retryCounter > badRequestRepeats) {
-                        throw new HttpException(code,
-                                verb + " url '" + url + "' failed: " + connection.getResponseMessage());
-                    }
-                    Thread.sleep(2000);
+            }
+            if (cookieHeaderBuilder.length() > 0) {
+                request.header(HttpHeader.COOKIE, cookieHeaderBuilder.toString());
+            }
+        }
+        String postData = context.postData;
+        if (postData != null) {
+            logger.debug("{}: {}", context.verb, postData);
+            // post data
+            String contentType = context.json ? "application/json; charset=UTF-8"
+                    : "application/x-www-form-urlencoded";
+            request.content(new StringContentProvider(contentType, postData, StandardCharsets.UTF_8));
+            if ("POST".equals(context.verb)) {
+                request.header(HttpHeader.EXPECT, "100-continue");
+            }
+        }
+        request.send(new BufferingResponseListener(MAX_RESPONSE_SIZE) {
+            @Override
+            public void onComplete(@Nullable Result result) {
+                if (result == null) {
+                    context.future.completeExceptionally(new IOException("Request to " + context.url + " failed"));
+                    return;
                 }
-            } catch (InterruptedException | InterruptedIOException e) {
-                if (connection != null) {
-                    connection.disconnect();
+                Throwable failure = result.getFailure();
+                if (failure != null) {
+                    logger.warn("Request to url '{}' fails with unknown error", context.url, failure);
+                    context.future.completeExceptionally(
+                            failure instanceof IOException ? failure : new IOException(failure.getMessage(), failure));
+                    return;
                 }
-                logger.warn("Unable to wait for next call to {}", url, e);
-                throw e;
-            } catch (IOException e) {
-                if (connection != null) {
-                    connection.disconnect();
+                handleResponse(context, uri, new HttpContentResponse(result.getResponse(), getContent(),
+                        getMediaType(), getEncoding()));
+            }
+        });
+        return context.future;
+    }
+
+    private void handleResponse(RequestContext context, URI uri, ContentResponse response) {
+        int code = response.getStatus();
+        String location = null;
+
+        // handle response headers
+        for (String cookieHeader : response.getHeaders().getValuesList(HttpHeader.SET_COOKIE)) {
+            // store cookie
+            if (!cookieHeader.isEmpty()) {
+                List<HttpCookie> cookies = HttpCookie.parse(cookieHeader);
+                for (HttpCookie cookie : cookies) {
+                    cookieManager.getCookieStore().add(uri, cookie);
                 }
-                logger.warn("Request to url '{}' fails with unknown error", url, e);
-                throw e;
-            } catch (Exception e) {
-                if (connection != null) {
-                    connection.disconnect();
+            }
+        }
+        String locationHeader = response.getHeaders().get(HttpHeader.LOCATION);
+        if (locationHeader != null) {
+            // get redirect location
+            location = locationHeader;
+            if (!location.isEmpty()) {
+                location = uri.resolve(location).toString();
+                // check for https
+                if (location.toLowerCase().startsWith("http://")) {
+                    // always use https
+                    location = "https://" + location.substring(7);
+                    logger.debug("Redirect corrected to {}", location);
                 }
-                throw e;
             }
         }
+        if (code == 200) {
+            logger.debug("Call to {} succeeded", context.url);
+            context.future.complete(response);
+        } else if (code == 302 && location != null) {
+            logger.debug("Redirected to {}", location);
+            context.redirectCounter++;
+            if (context.redirectCounter > 30) {
+                context.future.completeExceptionally(new ConnectionException("Too many redirects"));
+                return;
+            }
+            context.currentUrl = location;
+            if (context.autoredirect) {
+                sendRequest(context); // repeat with new location
+                return;
+            }
+            context.future.complete(response);
+        } else {
+            logger.debug("Retry call to {}", context.url);
+            context.retryCounter++;
+            if (context.retryCounter > context.badRequestRepeats) {
+                context.future.completeExceptionally(new HttpException(code,
+                        context.verb + " url '" + context.url + "' failed: " + response.getReason()));
+                return;
+            }
+            scheduler.schedule(() -> sendRequest(context), 2000, TimeUnit.MILLISECONDS);
+        }
     }
 
     public String registerConnectionAsApp(String oAutRedirectUrl)
@@ -928,6 +956,7 @@ public class Connection {
 
     public void logout() {
         cookieManager.getCookieStore().removeAll();
+        lastResponses.clear();
         // reset all members
         refreshToken = null;
         loginTime = null;
@@ -966,17 +995,81 @@ public class Connection {
         }
     }
 
-    // commands and states
-    public List<WakeWord> getWakeWords() {
-        String json;
+    /**
+     * Parse the response of an url that is polled by the account refresh. If the response did not change since the
+     * last request of this url, the result of the last request is returned without mapping the JSON again. The result
+     * is shared between the callers and must not be modified.
+     */
+    private <T> T parsePolledJson(String url, String json, Class<T> type)
+            throws JsonSyntaxException, IllegalStateException {
+        ParsedResponse lastResponse = lastResponses.get(url);
+        if (lastResponse != null && lastResponse.json.equals(json) && type.isInstance(lastResponse.value)) {
+            logger.trace("Response of {} did not change", url);
+            return type.cast(lastResponse.value);
+        }
+        T value = parseJson(json, type);
+        lastResponses.put(url, new ParsedResponse(json, value));
+        return value;
+    }
+
+    private <T> CompletableFuture<T> getJsonAsync(String url, Class<T> type) {
+        return makeRequestAndReturnStringAsync(url, null).thenApply(json -> parseJson(json, type));
+    }
+
+    /**
+     * Request the JSON of an url that is polled by the account refresh, see
+     * {@link #parsePolledJson(String, String, Class)}.
+     */
+    private <T> CompletableFuture<T> getPolledJsonAsync(String url, Class<T> type) {
+        return makeRequestAndReturnStringAsync(url, null).thenApply(json -> parsePolledJson(url, json, type));
+    }
+
+    /**
+     * Wait for the result of an asynchronous request whose failures are handled by the future, like the requests of
+     * the methods without a checked exception. Runtime exceptions like {@link HttpException} are passed on.
+     *
+     * @param future the future result, which is completed in time
+     * @return the result
+     */
+    private <T> T join(CompletableFuture<T> future) {
         try {
-            json = makeRequestAndReturnString(alexaServer + "/api/wake-word?cached=true");
-            JsonWakeWords wakeWords = parseJson(json, JsonWakeWords.class);
-            return Objects.requireNonNullElse(wakeWords.wakeWords, List.of());
-        } catch (IOException | URISyntaxException | InterruptedException e) {
-            logger.info("getting wakewords failed", e);
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
         }
-        return List.of();
+    }
+
+    /**
+     * Pass on the runtime exceptions of a failed request, like the synchronous requests did. Only the other
+     * exceptions are handled by the caller.
+     *
+     * @param e the failure of the request
+     * @return the cause of the failure
+     */
+    private static Throwable passOnRuntimeException(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RuntimeException) {
+            throw new CompletionException(cause);
+        }
+        return cause;
+    }
+
+    // commands and states
+    public List<WakeWord> getWakeWords() {
+        return join(getWakeWordsAsync());
+    }
+
+    public CompletableFuture<List<WakeWord>> getWakeWordsAsync() {
+        return getPolledJsonAsync(alexaServer + "/api/wake-word?cached=true", JsonWakeWords.class)
+                .thenApply(wakeWords -> Objects.requireNonNullElse(wakeWords.wakeWords, List.<WakeWord> of()))
+                .exceptionally(e -> {
+                    logger.info("getting wakewords failed", passOnRuntimeException(e));
+                    return List.of();
+                });
     }
 
     public List<SmartHomeBaseDevice> getSmarthomeDeviceList()
@@ -1017,7 +1110,8 @@ public class Connection {
     }
 
     public List<Device> getDeviceList() throws IOException, URISyntaxException, InterruptedException {
-        JsonDevices devices = Objects.requireNonNull(parseJson(getDeviceListJson(), JsonDevices.class));
+        JsonDevices devices = getResult(
+                getPolledJsonAsync(alexaServer + "/api/devices-v2/device?cached=false", JsonDevices.class));
         logger.trace("Devices {}", devices.devices);
 
         // @Nullable because of a limitation of the null-checker, we filter null-serialNumbers before
@@ -1118,24 +1212,27 @@ public class Connection {
     }
 
     public @Nullable JsonBluetoothStates getBluetoothConnectionStates() {
-        String json;
-        try {
-            json = makeRequestAndReturnString(alexaServer + "/api/bluetooth?cached=true");
-        } catch (IOException | URISyntaxException | InterruptedException e) {
-            logger.debug("failed to get bluetooth state: {}", e.getMessage());
-            return new JsonBluetoothStates();
-        }
-        JsonBluetoothStates bluetoothStates = parseJson(json, JsonBluetoothStates.class);
-        return bluetoothStates;
+        return join(getBluetoothConnectionStatesAsync());
+    }
+
+    public CompletableFuture<JsonBluetoothStates> getBluetoothConnectionStatesAsync() {
+        return getPolledJsonAsync(alexaServer + "/api/bluetooth?cached=true", JsonBluetoothStates.class)
+                .exceptionally(e -> {
+                    logger.debug("failed to get bluetooth state: {}", passOnRuntimeException(e).getMessage());
+                    return new JsonBluetoothStates();
+                });
     }
 
     public @Nullable JsonPlaylists getPlaylists(Device device)
             throws IOException, URISyntaxException, InterruptedException {
-        String json = makeRequestAndReturnString(
+        return getResult(getPlaylistsAsync(device));
+    }
+
+    public CompletableFuture<JsonPlaylists> getPlaylistsAsync(Device device) {
+        return getPolledJsonAsync(
                 alexaServer + "/api/cloudplayer/playlists?deviceSerialNumber=" + device.serialNumber + "&deviceType="
-                        + device.deviceType + "&mediaOwnerCustomerId=" + getCustomerId(device.deviceOwnerCustomerId));
-        JsonPlaylists playlists = parseJson(json, JsonPlaylists.class);
-        return playlists;
+                        + device.deviceType + "&mediaOwnerCustomerId=" + getCustomerId(device.deviceOwnerCustomerId),
+                JsonPlaylists.class);
     }
 
     public void command(Device device, String command) throws IOException, URISyntaxException, InterruptedException {
@@ -1218,26 +1315,31 @@ public class Connection {
     }
 
     public List<DeviceNotificationState> getDeviceNotificationStates() {
-        try {
-            String json = makeRequestAndReturnString(alexaServer + "/api/device-notification-state");
-            JsonDeviceNotificationState result = parseJson(json, JsonDeviceNotificationState.class);
-            return Objects.requireNonNullElse(result.deviceNotificationStates, List.of());
-        } catch (IOException | URISyntaxException | InterruptedException e) {
-            logger.info("Error getting device notification states", e);
-        }
-        return List.of();
+        return join(getDeviceNotificationStatesAsync());
+    }
+
+    public CompletableFuture<List<DeviceNotificationState>> getDeviceNotificationStatesAsync() {
+        return getPolledJsonAsync(alexaServer + "/api/device-notification-state", JsonDeviceNotificationState.class)
+                .thenApply(result -> Objects.requireNonNullElse(result.deviceNotificationStates,
+                        List.<DeviceNotificationState> of()))
+                .exceptionally(e -> {
+                    logger.info("Error getting device notification states", passOnRuntimeException(e));
+                    return List.of();
+                });
     }
 
     public List<AscendingAlarmModel> getAscendingAlarm() {
-        String json;
-        try {
-            json = makeRequestAndReturnString(alexaServer + "/api/ascending-alarm");
-            JsonAscendingAlarm result = parseJson(json, JsonAscendingAlarm.class);
-            return Objects.requireNonNullElse(result.ascendingAlarmModelList, List.of());
-        } catch (IOException | URISyntaxException | InterruptedException e) {
-            logger.info("Error getting device notification states", e);
-        }
-        return List.of();
+        return join(getAscendingAlarmAsync());
+    }
+
+    public CompletableFuture<List<AscendingAlarmModel>> getAscendingAlarmAsync() {
+        return getPolledJsonAsync(alexaServer + "/api/ascending-alarm", JsonAscendingAlarm.class)
+                .thenApply(result -> Objects.requireNonNullElse(result.ascendingAlarmModelList,
+                        List.<AscendingAlarmModel> of()))
+                .exceptionally(e -> {
+                    logger.info("Error getting device notification states", passOnRuntimeException(e));
+                    return List.of();
+                });
     }
 
     public void bluetooth(Device device, @Nullable String address)
@@ -1896,16 +1998,20 @@ public class Connection {
 
     public List<JsonNotificationSound> getNotificationSounds(Device device)
             throws IOException, URISyntaxException, InterruptedException {
-        String json = makeRequestAndReturnString(
+        return getResult(getNotificationSoundsAsync(device));
+    }
+
+    public CompletableFuture<List<JsonNotificationSound>> getNotificationSoundsAsync(Device device) {
+        return getPolledJsonAsync(
                 alexaServer + "/api/notification/sounds?deviceSerialNumber=" + device.serialNumber + "&deviceType="
-                        + device.deviceType + "&softwareVersion=" + device.softwareVersion);
-        JsonNotificationSounds result = parseJson(json, JsonNotificationSounds.class);
-        return Objects.requireNonNullElse(result.notificationSounds, List.of());
+                        + device.deviceType + "&softwareVersion=" + device.softwareVersion,
+                JsonNotificationSounds.class).thenApply(result -> Objects
+                        .requireNonNullElse(result.notificationSounds, List.<JsonNotificationSound> of()));
     }
 
     public List<JsonNotificationResponse> notifications() throws IOException, URISyntaxException, InterruptedException {
-        String response = makeRequestAndReturnString(alexaServer + "/api/notifications");
-        JsonNotificationsResponse result = parseJson(response, JsonNotificationsResponse.class);
+        JsonNotificationsResponse result = getResult(
+                getJsonAsync(alexaServer + "/api/notifications", JsonNotificationsResponse.class));
         return Objects.requireNonNullElse(result.notifications, List.of());
     }
 
@@ -1951,19 +2057,25 @@ public class Connection {
     }
 
     public List<JsonMusicProvider> getMusicProviders() {
-        try {
-            Map<String, String> headers = new HashMap<>();
-            headers.put("Routines-Version", "1.1.218665");
-            String response = makeRequestAndReturnString("GET",
-                    alexaServer + "/api/behaviors/entities?skillId=amzn1.ask.1p.music", null, true, headers);
-            if (!response.isEmpty()) {
-                JsonMusicProvider[] musicProviders = parseJson(response, JsonMusicProvider[].class);
-                return Arrays.asList(musicProviders);
+        return join(getMusicProvidersAsync());
+    }
+
+    public CompletableFuture<List<JsonMusicProvider>> getMusicProvidersAsync() {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Routines-Version", "1.1.218665");
+        String url = alexaServer + "/api/behaviors/entities?skillId=amzn1.ask.1p.music";
+        return makeRequestAndReturnStringAsync(url, headers).thenApply(response -> {
+            if (response.isEmpty()) {
+                return List.<JsonMusicProvider> of();
             }
-        } catch (IOException | URISyntaxException | InterruptedException e) {
-            logger.warn("getMusicProviders fails: {}", e.getMessage());
-        }
-        return List.of();
+            return Collections.unmodifiableList(
+                    Arrays.asList(parsePolledJson(url, response, JsonMusicProvider[].class)));
+        }).exceptionally(e -> {
+            // the music providers are optional, a failure must not stop the account refresh
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            logger.warn("getMusicProviders fails: {}", cause.getMessage());
+            return List.of();
+        });
     }
 
     public void playMusicVoiceCommand(Device device, String providerId, String voiceCommand)
@@ -2082,6 +2194,42 @@ public class Connection {
         public JsonObject nodeToExecute = new JsonObject();
     }
 
+    private static class RequestContext {
+        public final CompletableFuture<ContentResponse> future = new CompletableFuture<>();
+        public final String verb;
+        public final String url;
+        public final @Nullable String postData;
+        public final boolean json;
+        public final boolean autoredirect;
+        public final @Nullable Map<String, String> customHeaders;
+        public final int badRequestRepeats;
+        public String currentUrl;
+        public int redirectCounter;
+        public int retryCounter;
+
+        public RequestContext(String verb, String url, @Nullable String postData, boolean json, boolean autoredirect,
+                @Nullable Map<String, String> customHeaders, int badRequestRepeats) {
+            this.verb = verb;
+            this.url = url;
+            this.currentUrl = url;
+            this.postData = postData;
+            this.json = json;
+            this.autoredirect = autoredirect;
+            this.customHeaders = customHeaders;
+            this.badRequestRepeats = badRequestRepeats;
+        }
+    }
+
+    private static class ParsedResponse {
+        public final String json;
+        public final Object value;
+
+        public ParsedResponse(String json, Object value) {
+            this.json = json;
+            this.value = value;
+        }
+    }
+
     private static class ExecutionNodeObject {
         public List<String> types = new ArrayList<>();
         @Nullable
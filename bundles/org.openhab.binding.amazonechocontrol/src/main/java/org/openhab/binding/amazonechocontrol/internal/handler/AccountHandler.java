@@ -18,6 +18,8 @@ import java.net.URLEncoder;
 import java.net.UnknownHostException;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledFuture;
@@ -26,6 +28,7 @@ import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.HttpClient;
 import org.openhab.binding.amazonechocontrol.internal.AccountHandlerConfig;
 import org.openhab.binding.amazonechocontrol.internal.AccountServlet;
 import org.openhab.binding.amazonechocontrol.internal.Connection;
@@ -107,6 +110,7 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
     private final HttpService httpService;
     private @Nullable AccountServlet accountServlet;
     private final Gson gson;
+    private final HttpClient httpClient;
     private int checkDataCounter;
     private final LinkedBlockingQueue<String> requestedDeviceUpdates = new LinkedBlockingQueue<>();
     private @Nullable SmartHomeDeviceStateGroupUpdateCalculator smartHomeDeviceStateGroupUpdateCalculator;
@@ -114,10 +118,12 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
 
     private AccountHandlerConfig handlerConfig = new AccountHandlerConfig();
 
-    public AccountHandler(Bridge bridge, HttpService httpService, Storage<String> stateStorage, Gson gson) {
+    public AccountHandler(Bridge bridge, HttpService httpService, Storage<String> stateStorage, Gson gson,
+            HttpClient httpClient) {
         super(bridge);
         this.gson = gson;
         this.httpService = httpService;
+        this.httpClient = httpClient;
         this.stateStorage = stateStorage;
         channelHandlers.add(new ChannelHandlerSendMessage(this, this.gson));
     }
@@ -129,13 +135,14 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
         synchronized (synchronizeConnection) {
             Connection connection = this.connection;
             if (connection == null) {
-                this.connection = new Connection(null, gson);
+                this.connection = new Connection(null, gson, httpClient);
             }
         }
 
         if (accountServlet == null) {
             try {
-                accountServlet = new AccountServlet(httpService, this.getThing().getUID().getId(), this, gson);
+                accountServlet = new AccountServlet(httpService, this.getThing().getUID().getId(), this, gson,
+                        httpClient);
             } catch (IllegalStateException e) {
                 logger.warn("Failed to create account servlet", e);
             }
@@ -494,54 +501,57 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
                     return;
                 }
 
+                // the requests which do not need the device list run while the devices are updated
+                CompletableFuture<List<DeviceNotificationState>> deviceNotificationStatesFuture = currentConnection
+                        .getDeviceNotificationStatesAsync();
+                CompletableFuture<List<AscendingAlarmModel>> ascendingAlarmModelsFuture = currentConnection
+                        .getAscendingAlarmAsync();
+                CompletableFuture<JsonBluetoothStates> statesFuture = currentConnection
+                        .getBluetoothConnectionStatesAsync();
+                CompletableFuture<List<JsonMusicProvider>> musicProvidersFuture = currentConnection
+                        .getMusicProvidersAsync();
+
                 // get all devices registered in the account
                 updateDeviceList();
                 updateSmartHomeDeviceList(false);
                 updateFlashBriefingHandlers();
 
-                List<DeviceNotificationState> deviceNotificationStates = List.of();
-                List<AscendingAlarmModel> ascendingAlarmModels = List.of();
-                JsonBluetoothStates states = null;
-                List<JsonMusicProvider> musicProviders = null;
-                if (currentConnection.getIsLoggedIn()) {
-                    // update notification states
-                    deviceNotificationStates = currentConnection.getDeviceNotificationStates();
-
-                    // update ascending alarm
-                    ascendingAlarmModels = currentConnection.getAscendingAlarm();
-
-                    // update bluetooth states
-                    states = currentConnection.getBluetoothConnectionStates();
-
-                    // update music providers
-                    if (currentConnection.getIsLoggedIn()) {
-                        try {
-                            musicProviders = currentConnection.getMusicProviders();
-                        } catch (HttpException | JsonSyntaxException | ConnectionException e) {
-                            logger.debug("Update music provider failed", e);
-                        }
+                // request the notification sounds and playlists of all echo devices at once
+                List<EchoHandler> children = new ArrayList<>(echoHandlers);
+                List<CompletableFuture<List<JsonNotificationSound>>> notificationSoundsFutures = new ArrayList<>();
+                List<CompletableFuture<@Nullable JsonPlaylists>> playlistsFutures = new ArrayList<>();
+                for (EchoHandler child : children) {
+                    Device device = findDeviceJson(child.findSerialNumber());
+                    if (device != null && currentConnection.getIsLoggedIn()) {
+                        notificationSoundsFutures.add(currentConnection.getNotificationSoundsAsync(device)
+                                .exceptionally(e -> {
+                                    logger.debug("Update notification sounds failed", e);
+                                    return List.of();
+                                }));
+                        playlistsFutures.add(currentConnection.getPlaylistsAsync(device).handle((playlists, e) -> {
+                            if (e != null) {
+                                logger.debug("Update playlist failed", e);
+                                return null;
+                            }
+                            return playlists;
+                        }));
+                    } else {
+                        notificationSoundsFutures.add(CompletableFuture.completedFuture(List.of()));
+                        playlistsFutures.add(CompletableFuture.completedFuture(null));
                     }
                 }
+
+                List<DeviceNotificationState> deviceNotificationStates = deviceNotificationStatesFuture.join();
+                List<AscendingAlarmModel> ascendingAlarmModels = ascendingAlarmModelsFuture.join();
+                JsonBluetoothStates states = statesFuture.join();
+                List<JsonMusicProvider> musicProviders = musicProvidersFuture.join();
+
                 // forward device information to echo handler
-                for (EchoHandler child : echoHandlers) {
+                for (int i = 0; i < children.size(); i++) {
+                    EchoHandler child = children.get(i);
                     Device device = findDeviceJson(child.findSerialNumber());
-
-                    List<JsonNotificationSound> notificationSounds = List.of();
-                    JsonPlaylists playlists = null;
-                    if (device != null && currentConnection.getIsLoggedIn()) {
-                        // update notification sounds
-                        try {
-                            notificationSounds = currentConnection.getNotificationSounds(device);
-                        } catch (IOException | HttpException | JsonSyntaxException | ConnectionException e) {
-                            logger.debug("Update notification sounds failed", e);
-                        }
-                        // update playlists
-                        try {
-                            playlists = currentConnection.getPlaylists(device);
-                        } catch (IOException | HttpException | JsonSyntaxException | ConnectionException e) {
-                            logger.debug("Update playlist failed", e);
-                        }
-                    }
+                    List<JsonNotificationSound> notificationSounds = notificationSoundsFutures.get(i).join();
+                    JsonPlaylists playlists = playlistsFutures.get(i).join();
 
                     BluetoothState state = null;
                     if (states != null) {
@@ -573,6 +583,9 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
                 logger.debug("refresh data {} finished", getThing().getUID().getAsString());
             } catch (HttpException | JsonSyntaxException | ConnectionException e) {
                 logger.debug("refresh data fails", e);
+            } catch (CompletionException e) {
+                // a failed request of the combined requests
+                logger.debug("refresh data fails", e.getCause());
             } catch (Exception e) { // this handler can be removed later, if we know that nothing else can fail.
                 logger.error("refresh data fails with unexpected error", e);
             }
@@ -602,6 +615,8 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
             return new ArrayList<>();
         }
 
+        // the wake words are requested while the device list is loaded
+        CompletableFuture<List<WakeWord>> wakeWordsFuture = currentConnection.getWakeWordsAsync();
         List<Device> devices = null;
         try {
             if (currentConnection.getIsLoggedIn()) {
@@ -616,7 +631,7 @@ public class AccountHandler extends BaseBridgeHandler implements IWebSocketComma
                     .collect(Collectors.toMap(d -> Objects.requireNonNull(d.serialNumber), d -> d));
         }
 
-        List<WakeWord> wakeWords = currentConnection.getWakeWords();
+        List<WakeWord> wakeWords = wakeWordsFuture.join();
         // update handlers
         for (EchoHandler echoHandler : echoHandlers) {
             String serialNumber = echoHandler.findSerialNumber();
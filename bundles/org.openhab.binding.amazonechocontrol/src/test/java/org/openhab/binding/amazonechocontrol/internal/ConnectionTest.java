@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.amazonechocontrol.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.client.HttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonBluetoothStates;
+import org.openhab.binding.amazonechocontrol.internal.jsons.JsonMusicProvider;
+
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests the requests of the {@link Connection} against a local stub server.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ConnectionTest {
+
+    private final HttpClient httpClient = new HttpClient();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final CountDownLatch received = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private @NonNullByDefault({}) HttpServer server;
+    private @NonNullByDefault({}) Connection connection;
+    private @NonNullByDefault({}) String baseUrl;
+    private volatile String bluetoothResponse = "{\"bluetoothStates\":[]}";
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/slow", exchange -> {
+            requests.incrementAndGet();
+            received.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String header = exchange.getRequestHeaders().getFirst("Routines-Version");
+            respond(exchange, 200, "{\"version\":\"" + header + "\"}");
+        });
+        server.createContext("/missing", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 404, "");
+        });
+        server.createContext("/api/bluetooth", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 200, bluetoothResponse);
+        });
+        server.createContext("/api/behaviors/entities", exchange -> {
+            requests.incrementAndGet();
+            respond(exchange, 500, "");
+        });
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+
+        httpClient.start();
+        connection = new Connection(null, new Gson(), httpClient);
+        connection.setAlexaServer(baseUrl);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        release.countDown();
+        connection.logout();
+        httpClient.stop();
+        server.stop(0);
+    }
+
+    @Test
+    public void concurrentRequestsForTheSameUrlShareOneRequest() throws Exception {
+        CompletableFuture<String> first = connection.makeRequestAndReturnStringAsync(baseUrl + "/slow", null);
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = connection.makeRequestAndReturnStringAsync(baseUrl + "/slow", null);
+        release.countDown();
+
+        assertEquals("{\"version\":\"null\"}", first.get(5, TimeUnit.SECONDS));
+        assertEquals("{\"version\":\"null\"}", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void requestsWithOtherHeadersAreSentAgain() throws Exception {
+        CompletableFuture<String> first = connection.makeRequestAndReturnStringAsync(baseUrl + "/slow",
+                Map.of("Routines-Version", "1"));
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = connection.makeRequestAndReturnStringAsync(baseUrl + "/slow",
+                Map.of("Routines-Version", "2"));
+        release.countDown();
+
+        assertEquals("{\"version\":\"1\"}", first.get(5, TimeUnit.SECONDS));
+        assertEquals("{\"version\":\"2\"}", second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void failedRequestIsPassedOnToTheCaller() {
+        HttpException exception = assertThrows(HttpException.class,
+                () -> connection.makeRequest("GET", baseUrl + "/missing", null, false, true, null, 0));
+
+        assertEquals(404, exception.getCode());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void unchangedPolledResponseIsNotMappedAgain() throws Exception {
+        JsonBluetoothStates first = connection.getBluetoothConnectionStatesAsync().get(5, TimeUnit.SECONDS);
+        JsonBluetoothStates second = connection.getBluetoothConnectionStatesAsync().get(5, TimeUnit.SECONDS);
+        bluetoothResponse = "{\"bluetoothStates\":[{\"deviceSerialNumber\":\"G090LF1\"}]}";
+        JsonBluetoothStates changed = connection.getBluetoothConnectionStatesAsync().get(5, TimeUnit.SECONDS);
+
+        assertSame(first, second);
+        assertNotSame(first, changed);
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void failedMusicProviderRequestDoesNotFailTheRefresh() throws Exception {
+        // the request is repeated three times after two seconds each
+        List<JsonMusicProvider> musicProviders = connection.getMusicProvidersAsync().get(15, TimeUnit.SECONDS);
+
+        assertEquals(List.of(), musicProviders);
+        assertEquals(4, requests.get());
+    }
+
+    private void respond(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -12,6 +12,7 @@
  */
 package org.openhab.binding.bluetooth;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
 import java.util.Map;
 import java.util.Objects;
@@ -61,6 +62,10 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
 
     private @Nullable ScheduledFuture<?> inactiveRemovalJob;
 
+    // scan record counters of the devices at the last cleanup, to log the rates since then
+    private long receivedScanRecords;
+    private long droppedScanRecords;
+
     /**
      * Constructor
      *
@@ -88,6 +93,8 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
     @Override
     public void initialize() {
         config = getConfigAs(BaseBluetoothBridgeHandlerConfiguration.class);
+        Duration coalescingInterval = getScanRecordCoalescingInterval();
+        devices.values().forEach(device -> device.setScanRecordCoalescingInterval(coalescingInterval));
 
         int intervalSecs = config.inactiveDeviceCleanupInterval;
         inactiveRemovalJob = scheduler.scheduleWithFixedDelay(this::removeInactiveDevices, intervalSecs, intervalSecs,
@@ -102,10 +109,8 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
         }
         this.inactiveRemovalJob = null;
 
-        synchronized (devices) {
-            for (BD device : devices.values()) {
-                removeDevice(device);
-            }
+        for (BD device : devices.values()) {
+            removeDevice(device);
         }
     }
 
@@ -114,22 +119,38 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
     }
 
     private void removeInactiveDevices() {
+        logScanRecordRates();
         // clean up orphaned entries
-        synchronized (devices) {
-            for (BD device : devices.values()) {
-                if (shouldRemove(device)) {
-                    logger.debug("Removing device '{}' due to inactivity", device.getAddress());
-                    removeDevice(device);
-                }
+        for (BD device : devices.values()) {
+            if (shouldRemove(device)) {
+                logger.debug("Removing device '{}' due to inactivity", device.getAddress());
+                removeDevice(device);
             }
         }
     }
 
+    private void logScanRecordRates() {
+        if (!logger.isDebugEnabled()) {
+            return;
+        }
+        long received = 0;
+        long dropped = 0;
+        for (BD device : devices.values()) {
+            received += device.getReceivedScanRecords();
+            dropped += device.getDroppedScanRecords();
+        }
+        // removed devices take their counts with them, so the difference may be smaller than the actual number
+        logger.debug("Received {} scan records for {} devices in the last {}s, {} of them were dropped as duplicates",
+                Math.max(0, received - receivedScanRecords), devices.size(), config.inactiveDeviceCleanupInterval,
+                Math.max(0, dropped - droppedScanRecords));
+        receivedScanRecords = received;
+        droppedScanRecords = dropped;
+    }
+
     protected void removeDevice(BD device) {
+        // remove the device first, so getDevice creates a new device instead of returning the disposed one
+        devices.remove(device.getAddress(), device);
         device.dispose();
-        synchronized (devices) {
-            devices.remove(device.getAddress());
-        }
         discoveryListeners.forEach(listener -> listener.deviceRemoved(device));
     }
 
@@ -172,9 +193,7 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
 
     protected void refreshDiscoveredDevices() {
         logger.debug("Refreshing Bluetooth device list...");
-        synchronized (devices) {
-            devices.values().forEach(this::deviceDiscovered);
-        }
+        devices.values().forEach(this::deviceDiscovered);
     }
 
     @Override
@@ -186,13 +205,19 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
 
     @Override
     public BD getDevice(BluetoothAddress address) {
-        synchronized (devices) {
-            return Objects.requireNonNull(devices.computeIfAbsent(address, this::createDevice));
-        }
+        return Objects.requireNonNull(devices.computeIfAbsent(address, addr -> {
+            BD device = createDevice(addr);
+            device.setScanRecordCoalescingInterval(getScanRecordCoalescingInterval());
+            return device;
+        }));
     }
 
     protected abstract BD createDevice(BluetoothAddress address);
 
+    private Duration getScanRecordCoalescingInterval() {
+        return Duration.ofMillis(Math.max(0, config.scanRecordCoalescingInterval));
+    }
+
     @Override
     public boolean hasHandlerForDevice(BluetoothAddress address) {
         String addrStr = address.toString();
@@ -211,17 +236,17 @@ public abstract class AbstractBluetoothBridgeHandler<BD extends BaseBluetoothDev
     }
 
     public void deviceDiscovered(BluetoothDevice device) {
+        if (!config.backgroundDiscovery && !activeScanEnabled) {
+            return;
+        }
         if (hasHandlerForDevice(device.getAddress())) {
             // no point in discovering a device that already has a handler
             return;
         }
-        if (config.backgroundDiscovery || activeScanEnabled) {
-            if (deviceReachable(device)) {
-                discoveryListeners.forEach(listener -> listener.deviceDiscovered(device));
-            } else {
-                logger.trace("Not notifying listeners for device '{}', because it is not reachable.",
-                        device.getAddress());
-            }
+        if (deviceReachable(device)) {
+            discoveryListeners.forEach(listener -> listener.deviceDiscovered(device));
+        } else {
+            logger.trace("Not notifying listeners for device '{}', because it is not reachable.", device.getAddress());
         }
     }
 
@@ -23,7 +23,10 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
  */
 @NonNullByDefault
 public class BaseBluetoothBridgeHandlerConfiguration {
+    public static final int DEFAULT_SCAN_RECORD_COALESCING_INTERVAL = 1000;
+
     public boolean backgroundDiscovery = false;
     public int inactiveDeviceCleanupInterval = 60;
     public int inactiveDeviceCleanupThreshold = 300;
+    public int scanRecordCoalescingInterval = DEFAULT_SCAN_RECORD_COALESCING_INTERVAL;
 }
@@ -12,20 +12,25 @@
  */
 package org.openhab.binding.bluetooth;
 
+import java.time.Duration;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -90,6 +95,16 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
 
     private volatile boolean servicesDiscovered = false;
 
+    /**
+     * Scan records identical to the last forwarded one are dropped within this interval (in ns, 0 forwards all)
+     */
+    private volatile long scanRecordCoalescingNanos = TimeUnit.MILLISECONDS
+            .toNanos(BaseBluetoothBridgeHandlerConfiguration.DEFAULT_SCAN_RECORD_COALESCING_INTERVAL);
+    private @Nullable BluetoothScanNotification lastForwardedScanRecord;
+    private long lastForwardedScanRecordTime;
+    private final AtomicLong receivedScanRecords = new AtomicLong();
+    private final AtomicLong droppedScanRecords = new AtomicLong();
+
     /**
      * Construct a Bluetooth device taking the Bluetooth address
      *
@@ -118,6 +133,52 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
         lastSeenTime = ZonedDateTime.now();
     }
 
+    /**
+     * Sets the interval in which scan records that are identical to the last forwarded one are not passed to the
+     * listeners. This avoids state updates for devices that advertise the same data many times per second. The RSSI
+     * is not compared, as it differs between most advertisements, so it is only updated once per interval if the
+     * advertised data does not change.
+     *
+     * @param interval the interval, {@link Duration#ZERO} to pass all scan records
+     */
+    public void setScanRecordCoalescingInterval(Duration interval) {
+        scanRecordCoalescingNanos = interval.toNanos();
+    }
+
+    /**
+     * @return the number of scan records received for this device
+     */
+    public long getReceivedScanRecords() {
+        return receivedScanRecords.get();
+    }
+
+    /**
+     * @return the number of scan records that were not passed to the listeners because they were identical to the
+     *         last forwarded scan record
+     */
+    public long getDroppedScanRecords() {
+        return droppedScanRecords.get();
+    }
+
+    private synchronized boolean isDuplicateScanRecord(BluetoothScanNotification scanRecord) {
+        long interval = scanRecordCoalescingNanos;
+        if (interval <= 0) {
+            return false;
+        }
+        long now = System.nanoTime();
+        BluetoothScanNotification lastScanRecord = lastForwardedScanRecord;
+        if (lastScanRecord != null && now - lastForwardedScanRecordTime < interval
+                && lastScanRecord.getBeaconType() == scanRecord.getBeaconType()
+                && Objects.equals(lastScanRecord.getDeviceName(), scanRecord.getDeviceName())
+                && Arrays.equals(lastScanRecord.getManufacturerData(), scanRecord.getManufacturerData())
+                && Arrays.equals(lastScanRecord.getData(), scanRecord.getData())) {
+            return true;
+        }
+        lastForwardedScanRecord = scanRecord;
+        lastForwardedScanRecordTime = now;
+        return false;
+    }
+
     /**
      * Returns the name of the Bluetooth device.
      *
@@ -319,6 +380,14 @@ public abstract class BaseBluetoothDevice extends BluetoothDevice {
             default:
                 break;
         }
+        if (event == BluetoothEventType.SCAN_RECORD && args.length > 0
+                && args[0] instanceof BluetoothScanNotification) {
+            receivedScanRecords.incrementAndGet();
+            if (isDuplicateScanRecord((BluetoothScanNotification) args[0])) {
+                droppedScanRecords.incrementAndGet();
+                return;
+            }
+        }
         switch (event) {
             case SERVICES_DISCOVERED:
                 deviceLock.lock();
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.bluetooth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.bluetooth.notification.BluetoothScanNotification;
+
+/**
+ * Tests the dropping of duplicate scan records in {@link BaseBluetoothDevice}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class BaseBluetoothDeviceTest {
+
+    private final MockBluetoothDevice device = new MockBluetoothDevice(new MockBluetoothAdapter(),
+            TestUtils.randomAddress());
+    private final BluetoothDeviceListener listener = mock(BluetoothDeviceListener.class);
+
+    @Test
+    public void allScanRecordsAreForwardedWithoutInterval() {
+        device.setScanRecordCoalescingInterval(Duration.ZERO);
+        device.addListener(listener);
+
+        device.notifyListeners(BluetoothEventType.SCAN_RECORD, scanRecord(-60, 1));
+        device.notifyListeners(BluetoothEventType.SCAN_RECORD, scanRecord(-60, 1));
+
+        verify(listener, times(2)).onScanRecordReceived(any());
+        assertEquals(2, device.getReceivedScanRecords());
+        assertEquals(0, device.getDroppedScanRecords());
+    }
+
+    @Test
+    public void identicalScanRecordsAreDroppedByDefault() {
+        device.addListener(listener);
+
+        device.notifyListeners(BluetoothEventType.SCAN_RECORD, scanRecord(-60, 1));
+        device.notifyListeners(BluetoothEventType.SCAN_RECORD, scanRecord(-60, 1));
+
+        verify(listener, times(1)).onScanRecordReceived(any());
+        assertEquals(2, device.getReceivedScanRecords());
+        assertEquals(1, device.getDroppedScanRecords());
+    }
+
+    @Test
+    public void scanRecordsWithOnlyAnotherRssiAreDropped() {
+        device.setScanRecordCoalescingInterval(Duration.ofHours(1));
+        device.addListener(listener);
+
+        device.notifyListeners(BluetoothEventType.SCAN_RECORD, scanRecord(-60, 1));
+        device.notifyListeners(BluetoothEventType.SCAN_RECORD, scanRecord(-61, 1));
+        device.notifyListeners(BluetoothEventType.SCAN_RECORD, scanRecord(-75, 1));
+        device.notifyListeners(BluetoothEventType.SCAN_RECORD, scanRecord(-61, 2));
+
+        verify(listener, times(2)).onScanRecordReceived(any());
+        assertEquals(4, device.getReceivedScanRecords());
+        assertEquals(2, device.getDroppedScanRecords());
+    }
+
+    private static BluetoothScanNotification scanRecord(int rssi, int data) {
+        BluetoothScanNotification scanRecord = new BluetoothScanNotification();
+        scanRecord.setRssi(rssi);
+        scanRecord.setManufacturerData(new byte[] { 0x4c, 0x00, (byte) data });
+        return scanRecord;
+    }
+}
@@ -12,9 +12,11 @@
  */
 package org.openhab.binding.deconz.internal.netutils;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.net.URI;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -33,12 +35,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 /**
  * Establishes and keeps a websocket connection to the deCONZ software.
  *
  * The connection is closed by deCONZ now and then and needs to be re-established.
  *
+ * The resource type and id of a received message are read first without deserializing the message, so messages
+ * without a listener are dropped cheaply and all others are deserialized only once into the type of their resource.
+ *
  * @author David Graeff - Initial contribution
  */
 @WebSocket
@@ -52,7 +60,8 @@ public class WebSocketConnection {
     private final Gson gson;
 
     private final WebSocketConnectionListener connectionListener;
-    private final Map<String, WebSocketMessageListener> listeners = new ConcurrentHashMap<>();
+    private final Map<ResourceType, Map<String, WebSocketMessageListener>> listeners = new EnumMap<>(
+            ResourceType.class);
 
     private ConnectionState connectionState = ConnectionState.DISCONNECTED;
     private @Nullable Session session;
@@ -63,6 +72,10 @@ public class WebSocketConnection {
         this.client.setMaxIdleTimeout(0);
         this.gson = gson;
         this.socketName = "Websocket$" + System.currentTimeMillis() + "-" + INSTANCE_COUNTER.incrementAndGet();
+        // the map is never modified afterwards, so it can be read by all threads without synchronization
+        for (ResourceType resourceType : ResourceType.values()) {
+            listeners.put(resourceType, new ConcurrentHashMap<>());
+        }
     }
 
     public void start(String ip) {
@@ -95,11 +108,17 @@ public class WebSocketConnection {
     }
 
     public void registerListener(ResourceType resourceType, String sensorID, WebSocketMessageListener listener) {
-        listeners.put(getListenerId(resourceType, sensorID), listener);
+        Map<String, WebSocketMessageListener> resourceListeners = listeners.get(resourceType);
+        if (resourceListeners != null) {
+            resourceListeners.put(sensorID, listener);
+        }
     }
 
     public void unregisterListener(ResourceType resourceType, String sensorID) {
-        listeners.remove(getListenerId(resourceType, sensorID));
+        Map<String, WebSocketMessageListener> resourceListeners = listeners.get(resourceType);
+        if (resourceListeners != null) {
+            resourceListeners.remove(sensorID);
+        }
     }
 
     @SuppressWarnings("unused")
@@ -122,37 +141,76 @@ public class WebSocketConnection {
         logger.trace("{} received raw data: {}", socketName, message);
 
         try {
-            DeconzBaseMessage changedMessage = Objects.requireNonNull(gson.fromJson(message, DeconzBaseMessage.class));
-            if (changedMessage.r == ResourceType.UNKNOWN) {
-                logger.trace("Received message has unknown resource type. Skipping message.");
-                return;
-            }
+            decodeMessage(message);
+        } catch (RuntimeException e) {
+            // we need to catch all processing exceptions, otherwise they could affect the connection
+            logger.warn("{} encountered an error while processing the message {}: {}", socketName, message,
+                    e.getMessage());
+        }
+    }
 
-            WebSocketMessageListener listener = listeners.get(getListenerId(changedMessage.r, changedMessage.id));
-            if (listener == null) {
-                logger.debug(
-                        "Couldn't find listener for id {} with resource type {}. Either no thing for this id has been defined or this is a bug.",
-                        changedMessage.id, changedMessage.r);
-                return;
-            }
+    /**
+     * Pass a message to the listener of its resource.
+     *
+     * Only the resource type and id are read from the message at first, all other values are skipped without creating
+     * any objects. Messages without a listener are dropped at that point, the others are deserialized once into the
+     * message type of the resource.
+     */
+    private void decodeMessage(String message) {
+        ResourceType resourceType = null;
+        String id = null;
 
-            Class<? extends DeconzBaseMessage> expectedMessageType = changedMessage.r.getExpectedMessageType();
-            if (expectedMessageType == null) {
-                logger.warn(
-                        "BUG! Could not get expected message type for resource type {}. Please report this incident.",
-                        changedMessage.r);
-                return;
+        try (JsonReader reader = new JsonReader(new StringReader(message))) {
+            reader.beginObject();
+            while ((resourceType == null || id == null) && reader.hasNext()) {
+                String name = reader.nextName();
+                if ("r".equals(name) && reader.peek() == JsonToken.STRING) {
+                    resourceType = ResourceType.fromString(reader.nextString());
+                } else if ("id".equals(name) && reader.peek() == JsonToken.STRING) {
+                    id = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
             }
+        } catch (IOException | IllegalStateException e) {
+            logger.debug("{} received a malformed message, skipping it: {}", socketName, e.getMessage());
+            return;
+        }
+
+        if (resourceType == null || id == null) {
+            logger.trace("Received message has no resource type or id. Skipping message.");
+            return;
+        }
+        if (resourceType == ResourceType.UNKNOWN) {
+            logger.trace("Received message has unknown resource type. Skipping message.");
+            return;
+        }
 
-            DeconzBaseMessage deconzMessage = gson.fromJson(message, expectedMessageType);
-            if (deconzMessage != null) {
-                listener.messageReceived(changedMessage.id, deconzMessage);
+        Map<String, WebSocketMessageListener> resourceListeners = listeners.get(resourceType);
+        WebSocketMessageListener listener = resourceListeners != null ? resourceListeners.get(id) : null;
+        if (listener == null) {
+            logger.debug(
+                    "Couldn't find listener for id {} with resource type {}. Either no thing for this id has been defined or this is a bug.",
+                    id, resourceType);
+            return;
+        }
 
-            }
-        } catch (RuntimeException e) {
-            // we need to catch all processing exceptions, otherwise they could affect the connection
-            logger.warn("{} encountered an error while processing the message {}: {}", socketName, message,
-                    e.getMessage());
+        Class<? extends DeconzBaseMessage> expectedMessageType = resourceType.getExpectedMessageType();
+        if (expectedMessageType == null) {
+            logger.warn("BUG! Could not get expected message type for resource type {}. Please report this incident.",
+                    resourceType);
+            return;
+        }
+
+        DeconzBaseMessage deconzMessage;
+        try {
+            deconzMessage = gson.fromJson(message, expectedMessageType);
+        } catch (JsonSyntaxException e) {
+            logger.debug("{} received a malformed message, skipping it: {}", socketName, e.getMessage());
+            return;
+        }
+        if (deconzMessage != null) {
+            listener.messageReceived(id, deconzMessage);
         }
     }
 
@@ -202,17 +260,6 @@ public class WebSocketConnection {
         return connectionState == ConnectionState.CONNECTED;
     }
 
-    /**
-     * create a unique identifier for a listener
-     *
-     * @param resourceType the listener resource-type (LIGHT, SENSOR, ...)
-     * @param id the listener id (same as deconz-id)
-     * @return a unique string for this listener
-     */
-    private String getListenerId(ResourceType resourceType, String id) {
-        return resourceType.name() + "$" + id;
-    }
-
     /**
      * used internally to represent the connection state
      */
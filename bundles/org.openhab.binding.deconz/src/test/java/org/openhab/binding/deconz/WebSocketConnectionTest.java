@@ -0,0 +1,131 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.deconz;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.deconz.internal.dto.DeconzBaseMessage;
+import org.openhab.binding.deconz.internal.dto.GroupMessage;
+import org.openhab.binding.deconz.internal.dto.LightMessage;
+import org.openhab.binding.deconz.internal.dto.SensorMessage;
+import org.openhab.binding.deconz.internal.netutils.WebSocketConnection;
+import org.openhab.binding.deconz.internal.netutils.WebSocketConnectionListener;
+import org.openhab.binding.deconz.internal.netutils.WebSocketMessageListener;
+import org.openhab.binding.deconz.internal.types.*;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+/**
+ * This class provides tests for the decoding of websocket messages, using frames recorded from a deCONZ gateway
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class WebSocketConnectionTest {
+    private final Session session = mock(Session.class);
+    private final Map<String, List<DeconzBaseMessage>> receivedMessages = new ConcurrentHashMap<>();
+    private @NonNullByDefault({}) WebSocketConnection connection;
+    private @NonNullByDefault({}) List<String> frames;
+
+    @BeforeEach
+    public void initialize() throws IOException {
+        GsonBuilder gsonBuilder = new GsonBuilder();
+        gsonBuilder.registerTypeAdapter(LightType.class, new LightTypeDeserializer());
+        gsonBuilder.registerTypeAdapter(GroupType.class, new GroupTypeDeserializer());
+        gsonBuilder.registerTypeAdapter(ResourceType.class, new ResourceTypeDeserializer());
+        gsonBuilder.registerTypeAdapter(ThermostatMode.class, new ThermostatModeGsonTypeAdapter());
+        Gson gson = gsonBuilder.create();
+
+        connection = new WebSocketConnection(mock(WebSocketConnectionListener.class), mock(WebSocketClient.class),
+                gson);
+        when(session.getRemoteAddress()).thenReturn(new InetSocketAddress("127.0.0.1", 443));
+        connection.onConnect(session);
+        registerListener(ResourceType.SENSORS, "5");
+        registerListener(ResourceType.SENSORS, "7");
+        registerListener(ResourceType.LIGHTS, "3");
+        registerListener(ResourceType.GROUPS, "1");
+
+        try (InputStream inputStream = WebSocketConnectionTest.class.getResourceAsStream("websocket_frames.txt")) {
+            if (inputStream == null) {
+                throw new IOException("inputstream is null");
+            }
+            frames = List.of(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).split("\n"));
+        }
+    }
+
+    @Test
+    public void messagesAreRoutedToTheirListener() {
+        frames.forEach(frame -> connection.onMessage(session, frame));
+
+        List<DeconzBaseMessage> presenceSensor = receivedMessages.get("sensors/5");
+        assertEquals(2, presenceSensor.size());
+        SensorMessage stateMessage = (SensorMessage) presenceSensor.get(0);
+        assertEquals(Boolean.TRUE, stateMessage.state.presence);
+        assertEquals(ResourceType.SENSORS, stateMessage.r);
+        assertEquals("5", stateMessage.id);
+        assertEquals(87, ((SensorMessage) presenceSensor.get(1)).config.battery);
+
+        // the fields of the second message are not in the usual order
+        List<DeconzBaseMessage> temperatureSensor = receivedMessages.get("sensors/7");
+        assertEquals(2, temperatureSensor.size());
+        assertEquals(5423f, ((SensorMessage) temperatureSensor.get(1)).state.humidity);
+
+        List<DeconzBaseMessage> light = receivedMessages.get("lights/3");
+        assertEquals(1, light.size());
+        assertEquals(127, ((LightMessage) light.get(0)).state.bri);
+
+        List<DeconzBaseMessage> group = receivedMessages.get("groups/1");
+        assertEquals(1, group.size());
+        assertTrue(group.get(0) instanceof GroupMessage);
+    }
+
+    @Test
+    public void unknownAndMalformedMessagesAreDropped() {
+        connection.onMessage(session, "{\"e\":\"changed\",\"id\":\"42\",\"r\":\"sensors\",\"state\":{}}");
+        connection.onMessage(session, "{\"e\":\"scene-called\",\"gid\":\"1\",\"r\":\"scenes\",\"scid\":\"2\"}");
+        connection.onMessage(session, "{\"e\":\"changed\",\"id\":\"5\",\"r\":\"sensors\",\"state\":{\"presence\":");
+        connection.onMessage(session, "[\"not a message\"]");
+        connection.onMessage(session, "{\"e\":\"changed\",\"state\":{\"presence\":true}}");
+
+        assertEquals(4, receivedMessages.size());
+        receivedMessages.values().forEach(messages -> assertTrue(messages.isEmpty()));
+    }
+
+    private void registerListener(ResourceType resourceType, String id) {
+        List<DeconzBaseMessage> messages = new ArrayList<>();
+        receivedMessages.put(resourceType.getIdentifier() + "/" + id, messages);
+        connection.registerListener(resourceType, id, new WebSocketMessageListener() {
+            @Override
+            public void messageReceived(String sensorID, DeconzBaseMessage message) {
+                assertEquals(id, sensorID);
+                messages.add(message);
+            }
+        });
+    }
+}
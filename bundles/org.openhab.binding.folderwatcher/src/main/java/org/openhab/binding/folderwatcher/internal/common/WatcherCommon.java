@@ -12,12 +12,20 @@
  */
 package org.openhab.binding.folderwatcher.internal.common;
 
+import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 
@@ -29,6 +37,9 @@ import org.eclipse.jdt.annotation.NonNullByDefault;
 @NonNullByDefault
 public class WatcherCommon {
 
+    // the listing file is rewritten once it contains this many entries more than twice the current listing
+    private static final int COMPACTION_THRESHOLD = 1000;
+
     private static void initFile(File file, String watchDir) throws IOException {
         try (BufferedWriter fileWriter = new BufferedWriter(new FileWriter(file))) {
             fileWriter.write(watchDir);
@@ -36,24 +47,27 @@ public class WatcherCommon {
         }
     }
 
-    public static List<String> initStorage(File file, String watchDir) throws IOException {
-        List<String> returnList = List.of();
-        List<String> currentFileListing = List.of();
+    public static Set<String> initStorage(File file, String watchDir) throws IOException {
+        Set<String> returnSet = new HashSet<>();
         if (!file.exists()) {
             Files.createDirectories(file.toPath().getParent());
             initFile(file, watchDir);
         } else {
-            currentFileListing = Files.readAllLines(file.toPath().toAbsolutePath());
-            if (currentFileListing.get(0).equals(watchDir)) {
-                returnList = currentFileListing;
-            } else {
-                initFile(file, watchDir);
+            try (BufferedReader fileReader = new BufferedReader(new FileReader(file))) {
+                if (watchDir.equals(fileReader.readLine())) {
+                    String line;
+                    while ((line = fileReader.readLine()) != null) {
+                        returnSet.add(line);
+                    }
+                    return returnSet;
+                }
             }
+            initFile(file, watchDir);
         }
-        return returnList;
+        return returnSet;
     }
 
-    public static void saveNewListing(List<String> newList, File listingFile) throws IOException {
+    public static void saveNewListing(Collection<String> newList, File listingFile) throws IOException {
         try (BufferedWriter fileWriter = new BufferedWriter(new FileWriter(listingFile, true))) {
             for (String newFile : newList) {
                 fileWriter.write(newFile);
@@ -61,4 +75,42 @@ public class WatcherCommon {
             }
         }
     }
+
+    /**
+     * Replaces the content of the listing file with the given listing. The file is written next to the listing file
+     * and moved over it, so the old listing stays intact if writing fails.
+     */
+    public static void saveListing(Collection<String> listing, File listingFile, String watchDir) throws IOException {
+        Path listingPath = listingFile.toPath();
+        Path tempPath = listingPath.resolveSibling(listingPath.getFileName() + ".tmp");
+        File tempFile = tempPath.toFile();
+        initFile(tempFile, watchDir);
+        saveNewListing(listing, tempFile);
+        Files.move(tempPath, listingPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Returns whether the listing file should be rewritten because it contains too many entries of files that are
+     * gone.
+     *
+     * @param storedEntries the number of entries in the listing file
+     * @param currentEntries the number of entries in the current listing
+     */
+    public static boolean isCompactionNeeded(int storedEntries, int currentEntries) {
+        return storedEntries > 2 * currentEntries + COMPACTION_THRESHOLD;
+    }
+
+    /**
+     * Returns the entries of the current listing which are not in the previous listing, in the order of the current
+     * listing.
+     */
+    public static List<String> getNewEntries(List<String> currentListing, Set<String> previousListing) {
+        List<String> newEntries = new ArrayList<>();
+        for (String entry : currentListing) {
+            if (!previousListing.contains(entry)) {
+                newEntries.add(entry);
+            }
+        }
+        return newEntries;
+    }
 }
@@ -19,7 +19,9 @@ import java.io.IOException;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -55,7 +57,8 @@ public class FtpFolderWatcherHandler extends BaseThingHandler {
     private @Nullable File currentFtpListingFile;
     private @Nullable ScheduledFuture<?> executionJob, initJob;
     private FTPClient ftp = new FTPClient();
-    private List<String> previousFtpListing = new ArrayList<>();
+    private Set<String> previousFtpListing = new HashSet<>();
+    private int storedFtpEntries;
 
     public FtpFolderWatcherHandler(Thing thing) {
         super(thing);
@@ -93,6 +96,7 @@ public class FtpFolderWatcherHandler extends BaseThingHandler {
         try {
             this.currentFtpListingFile = currentFtpListingFile;
             previousFtpListing = WatcherCommon.initStorage(currentFtpListingFile, config.ftpAddress + config.ftpDir);
+            storedFtpEntries = previousFtpListing.size();
         } catch (IOException e) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, e.getMessage());
             logger.debug("Can't write file {}, error message {}", currentFtpListingFile, e.getMessage());
@@ -220,17 +224,24 @@ public class FtpFolderWatcherHandler extends BaseThingHandler {
                 }
                 List<String> currentFtpListing = new ArrayList<>();
                 listDirectory(ftp, ftpRootDir, config.listRecursiveFtp, currentFtpListing);
-                List<String> diffFtpListing = new ArrayList<>(currentFtpListing);
-                diffFtpListing.removeAll(previousFtpListing);
+                List<String> diffFtpListing = WatcherCommon.getNewEntries(currentFtpListing, previousFtpListing);
                 diffFtpListing.forEach(file -> triggerChannel(CHANNEL_NEWFILE, file));
-                if (!diffFtpListing.isEmpty() && currentFtpListingFile != null) {
+                previousFtpListing = new HashSet<>(currentFtpListing);
+                if (currentFtpListingFile != null) {
                     try {
-                        WatcherCommon.saveNewListing(diffFtpListing, currentFtpListingFile);
+                        if (WatcherCommon.isCompactionNeeded(storedFtpEntries + diffFtpListing.size(),
+                                previousFtpListing.size())) {
+                            WatcherCommon.saveListing(previousFtpListing, currentFtpListingFile,
+                                    config.ftpAddress + config.ftpDir);
+                            storedFtpEntries = previousFtpListing.size();
+                        } else if (!diffFtpListing.isEmpty()) {
+                            WatcherCommon.saveNewListing(diffFtpListing, currentFtpListingFile);
+                            storedFtpEntries += diffFtpListing.size();
+                        }
                     } catch (IOException e2) {
                         logger.debug("Can't save new listing into file: {}", e2.getMessage());
                     }
                 }
-                previousFtpListing = new ArrayList<>(currentFtpListing);
             } catch (IOException e) {
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
                         "FTP connection lost. " + e.getMessage());
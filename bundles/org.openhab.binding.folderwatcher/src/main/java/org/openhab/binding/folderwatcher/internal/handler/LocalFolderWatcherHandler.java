@@ -12,18 +12,27 @@
  */
 package org.openhab.binding.folderwatcher.internal.handler;
 
+import static java.nio.file.StandardWatchEventKinds.*;
 import static org.openhab.binding.folderwatcher.internal.FolderWatcherBindingConstants.CHANNEL_NEWFILE;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.FileVisitor;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -32,6 +41,7 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.binding.folderwatcher.internal.common.WatcherCommon;
 import org.openhab.binding.folderwatcher.internal.config.LocalFolderWatcherConfiguration;
 import org.openhab.core.OpenHAB;
+import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.thing.ChannelUID;
 import org.openhab.core.thing.Thing;
 import org.openhab.core.thing.ThingStatus;
@@ -46,6 +56,9 @@ import org.slf4j.LoggerFactory;
  * The {@link LocalFolderWatcherHandler} is responsible for handling commands, which are
  * sent to one of the channels.
  *
+ * If watching events is enabled, new files are reported as soon as the file system notifies about them and the
+ * polling interval is only used to reconcile the listing with the folder content.
+ *
  * @author Alexandr Salamatov - Initial contribution
  */
 @NonNullByDefault
@@ -55,7 +68,13 @@ public class LocalFolderWatcherHandler extends BaseThingHandler {
     private File currentLocalListingFile = new File(OpenHAB.getUserDataFolder() + File.separator + "FolderWatcher"
             + File.separator + thing.getUID().getAsString().replace(':', '_') + ".data");
     private @Nullable ScheduledFuture<?> executionJob;
-    private List<String> previousLocalListing = new ArrayList<>();
+    private @Nullable WatchService watchService;
+    private @Nullable ExecutorService watchExecutor;
+    private final Object refreshLock = new Object();
+    private final Object listingLock = new Object();
+    private Set<String> previousLocalListing = new HashSet<>();
+    private @Nullable Set<String> filesAddedWhileListing;
+    private int storedLocalEntries;
 
     public LocalFolderWatcherHandler(Thing thing) {
         super(thing);
@@ -79,7 +98,10 @@ public class LocalFolderWatcherHandler extends BaseThingHandler {
             return;
         }
         try {
-            previousLocalListing = WatcherCommon.initStorage(currentLocalListingFile, config.localDir);
+            synchronized (listingLock) {
+                previousLocalListing = WatcherCommon.initStorage(currentLocalListingFile, config.localDir);
+                storedLocalEntries = previousLocalListing.size();
+            }
         } catch (IOException e) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, e.getMessage());
             logger.debug("Can't write file {}: {}", currentLocalListingFile, e.getMessage());
@@ -88,7 +110,13 @@ public class LocalFolderWatcherHandler extends BaseThingHandler {
 
         if (config.pollIntervalLocal > 0) {
             updateStatus(ThingStatus.ONLINE);
-            executionJob = scheduler.scheduleWithFixedDelay(this::refreshFolderInformation, config.pollIntervalLocal,
+            long initialDelay = config.pollIntervalLocal;
+            if (config.watchEventsLocal) {
+                startWatching();
+                // the first listing registers the folders at the watch service
+                initialDelay = 0;
+            }
+            executionJob = scheduler.scheduleWithFixedDelay(this::refreshFolderInformation, initialDelay,
                     config.pollIntervalLocal, TimeUnit.SECONDS);
         } else {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
@@ -103,60 +131,197 @@ public class LocalFolderWatcherHandler extends BaseThingHandler {
         if (executionJob != null) {
             executionJob.cancel(true);
         }
+        this.executionJob = null;
+        stopWatching();
     }
 
-    private void refreshFolderInformation() {
-        final String rootDir = config.localDir;
+    private void startWatching() {
+        WatchService watchService;
         try {
-            List<String> currentLocalListing = new ArrayList<>();
-
-            Files.walkFileTree(Paths.get(rootDir), new FileVisitor<@Nullable Path>() {
-                @Override
-                public FileVisitResult preVisitDirectory(@Nullable Path dir, @Nullable BasicFileAttributes attrs)
-                        throws IOException {
-                    if (dir != null) {
-                        if (!dir.equals(Paths.get(rootDir)) && !config.listRecursiveLocal) {
-                            return FileVisitResult.SKIP_SUBTREE;
-                        }
-                    }
-                    return FileVisitResult.CONTINUE;
-                }
+            watchService = Paths.get(config.localDir).getFileSystem().newWatchService();
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.debug("Can't watch {}, only polling the folder: {}", config.localDir, e.getMessage());
+            return;
+        }
+        this.watchService = watchService;
+        ExecutorService watchExecutor = Executors
+                .newSingleThreadExecutor(new NamedThreadFactory(thing.getUID().getAsString(), true));
+        this.watchExecutor = watchExecutor;
+        watchExecutor.execute(() -> watchFolder(watchService));
+    }
 
-                @Override
-                public FileVisitResult visitFile(@Nullable Path file, @Nullable BasicFileAttributes attrs)
-                        throws IOException {
-                    if (file != null) {
-                        if (Files.isHidden(file) && !config.listHiddenLocal) {
-                            return FileVisitResult.CONTINUE;
-                        }
-                        currentLocalListing.add(file.toAbsolutePath().toString());
-                    }
-                    return FileVisitResult.CONTINUE;
+    private void stopWatching() {
+        WatchService watchService = this.watchService;
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.debug("Can't close watch service: {}", e.getMessage());
+            }
+        }
+        this.watchService = null;
+        ExecutorService watchExecutor = this.watchExecutor;
+        if (watchExecutor != null) {
+            watchExecutor.shutdownNow();
+        }
+        this.watchExecutor = null;
+    }
+
+    private void watchFolder(WatchService watchService) {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                try {
+                    handleEvents((Path) key.watchable(), key.pollEvents(), watchService);
+                } catch (IOException e) {
+                    logger.debug("File manipulation error: {}", e.getMessage());
                 }
+                key.reset();
+            }
+        } catch (ClosedWatchServiceException e) {
+            logger.debug("Stopped watching {}", config.localDir);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 
-                @Override
-                public FileVisitResult visitFileFailed(@Nullable Path file, @Nullable IOException exc)
-                        throws IOException {
-                    return FileVisitResult.CONTINUE;
+    private void handleEvents(Path dir, List<WatchEvent<?>> events, WatchService watchService) throws IOException {
+        List<String> newFiles = new ArrayList<>();
+        for (WatchEvent<?> event : events) {
+            if (event.kind() == OVERFLOW) {
+                logger.debug("Missed events of folder {}, listing it again", dir);
+                refreshFolderInformation();
+                return;
+            } else if (event.kind() == ENTRY_CREATE) {
+                Path path = dir.resolve((Path) event.context());
+                if (Files.isDirectory(path)) {
+                    // files may have been created before the folder was registered
+                    newFiles.addAll(listFiles(path, watchService));
+                } else if (!Files.isHidden(path) || config.listHiddenLocal) {
+                    newFiles.add(path.toAbsolutePath().toString());
                 }
+            }
+        }
+        if (!newFiles.isEmpty()) {
+            addFiles(newFiles);
+        }
+    }
 
-                @Override
-                public FileVisitResult postVisitDirectory(@Nullable Path dir, @Nullable IOException exc)
-                        throws IOException {
-                    return FileVisitResult.CONTINUE;
+    private void refreshFolderInformation() {
+        synchronized (refreshLock) {
+            try {
+                refreshListing();
+            } catch (IOException e) {
+                logger.debug("File manipulation error: {}", e.getMessage());
+            } finally {
+                synchronized (listingLock) {
+                    filesAddedWhileListing = null;
                 }
-            });
+            }
+        }
+    }
 
-            List<String> diffLocalListing = new ArrayList<>(currentLocalListing);
-            diffLocalListing.removeAll(previousLocalListing);
+    /**
+     * Lists the folder and reports the new files. The folder is listed without holding the lock, so the files
+     * reported by the watch service in the meantime are collected and kept in the listing.
+     */
+    private void refreshListing() throws IOException {
+        synchronized (listingLock) {
+            filesAddedWhileListing = new HashSet<>();
+        }
+        List<String> currentLocalListing = listFiles(Paths.get(config.localDir), watchService);
+
+        synchronized (listingLock) {
+            List<String> diffLocalListing = WatcherCommon.getNewEntries(currentLocalListing, previousLocalListing);
             diffLocalListing.forEach(file -> triggerChannel(CHANNEL_NEWFILE, file));
+            previousLocalListing.addAll(diffLocalListing);
+
+            // files which are gone are dropped from the listing
+            Set<String> presentFiles = new HashSet<>(currentLocalListing);
+            Set<String> filesAddedWhileListing = this.filesAddedWhileListing;
+            if (filesAddedWhileListing != null) {
+                presentFiles.addAll(filesAddedWhileListing);
+            }
+            previousLocalListing.retainAll(presentFiles);
+
+            if (WatcherCommon.isCompactionNeeded(storedLocalEntries + diffLocalListing.size(),
+                    previousLocalListing.size())) {
+                WatcherCommon.saveListing(previousLocalListing, currentLocalListingFile, config.localDir);
+                storedLocalEntries = previousLocalListing.size();
+            } else if (!diffLocalListing.isEmpty()) {
+                WatcherCommon.saveNewListing(diffLocalListing, currentLocalListingFile);
+                storedLocalEntries += diffLocalListing.size();
+            }
+        }
+    }
+
+    private void addFiles(List<String> files) throws IOException {
+        synchronized (listingLock) {
+            List<String> diffLocalListing = WatcherCommon.getNewEntries(files, previousLocalListing);
+            diffLocalListing.forEach(file -> triggerChannel(CHANNEL_NEWFILE, file));
+            previousLocalListing.addAll(diffLocalListing);
+            Set<String> filesAddedWhileListing = this.filesAddedWhileListing;
+            if (filesAddedWhileListing != null) {
+                filesAddedWhileListing.addAll(diffLocalListing);
+            }
 
             if (!diffLocalListing.isEmpty()) {
                 WatcherCommon.saveNewListing(diffLocalListing, currentLocalListingFile);
+                storedLocalEntries += diffLocalListing.size();
             }
-            previousLocalListing = new ArrayList<>(currentLocalListing);
-        } catch (IOException e) {
-            logger.debug("File manipulation error: {}", e.getMessage());
         }
     }
+
+    /**
+     * Lists the files below the given folder and registers the visited folders at the watch service, if there is one.
+     */
+    private List<String> listFiles(Path start, @Nullable WatchService watchService) throws IOException {
+        final Path rootDir = Paths.get(config.localDir);
+        List<String> currentLocalListing = new ArrayList<>();
+
+        Files.walkFileTree(start, new FileVisitor<@Nullable Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(@Nullable Path dir, @Nullable BasicFileAttributes attrs)
+                    throws IOException {
+                if (dir != null) {
+                    if (!dir.equals(rootDir) && !config.listRecursiveLocal) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    if (watchService != null) {
+                        try {
+                            dir.register(watchService, ENTRY_CREATE);
+                        } catch (ClosedWatchServiceException e) {
+                            // the handler was disposed, the listing is still complete
+                        }
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(@Nullable Path file, @Nullable BasicFileAttributes attrs)
+                    throws IOException {
+                if (file != null) {
+                    if (Files.isHidden(file) && !config.listHiddenLocal) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    currentLocalListing.add(file.toAbsolutePath().toString());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(@Nullable Path file, @Nullable IOException exc)
+                    throws IOException {
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(@Nullable Path dir, @Nullable IOException exc)
+                    throws IOException {
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return currentLocalListing;
+    }
 }
@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.folderwatcher.internal.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests for the {@link WatcherCommon}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class WatcherCommonTest {
+
+    private static final String WATCH_DIR = "/srv/camera";
+
+    public @TempDir @NonNullByDefault({}) File folder;
+
+    @Test
+    public void newEntriesAreReturnedInTheOrderOfTheCurrentListing() {
+        List<String> newEntries = WatcherCommon.getNewEntries(List.of("/c", "/a", "/d", "/b"), Set.of("/a", "/b"));
+
+        assertEquals(List.of("/c", "/d"), newEntries);
+    }
+
+    @Test
+    public void noNewEntriesForAnUnchangedListing() {
+        assertTrue(WatcherCommon.getNewEntries(List.of("/a", "/b"), Set.of("/a", "/b", "/gone")).isEmpty());
+        assertTrue(WatcherCommon.getNewEntries(List.of(), Set.of("/a")).isEmpty());
+    }
+
+    @Test
+    public void compactionIsNeededWhenTheFileHoldsTooManyEntriesOfGoneFiles() {
+        assertFalse(WatcherCommon.isCompactionNeeded(0, 0));
+        assertFalse(WatcherCommon.isCompactionNeeded(1000, 0));
+        assertTrue(WatcherCommon.isCompactionNeeded(1001, 0));
+        assertFalse(WatcherCommon.isCompactionNeeded(1200, 100));
+        assertTrue(WatcherCommon.isCompactionNeeded(1201, 100));
+    }
+
+    @Test
+    public void saveListingReplacesTheStoredListing() throws Exception {
+        File listingFile = new File(folder, "FolderWatcher" + File.separator + "thing.data");
+        WatcherCommon.initStorage(listingFile, WATCH_DIR);
+        WatcherCommon.saveNewListing(List.of("/a", "/b", "/c"), listingFile);
+        assertEquals(Set.of("/a", "/b", "/c"), WatcherCommon.initStorage(listingFile, WATCH_DIR));
+
+        WatcherCommon.saveListing(Set.of("/b", "/d"), listingFile, WATCH_DIR);
+
+        assertEquals(Set.of("/b", "/d"), WatcherCommon.initStorage(listingFile, WATCH_DIR));
+        assertEquals(WATCH_DIR, Files.readAllLines(listingFile.toPath()).get(0));
+        assertEquals(1, listingFile.getParentFile().listFiles().length);
+    }
+
+    @Test
+    public void storedListingOfAnotherFolderIsDiscarded() throws Exception {
+        File listingFile = new File(folder, "thing.data");
+        WatcherCommon.initStorage(listingFile, WATCH_DIR);
+        WatcherCommon.saveNewListing(List.of("/a"), listingFile);
+
+        assertTrue(WatcherCommon.initStorage(listingFile, "/srv/other").isEmpty());
+        assertEquals(List.of("/srv/other"), Files.readAllLines(listingFile.toPath()));
+    }
+}
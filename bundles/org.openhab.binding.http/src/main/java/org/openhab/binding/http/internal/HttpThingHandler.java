@@ -18,6 +18,7 @@ import java.net.URISyntaxException;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
@@ -66,6 +67,7 @@ public class HttpThingHandler extends BaseThingHandler {
     private final Logger logger = LoggerFactory.getLogger(HttpThingHandler.class);
     private final ValueTransformationProvider valueTransformationProvider;
     private final HttpClientProvider httpClientProvider;
+    private final RefreshingUrlCacheRegistry urlCacheRegistry;
     private HttpClient httpClient;
     private RateLimitedHttpClient rateLimitedHttpClient;
     private final HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider;
@@ -74,12 +76,14 @@ public class HttpThingHandler extends BaseThingHandler {
     private final Map<String, RefreshingUrlCache> urlHandlers = new HashMap<>();
     private final Map<ChannelUID, ItemValueConverter> channels = new HashMap<>();
     private final Map<ChannelUID, String> channelUrls = new HashMap<>();
+    private final Map<ChannelUID, Consumer<Content>> channelConsumers = new HashMap<>();
 
     public HttpThingHandler(Thing thing, HttpClientProvider httpClientProvider,
-            ValueTransformationProvider valueTransformationProvider,
+            RefreshingUrlCacheRegistry urlCacheRegistry, ValueTransformationProvider valueTransformationProvider,
             HttpDynamicStateDescriptionProvider httpDynamicStateDescriptionProvider) {
         super(thing);
         this.httpClientProvider = httpClientProvider;
+        this.urlCacheRegistry = urlCacheRegistry;
         this.httpClient = httpClientProvider.getSecureClient();
         this.rateLimitedHttpClient = new RateLimitedHttpClient(httpClient, scheduler);
         this.valueTransformationProvider = valueTransformationProvider;
@@ -191,14 +195,21 @@ public class HttpThingHandler extends BaseThingHandler {
 
     @Override
     public void dispose() {
-        // stop update tasks
-        urlHandlers.values().forEach(RefreshingUrlCache::stop);
+        // unsubscribe from the (shared) caches, this stops the update tasks if no other thing uses them
+        channelConsumers.forEach((channelUID, consumer) -> {
+            String key = channelUrls.get(channelUID);
+            RefreshingUrlCache refreshingUrlCache = key != null ? urlHandlers.get(key) : null;
+            if (refreshingUrlCache != null) {
+                urlCacheRegistry.unsubscribe(refreshingUrlCache, consumer);
+            }
+        });
         rateLimitedHttpClient.shutdown();
 
         // clear lists
         urlHandlers.clear();
         channels.clear();
         channelUrls.clear();
+        channelConsumers.clear();
 
         // remove state descriptions
         httpDynamicStateDescriptionProvider.removeDescriptionsForThing(thing.getUID());
@@ -275,8 +286,10 @@ public class HttpThingHandler extends BaseThingHandler {
             // we need a key consisting of stateContent and URL, only if both are equal, we can use the same cache
             String key = channelConfig.stateContent + "$" + stateUrl;
             channelUrls.put(channelUID, key);
-            urlHandlers.computeIfAbsent(key, k -> new RefreshingUrlCache(scheduler, rateLimitedHttpClient, stateUrl,
-                    config, channelConfig.stateContent)).addConsumer(itemValueConverter::process);
+            Consumer<Content> consumer = itemValueConverter::process;
+            channelConsumers.put(channelUID, consumer);
+            urlHandlers.put(key, urlCacheRegistry.subscribe(scheduler, rateLimitedHttpClient, stateUrl, config,
+                    channelConfig.stateContent, consumer));
         }
 
         StateDescription stateDescription = StateDescriptionFragmentBuilder.create()
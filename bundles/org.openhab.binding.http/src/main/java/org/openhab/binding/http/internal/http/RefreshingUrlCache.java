@@ -13,17 +13,26 @@
 package org.openhab.binding.http.internal.http;
 
 import java.net.*;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.api.Authentication;
 import org.eclipse.jetty.client.api.AuthenticationStore;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.openhab.binding.http.internal.Util;
 import org.openhab.binding.http.internal.config.HttpThingConfig;
@@ -32,7 +41,10 @@ import org.slf4j.LoggerFactory;
 
 /**
  * The {@link RefreshingUrlCache} is responsible for requesting from a single URL and passing the content to the
- * channels
+ * channels. A cache can be shared by the channels of several things (see {@link RefreshingUrlCacheRegistry}).
+ *
+ * Unchanged content (either reported by the server with a 304 response to a conditional request or byte-identical to
+ * the last response) is only passed to consumers that did not receive it before.
  *
  * @author Jan N. Klug - Initial contribution
  */
@@ -41,39 +53,54 @@ public class RefreshingUrlCache {
     private final Logger logger = LoggerFactory.getLogger(RefreshingUrlCache.class);
 
     private final String url;
-    private final RateLimitedHttpClient httpClient;
+    private final ScheduledExecutorService executor;
     private final int timeout;
     private final int bufferSize;
     private final @Nullable String fallbackEncoding;
-    private final Set<Consumer<Content>> consumers = ConcurrentHashMap.newKeySet();
-    private final List<String> headers;
+    private final Map<Consumer<Content>, RateLimitedHttpClient> consumers = new ConcurrentHashMap<>();
+    private final Set<Consumer<Content>> pendingConsumers = ConcurrentHashMap.newKeySet();
+    private final Map<Consumer<Content>, Integer> refreshIntervals = new HashMap<>();
+    private final List<Map.Entry<String, String>> headers;
     private final HttpMethod httpMethod;
     private final String httpContent;
 
-    private final ScheduledFuture<?> future;
-    private @Nullable Content lastContent;
+    private final AtomicLong changedResponses = new AtomicLong();
+    private final AtomicLong unchangedResponses = new AtomicLong();
+    private final AtomicLong notModifiedResponses = new AtomicLong();
+
+    private int refreshInterval = 0;
+    private @Nullable ScheduledFuture<?> future;
+    private volatile @Nullable Content lastContent;
 
-    public RefreshingUrlCache(ScheduledExecutorService executor, RateLimitedHttpClient httpClient, String url,
-            HttpThingConfig thingConfig, String httpContent) {
-        this.httpClient = httpClient;
+    public RefreshingUrlCache(ScheduledExecutorService executor, String url, HttpThingConfig thingConfig,
+            String httpContent) {
+        this.executor = executor;
         this.url = url;
         this.timeout = thingConfig.timeout;
         this.bufferSize = thingConfig.bufferSize;
-        this.headers = thingConfig.headers;
         this.httpMethod = thingConfig.stateMethod;
         this.httpContent = httpContent;
         fallbackEncoding = thingConfig.encoding;
 
-        future = executor.scheduleWithFixedDelay(this::refresh, 1, thingConfig.refresh, TimeUnit.SECONDS);
-        logger.trace("Started refresh task for URL '{}' with interval {}s", url, thingConfig.refresh);
+        List<Map.Entry<String, String>> headers = new ArrayList<>();
+        thingConfig.headers.forEach(header -> {
+            String[] keyValuePair = header.split("=", 2);
+            if (keyValuePair.length == 2) {
+                headers.add(new AbstractMap.SimpleImmutableEntry<>(keyValuePair[0].trim(), keyValuePair[1].trim()));
+            } else {
+                logger.warn("Splitting header '{}' failed. No '=' was found. Ignoring", header);
+            }
+        });
+        this.headers = List.copyOf(headers);
     }
 
     private void refresh() {
         refresh(false);
     }
 
-    private void refresh(boolean isRetry) {
-        if (consumers.isEmpty()) {
+    void refresh(boolean isRetry) {
+        RateLimitedHttpClient httpClient = getHttpClient();
+        if (httpClient == null) {
             // do not refresh if we don't have listeners
             return;
         }
@@ -86,14 +113,20 @@ public class RefreshingUrlCache {
             httpClient.newRequest(uri, httpMethod, httpContent).thenAccept(request -> {
                 request.timeout(timeout, TimeUnit.MILLISECONDS);
 
-                headers.forEach(header -> {
-                    String[] keyValuePair = header.split("=", 2);
-                    if (keyValuePair.length == 2) {
-                        request.header(keyValuePair[0].trim(), keyValuePair[1].trim());
-                    } else {
-                        logger.warn("Splitting header '{}' failed. No '=' was found. Ignoring", header);
+                headers.forEach(header -> request.header(header.getKey(), header.getValue()));
+
+                // only the content of GET requests can be validated by the server
+                Content content = lastContent;
+                if (content != null && httpMethod == HttpMethod.GET) {
+                    String eTag = content.getETag();
+                    if (eTag != null) {
+                        request.header(HttpHeader.IF_NONE_MATCH, eTag);
+                    }
+                    String lastModified = content.getLastModified();
+                    if (lastModified != null) {
+                        request.header(HttpHeader.IF_MODIFIED_SINCE, lastModified);
                     }
-                });
+                }
 
                 CompletableFuture<@Nullable Content> response = new CompletableFuture<>();
                 response.exceptionally(e -> {
@@ -119,7 +152,7 @@ public class RefreshingUrlCache {
                     logger.trace("Sending to '{}': {}", uri, Util.requestToLogString(request));
                 }
 
-                request.send(new HttpResponseListener(response, fallbackEncoding, bufferSize));
+                request.send(new HttpResponseListener(response, fallbackEncoding, bufferSize, content));
             }).exceptionally(e -> {
                 if (e instanceof CancellationException) {
                     logger.debug("Request to URL {} was cancelled by thing handler.", uri);
@@ -133,15 +166,68 @@ public class RefreshingUrlCache {
         }
     }
 
-    public void stop() {
+    public synchronized void stop() {
         // clearing all listeners to prevent further updates
         consumers.clear();
-        future.cancel(false);
-        logger.trace("Stopped refresh task for URL '{}'", url);
+        pendingConsumers.clear();
+        refreshIntervals.clear();
+        ScheduledFuture<?> future = this.future;
+        if (future != null) {
+            future.cancel(false);
+            this.future = null;
+        }
+        logger.trace("Stopped refresh task for URL '{}' ({} changed, {} unchanged, {} not modified responses)", url,
+                changedResponses.get(), unchangedResponses.get(), notModifiedResponses.get());
     }
 
-    public void addConsumer(Consumer<Content> consumer) {
-        consumers.add(consumer);
+    /**
+     * Add a consumer for the content of this URL
+     *
+     * @param consumer the consumer
+     * @param httpClient the (rate-limited) client of the thing the consumer belongs to
+     * @param refresh the refresh interval requested by the thing (in s). The cache refreshes with the shortest
+     *            interval requested by any of the things.
+     */
+    public synchronized void addConsumer(Consumer<Content> consumer, RateLimitedHttpClient httpClient, int refresh) {
+        consumers.put(consumer, httpClient);
+        pendingConsumers.add(consumer);
+        refreshIntervals.put(consumer, refresh);
+
+        if (future == null || refresh < refreshInterval) {
+            schedule(refresh);
+        }
+    }
+
+    /**
+     * Remove a consumer
+     *
+     * @param consumer the consumer
+     * @return true if this was the last consumer of this cache
+     */
+    public synchronized boolean removeConsumer(Consumer<Content> consumer) {
+        consumers.remove(consumer);
+        pendingConsumers.remove(consumer);
+        refreshIntervals.remove(consumer);
+        if (refreshIntervals.isEmpty()) {
+            return true;
+        }
+
+        // the consumer may have requested the shortest interval
+        int refresh = Collections.min(refreshIntervals.values());
+        if (future != null && refresh != refreshInterval) {
+            schedule(refresh);
+        }
+        return false;
+    }
+
+    private void schedule(int refresh) {
+        ScheduledFuture<?> future = this.future;
+        if (future != null) {
+            future.cancel(false);
+        }
+        refreshInterval = refresh;
+        this.future = executor.scheduleWithFixedDelay(this::refresh, 1, refresh, TimeUnit.SECONDS);
+        logger.trace("Started refresh task for URL '{}' with interval {}s", url, refresh);
     }
 
     public Optional<Content> get() {
@@ -153,16 +239,65 @@ public class RefreshingUrlCache {
         }
     }
 
+    /**
+     * @return the number of responses that were passed to all consumers
+     */
+    public long getChangedResponses() {
+        return changedResponses.get();
+    }
+
+    /**
+     * @return the number of responses that were skipped because the content was byte-identical to the last response
+     */
+    public long getUnchangedResponses() {
+        return unchangedResponses.get();
+    }
+
+    /**
+     * @return the number of responses that were skipped because the server reported the content as not modified
+     */
+    public long getNotModifiedResponses() {
+        return notModifiedResponses.get();
+    }
+
+    private @Nullable RateLimitedHttpClient getHttpClient() {
+        Iterator<RateLimitedHttpClient> clients = consumers.values().iterator();
+        return clients.hasNext() ? clients.next() : null;
+    }
+
     private void processResult(@Nullable Content content) {
-        if (content != null) {
-            for (Consumer<Content> consumer : consumers) {
-                try {
-                    consumer.accept(content);
-                } catch (IllegalArgumentException | IllegalStateException e) {
-                    logger.warn("Failed processing result for URL {}: {}", url, e.getMessage());
-                }
+        if (content == null) {
+            lastContent = null;
+            return;
+        }
+
+        Content previousContent = lastContent;
+        if (content == previousContent) {
+            // the HttpResponseListener returns the previous content for 304 responses
+            notModifiedResponses.incrementAndGet();
+            logger.trace("Content of URL {} was not modified", url);
+            passToConsumers(content, pendingConsumers);
+        } else if (previousContent != null
+                && Arrays.equals(previousContent.getRawContent(), content.getRawContent())) {
+            unchangedResponses.incrementAndGet();
+            logger.trace("Content of URL {} is unchanged", url);
+            lastContent = content;
+            passToConsumers(content, pendingConsumers);
+        } else {
+            changedResponses.incrementAndGet();
+            lastContent = content;
+            passToConsumers(content, consumers.keySet());
+        }
+    }
+
+    private void passToConsumers(Content content, Set<Consumer<Content>> consumers) {
+        for (Consumer<Content> consumer : consumers) {
+            pendingConsumers.remove(consumer);
+            try {
+                consumer.accept(content);
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                logger.warn("Failed processing result for URL {}: {}", url, e.getMessage());
             }
         }
-        lastContent = content;
     }
 }
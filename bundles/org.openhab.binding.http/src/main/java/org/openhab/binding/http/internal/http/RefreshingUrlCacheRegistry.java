@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.http.HttpMethod;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+
+/**
+ * The {@link RefreshingUrlCacheRegistry} keeps the {@link RefreshingUrlCache}s of all things, so that things requesting
+ * the same URL with the same method, headers and content share a single refresh job.
+ *
+ * Timeout, buffer size and fallback encoding are taken from the thing that created the cache.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RefreshingUrlCacheRegistry {
+    private final Map<CacheKey, RefreshingUrlCache> caches = new HashMap<>();
+
+    /**
+     * Subscribe to the content of an URL
+     *
+     * @param executor the executor for the refresh job (if a new cache needs to be created)
+     * @param httpClient the rate-limited client of the subscribing thing
+     * @param url the URL
+     * @param thingConfig the configuration of the subscribing thing
+     * @param httpContent the content to send with the request
+     * @param consumer the consumer for the received content
+     * @return the cache for this URL
+     */
+    public synchronized RefreshingUrlCache subscribe(ScheduledExecutorService executor,
+            RateLimitedHttpClient httpClient, String url, HttpThingConfig thingConfig, String httpContent,
+            Consumer<Content> consumer) {
+        CacheKey key = new CacheKey(url, thingConfig.stateMethod, thingConfig.headers, httpContent,
+                thingConfig.ignoreSSLErrors);
+        RefreshingUrlCache cache = caches.computeIfAbsent(key,
+                k -> new RefreshingUrlCache(executor, url, thingConfig, httpContent));
+        cache.addConsumer(consumer, httpClient, thingConfig.refresh);
+        return cache;
+    }
+
+    /**
+     * Unsubscribe a consumer. The cache is stopped when the last consumer is removed.
+     *
+     * @param cache the cache the consumer subscribed to
+     * @param consumer the consumer
+     */
+    public synchronized void unsubscribe(RefreshingUrlCache cache, Consumer<Content> consumer) {
+        if (cache.removeConsumer(consumer)) {
+            cache.stop();
+            caches.values().remove(cache);
+        }
+    }
+
+    /**
+     * Stop all caches
+     */
+    public synchronized void dispose() {
+        caches.values().forEach(RefreshingUrlCache::stop);
+        caches.clear();
+    }
+
+    /**
+     * @return the number of currently active caches
+     */
+    public synchronized int size() {
+        return caches.size();
+    }
+
+    private static class CacheKey {
+        private final String url;
+        private final HttpMethod method;
+        private final List<String> headers;
+        private final String content;
+        private final boolean ignoreSSLErrors;
+
+        public CacheKey(String url, HttpMethod method, List<String> headers, String content,
+                boolean ignoreSSLErrors) {
+            this.url = url;
+            this.method = method;
+            this.headers = List.copyOf(headers);
+            this.content = content;
+            this.ignoreSSLErrors = ignoreSSLErrors;
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey cacheKey = (CacheKey) o;
+            return ignoreSSLErrors == cacheKey.ignoreSSLErrors && url.equals(cacheKey.url)
+                    && method == cacheKey.method && headers.equals(cacheKey.headers)
+                    && content.equals(cacheKey.content);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(url, method, headers, content, ignoreSSLErrors);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.http.internal.http;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jetty.client.HttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.http.internal.config.HttpThingConfig;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * The {@link RefreshingUrlCacheTest} tests sharing and conditional requests of the {@link RefreshingUrlCache} against a
+ * local HTTP server
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class RefreshingUrlCacheTest {
+    private static final String ETAG = "\"v1\"";
+
+    private @NonNullByDefault({}) HttpServer server;
+    private @NonNullByDefault({}) HttpClient httpClient;
+    private @NonNullByDefault({}) ScheduledExecutorService scheduler;
+    // refresh jobs are not scheduled, the test triggers the refreshes
+    private final ScheduledExecutorService refreshExecutor = mock(ScheduledExecutorService.class);
+    private @NonNullByDefault({}) RateLimitedHttpClient rateLimitedHttpClient;
+    private @NonNullByDefault({}) String url;
+
+    private final AtomicInteger conditionalRequests = new AtomicInteger();
+    private volatile String body = "content";
+    private volatile boolean supportsETag = true;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/state", this::handle);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/state";
+
+        httpClient = new HttpClient();
+        httpClient.start();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        rateLimitedHttpClient = new RateLimitedHttpClient(httpClient, scheduler);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        rateLimitedHttpClient.shutdown();
+        scheduler.shutdownNow();
+        httpClient.stop();
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        if (supportsETag && ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            conditionalRequests.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+        } else {
+            if (supportsETag) {
+                exchange.getResponseHeaders().set("ETag", ETAG);
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(bytes);
+            }
+        }
+        exchange.close();
+    }
+
+    @Test
+    public void identicalRequestsShareOneCache() {
+        RefreshingUrlCacheRegistry registry = new RefreshingUrlCacheRegistry();
+        Consumer<Content> consumer1 = content -> {
+        };
+        Consumer<Content> consumer2 = content -> {
+        };
+
+        RefreshingUrlCache cache1 = registry.subscribe(refreshExecutor, rateLimitedHttpClient, url,
+                new HttpThingConfig(), "", consumer1);
+        RefreshingUrlCache cache2 = registry.subscribe(refreshExecutor, rateLimitedHttpClient, url,
+                new HttpThingConfig(), "", consumer2);
+        Assertions.assertSame(cache1, cache2);
+        Assertions.assertEquals(1, registry.size());
+
+        HttpThingConfig otherHeaders = new HttpThingConfig();
+        otherHeaders.headers.add("Accept=application/json");
+        RefreshingUrlCache cache3 = registry.subscribe(refreshExecutor, rateLimitedHttpClient, url, otherHeaders,
+                "", consumer1);
+        Assertions.assertNotSame(cache1, cache3);
+        Assertions.assertEquals(2, registry.size());
+
+        registry.unsubscribe(cache1, consumer1);
+        Assertions.assertEquals(2, registry.size());
+        registry.unsubscribe(cache2, consumer2);
+        registry.unsubscribe(cache3, consumer1);
+        Assertions.assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void sharedCacheRefreshesWithTheShortestRemainingInterval() {
+        doReturn(mock(ScheduledFuture.class)).when(refreshExecutor).scheduleWithFixedDelay(any(), anyLong(),
+                anyLong(), any());
+        RefreshingUrlCacheRegistry registry = new RefreshingUrlCacheRegistry();
+        Consumer<Content> slowConsumer = content -> {
+        };
+        Consumer<Content> fastConsumer = content -> {
+        };
+        HttpThingConfig fastConfig = new HttpThingConfig();
+        fastConfig.refresh = 5;
+
+        RefreshingUrlCache cache = registry.subscribe(refreshExecutor, rateLimitedHttpClient, url,
+                new HttpThingConfig(), "", slowConsumer);
+        registry.subscribe(refreshExecutor, rateLimitedHttpClient, url, fastConfig, "", fastConsumer);
+        verify(refreshExecutor).scheduleWithFixedDelay(any(), eq(1L), eq(30L), eq(TimeUnit.SECONDS));
+        verify(refreshExecutor).scheduleWithFixedDelay(any(), eq(1L), eq(5L), eq(TimeUnit.SECONDS));
+
+        registry.unsubscribe(cache, fastConsumer);
+        verify(refreshExecutor, times(2)).scheduleWithFixedDelay(any(), eq(1L), eq(30L), eq(TimeUnit.SECONDS));
+        Assertions.assertEquals(1, registry.size());
+
+        registry.unsubscribe(cache, slowConsumer);
+        Assertions.assertEquals(0, registry.size());
+    }
+
+    @Test
+    public void notModifiedContentIsNotProcessedAgain() {
+        List<String> received = new CopyOnWriteArrayList<>();
+        RefreshingUrlCache cache = createCache(received);
+
+        refreshAndWait(cache, 1);
+        Assertions.assertEquals(List.of("content"), received);
+
+        refreshAndWait(cache, 2);
+        Assertions.assertEquals(1, conditionalRequests.get());
+        Assertions.assertEquals(1, cache.getNotModifiedResponses());
+        Assertions.assertEquals(List.of("content"), received);
+
+        // a late consumer still receives the cached content once
+        List<String> lateReceived = new CopyOnWriteArrayList<>();
+        cache.addConsumer(content -> lateReceived.add(content.getAsString()), rateLimitedHttpClient, 30);
+        refreshAndWait(cache, 3);
+        Assertions.assertEquals(List.of("content"), lateReceived);
+        Assertions.assertEquals(List.of("content"), received);
+
+        cache.stop();
+    }
+
+    @Test
+    public void identicalContentIsNotProcessedAgain() {
+        supportsETag = false;
+        List<String> received = new CopyOnWriteArrayList<>();
+        RefreshingUrlCache cache = createCache(received);
+
+        refreshAndWait(cache, 1);
+        refreshAndWait(cache, 2);
+        Assertions.assertEquals(0, conditionalRequests.get());
+        Assertions.assertEquals(1, cache.getUnchangedResponses());
+        Assertions.assertEquals(List.of("content"), received);
+
+        body = "changed";
+        refreshAndWait(cache, 3);
+        Assertions.assertEquals(2, cache.getChangedResponses());
+        Assertions.assertEquals(List.of("content", "changed"), received);
+
+        cache.stop();
+    }
+
+    private RefreshingUrlCache createCache(List<String> received) {
+        HttpThingConfig thingConfig = new HttpThingConfig();
+        RefreshingUrlCache cache = new RefreshingUrlCache(refreshExecutor, url, thingConfig, "");
+        cache.addConsumer(content -> received.add(content.getAsString()), rateLimitedHttpClient,
+                thingConfig.refresh);
+        return cache;
+    }
+
+    private void refreshAndWait(RefreshingUrlCache cache, int expectedResponses) {
+        cache.refresh(false);
+        waitFor(() -> cache.getChangedResponses() + cache.getUnchangedResponses()
+                + cache.getNotModifiedResponses() >= expectedResponses);
+    }
+
+    private void waitFor(BooleanSupplier condition) {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > timeout) {
+                Assertions.fail("Timeout while waiting for response");
+            }
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Assertions.fail("Interrupted while waiting for response");
+            }
+        }
+    }
+}
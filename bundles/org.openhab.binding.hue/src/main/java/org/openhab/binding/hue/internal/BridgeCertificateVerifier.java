@@ -0,0 +1,176 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.GeneralSecurityException;
+import java.security.KeyStore;
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+
+import javax.naming.InvalidNameException;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.Rdn;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLPeerUnverifiedException;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.TrustManagerFactory;
+import javax.net.ssl.X509TrustManager;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+/**
+ * Verifies the certificate of a Hue bridge for HTTPS connections.
+ *
+ * The certificate of a bridge is signed by the private root CA of Signify and its common name is the bridge id instead
+ * of the host name, so the default trust and host name checks of the JVM fail. The certificate chain is validated
+ * against the root CA bundled with the binding, then the certificate is accepted if its common name is the id of the
+ * bridge, which is read from the API v1 before. A certificate that is not signed by the root CA is rejected, even if it
+ * was issued for the bridge id, because the bridge id is no secret.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class BridgeCertificateVerifier implements X509TrustManager, HostnameVerifier {
+
+    private static final String BRIDGE_CA_RESOURCE = "huebridge_cacert.pem";
+
+    private final String bridgeId;
+    private final X509TrustManager trustManager;
+
+    /**
+     * @param bridgeId the id of the bridge, as reported in its config
+     * @throws GeneralSecurityException if the root CA of the bridge could not be loaded
+     */
+    public BridgeCertificateVerifier(String bridgeId) throws GeneralSecurityException {
+        this(bridgeId, loadCertificates(BridgeCertificateVerifier.class.getResourceAsStream(BRIDGE_CA_RESOURCE)));
+    }
+
+    /**
+     * @param bridgeId the id of the bridge, as reported in its config
+     * @param trustedCertificates the root certificates the chain of the bridge has to be validated against
+     * @throws GeneralSecurityException if no PKIX trust manager is available
+     */
+    BridgeCertificateVerifier(String bridgeId, X509Certificate... trustedCertificates)
+            throws GeneralSecurityException {
+        this.bridgeId = bridgeId;
+        this.trustManager = createTrustManager(trustedCertificates);
+    }
+
+    /**
+     * @return a socket factory using this verifier
+     * @throws GeneralSecurityException if TLS is not available
+     */
+    public SSLSocketFactory getSocketFactory() throws GeneralSecurityException {
+        SSLContext context = SSLContext.getInstance("TLS");
+        context.init(null, new TrustManager[] { this }, null);
+        return context.getSocketFactory();
+    }
+
+    @Override
+    public void checkServerTrusted(X509Certificate @Nullable [] chain, @Nullable String authType)
+            throws CertificateException {
+        if (chain == null || chain.length == 0) {
+            throw new CertificateException("No certificate received from the Hue bridge");
+        }
+        // validates the signatures of the chain up to the root CA and the validity of all certificates
+        trustManager.checkServerTrusted(chain, authType);
+        String commonName = getCommonName(chain[0]);
+        if (!bridgeId.equalsIgnoreCase(commonName)) {
+            throw new CertificateException(
+                    "Certificate of " + commonName + " does not belong to the Hue bridge " + bridgeId);
+        }
+    }
+
+    @Override
+    public void checkClientTrusted(X509Certificate @Nullable [] chain, @Nullable String authType)
+            throws CertificateException {
+        throw new CertificateException("Client certificates are not supported");
+    }
+
+    @Override
+    public X509Certificate[] getAcceptedIssuers() {
+        return trustManager.getAcceptedIssuers();
+    }
+
+    /**
+     * The bridge is addressed by its IP address, which is not part of its certificate. The chain and the bridge id were
+     * already checked by {@link #checkServerTrusted(X509Certificate[], String)}, this only makes sure it was called.
+     */
+    @Override
+    public boolean verify(@Nullable String hostname, @Nullable SSLSession session) {
+        if (session == null) {
+            return false;
+        }
+        try {
+            Certificate[] certificates = session.getPeerCertificates();
+            return certificates.length > 0 && certificates[0] instanceof X509Certificate
+                    && bridgeId.equalsIgnoreCase(getCommonName((X509Certificate) certificates[0]));
+        } catch (SSLPeerUnverifiedException | CertificateException e) {
+            return false;
+        }
+    }
+
+    static String getCommonName(X509Certificate certificate) throws CertificateException {
+        try {
+            for (Rdn rdn : new LdapName(certificate.getSubjectX500Principal().getName()).getRdns()) {
+                if ("CN".equalsIgnoreCase(rdn.getType())) {
+                    return rdn.getValue().toString();
+                }
+            }
+        } catch (InvalidNameException e) {
+            throw new CertificateException("Invalid certificate subject", e);
+        }
+        throw new CertificateException("Certificate without common name");
+    }
+
+    static X509Certificate[] loadCertificates(@Nullable InputStream stream) throws CertificateException {
+        if (stream == null) {
+            throw new CertificateException("Root CA of the Hue bridge not found");
+        }
+        try (InputStream in = stream) {
+            return CertificateFactory.getInstance("X.509").generateCertificates(in).stream()
+                    .map(X509Certificate.class::cast).toArray(X509Certificate[]::new);
+        } catch (IOException e) {
+            throw new CertificateException("Root CA of the Hue bridge could not be read", e);
+        }
+    }
+
+    private static X509TrustManager createTrustManager(X509Certificate[] trustedCertificates)
+            throws GeneralSecurityException {
+        KeyStore keyStore = KeyStore.getInstance(KeyStore.getDefaultType());
+        try {
+            keyStore.load(null, null);
+        } catch (IOException e) {
+            throw new GeneralSecurityException("Key store could not be created", e);
+        }
+        for (int i = 0; i < trustedCertificates.length; i++) {
+            keyStore.setCertificateEntry("ca" + i, trustedCertificates[i]);
+        }
+        TrustManagerFactory factory = TrustManagerFactory.getInstance("PKIX");
+        factory.init(keyStore);
+        for (TrustManager trustManager : factory.getTrustManagers()) {
+            if (trustManager instanceof X509TrustManager) {
+                return (X509TrustManager) trustManager;
+            }
+        }
+        throw new GeneralSecurityException("No X.509 trust manager available");
+    }
+}
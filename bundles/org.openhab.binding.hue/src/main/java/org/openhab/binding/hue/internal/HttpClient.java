@@ -13,6 +13,7 @@
 package org.openhab.binding.hue.internal;
 
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStreamWriter;
@@ -20,15 +21,12 @@ import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
-import java.util.LinkedList;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.Future;
-import java.util.concurrent.ScheduledExecutorService;
+import java.security.GeneralSecurityException;
+
+import javax.net.ssl.HttpsURLConnection;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 /**
  *
@@ -38,37 +36,6 @@ import org.slf4j.LoggerFactory;
 @NonNullByDefault
 public class HttpClient {
     private int timeout = 1000;
-    private final Logger logger = LoggerFactory.getLogger(HttpClient.class);
-    private final LinkedList<AsyncPutParameters> commandsQueue = new LinkedList<>();
-    private @Nullable Future<?> job;
-
-    @SuppressWarnings({ "null", "unused" })
-    private void executeCommands() {
-        while (true) {
-            try {
-                long delayTime = 0;
-                synchronized (commandsQueue) {
-                    AsyncPutParameters payloadCallbackPair = commandsQueue.poll();
-                    if (payloadCallbackPair != null) {
-                        logger.debug("Async sending put to address: {} delay: {} body: {}", payloadCallbackPair.address,
-                                payloadCallbackPair.delay, payloadCallbackPair.body);
-                        try {
-                            Result result = put(payloadCallbackPair.address, payloadCallbackPair.body);
-                            payloadCallbackPair.future.complete(result);
-                        } catch (IOException e) {
-                            payloadCallbackPair.future.completeExceptionally(e);
-                        }
-                        delayTime = payloadCallbackPair.delay;
-                    } else {
-                        return;
-                    }
-                }
-                Thread.sleep(delayTime);
-            } catch (InterruptedException e) {
-                logger.debug("commandExecutorThread was interrupted", e);
-            }
-        }
-    }
 
     public void setTimeout(int timeout) {
         this.timeout = timeout;
@@ -86,27 +53,46 @@ public class HttpClient {
         return doNetwork(address, "PUT", body);
     }
 
-    public CompletableFuture<Result> putAsync(String address, String body, long delay,
-            ScheduledExecutorService scheduler) {
-        AsyncPutParameters asyncPutParameters = new AsyncPutParameters(address, body, delay);
+    public Result delete(String address) throws IOException {
+        return doNetwork(address, "DELETE");
+    }
 
-        synchronized (commandsQueue) {
-            if (commandsQueue.isEmpty()) {
-                commandsQueue.offer(asyncPutParameters);
-                Future<?> localJob = job;
-                if (localJob == null || localJob.isDone()) {
-                    job = scheduler.submit(this::executeCommands);
-                }
-            } else {
-                commandsQueue.offer(asyncPutParameters);
+    /**
+     * Open a stream of server-sent events.
+     *
+     * @param address address of the event stream
+     * @param applicationKey key (user name) to authenticate with
+     * @param bridgeId id of the bridge, which is the common name of its certificate
+     * @param readTimeout read timeout in milliseconds, the stream is considered dead if nothing arrives in this time
+     * @return the open stream, which has to be closed by the caller
+     */
+    public EventStream openEventStream(String address, String applicationKey, String bridgeId, int readTimeout)
+            throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(address).openConnection();
+        try {
+            if (conn instanceof HttpsURLConnection) {
+                BridgeCertificateVerifier verifier = new BridgeCertificateVerifier(bridgeId);
+                HttpsURLConnection httpsConn = (HttpsURLConnection) conn;
+                httpsConn.setSSLSocketFactory(verifier.getSocketFactory());
+                httpsConn.setHostnameVerifier(verifier);
+            }
+            conn.setRequestMethod("GET");
+            conn.setRequestProperty("Accept", "text/event-stream");
+            conn.setRequestProperty("hue-application-key", applicationKey);
+            conn.setConnectTimeout(timeout);
+            conn.setReadTimeout(readTimeout);
+            int responseCode = conn.getResponseCode();
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new IOException("Event stream not available, response code " + responseCode);
             }
+            return new EventStream(conn, conn.getInputStream());
+        } catch (GeneralSecurityException e) {
+            conn.disconnect();
+            throw new IOException("TLS could not be set up for the bridge", e);
+        } catch (IOException e) {
+            conn.disconnect();
+            throw e;
         }
-
-        return asyncPutParameters.future;
-    }
-
-    public Result delete(String address) throws IOException {
-        return doNetwork(address, "DELETE");
     }
 
     protected Result doNetwork(String address, String requestMethod) throws IOException {
@@ -159,17 +145,25 @@ public class HttpClient {
         }
     }
 
-    public final class AsyncPutParameters {
-        public final String address;
-        public final String body;
-        public final CompletableFuture<Result> future;
-        public final long delay;
+    public static class EventStream implements Closeable {
+        private final HttpURLConnection connection;
+        private final InputStream inputStream;
 
-        public AsyncPutParameters(String address, String body, long delay) {
-            this.address = address;
-            this.body = body;
-            this.future = new CompletableFuture<>();
-            this.delay = delay;
+        EventStream(HttpURLConnection connection, InputStream inputStream) {
+            this.connection = connection;
+            this.inputStream = inputStream;
+        }
+
+        public InputStream getInputStream() {
+            return inputStream;
+        }
+
+        /**
+         * Close the connection. This can be called from another thread to stop a blocked read.
+         */
+        @Override
+        public void close() {
+            connection.disconnect();
         }
     }
 }
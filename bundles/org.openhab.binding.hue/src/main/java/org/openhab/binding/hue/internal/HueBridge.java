@@ -25,15 +25,18 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.hue.internal.HttpClient.EventStream;
 import org.openhab.binding.hue.internal.HttpClient.Result;
 import org.openhab.binding.hue.internal.exceptions.ApiException;
 import org.openhab.binding.hue.internal.exceptions.DeviceOffException;
@@ -66,14 +69,17 @@ public class HueBridge {
     private final Logger logger = LoggerFactory.getLogger(HueBridge.class);
 
     private static final String DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss";
+    private static final String API_PATH = "/api";
+    private static final String EVENT_STREAM_PATH = "/eventstream/clip/v2";
 
     private final String ip;
     private final String baseUrl;
+    private final String eventStreamUrl;
     private @Nullable String username;
 
     private final Gson gson = new GsonBuilder().setDateFormat(DATE_FORMAT).create();
     private HttpClient http = new HttpClient();
-    private final ScheduledExecutorService scheduler;
+    private final HueCommandQueue commandQueue;
 
     @Nullable
     private Config cachedConfig;
@@ -89,14 +95,16 @@ public class HueBridge {
         this.ip = ip;
         String baseUrl;
         try {
-            URI uri = new URI(protocol, null, ip, port, "/api", null, null);
+            URI uri = new URI(protocol, null, ip, port, API_PATH, null, null);
             baseUrl = uri.toString();
         } catch (URISyntaxException e) {
             logger.error("exception during constructing URI protocol={}, host={}, port={}", protocol, ip, port, e);
-            baseUrl = protocol + "://" + ip + ":" + port + "/api";
+            baseUrl = protocol + "://" + ip + ":" + port + API_PATH;
         }
         this.baseUrl = baseUrl;
-        this.scheduler = scheduler;
+        // the event stream is only available over HTTPS on the default port
+        this.eventStreamUrl = "https://" + ip + EVENT_STREAM_PATH;
+        this.commandQueue = new HueCommandQueue(http, scheduler);
     }
 
     /**
@@ -123,9 +131,13 @@ public class HueBridge {
     HueBridge(String ip, String baseUrl, String username, ScheduledExecutorService scheduler, HttpClient http) {
         this.ip = ip;
         this.baseUrl = baseUrl;
+        // the event stream has the same path as on a real bridge, but the protocol and port of the test server
+        this.eventStreamUrl = (baseUrl.endsWith(API_PATH)
+                ? baseUrl.substring(0, baseUrl.length() - API_PATH.length())
+                : baseUrl) + EVENT_STREAM_PATH;
         this.username = username;
-        this.scheduler = scheduler;
         this.http = http;
+        this.commandQueue = new HueCommandQueue(http, scheduler);
     }
 
     /**
@@ -137,6 +149,24 @@ public class HueBridge {
         http.setTimeout(timeout);
     }
 
+    /**
+     * Set the maximum number of state and config updates sent per second.
+     *
+     * @param commandRate commands per second
+     */
+    public void setCommandRate(int commandRate) {
+        commandQueue.setCommandRate(commandRate);
+    }
+
+    /**
+     * Returns the queue of the state and config updates.
+     *
+     * @return command queue
+     */
+    public HueCommandQueue getCommandQueue() {
+        return commandQueue;
+    }
+
     /**
      * Returns the IP address of the bridge.
      *
@@ -339,6 +369,65 @@ public class HueBridge {
         return fullLight;
     }
 
+    /**
+     * Returns detailed information for the light with the given id.
+     *
+     * @param id id of the light
+     * @return detailed light information
+     * @throws UnauthorizedException thrown if the user no longer exists
+     * @throws EntityNotAvailableException thrown if a light with the given id doesn't exist
+     */
+    public FullLight getFullLight(String id) throws IOException, ApiException {
+        requireAuthentication();
+
+        Result result = http.get(getRelativeURL("lights/" + enc(id)));
+
+        handleErrors(result);
+
+        FullLight fullLight = safeFromJson(result.getBody(), FullLight.class);
+        fullLight.setId(id);
+        return fullLight;
+    }
+
+    /**
+     * Returns detailed information for the sensor with the given id.
+     *
+     * @param id id of the sensor
+     * @return detailed sensor information
+     * @throws UnauthorizedException thrown if the user no longer exists
+     * @throws EntityNotAvailableException thrown if a sensor with the given id doesn't exist
+     */
+    public FullSensor getSensor(String id) throws IOException, ApiException {
+        requireAuthentication();
+
+        Result result = http.get(getRelativeURL("sensors/" + enc(id)));
+
+        handleErrors(result);
+
+        FullSensor sensor = safeFromJson(result.getBody(), FullSensor.class);
+        sensor.setId(id);
+        return sensor;
+    }
+
+    /**
+     * Opens the event stream of the bridge, which is only available on bridges supporting the CLIP API v2 and only
+     * over HTTPS.
+     *
+     * The certificate chain of the bridge is validated against the root CA of Signify and its common name has to be the
+     * bridge id from its config.
+     *
+     * @param readTimeout read timeout in milliseconds
+     * @return the open event stream
+     * @throws IOException if the event stream is not available
+     * @throws ApiException if the bridge id could not be read
+     */
+    public EventStream openEventStream(int readTimeout) throws IOException, ApiException {
+        requireAuthentication();
+
+        String bridgeId = getCachedConfig().getBridgeId();
+        return http.openEventStream(eventStreamUrl, Objects.requireNonNull(username), bridgeId, readTimeout);
+    }
+
     /**
      * Changes the name of the light and returns the new name.
      * A number will be appended to duplicate names, which may result in a new name exceeding 32 characters.
@@ -380,9 +469,8 @@ public class HueBridge {
     public CompletableFuture<Result> setLightState(FullLight light, StateUpdate update) {
         requireAuthentication();
 
-        String body = update.toJson();
-        return http.putAsync(getRelativeURL("lights/" + enc(light.getId()) + "/state"), body, update.getMessageDelay(),
-                scheduler);
+        return commandQueue.addLightUpdate(getRelativeURL("lights/" + enc(light.getId()) + "/state"), light.getId(),
+                update);
     }
 
     /**
@@ -398,9 +486,7 @@ public class HueBridge {
     public CompletableFuture<Result> setSensorState(FullSensor sensor, StateUpdate update) {
         requireAuthentication();
 
-        String body = update.toJson();
-        return http.putAsync(getRelativeURL("sensors/" + enc(sensor.getId()) + "/state"), body,
-                update.getMessageDelay(), scheduler);
+        return commandQueue.addUpdate(getRelativeURL("sensors/" + enc(sensor.getId()) + "/state"), update);
     }
 
     /**
@@ -415,9 +501,7 @@ public class HueBridge {
     public CompletableFuture<Result> updateSensorConfig(FullSensor sensor, ConfigUpdate update) {
         requireAuthentication();
 
-        String body = update.toJson();
-        return http.putAsync(getRelativeURL("sensors/" + enc(sensor.getId()) + "/config"), body,
-                update.getMessageDelay(), scheduler);
+        return commandQueue.addUpdate(getRelativeURL("sensors/" + enc(sensor.getId()) + "/config"), update);
     }
 
     /**
@@ -458,10 +542,16 @@ public class HueBridge {
             }
         }
 
+        Map<String, Set<String>> groupLights = new HashMap<>();
         groupMap.forEach((id, group) -> {
             group.setId(id);
             groupList.add(group);
+            List<String> lights = group.getLightIds();
+            if (group.isModifiable() && lights != null) {
+                groupLights.put(getGroupActionURL(group), Set.copyOf(lights));
+            }
         });
+        commandQueue.setGroupLights(groupLights);
 
         return groupList;
     }
@@ -642,9 +732,14 @@ public class HueBridge {
     public CompletableFuture<Result> setGroupState(Group group, StateUpdate update) {
         requireAuthentication();
 
-        String body = update.toJson();
-        return http.putAsync(getRelativeURL("groups/" + enc(group.getId()) + "/action"), body, update.getMessageDelay(),
-                scheduler);
+        Set<String> lightIds = null;
+        if (group instanceof FullGroup && group.isModifiable()) {
+            List<String> lights = ((FullGroup) group).getLightIds();
+            if (lights != null) {
+                lightIds = Set.copyOf(lights);
+            }
+        }
+        return commandQueue.addGroupUpdate(getGroupActionURL(group), lightIds, update);
     }
 
     /**
@@ -1122,6 +1217,10 @@ public class HueBridge {
         }
     }
 
+    private String getGroupActionURL(Group group) {
+        return getRelativeURL("groups/" + enc(group.getId()) + "/action");
+    }
+
     private String getRelativeURL(String path) {
         String relativeUrl = baseUrl;
         if (username != null) {
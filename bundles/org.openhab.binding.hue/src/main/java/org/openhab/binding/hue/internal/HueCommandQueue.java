@@ -0,0 +1,438 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static java.util.stream.Collectors.joining;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.hue.internal.HttpClient.Result;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queue of the state and config updates sent to a bridge.
+ *
+ * Updates are sent one after another with at most the configured number of commands per second. Group commands are
+ * limited to one per second, as recommended for the bridge, while light commands are sent in between.
+ * <p>
+ * While an update is waiting, a later update of the same resource that keeps the on/off state is merged into it, the
+ * later value wins for every other attribute. Updates switching a light on or off are never merged with updates of
+ * another on/off state, as the bridge rejects most attributes of lights that are off. Alerts, effects and scene
+ * recalls trigger something once and are never merged. A pending light update that is completely overwritten by a
+ * later group update is dropped and if the same update is pending for all lights of a group, it is sent as one group
+ * command. Merging is only done if no other pending update of the same lights is in between, so the resulting states
+ * are the same as if all updates were sent.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HueCommandQueue {
+
+    public static final int DEFAULT_COMMAND_RATE = 10;
+
+    private static final String ON = "on";
+    private static final Set<String> ONE_SHOT_ATTRIBUTES = Set.of("scene", "alert", "effect");
+    private static final Set<String> COLOR_ATTRIBUTES = Set.of("xy", "ct", "hue", "sat");
+    private static final Set<String> HUE_SATURATION = Set.of("hue", "sat");
+    // see https://developers.meethue.com/documentation/hue-system-performance
+    private static final long MESSAGE_DELAY_PER_ATTRIBUTE = 40;
+    private static final long GROUP_COMMAND_INTERVAL = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(HueCommandQueue.class);
+
+    private final HttpClient http;
+    private final ScheduledExecutorService scheduler;
+
+    private final LinkedList<PendingCommand> queue = new LinkedList<>();
+    private Map<String, Set<String>> groupLights = Collections.emptyMap();
+    private long commandInterval = 1000 / DEFAULT_COMMAND_RATE;
+    private long nextSendTime;
+    private long nextGroupSendTime;
+    private boolean sending;
+
+    private long sentCommands;
+    private long coalescedUpdates;
+    private long completedUpdates;
+    private long totalLatency;
+
+    public HueCommandQueue(HttpClient http, ScheduledExecutorService scheduler) {
+        this.http = http;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Set the maximum number of commands sent per second.
+     *
+     * @param commandRate commands per second
+     */
+    public synchronized void setCommandRate(int commandRate) {
+        commandInterval = 1000 / Math.max(1, commandRate);
+    }
+
+    /**
+     * Set the lights of the groups, so pending updates of all lights of a group can be replaced by a group command.
+     *
+     * @param groupLights light ids by the address of the group action
+     */
+    public synchronized void setGroupLights(Map<String, Set<String>> groupLights) {
+        this.groupLights = groupLights;
+    }
+
+    /**
+     * Add an update of a light.
+     */
+    public CompletableFuture<Result> addLightUpdate(String address, String lightId, ConfigUpdate update) {
+        return add(address, Set.of(lightId), lightId, false, update);
+    }
+
+    /**
+     * Add an update of a group.
+     *
+     * @param lightIds lights of the group, null for all lights or if they are not known
+     */
+    public CompletableFuture<Result> addGroupUpdate(String address, @Nullable Set<String> lightIds,
+            ConfigUpdate update) {
+        return add(address, lightIds, null, true, update);
+    }
+
+    /**
+     * Add an update of a resource that is not a light, like a sensor.
+     */
+    public CompletableFuture<Result> addUpdate(String address, ConfigUpdate update) {
+        return add(address, Set.of(), null, false, update);
+    }
+
+    /**
+     * @return the number of commands waiting to be sent
+     */
+    public synchronized int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * @return the number of commands sent to the bridge
+     */
+    public synchronized long getSentCommands() {
+        return sentCommands;
+    }
+
+    /**
+     * @return the number of updates that were merged into another command
+     */
+    public synchronized long getCoalescedUpdates() {
+        return coalescedUpdates;
+    }
+
+    /**
+     * @return average time in milliseconds from adding an update until the bridge answered
+     */
+    public synchronized long getAverageLatency() {
+        return completedUpdates == 0 ? 0 : totalLatency / completedUpdates;
+    }
+
+    private synchronized CompletableFuture<Result> add(String address, @Nullable Set<String> lightIds,
+            @Nullable String lightId, boolean group, ConfigUpdate update) {
+        long now = System.currentTimeMillis();
+        CompletableFuture<Result> future = new CompletableFuture<>();
+        PendingCommand command = new PendingCommand(address, lightIds, lightId, group, update.commands);
+        command.updates.add(new PendingUpdate(future, now));
+
+        PendingCommand target = findMergeTarget(command);
+        if (target != null) {
+            target.merge(command);
+            coalescedUpdates++;
+        } else {
+            if (lightId == null) {
+                removeOverwrittenLightCommands(command);
+            }
+            queue.add(command);
+        }
+
+        if (!sending) {
+            sending = true;
+            scheduler.schedule(this::sendNext, Math.max(0, nextSendTime - now), TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    /**
+     * Find the pending command of the same resource with the same on/off state, if no other command of the same
+     * lights is queued after it.
+     */
+    private @Nullable PendingCommand findMergeTarget(PendingCommand command) {
+        if (!command.isMergeable()) {
+            return null;
+        }
+        Iterator<PendingCommand> iterator = queue.descendingIterator();
+        while (iterator.hasNext()) {
+            PendingCommand pending = iterator.next();
+            if (pending.address.equals(command.address)) {
+                return pending.isMergeable() && Objects.equals(pending.commands.get(ON), command.commands.get(ON))
+                        ? pending
+                        : null;
+            }
+            if (overlaps(pending.lightIds, command.lightIds)) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Drop the pending light commands whose attributes are all set again by the given group command.
+     */
+    private void removeOverwrittenLightCommands(PendingCommand groupCommand) {
+        Set<String> lightIds = groupCommand.lightIds;
+        if (lightIds == null) {
+            return;
+        }
+        Set<String> keys = groupCommand.commands.keySet();
+        Iterator<PendingCommand> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            PendingCommand pending = iterator.next();
+            String lightId = pending.lightId;
+            if (lightId != null && lightIds.contains(lightId) && pending.isMergeable()
+                    && keys.containsAll(pending.commands.keySet())) {
+                iterator.remove();
+                groupCommand.updates.addAll(pending.updates);
+                coalescedUpdates += pending.updates.size();
+            }
+        }
+    }
+
+    private void sendNext() {
+        PendingCommand command;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            command = takeNext(now);
+            if (command == null) {
+                if (queue.isEmpty()) {
+                    sending = false;
+                } else {
+                    // only group commands are pending, they are sent when the group interval has passed
+                    scheduler.schedule(this::sendNext, nextGroupSendTime - now, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+
+        String body = command.toJson();
+        logger.debug("Async sending put to address: {} body: {}", command.address, body);
+        Result result = null;
+        Exception exception = null;
+        try {
+            result = http.put(command.address, body);
+        } catch (IOException | RuntimeException e) {
+            exception = e;
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            sentCommands++;
+            for (PendingUpdate update : command.updates) {
+                totalLatency += now - update.time;
+                completedUpdates++;
+            }
+            logger.debug("Sent {} update(s) to {} in {} ms, {} command(s) pending", command.updates.size(),
+                    command.address, now - command.updates.get(0).time, queue.size());
+            // the bridge needs more time to process commands with many attributes
+            nextSendTime = now + Math.max(commandInterval, command.commands.size() * MESSAGE_DELAY_PER_ATTRIBUTE);
+            if (command.group) {
+                nextGroupSendTime = now + GROUP_COMMAND_INTERVAL;
+            }
+            scheduler.schedule(this::sendNext, nextSendTime - now, TimeUnit.MILLISECONDS);
+        }
+
+        for (PendingUpdate update : command.updates) {
+            if (exception != null) {
+                update.future.completeExceptionally(exception);
+            } else {
+                update.future.complete(result);
+            }
+        }
+    }
+
+    /**
+     * Take the first command of the queue that can be sent now. Group commands are skipped until the group interval
+     * has passed, the commands after them are only taken if they change other lights. If the same update is pending
+     * for all lights of a group, the light commands are replaced by a group command.
+     *
+     * @return the command or null if only group commands can be sent later
+     */
+    private @Nullable PendingCommand takeNext(long now) {
+        boolean groupAllowed = now >= nextGroupSendTime;
+        PendingCommand first = null;
+        List<PendingCommand> skipped = new ArrayList<>();
+        for (PendingCommand pending : queue) {
+            if ((groupAllowed || !pending.group)
+                    && skipped.stream().noneMatch(command -> overlaps(command.lightIds, pending.lightIds))) {
+                first = pending;
+                break;
+            }
+            skipped.add(pending);
+        }
+        if (first == null) {
+            return null;
+        }
+        queue.remove(first);
+        String lightId = first.lightId;
+        if (lightId == null || !groupAllowed || !first.isMergeable()) {
+            return first;
+        }
+        for (Map.Entry<String, Set<String>> group : groupLights.entrySet()) {
+            Set<String> lightIds = group.getValue();
+            if (lightIds.size() < 2 || !lightIds.contains(lightId)) {
+                continue;
+            }
+            List<PendingCommand> members = findIdenticalCommands(first, lightId, lightIds);
+            if (members != null) {
+                PendingCommand groupCommand = new PendingCommand(group.getKey(), lightIds, null, true, List.of());
+                groupCommand.commands.putAll(first.commands);
+                groupCommand.updates.addAll(first.updates);
+                for (PendingCommand member : members) {
+                    queue.remove(member);
+                    groupCommand.updates.addAll(member.updates);
+                }
+                coalescedUpdates += groupCommand.updates.size() - first.updates.size();
+                return groupCommand;
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Find the pending commands with the same attributes as the given one for the other lights of a group. They are
+     * only used if no other command of the same light is queued before them.
+     *
+     * @return the commands or null if not all lights of the group have such a command
+     */
+    private @Nullable List<PendingCommand> findIdenticalCommands(PendingCommand first, String lightId,
+            Set<String> lightIds) {
+        Map<String, PendingCommand> members = new HashMap<>();
+        List<PendingCommand> previous = new ArrayList<>();
+        for (PendingCommand pending : queue) {
+            String memberId = pending.lightId;
+            if (memberId != null && lightIds.contains(memberId) && pending.isMergeable()
+                    && pending.commands.equals(first.commands)
+                    && previous.stream().noneMatch(command -> overlaps(command.lightIds, pending.lightIds))) {
+                members.putIfAbsent(memberId, pending);
+            }
+            previous.add(pending);
+        }
+        members.remove(lightId);
+        return members.size() == lightIds.size() - 1 ? new ArrayList<>(members.values()) : null;
+    }
+
+    /**
+     * @param lightIds1 lights of a command, null for all lights
+     * @param lightIds2 lights of another command, null for all lights
+     */
+    private static boolean overlaps(@Nullable Set<String> lightIds1, @Nullable Set<String> lightIds2) {
+        if (lightIds1 == null) {
+            return lightIds2 == null || !lightIds2.isEmpty();
+        }
+        if (lightIds2 == null) {
+            return !lightIds1.isEmpty();
+        }
+        return !Collections.disjoint(lightIds1, lightIds2);
+    }
+
+    private static class PendingCommand {
+        final String address;
+        final @Nullable Set<String> lightIds;
+        final @Nullable String lightId;
+        final boolean group;
+        final Map<String, CommandValue> commands = new LinkedHashMap<>();
+        final List<PendingUpdate> updates = new ArrayList<>();
+
+        /**
+         * @param lightIds lights changed by the command, null for all lights
+         * @param lightId id of the light if the command changes a single light, null for groups and other resources
+         * @param group true if the command is a group command
+         */
+        PendingCommand(String address, @Nullable Set<String> lightIds, @Nullable String lightId, boolean group,
+                List<Command> commands) {
+            this.address = address;
+            this.lightIds = lightIds;
+            this.lightId = lightId;
+            this.group = group;
+            commands.forEach(command -> this.commands.put(command.key, new CommandValue(command)));
+        }
+
+        /**
+         * Alerts, effects and scene recalls must be sent every time.
+         */
+        boolean isMergeable() {
+            return Collections.disjoint(commands.keySet(), ONE_SHOT_ATTRIBUTES);
+        }
+
+        void merge(PendingCommand command) {
+            Set<String> keys = command.commands.keySet();
+            if (!Collections.disjoint(keys, COLOR_ATTRIBUTES)) {
+                // the bridge prefers xy over ct over hue and saturation, so the older color is removed
+                commands.keySet().removeIf(key -> COLOR_ATTRIBUTES.contains(key) && !keys.contains(key)
+                        && !(HUE_SATURATION.contains(key) && !Collections.disjoint(keys, HUE_SATURATION)));
+            }
+            commands.putAll(command.commands);
+            updates.addAll(command.updates);
+        }
+
+        String toJson() {
+            return commands.values().stream().map(value -> value.json).collect(joining(",", "{", "}"));
+        }
+    }
+
+    private static class CommandValue {
+        final String json;
+
+        CommandValue(Command command) {
+            this.json = command.toJson();
+        }
+
+        @Override
+        public boolean equals(@Nullable Object obj) {
+            return obj instanceof CommandValue && json.equals(((CommandValue) obj).json);
+        }
+
+        @Override
+        public int hashCode() {
+            return json.hashCode();
+        }
+    }
+
+    private static class PendingUpdate {
+        final CompletableFuture<Result> future;
+        final long time;
+
+        PendingUpdate(CompletableFuture<Result> future, long time) {
+            this.future = future;
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Reads the server-sent events of the Hue bridge event stream and reports which resources have changed.
+ *
+ * The events refer to the resources of the CLIP API v2, but contain the path of the matching API v1 resource
+ * (e.g. "/lights/3") in the attribute "id_v1". Only this path is used, the changed resources are then read with the
+ * API v1.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HueEventStream {
+    private static final String DATA_PREFIX = "data:";
+
+    private final Logger logger = LoggerFactory.getLogger(HueEventStream.class);
+    private final Consumer<Set<String>> listener;
+
+    /**
+     * @param listener called with the API v1 paths (e.g. "lights/3") of the resources changed by one message
+     */
+    public HueEventStream(Consumer<Set<String>> listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Reads messages until the end of the stream.
+     *
+     * @param in the event stream
+     * @throws IOException if reading fails
+     */
+    public void read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                // an empty line terminates the message
+                if (data.length() > 0) {
+                    handleMessage(data.toString());
+                    data.setLength(0);
+                }
+            } else if (line.startsWith(DATA_PREFIX)) {
+                data.append(line.substring(DATA_PREFIX.length()).trim());
+            }
+            // comments, ids and retry times are not needed
+        }
+    }
+
+    private void handleMessage(String data) {
+        Set<String> resources = getChangedResources(data);
+        if (!resources.isEmpty()) {
+            listener.accept(resources);
+        }
+    }
+
+    Set<String> getChangedResources(String data) {
+        Set<String> resources = new LinkedHashSet<>();
+        try {
+            JsonElement message = JsonParser.parseString(data);
+            if (!message.isJsonArray()) {
+                return resources;
+            }
+            for (JsonElement event : message.getAsJsonArray()) {
+                JsonElement eventData = event.isJsonObject() ? event.getAsJsonObject().get("data") : null;
+                if (eventData == null || !eventData.isJsonArray()) {
+                    continue;
+                }
+                for (JsonElement resource : eventData.getAsJsonArray()) {
+                    JsonElement idV1 = resource.isJsonObject() ? ((JsonObject) resource).get("id_v1") : null;
+                    if (idV1 != null && idV1.isJsonPrimitive()) {
+                        String path = idV1.getAsString();
+                        resources.add(path.startsWith("/") ? path.substring(1) : path);
+                    }
+                }
+            }
+        } catch (JsonParseException | IllegalStateException e) {
+            logger.debug("Ignoring unexpected event: {}", data);
+        }
+        return resources;
+    }
+}
@@ -25,6 +25,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -40,8 +42,11 @@ import org.openhab.binding.hue.internal.FullConfig;
 import org.openhab.binding.hue.internal.FullGroup;
 import org.openhab.binding.hue.internal.FullLight;
 import org.openhab.binding.hue.internal.FullSensor;
+import org.openhab.binding.hue.internal.HttpClient.EventStream;
 import org.openhab.binding.hue.internal.HueBridge;
+import org.openhab.binding.hue.internal.HueCommandQueue;
 import org.openhab.binding.hue.internal.HueConfigStatusMessage;
+import org.openhab.binding.hue.internal.HueEventStream;
 import org.openhab.binding.hue.internal.Scene;
 import org.openhab.binding.hue.internal.State;
 import org.openhab.binding.hue.internal.StateUpdate;
@@ -52,6 +57,7 @@ import org.openhab.binding.hue.internal.exceptions.DeviceOffException;
 import org.openhab.binding.hue.internal.exceptions.EntityNotAvailableException;
 import org.openhab.binding.hue.internal.exceptions.LinkButtonException;
 import org.openhab.binding.hue.internal.exceptions.UnauthorizedException;
+import org.openhab.core.common.NamedThreadFactory;
 import org.openhab.core.config.core.Configuration;
 import org.openhab.core.config.core.status.ConfigStatusMessage;
 import org.openhab.core.library.types.HSBType;
@@ -96,6 +102,12 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
 
     private static final long SCENE_POLLING_INTERVAL = TimeUnit.SECONDS.convert(10, TimeUnit.MINUTES);
 
+    // while the event stream is connected, lights and sensors are only polled to check the consistency
+    private static final long EVENT_STREAM_POLLING_INTERVAL = TimeUnit.MINUTES.toMillis(1);
+    private static final long EVENT_STREAM_RETRY_DELAY = TimeUnit.MINUTES.toMillis(1);
+    private static final long EVENT_STREAM_CONNECTION_CHECK_DELAY = TimeUnit.SECONDS.toMillis(1);
+    private static final int EVENT_STREAM_READ_TIMEOUT = (int) TimeUnit.MINUTES.toMillis(10);
+
     private final Logger logger = LoggerFactory.getLogger(HueBridgeHandler.class);
     private final HueStateDescriptionOptionProvider stateDescriptionOptionProvider;
 
@@ -182,27 +194,18 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private final Runnable sensorPollingRunnable = new PollingRunnable() {
         @Override
         protected void doConnectedRun() throws IOException, ApiException {
+            if (isPollingSkipped(lastSensorPolling)) {
+                return;
+            }
+            lastSensorPolling = System.currentTimeMillis();
+
             Map<String, FullSensor> lastSensorStateCopy = new HashMap<>(lastSensorStates);
 
             final HueDeviceDiscoveryService discovery = discoveryService;
 
             for (final FullSensor sensor : hueBridge.getSensors()) {
                 String sensorId = sensor.getId();
-
-                final SensorStatusListener sensorStatusListener = sensorStatusListeners.get(sensorId);
-                if (sensorStatusListener == null) {
-                    logger.trace("Hue sensor '{}' added.", sensorId);
-
-                    if (discovery != null && !lastSensorStateCopy.containsKey(sensorId)) {
-                        discovery.addSensorDiscovery(sensor);
-                    }
-
-                    lastSensorStates.put(sensorId, sensor);
-                } else {
-                    if (sensorStatusListener.onSensorStateChanged(sensor)) {
-                        lastSensorStates.put(sensorId, sensor);
-                    }
-                }
+                updateSensor(sensor, lastSensorStateCopy.containsKey(sensorId));
                 lastSensorStateCopy.remove(sensorId);
             }
 
@@ -226,6 +229,11 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private final Runnable lightPollingRunnable = new PollingRunnable() {
         @Override
         protected void doConnectedRun() throws IOException, ApiException {
+            if (isPollingSkipped(lastLightPolling)) {
+                return;
+            }
+            lastLightPolling = System.currentTimeMillis();
+
             updateLights();
             updateGroups();
         }
@@ -244,21 +252,7 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
 
             for (final FullLight fullLight : lights) {
                 final String lightId = fullLight.getId();
-
-                final LightStatusListener lightStatusListener = lightStatusListeners.get(lightId);
-                if (lightStatusListener == null) {
-                    logger.trace("Hue light '{}' added.", lightId);
-
-                    if (discovery != null && !lastLightStateCopy.containsKey(lightId)) {
-                        discovery.addLightDiscovery(fullLight);
-                    }
-
-                    lastLightStates.put(lightId, fullLight);
-                } else {
-                    if (lightStatusListener.onLightStateChanged(fullLight)) {
-                        lastLightStates.put(lightId, fullLight);
-                    }
-                }
+                updateLight(fullLight, lastLightStateCopy.containsKey(lightId));
                 lastLightStateCopy.remove(lightId);
             }
 
@@ -277,97 +271,137 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
                 }
             });
         }
+    };
 
-        private void updateGroups() throws IOException, ApiException {
-            Map<String, FullGroup> lastGroupStateCopy = new HashMap<>(lastGroupStates);
+    private void updateLight(FullLight fullLight, boolean known) {
+        final String lightId = fullLight.getId();
+        final HueDeviceDiscoveryService discovery = discoveryService;
 
-            List<FullGroup> groups = hueBridge.getGroups();
+        final LightStatusListener lightStatusListener = lightStatusListeners.get(lightId);
+        if (lightStatusListener == null) {
+            logger.trace("Hue light '{}' added.", lightId);
 
-            final HueDeviceDiscoveryService discovery = discoveryService;
+            if (discovery != null && !known) {
+                discovery.addLightDiscovery(fullLight);
+            }
+
+            lastLightStates.put(lightId, fullLight);
+        } else {
+            if (lightStatusListener.onLightStateChanged(fullLight)) {
+                lastLightStates.put(lightId, fullLight);
+            }
+        }
+    }
+
+    private void updateSensor(FullSensor sensor, boolean known) {
+        final String sensorId = sensor.getId();
+        final HueDeviceDiscoveryService discovery = discoveryService;
+
+        final SensorStatusListener sensorStatusListener = sensorStatusListeners.get(sensorId);
+        if (sensorStatusListener == null) {
+            logger.trace("Hue sensor '{}' added.", sensorId);
 
-            for (final FullGroup fullGroup : groups) {
-                State groupState = new State();
-                boolean on = false;
-                int sumBri = 0;
-                int nbBri = 0;
-                State colorRef = null;
-                HSBType firstColorHsb = null;
-                for (String lightId : fullGroup.getLightIds()) {
-                    FullLight light = lastLightStates.get(lightId);
-                    if (light != null) {
-                        final State lightState = light.getState();
-                        logger.trace("Group {}: light {}: on {} bri {} hue {} sat {} temp {} mode {} XY {}",
-                                fullGroup.getName(), light.getName(), lightState.isOn(), lightState.getBrightness(),
-                                lightState.getHue(), lightState.getSaturation(), lightState.getColorTemperature(),
-                                lightState.getColorMode(), lightState.getXY());
-                        if (lightState.isOn()) {
-                            on = true;
-                            sumBri += lightState.getBrightness();
-                            nbBri++;
-                            if (lightState.getColorMode() != null) {
-                                HSBType lightHsb = LightStateConverter.toHSBType(lightState);
-                                if (firstColorHsb == null) {
-                                    // first color light
-                                    firstColorHsb = lightHsb;
-                                    colorRef = lightState;
-                                } else if (!lightHsb.equals(firstColorHsb)) {
-                                    colorRef = null;
-                                }
+            if (discovery != null && !known) {
+                discovery.addSensorDiscovery(sensor);
+            }
+
+            lastSensorStates.put(sensorId, sensor);
+        } else {
+            if (sensorStatusListener.onSensorStateChanged(sensor)) {
+                lastSensorStates.put(sensorId, sensor);
+            }
+        }
+    }
+
+    private void updateGroups() throws IOException, ApiException {
+        Map<String, FullGroup> lastGroupStateCopy = new HashMap<>(lastGroupStates);
+
+        List<FullGroup> groups = hueBridge.getGroups();
+
+        final HueDeviceDiscoveryService discovery = discoveryService;
+
+        for (final FullGroup fullGroup : groups) {
+            State groupState = new State();
+            boolean on = false;
+            int sumBri = 0;
+            int nbBri = 0;
+            State colorRef = null;
+            HSBType firstColorHsb = null;
+            for (String lightId : fullGroup.getLightIds()) {
+                FullLight light = lastLightStates.get(lightId);
+                if (light != null) {
+                    final State lightState = light.getState();
+                    logger.trace("Group {}: light {}: on {} bri {} hue {} sat {} temp {} mode {} XY {}",
+                            fullGroup.getName(), light.getName(), lightState.isOn(), lightState.getBrightness(),
+                            lightState.getHue(), lightState.getSaturation(), lightState.getColorTemperature(),
+                            lightState.getColorMode(), lightState.getXY());
+                    if (lightState.isOn()) {
+                        on = true;
+                        sumBri += lightState.getBrightness();
+                        nbBri++;
+                        if (lightState.getColorMode() != null) {
+                            HSBType lightHsb = LightStateConverter.toHSBType(lightState);
+                            if (firstColorHsb == null) {
+                                // first color light
+                                firstColorHsb = lightHsb;
+                                colorRef = lightState;
+                            } else if (!lightHsb.equals(firstColorHsb)) {
+                                colorRef = null;
                             }
                         }
                     }
                 }
-                groupState.setOn(on);
-                groupState.setBri(nbBri == 0 ? 0 : sumBri / nbBri);
-                if (colorRef != null) {
-                    groupState.setColormode(colorRef.getColorMode());
-                    groupState.setHue(colorRef.getHue());
-                    groupState.setSaturation(colorRef.getSaturation());
-                    groupState.setColorTemperature(colorRef.getColorTemperature());
-                    groupState.setXY(colorRef.getXY());
-                }
-                fullGroup.setState(groupState);
-                logger.trace("Group {} ({}): on {} bri {} hue {} sat {} temp {} mode {} XY {}", fullGroup.getName(),
-                        fullGroup.getType(), groupState.isOn(), groupState.getBrightness(), groupState.getHue(),
-                        groupState.getSaturation(), groupState.getColorTemperature(), groupState.getColorMode(),
-                        groupState.getXY());
+            }
+            groupState.setOn(on);
+            groupState.setBri(nbBri == 0 ? 0 : sumBri / nbBri);
+            if (colorRef != null) {
+                groupState.setColormode(colorRef.getColorMode());
+                groupState.setHue(colorRef.getHue());
+                groupState.setSaturation(colorRef.getSaturation());
+                groupState.setColorTemperature(colorRef.getColorTemperature());
+                groupState.setXY(colorRef.getXY());
+            }
+            fullGroup.setState(groupState);
+            logger.trace("Group {} ({}): on {} bri {} hue {} sat {} temp {} mode {} XY {}", fullGroup.getName(),
+                    fullGroup.getType(), groupState.isOn(), groupState.getBrightness(), groupState.getHue(),
+                    groupState.getSaturation(), groupState.getColorTemperature(), groupState.getColorMode(),
+                    groupState.getXY());
 
-                String groupId = fullGroup.getId();
+            String groupId = fullGroup.getId();
 
-                final GroupStatusListener groupStatusListener = groupStatusListeners.get(groupId);
-                if (groupStatusListener == null) {
-                    logger.trace("Hue group '{}' ({}) added (nb lights {}).", groupId, fullGroup.getName(),
-                            fullGroup.getLightIds().size());
+            final GroupStatusListener groupStatusListener = groupStatusListeners.get(groupId);
+            if (groupStatusListener == null) {
+                logger.trace("Hue group '{}' ({}) added (nb lights {}).", groupId, fullGroup.getName(),
+                        fullGroup.getLightIds().size());
 
-                    if (discovery != null && !lastGroupStateCopy.containsKey(groupId)) {
-                        discovery.addGroupDiscovery(fullGroup);
-                    }
+                if (discovery != null && !lastGroupStateCopy.containsKey(groupId)) {
+                    discovery.addGroupDiscovery(fullGroup);
+                }
 
+                lastGroupStates.put(groupId, fullGroup);
+            } else {
+                if (groupStatusListener.onGroupStateChanged(fullGroup)) {
                     lastGroupStates.put(groupId, fullGroup);
-                } else {
-                    if (groupStatusListener.onGroupStateChanged(fullGroup)) {
-                        lastGroupStates.put(groupId, fullGroup);
-                    }
                 }
-                lastGroupStateCopy.remove(groupId);
             }
+            lastGroupStateCopy.remove(groupId);
+        }
 
-            // Check for removed groups
-            lastGroupStateCopy.forEach((groupId, group) -> {
-                logger.trace("Hue group '{}' removed.", groupId);
-                lastGroupStates.remove(groupId);
+        // Check for removed groups
+        lastGroupStateCopy.forEach((groupId, group) -> {
+            logger.trace("Hue group '{}' removed.", groupId);
+            lastGroupStates.remove(groupId);
 
-                final GroupStatusListener groupStatusListener = groupStatusListeners.get(groupId);
-                if (groupStatusListener != null) {
-                    groupStatusListener.onGroupRemoved();
-                }
+            final GroupStatusListener groupStatusListener = groupStatusListeners.get(groupId);
+            if (groupStatusListener != null) {
+                groupStatusListener.onGroupRemoved();
+            }
 
-                if (discovery != null && group != null) {
-                    discovery.removeGroupDiscovery(group);
-                }
-            });
-        }
-    };
+            if (discovery != null && group != null) {
+                discovery.removeGroupDiscovery(group);
+            }
+        });
+    }
 
     private final Runnable scenePollingRunnable = new PollingRunnable() {
         @Override
@@ -399,6 +433,11 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
     private @Nullable ScheduledFuture<?> lightPollingJob;
     private @Nullable ScheduledFuture<?> sensorPollingJob;
     private @Nullable ScheduledFuture<?> scenePollingJob;
+    private @Nullable ExecutorService eventStreamExecutor;
+    private volatile @Nullable EventStream eventStream;
+    private volatile boolean eventStreamConnected = false;
+    private volatile long lastLightPolling = 0;
+    private volatile long lastSensorPolling = 0;
 
     private @NonNullByDefault({}) HueBridge hueBridge = null;
     private @NonNullByDefault({}) HueBridgeConfig hueBridgeConfig = null;
@@ -641,6 +680,100 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
         sensorPollingJob = null;
     }
 
+    private boolean isPollingSkipped(long lastPolling) {
+        return eventStreamConnected && System.currentTimeMillis() - lastPolling < EVENT_STREAM_POLLING_INTERVAL;
+    }
+
+    private void startEventStream() {
+        if (hueBridgeConfig.isUseEventStream() && eventStreamExecutor == null) {
+            ExecutorService executor = Executors
+                    .newSingleThreadExecutor(new NamedThreadFactory(thing.getUID().getAsString() + "-events"));
+            eventStreamExecutor = executor;
+            executor.execute(this::readEventStream);
+        }
+    }
+
+    private void stopEventStream() {
+        ExecutorService executor = eventStreamExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        eventStreamExecutor = null;
+        EventStream stream = eventStream;
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void readEventStream() {
+        HueEventStream eventReader = new HueEventStream(this::onResourcesChanged);
+        boolean connectionFailureLogged = false;
+        while (!Thread.currentThread().isInterrupted()) {
+            HueBridge bridge = hueBridge;
+            long delay = EVENT_STREAM_CONNECTION_CHECK_DELAY;
+            if (bridge != null && lastBridgeConnectionState && bridge.isAuthenticated()) {
+                try (EventStream stream = bridge.openEventStream(EVENT_STREAM_READ_TIMEOUT)) {
+                    eventStream = stream;
+                    eventStreamConnected = true;
+                    connectionFailureLogged = false;
+                    logger.debug("Connected to the event stream of Hue bridge {}", bridge.getIPAddress());
+                    eventReader.read(stream.getInputStream());
+                } catch (IOException | ApiException | IllegalStateException e) {
+                    if (!eventStreamConnected && !connectionFailureLogged) {
+                        logger.warn(
+                                "Cannot connect to the event stream of Hue bridge {}, polling the bridge instead: {}",
+                                bridge.getIPAddress(), e.getMessage());
+                        connectionFailureLogged = true;
+                    } else {
+                        logger.debug("Event stream of Hue bridge {} not available, polling the bridge: {}",
+                                bridge.getIPAddress(), e.getMessage());
+                    }
+                } finally {
+                    eventStreamConnected = false;
+                    eventStream = null;
+                }
+                delay = EVENT_STREAM_RETRY_DELAY;
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the lights and sensors that were reported as changed by the event stream and updates their things. The
+     * groups are updated if one of the lights changed, as their state is derived from the lights.
+     */
+    private void onResourcesChanged(Set<String> resources) {
+        HueBridge bridge = hueBridge;
+        if (bridge == null) {
+            return;
+        }
+        pollingLock.lock();
+        try {
+            boolean lightChanged = false;
+            for (String resource : resources) {
+                String id = resource.substring(resource.indexOf('/') + 1);
+                if (resource.startsWith("lights/")) {
+                    updateLight(bridge.getFullLight(id), lastLightStates.containsKey(id));
+                    lightChanged = true;
+                } else if (resource.startsWith("sensors/")) {
+                    updateSensor(bridge.getSensor(id), lastSensorStates.containsKey(id));
+                }
+            }
+            if (lightChanged) {
+                updateGroups();
+            }
+        } catch (IOException | ApiException | IllegalStateException e) {
+            // the next poll will catch up
+            logger.debug("Failed to read changed resources {}: {}", resources, e.getMessage());
+        } finally {
+            pollingLock.unlock();
+        }
+    }
+
     private void startScenePolling() {
         ScheduledFuture<?> job = scenePollingJob;
         if (job == null || job.isCancelled()) {
@@ -665,10 +798,15 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
         if (job != null) {
             job.cancel(true);
         }
+        stopEventStream();
         stopLightPolling();
         stopSensorPolling();
         stopScenePolling();
         if (hueBridge != null) {
+            HueCommandQueue commandQueue = hueBridge.getCommandQueue();
+            logger.debug("Sent {} commands to the bridge, {} updates were combined, average latency {} ms",
+                    commandQueue.getSentCommands(), commandQueue.getCoalescedUpdates(),
+                    commandQueue.getAverageLatency());
             hueBridge = null;
         }
     }
@@ -686,6 +824,7 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
             if (hueBridge == null) {
                 hueBridge = new HueBridge(ip, hueBridgeConfig.getPort(), hueBridgeConfig.getProtocol(), scheduler);
                 hueBridge.setTimeout(5000);
+                hueBridge.setCommandRate(hueBridgeConfig.getCommandRate());
 
                 // Try a first connection that will fail, then try to authenticate,
                 // and finally change the bridge status to ONLINE
@@ -708,6 +847,7 @@ public class HueBridgeHandler extends ConfigStatusBridgeHandler implements HueCl
             startLightPolling();
             startSensorPolling();
             startScenePolling();
+            startEventStream();
         }
     }
 
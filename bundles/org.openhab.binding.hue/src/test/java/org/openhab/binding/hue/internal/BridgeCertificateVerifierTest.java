@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.security.cert.Certificate;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+
+import javax.net.ssl.SSLSession;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the verification of the bridge certificate by the {@link BridgeCertificateVerifier}.
+ *
+ * The certificates were issued by a test root CA, because the private key of the root CA of Signify is not available.
+ *
+ * @author agent - Initial contribution
+ */
+public class BridgeCertificateVerifierTest {
+
+    private static final String BRIDGE_ID = "001788FFFE123456";
+
+    @Test
+    public void certificateOfTheBridgeIsTrusted() throws Exception {
+        X509Certificate certificate = certificate("bridge.pem");
+
+        verifier().checkServerTrusted(new X509Certificate[] { certificate }, "ECDHE_ECDSA");
+
+        SSLSession session = mock(SSLSession.class);
+        when(session.getPeerCertificates()).thenReturn(new Certificate[] { certificate });
+        assertThat(verifier().verify("192.168.1.2", session), is(true));
+    }
+
+    @Test
+    public void certificateOfAnotherHostIsRejected() throws Exception {
+        X509Certificate certificate = certificate("other_host.pem");
+
+        assertThrows(CertificateException.class,
+                () -> verifier().checkServerTrusted(new X509Certificate[] { certificate }, "ECDHE_ECDSA"));
+
+        SSLSession session = mock(SSLSession.class);
+        when(session.getPeerCertificates()).thenReturn(new Certificate[] { certificate });
+        assertThat(verifier().verify("192.168.1.2", session), is(false));
+    }
+
+    @Test
+    public void selfSignedCertificateWithTheBridgeIdIsRejected() throws Exception {
+        X509Certificate certificate = certificate("self_signed.pem");
+
+        assertThrows(CertificateException.class,
+                () -> verifier().checkServerTrusted(new X509Certificate[] { certificate }, "ECDHE_ECDSA"));
+    }
+
+    @Test
+    public void certificateNotSignedByTheRootCaOfSignifyIsRejected() throws Exception {
+        X509Certificate certificate = certificate("bridge.pem");
+
+        assertThrows(CertificateException.class, () -> new BridgeCertificateVerifier(BRIDGE_ID)
+                .checkServerTrusted(new X509Certificate[] { certificate }, "ECDHE_ECDSA"));
+    }
+
+    @Test
+    public void expiredCertificateIsRejected() throws Exception {
+        X509Certificate certificate = certificate("expired.pem");
+
+        assertThrows(CertificateException.class,
+                () -> verifier().checkServerTrusted(new X509Certificate[] { certificate }, "ECDHE_ECDSA"));
+    }
+
+    @Test
+    public void rootCaOfSignifyIsBundled() throws Exception {
+        X509Certificate[] certificates = BridgeCertificateVerifier
+                .loadCertificates(BridgeCertificateVerifier.class.getResourceAsStream("huebridge_cacert.pem"));
+
+        assertThat(certificates.length, is(1));
+        assertThat(BridgeCertificateVerifier.getCommonName(certificates[0]), is("root-bridge"));
+        certificates[0].verify(certificates[0].getPublicKey());
+        assertThat(new BridgeCertificateVerifier(BRIDGE_ID).getAcceptedIssuers().length, is(1));
+    }
+
+    private BridgeCertificateVerifier verifier() throws Exception {
+        return new BridgeCertificateVerifier(BRIDGE_ID, certificate("test_cacert.pem"));
+    }
+
+    private X509Certificate certificate(String resource) throws Exception {
+        return BridgeCertificateVerifier.loadCertificates(getClass().getResourceAsStream(resource))[0];
+    }
+}
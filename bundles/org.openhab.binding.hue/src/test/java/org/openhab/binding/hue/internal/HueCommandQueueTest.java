@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.openhab.binding.hue.internal.HttpClient.Result;
+import org.openhab.binding.hue.internal.State.AlertMode;
+
+/**
+ * Tests the merging of pending updates in the {@link HueCommandQueue}.
+ *
+ * @author agent - Initial contribution
+ */
+public class HueCommandQueueTest {
+
+    private final HttpClient http = mock(HttpClient.class);
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch blocked = new CountDownLatch(1);
+    private final HueCommandQueue queue = new HueCommandQueue(http, scheduler);
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        when(http.put(anyString(), anyString())).thenReturn(new Result("[]", 200));
+        when(http.put(eq("lights/9/state"), anyString())).thenAnswer(invocation -> {
+            blocked.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new Result("[]", 200);
+        });
+        queue.setCommandRate(50);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void updatesOfTheSameLightAreMerged() throws Exception {
+        blockQueue();
+
+        CompletableFuture<Result> first = queue.addLightUpdate("lights/1/state", "1",
+                new StateUpdate().setBrightness(10));
+        CompletableFuture<Result> second = queue.addLightUpdate("lights/1/state", "1",
+                new StateUpdate().setBrightness(20).setSat(200));
+        assertThat(queue.getQueueDepth(), is(1));
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        verify(http).put("lights/1/state", "{\"bri\":20,\"sat\":200}");
+        verify(http, never()).put("lights/1/state", "{\"bri\":10}");
+        assertThat(queue.getCoalescedUpdates(), is(1L));
+    }
+
+    @Test
+    public void updatesWithAnotherOnOffStateAreNotMerged() throws Exception {
+        blockQueue();
+
+        queue.addLightUpdate("lights/1/state", "1", new StateUpdate().setOn(true).setBrightness(100));
+        CompletableFuture<Result> future = queue.addLightUpdate("lights/1/state", "1", new StateUpdate().setOn(false));
+        release.countDown();
+
+        future.get(5, TimeUnit.SECONDS);
+        InOrder inOrder = inOrder(http);
+        inOrder.verify(http).put("lights/1/state", "{\"on\":true,\"bri\":100}");
+        inOrder.verify(http).put("lights/1/state", "{\"on\":false}");
+        assertThat(queue.getCoalescedUpdates(), is(0L));
+    }
+
+    @Test
+    public void repeatedAlertsAreNotMerged() throws Exception {
+        blockQueue();
+
+        queue.addLightUpdate("lights/1/state", "1", new StateUpdate().setAlert(AlertMode.SELECT));
+        CompletableFuture<Result> future = queue.addLightUpdate("lights/1/state", "1",
+                new StateUpdate().setAlert(AlertMode.SELECT));
+        release.countDown();
+
+        future.get(5, TimeUnit.SECONDS);
+        verify(http, times(2)).put("lights/1/state", "{\"alert\":\"select\"}");
+    }
+
+    @Test
+    public void newColorReplacesPendingColor() throws Exception {
+        blockQueue();
+
+        queue.addLightUpdate("lights/1/state", "1", new StateUpdate().setHue(100).setSat(200));
+        CompletableFuture<Result> future = queue.addLightUpdate("lights/1/state", "1",
+                new StateUpdate().setXY(0.5f, 0.5f));
+        release.countDown();
+
+        future.get(5, TimeUnit.SECONDS);
+        verify(http).put("lights/1/state", "{\"xy\":[0.5,0.5]}");
+    }
+
+    @Test
+    public void identicalLightUpdatesAreSentAsGroupCommand() throws Exception {
+        queue.setGroupLights(Map.of("groups/1/action", Set.of("1", "2")));
+        blockQueue();
+
+        CompletableFuture<Result> first = queue.addLightUpdate("lights/1/state", "1", new StateUpdate().setOn(true));
+        CompletableFuture<Result> second = queue.addLightUpdate("lights/2/state", "2", new StateUpdate().setOn(true));
+        release.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+        verify(http).put("groups/1/action", "{\"on\":true}");
+        verify(http, never()).put(startsWith("lights/1"), anyString());
+        verify(http, never()).put(startsWith("lights/2"), anyString());
+        assertThat(queue.getSentCommands(), is(2L));
+    }
+
+    @Test
+    public void differentLightUpdatesAreNotSentAsGroupCommand() throws Exception {
+        queue.setGroupLights(Map.of("groups/1/action", Set.of("1", "2")));
+        blockQueue();
+
+        queue.addLightUpdate("lights/1/state", "1", new StateUpdate().setOn(true));
+        CompletableFuture<Result> future = queue.addLightUpdate("lights/2/state", "2",
+                new StateUpdate().setOn(false));
+        release.countDown();
+
+        future.get(5, TimeUnit.SECONDS);
+        verify(http).put("lights/1/state", "{\"on\":true}");
+        verify(http).put("lights/2/state", "{\"on\":false}");
+        verify(http, never()).put(startsWith("groups"), anyString());
+    }
+
+    @Test
+    public void lightUpdatesKeepTheirOrderToGroupUpdates() throws Exception {
+        blockQueue();
+
+        CompletableFuture<Result> overwritten = queue.addLightUpdate("lights/1/state", "1",
+                new StateUpdate().setBrightness(10));
+        queue.addGroupUpdate("groups/1/action", Set.of("1", "2"), new StateUpdate().setBrightness(50));
+        CompletableFuture<Result> last = queue.addLightUpdate("lights/1/state", "1",
+                new StateUpdate().setBrightness(100));
+        release.countDown();
+
+        overwritten.get(5, TimeUnit.SECONDS);
+        last.get(5, TimeUnit.SECONDS);
+        InOrder inOrder = inOrder(http);
+        inOrder.verify(http).put("groups/1/action", "{\"bri\":50}");
+        inOrder.verify(http).put("lights/1/state", "{\"bri\":100}");
+        verify(http, never()).put("lights/1/state", "{\"bri\":10}");
+    }
+
+    @Test
+    public void groupCommandsArePacedSeparately() throws Exception {
+        Map<String, Long> sendTimes = new ConcurrentHashMap<>();
+        when(http.put(startsWith("groups"), anyString())).thenAnswer(invocation -> {
+            sendTimes.put(invocation.getArgument(0), System.currentTimeMillis());
+            return new Result("[]", 200);
+        });
+        queue.addGroupUpdate("groups/1/action", Set.of("1", "2"), new StateUpdate().setBrightness(50));
+        queue.addGroupUpdate("groups/2/action", Set.of("3", "4"), new StateUpdate().setBrightness(60));
+        CompletableFuture<Result> light = queue.addLightUpdate("lights/5/state", "5",
+                new StateUpdate().setBrightness(10));
+        CompletableFuture<Result> last = queue.addGroupUpdate("groups/3/action", Set.of("6", "7"),
+                new StateUpdate().setBrightness(70));
+
+        light.get(5, TimeUnit.SECONDS);
+        last.get(5, TimeUnit.SECONDS);
+        // the light command is not delayed by the second group command
+        InOrder inOrder = inOrder(http);
+        inOrder.verify(http).put("groups/1/action", "{\"bri\":50}");
+        inOrder.verify(http).put("lights/5/state", "{\"bri\":10}");
+        inOrder.verify(http).put("groups/2/action", "{\"bri\":60}");
+        inOrder.verify(http).put("groups/3/action", "{\"bri\":70}");
+        assertThat(sendTimes.get("groups/2/action") - sendTimes.get("groups/1/action") >= 1000, is(true));
+        assertThat(sendTimes.get("groups/3/action") - sendTimes.get("groups/2/action") >= 1000, is(true));
+    }
+
+    @Test
+    public void sceneRecallIsNotMerged() throws Exception {
+        blockQueue();
+
+        queue.addGroupUpdate("groups/0/action", null, new StateUpdate().setScene("scene1"));
+        CompletableFuture<Result> future = queue.addGroupUpdate("groups/0/action", null,
+                new StateUpdate().setScene("scene2"));
+        release.countDown();
+
+        future.get(5, TimeUnit.SECONDS);
+        verify(http).put("groups/0/action", "{\"scene\":\"scene1\"}");
+        verify(http).put("groups/0/action", "{\"scene\":\"scene2\"}");
+    }
+
+    @Test
+    public void failedCommandCompletesAllMergedUpdates() throws Exception {
+        when(http.put(eq("lights/1/state"), anyString())).thenThrow(new IOException("bridge not reachable"));
+        blockQueue();
+
+        CompletableFuture<Result> first = queue.addLightUpdate("lights/1/state", "1", new StateUpdate().setOn(true));
+        CompletableFuture<Result> second = queue.addLightUpdate("lights/1/state", "1",
+                new StateUpdate().setBrightness(20));
+        release.countDown();
+
+        assertThat(waitForFailure(first), is(true));
+        assertThat(waitForFailure(second), is(true));
+    }
+
+    private void blockQueue() throws InterruptedException {
+        queue.addLightUpdate("lights/9/state", "9", new StateUpdate().setOn(true));
+        assertThat(blocked.await(5, TimeUnit.SECONDS), is(true));
+    }
+
+    private boolean waitForFailure(CompletableFuture<Result> future) {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+            return false;
+        } catch (Exception e) {
+            return future.isCompletedExceptionally();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.hue.internal;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.hue.internal.HttpClient.EventStream;
+import org.openhab.binding.hue.internal.exceptions.ApiException;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests reading the event stream from a local mock bridge.
+ *
+ * @author agent - Initial contribution
+ */
+public class HueEventStreamTest {
+
+    private static final String EVENTS = ": hi\n\n" //
+            + "id: 1:0\n" //
+            + "data: [{\"creationtime\":\"2021-05-01T10:00:00Z\",\"data\":[" //
+            + "{\"id\":\"a1\",\"id_v1\":\"/lights/3\",\"on\":{\"on\":true},\"type\":\"light\"}," //
+            + "{\"id\":\"a2\",\"id_v1\":\"/groups/1\",\"on\":{\"on\":true},\"type\":\"grouped_light\"}]," //
+            + "\"id\":\"e1\",\"type\":\"update\"}]\n\n" //
+            + "id: 2:0\n" //
+            + "data: [{\"creationtime\":\"2021-05-01T10:00:01Z\",\"data\":[" //
+            + "{\"id\":\"b1\",\"id_v1\":\"/sensors/5\",\"button\":{\"last_event\":\"short_release\"}," //
+            + "\"type\":\"button\"}," //
+            + "{\"id\":\"b2\",\"id_v1\":\"/sensors/5\",\"type\":\"button\"}," //
+            + "{\"id\":\"b3\",\"type\":\"device_power\"}]," //
+            + "\"id\":\"e2\",\"type\":\"update\"}]\n\n";
+
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private HttpServer server;
+    private final List<String> receivedKeys = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/api/username/config", exchange -> {
+            byte[] body = "{\"bridgeid\":\"001788FFFE123456\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        // the event stream is not part of the API v1, so its path does not start with /api
+        server.createContext("/eventstream/clip/v2", exchange -> {
+            receivedKeys.add(exchange.getRequestHeaders().getFirst("hue-application-key"));
+            byte[] body = EVENTS.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void changedResourcesAreReadFromTheEventStream() throws IOException, ApiException {
+        String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api";
+        HueBridge hueBridge = new HueBridge("127.0.0.1", baseUrl, "username", scheduler, new HttpClient());
+        List<Set<String>> changes = new ArrayList<>();
+
+        try (EventStream stream = hueBridge.openEventStream(5000)) {
+            new HueEventStream(changes::add).read(stream.getInputStream());
+        }
+
+        assertThat(receivedKeys, is(List.of("username")));
+        assertThat(changes, is(List.of(Set.of("lights/3", "groups/1"), Set.of("sensors/5"))));
+    }
+
+    @Test
+    public void unexpectedMessagesAreIgnored() {
+        HueEventStream eventStream = new HueEventStream(resources -> {
+        });
+
+        assertThat(eventStream.getChangedResources("not json").isEmpty(), is(true));
+        assertThat(eventStream.getChangedResources("{\"data\":[]}").isEmpty(), is(true));
+        assertThat(eventStream.getChangedResources("[{\"type\":\"update\",\"data\":[{\"id\":\"x\"}]}]").isEmpty(),
+                is(true));
+    }
+}
@@ -18,6 +18,7 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -34,6 +35,8 @@ import org.openhab.core.library.types.OnOffType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.netty.buffer.ByteBuf;
+
 /**
  * The {@link Ffmpeg} class is responsible for handling multiple ffmpeg conversions which are used for many tasks
  *
@@ -49,7 +52,7 @@ public class Ffmpeg {
     private String ffmpegCommand = "";
     private FFmpegFormat format;
     private List<String> commandArrayList = new ArrayList<String>();
-    private IpCameraFfmpegThread ipCameraFfmpegThread = new IpCameraFfmpegThread();
+    private IpCameraFfmpegThread ipCameraFfmpegThread = new IpCameraFfmpegThread(null);
     private int keepAlive = 8;
     private String password;
 
@@ -98,8 +101,11 @@ public class Ffmpeg {
     private class IpCameraFfmpegThread extends Thread {
         private ScheduledExecutorService threadPool = Executors.newScheduledThreadPool(2);
         public int countOfMotions;
+        // frames written to the stdin of ffmpeg, null if ffmpeg does not read from stdin
+        private @Nullable List<ByteBuf> inputFrames;
 
-        IpCameraFfmpegThread() {
+        IpCameraFfmpegThread(@Nullable List<ByteBuf> inputFrames) {
+            this.inputFrames = inputFrames;
             setDaemon(true);
         }
 
@@ -116,12 +122,36 @@ public class Ffmpeg {
                     new DecimalType(++ipCameraHandler.mp4HistoryLength));
         }
 
+        /**
+         * Writes the frames and closes stdin, also if there are no frames, otherwise ffmpeg would wait for more input.
+         */
+        private void writeInputFrames(Process localProcess, List<ByteBuf> frames) {
+            int written = 0;
+            try (OutputStream stdin = localProcess.getOutputStream()) {
+                for (ByteBuf frame : frames) {
+                    frame.getBytes(frame.readerIndex(), stdin, frame.readableBytes());
+                    frame.release();
+                    written++;
+                }
+            } catch (IOException e) {
+                logger.debug("Could not write all frames to FFmpeg: {}", e.getMessage());
+            } finally {
+                frames.subList(written, frames.size()).forEach(ByteBuf::release);
+            }
+        }
+
         @Override
         public void run() {
             try {
                 process = Runtime.getRuntime().exec(commandArrayList.toArray(new String[commandArrayList.size()]));
                 Process localProcess = process;
                 if (localProcess != null) {
+                    List<ByteBuf> frames = inputFrames;
+                    if (frames != null) {
+                        inputFrames = null;
+                        // write from another thread, ffmpeg would block on a full stderr pipe
+                        threadPool.execute(() -> writeInputFrames(localProcess, frames));
+                    }
                     InputStream errorStream = localProcess.getErrorStream();
                     InputStreamReader errorStreamReader = new InputStreamReader(errorStream);
                     BufferedReader bufferedReader = new BufferedReader(errorStreamReader);
@@ -156,6 +186,11 @@ public class Ffmpeg {
             } catch (IOException e) {
                 logger.warn("An error occured trying to process the messages from FFmpeg.");
             } finally {
+                List<ByteBuf> frames = inputFrames;
+                if (frames != null) {
+                    // ffmpeg could not be started
+                    frames.forEach(ByteBuf::release);
+                }
                 switch (format) {
                     case GIF:
                         threadPool.schedule(this::gifCreated, 800, TimeUnit.MILLISECONDS);
@@ -172,7 +207,7 @@ public class Ffmpeg {
 
     public void startConverting() {
         if (!ipCameraFfmpegThread.isAlive()) {
-            ipCameraFfmpegThread = new IpCameraFfmpegThread();
+            ipCameraFfmpegThread = new IpCameraFfmpegThread(null);
             logger.debug("Starting ffmpeg with this command now:{}", ffmpegCommand.replaceAll(password, "********"));
             ipCameraFfmpegThread.start();
             if (format.equals(FFmpegFormat.HLS)) {
@@ -184,6 +219,21 @@ public class Ffmpeg {
         }
     }
 
+    /**
+     * Starts ffmpeg with the frames as input, for use with the input "-". The stdin of ffmpeg is closed after the frames
+     * were written.
+     *
+     * @param frames the frames that are written to the stdin of ffmpeg. They are released once written.
+     */
+    public void startConverting(List<ByteBuf> frames) {
+        ipCameraFfmpegThread = new IpCameraFfmpegThread(frames);
+        logger.debug("Starting ffmpeg with this command now:{}", ffmpegCommand.replaceAll(password, "********"));
+        ipCameraFfmpegThread.start();
+        if (keepAlive != -1) {
+            keepAlive = 8;
+        }
+    }
+
     public boolean getIsAlive() {
         Process localProcess = process;
         if (localProcess != null) {
@@ -77,6 +77,7 @@ public class IpCameraBindingConstants {
     public static final String CHANNEL_RECORDING_GIF = "recordingGif";
     public static final String CHANNEL_GIF_HISTORY = "gifHistory";
     public static final String CHANNEL_GIF_HISTORY_LENGTH = "gifHistoryLength";
+    public static final String CHANNEL_GIF_PREROLL_MEMORY = "gifPrerollMemory";
     public static final String CHANNEL_RECORDING_MP4 = "recordingMp4";
     public static final String CHANNEL_MP4_PREROLL = "mp4Preroll";
     public static final String CHANNEL_MP4_HISTORY = "mp4History";
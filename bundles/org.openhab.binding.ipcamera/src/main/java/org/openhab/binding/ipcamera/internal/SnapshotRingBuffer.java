@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.ipcamera.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.IllegalReferenceCountException;
+
+/**
+ * The {@link SnapshotRingBuffer} keeps the last snapshots of a camera for the GIF preroll off the heap. The snapshots
+ * are copied to pooled direct buffers of their exact size, so the buffers they were received in can be reused by the
+ * camera connection. A snapshot is released when it is replaced by a newer one or the buffer is cleared.
+ *
+ * Only one thread at a time may add snapshots, any thread can read them without locking.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SnapshotRingBuffer {
+    private final AtomicReferenceArray<@Nullable ByteBuf> slots;
+    // number of snapshots the writer started to store, used by readers to detect slots that are overwritten
+    private final AtomicLong startedWrites = new AtomicLong();
+    private final AtomicLong completedWrites = new AtomicLong();
+    private final AtomicLong heldBytes = new AtomicLong();
+
+    public SnapshotRingBuffer(int capacity) {
+        slots = new AtomicReferenceArray<>(Math.max(1, capacity));
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Stores a direct copy of a snapshot and releases the oldest one if the buffer is full.
+     *
+     * @param snapshot the snapshot, it is not released.
+     */
+    public void add(ByteBuf snapshot) {
+        int length = snapshot.readableBytes();
+        ByteBuf copy = ByteBufAllocator.DEFAULT.directBuffer(length, length);
+        copy.writeBytes(snapshot, snapshot.readerIndex(), length);
+        store(copy);
+    }
+
+    /**
+     * Stores a snapshot and releases the oldest one if the buffer is full.
+     *
+     * @param snapshot the snapshot, the buffer takes over the reference held by the caller.
+     */
+    private void store(ByteBuf snapshot) {
+        long write = startedWrites.getAndIncrement();
+        ByteBuf oldSnapshot = slots.getAndSet((int) (write % slots.length()), snapshot);
+        completedWrites.set(write + 1);
+        heldBytes.addAndGet(snapshot.capacity() - (oldSnapshot == null ? 0 : oldSnapshot.capacity()));
+        if (oldSnapshot != null) {
+            oldSnapshot.release();
+        }
+    }
+
+    /**
+     * @return retained duplicates of the stored snapshots, oldest first. The caller has to release them.
+     */
+    public List<ByteBuf> retainSnapshots() {
+        long end = completedWrites.get();
+        long start = Math.max(0, end - slots.length());
+        List<ByteBuf> snapshots = new ArrayList<>((int) (end - start));
+        for (long write = start; write < end; write++) {
+            ByteBuf snapshot = slots.get((int) (write % slots.length()));
+            if (snapshot == null) {
+                continue;
+            }
+            ByteBuf duplicate;
+            try {
+                duplicate = snapshot.retainedDuplicate();
+            } catch (IllegalReferenceCountException e) {
+                continue; // was replaced and released in the meantime
+            }
+            if (startedWrites.get() - slots.length() > write) {
+                // the slot may already hold a newer snapshot
+                duplicate.release();
+                continue;
+            }
+            snapshots.add(duplicate);
+        }
+        return snapshots;
+    }
+
+    /**
+     * @return a new buffer with the given capacity that holds the newest snapshots of this buffer.
+     */
+    public SnapshotRingBuffer resize(int capacity) {
+        SnapshotRingBuffer resized = new SnapshotRingBuffer(capacity);
+        retainSnapshots().forEach(resized::store);
+        return resized;
+    }
+
+    /**
+     * @return the number of bytes allocated for the stored snapshots.
+     */
+    public long getHeldBytes() {
+        return heldBytes.get();
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            ByteBuf snapshot = slots.getAndSet(i, null);
+            if (snapshot != null) {
+                heldBytes.addAndGet(-snapshot.capacity());
+                snapshot.release();
+            }
+        }
+    }
+}
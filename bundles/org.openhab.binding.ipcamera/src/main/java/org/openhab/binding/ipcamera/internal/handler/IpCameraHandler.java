@@ -26,7 +26,6 @@ import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -55,6 +54,7 @@ import org.openhab.binding.ipcamera.internal.IpCameraActions;
 import org.openhab.binding.ipcamera.internal.IpCameraBindingConstants.FFmpegFormat;
 import org.openhab.binding.ipcamera.internal.IpCameraDynamicStateDescriptionProvider;
 import org.openhab.binding.ipcamera.internal.MyNettyAuthHandler;
+import org.openhab.binding.ipcamera.internal.SnapshotRingBuffer;
 import org.openhab.binding.ipcamera.internal.StreamServerHandler;
 import org.openhab.binding.ipcamera.internal.onvif.OnvifConnection;
 import org.openhab.core.library.types.DecimalType;
@@ -78,6 +78,8 @@ import org.slf4j.LoggerFactory;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelDuplexHandler;
@@ -125,6 +127,10 @@ import io.netty.util.concurrent.GlobalEventExecutor;
 
 @NonNullByDefault
 public class IpCameraHandler extends BaseThingHandler {
+    // a snapshot arrives in chunks of a few kB, avoid consolidating them into a single buffer
+    private static final int MAX_SNAPSHOT_COMPONENTS = 1024;
+    private static final ByteBuf MJPEG_FRAME_FOOTER = Unpooled
+            .unreleasableBuffer(Unpooled.copiedBuffer("\r\n", StandardCharsets.UTF_8).asReadOnly());
     public final Logger logger = LoggerFactory.getLogger(getClass());
     public final IpCameraDynamicStateDescriptionProvider stateDescriptionProvider;
     private ScheduledExecutorService threadPool = Executors.newScheduledThreadPool(4);
@@ -163,7 +169,8 @@ public class IpCameraHandler extends BaseThingHandler {
     private String mp4Filename = "ipcamera";
     private int mp4RecordTime;
     private int gifRecordTime = 5;
-    private LinkedList<byte[]> fifoSnapshotBuffer = new LinkedList<byte[]>();
+    // snapshots for the GIF preroll, written under lockCurrentSnapshot
+    private volatile SnapshotRingBuffer snapshotBuffer = new SnapshotRingBuffer(1);
     private int snapCount;
     private boolean updateImageChannel = false;
     private boolean updateAutoFps = false;
@@ -180,7 +187,8 @@ public class IpCameraHandler extends BaseThingHandler {
     public String mjpegUri = "";
     private @Nullable ChannelFuture serverFuture = null;
     private Object firstStreamedMsg = new Object();
-    public byte[] currentSnapshot = new byte[] { (byte) 0x00 };
+    // read-only view of the last snapshot, guarded by lockCurrentSnapshot. Streams get retained duplicates of it.
+    private ByteBuf currentSnapshot = Unpooled.EMPTY_BUFFER;
     public ReentrantLock lockCurrentSnapshot = new ReentrantLock();
     public String rtspUri = "";
     public boolean audioAlarmUpdateSnapshot = false;
@@ -203,8 +211,9 @@ public class IpCameraHandler extends BaseThingHandler {
     private class CommonCameraHandler extends ChannelDuplexHandler {
         private int bytesToRecieve = 0;
         private int bytesAlreadyRecieved = 0;
-        private byte[] incomingJpeg = new byte[0];
-        private String incomingMessage = "";
+        // pooled chunks of the snapshot that is received, assembled without copying
+        private @Nullable CompositeByteBuf incomingJpeg;
+        private final StringBuilder incomingMessage = new StringBuilder();
         private String contentType = "empty";
         private String boundary = "";
         private Object reply = new Object();
@@ -260,11 +269,8 @@ public class IpCameraHandler extends BaseThingHandler {
                                     boundary = Helper.searchString(contentType, "boundary=");
                                 }
                             } else if (contentType.contains("image/jp")) {
-                                if (bytesToRecieve == 0) {
-                                    bytesToRecieve = 768000; // 0.768 Mbyte when no Content-Length is sent
-                                    logger.debug("Camera has no Content-Length header, we have to guess how much RAM.");
-                                }
-                                incomingJpeg = new byte[bytesToRecieve];
+                                releaseIncomingJpeg();
+                                incomingJpeg = ctx.alloc().compositeBuffer(MAX_SNAPSHOT_COMPONENTS);
                             }
                         }
                     }
@@ -278,11 +284,16 @@ public class IpCameraHandler extends BaseThingHandler {
                         HttpContent content = (HttpContent) msg;
                         // Found some cameras use Content-Type: image/jpg instead of image/jpeg
                         if (contentType.contains("image/jp")) {
-                            for (int i = 0; i < content.content().capacity(); i++) {
-                                incomingJpeg[bytesAlreadyRecieved++] = content.content().getByte(i);
+                            CompositeByteBuf localJpeg = incomingJpeg;
+                            if (localJpeg == null) {
+                                localJpeg = incomingJpeg = ctx.alloc().compositeBuffer(MAX_SNAPSHOT_COMPONENTS);
                             }
+                            // msg is released below, the composite keeps its own reference to the chunk
+                            localJpeg.addComponent(true, content.content().retain());
+                            bytesAlreadyRecieved = localJpeg.readableBytes();
                             if (content instanceof LastHttpContent) {
-                                processSnapshot(incomingJpeg);
+                                incomingJpeg = null;
+                                processSnapshot(localJpeg);
                                 // testing next line and if works need to do a full cleanup of this function.
                                 closeConnection = true;
                                 if (closeConnection) {
@@ -293,16 +304,12 @@ public class IpCameraHandler extends BaseThingHandler {
                                 }
                             }
                         } else { // incomingMessage that is not an IMAGE
-                            if (incomingMessage.isEmpty()) {
-                                incomingMessage = content.content().toString(CharsetUtil.UTF_8);
-                            } else {
-                                incomingMessage += content.content().toString(CharsetUtil.UTF_8);
-                            }
+                            incomingMessage.append(content.content().toString(CharsetUtil.UTF_8));
                             bytesAlreadyRecieved = incomingMessage.length();
                             if (content instanceof LastHttpContent) {
                                 // If it is not an image send it on to the next handler//
                                 if (bytesAlreadyRecieved != 0) {
-                                    reply = incomingMessage;
+                                    reply = incomingMessage.toString();
                                     super.channelRead(ctx, reply);
                                 }
                             }
@@ -324,13 +331,13 @@ public class IpCameraHandler extends BaseThingHandler {
                                     // Check if message has a second --boundary
                                     endIndex = incomingMessage.indexOf("--" + boundary, bytesToRecieve);
                                     if (endIndex == -1) {
-                                        reply = incomingMessage;
-                                        incomingMessage = "";
+                                        reply = incomingMessage.toString();
+                                        incomingMessage.setLength(0);
                                         bytesToRecieve = 0;
                                         bytesAlreadyRecieved = 0;
                                     } else {
                                         reply = incomingMessage.substring(0, endIndex);
-                                        incomingMessage = incomingMessage.substring(endIndex, incomingMessage.length());
+                                        incomingMessage.delete(0, endIndex);
                                         bytesToRecieve = 0;// Triggers search next time for Content-Length:
                                         bytesAlreadyRecieved = incomingMessage.length() - endIndex;
                                     }
@@ -340,7 +347,7 @@ public class IpCameraHandler extends BaseThingHandler {
                             // Foscam needs this as will other cameras with chunks//
                             if (isChunked && bytesAlreadyRecieved != 0) {
                                 logger.debug("Reply is chunked.");
-                                reply = incomingMessage;
+                                reply = incomingMessage.toString();
                                 super.channelRead(ctx, reply);
                             }
                         }
@@ -348,8 +355,8 @@ public class IpCameraHandler extends BaseThingHandler {
                 } else { // msg is not HttpContent
                     // Foscam cameras need this
                     if (!contentType.contains("image/jp") && bytesAlreadyRecieved != 0) {
-                        reply = incomingMessage;
-                        logger.debug("Packet back from camera is {}", incomingMessage);
+                        reply = incomingMessage.toString();
+                        logger.debug("Packet back from camera is {}", reply);
                         super.channelRead(ctx, reply);
                     }
                 }
@@ -368,6 +375,15 @@ public class IpCameraHandler extends BaseThingHandler {
 
         @Override
         public void handlerRemoved(@Nullable ChannelHandlerContext ctx) {
+            releaseIncomingJpeg();
+        }
+
+        private void releaseIncomingJpeg() {
+            CompositeByteBuf localJpeg = incomingJpeg;
+            if (localJpeg != null) {
+                incomingJpeg = null;
+                localJpeg.release();
+            }
         }
 
         @Override
@@ -642,40 +658,86 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public void processSnapshot(byte[] incommingSnapshot) {
-        lockCurrentSnapshot.lock();
+        processSnapshot(Unpooled.wrappedBuffer(incommingSnapshot));
+    }
+
+    /**
+     * Makes the snapshot the current one and sends it to the snapshot streams and the image channel.
+     *
+     * @param incommingSnapshot the snapshot, the reference held by the caller is taken over by this method.
+     */
+    public void processSnapshot(ByteBuf incommingSnapshot) {
+        ByteBuf snapshot = incommingSnapshot.asReadOnly();
+        // keep a reference for the streams below, the snapshot could be replaced while they are served
+        snapshot.retain();
         try {
-            currentSnapshot = incommingSnapshot;
-            if (cameraConfig.getGifPreroll() > 0) {
-                fifoSnapshotBuffer.add(incommingSnapshot);
-                if (fifoSnapshotBuffer.size() > (cameraConfig.getGifPreroll() + gifRecordTime)) {
-                    fifoSnapshotBuffer.removeFirst();
+            lockCurrentSnapshot.lock();
+            try {
+                currentSnapshot.release();
+                currentSnapshot = snapshot;
+                if (cameraConfig.getGifPreroll() > 0) {
+                    SnapshotRingBuffer localBuffer = snapshotBuffer;
+                    int capacity = cameraConfig.getGifPreroll() + gifRecordTime;
+                    if (localBuffer.capacity() != capacity) {
+                        snapshotBuffer = localBuffer.resize(capacity);
+                        localBuffer.clear();
+                        localBuffer = snapshotBuffer;
+                    }
+                    localBuffer.add(snapshot);
+                }
+            } finally {
+                lockCurrentSnapshot.unlock();
+            }
+
+            if (streamingSnapshotMjpeg) {
+                sendMjpegFrame(snapshot, snapshotMjpegChannelGroup);
+            }
+            if (streamingAutoFps) {
+                if (motionDetected) {
+                    sendMjpegFrame(snapshot, autoSnapshotMjpegChannelGroup);
+                } else if (updateAutoFps) {
+                    // only happens every 8 seconds as some browsers need a frame that often to keep stream alive.
+                    sendMjpegFrame(snapshot, autoSnapshotMjpegChannelGroup);
+                    updateAutoFps = false;
                 }
             }
+
+            if (updateImageChannel) {
+                updateState(CHANNEL_IMAGE, new RawType(ByteBufUtil.getBytes(snapshot), "image/jpeg"));
+            } else if (firstMotionAlarm || motionAlarmUpdateSnapshot) {
+                updateState(CHANNEL_IMAGE, new RawType(ByteBufUtil.getBytes(snapshot), "image/jpeg"));
+                firstMotionAlarm = motionAlarmUpdateSnapshot = false;
+            } else if (firstAudioAlarm || audioAlarmUpdateSnapshot) {
+                updateState(CHANNEL_IMAGE, new RawType(ByteBufUtil.getBytes(snapshot), "image/jpeg"));
+                firstAudioAlarm = audioAlarmUpdateSnapshot = false;
+            }
         } finally {
-            lockCurrentSnapshot.unlock();
+            snapshot.release();
         }
+    }
 
-        if (streamingSnapshotMjpeg) {
-            sendMjpegFrame(incommingSnapshot, snapshotMjpegChannelGroup);
-        }
-        if (streamingAutoFps) {
-            if (motionDetected) {
-                sendMjpegFrame(incommingSnapshot, autoSnapshotMjpegChannelGroup);
-            } else if (updateAutoFps) {
-                // only happens every 8 seconds as some browsers need a frame that often to keep stream alive.
-                sendMjpegFrame(incommingSnapshot, autoSnapshotMjpegChannelGroup);
-                updateAutoFps = false;
-            }
+    /**
+     * @return true once a snapshot has been received from the camera
+     */
+    public boolean hasSnapshot() {
+        lockCurrentSnapshot.lock();
+        try {
+            return currentSnapshot.isReadable();
+        } finally {
+            lockCurrentSnapshot.unlock();
         }
+    }
 
-        if (updateImageChannel) {
-            updateState(CHANNEL_IMAGE, new RawType(incommingSnapshot, "image/jpeg"));
-        } else if (firstMotionAlarm || motionAlarmUpdateSnapshot) {
-            updateState(CHANNEL_IMAGE, new RawType(incommingSnapshot, "image/jpeg"));
-            firstMotionAlarm = motionAlarmUpdateSnapshot = false;
-        } else if (firstAudioAlarm || audioAlarmUpdateSnapshot) {
-            updateState(CHANNEL_IMAGE, new RawType(incommingSnapshot, "image/jpeg"));
-            firstAudioAlarm = audioAlarmUpdateSnapshot = false;
+    /**
+     * @return a retained duplicate of the current snapshot that shares its memory. The caller has to release it or
+     *         pass it on to a write.
+     */
+    public ByteBuf getSnapshotBuffer() {
+        lockCurrentSnapshot.lock();
+        try {
+            return currentSnapshot.retainedDuplicate();
+        } finally {
+            lockCurrentSnapshot.unlock();
         }
     }
 
@@ -869,16 +931,23 @@ public class IpCameraHandler extends BaseThingHandler {
     }
 
     public void sendMjpegFrame(byte[] jpg, ChannelGroup channelGroup) {
+        sendMjpegFrame(Unpooled.wrappedBuffer(jpg), channelGroup);
+    }
+
+    /**
+     * Sends the jpg as a frame to all channels of the group. The channels share the memory of the jpg, the reference
+     * held by the caller is not released.
+     */
+    public void sendMjpegFrame(ByteBuf jpg, ChannelGroup channelGroup) {
         final String boundary = "thisMjpegStream";
-        ByteBuf imageByteBuf = Unpooled.copiedBuffer(jpg);
-        int length = imageByteBuf.readableBytes();
+        int length = jpg.readableBytes();
         String header = "--" + boundary + "\r\n" + "content-type: image/jpeg" + "\r\n" + "content-length: " + length
                 + "\r\n\r\n";
         ByteBuf headerBbuf = Unpooled.copiedBuffer(header, 0, header.length(), StandardCharsets.UTF_8);
-        ByteBuf footerBbuf = Unpooled.copiedBuffer("\r\n", 0, 2, StandardCharsets.UTF_8);
+        // the group writes a retained duplicate to each of its channels and releases the passed buffer afterwards
         streamToGroup(headerBbuf, channelGroup, false);
-        streamToGroup(imageByteBuf, channelGroup, false);
-        streamToGroup(footerBbuf, channelGroup, true);
+        streamToGroup(jpg.retainedDuplicate(), channelGroup, false);
+        streamToGroup(MJPEG_FRAME_FOOTER.duplicate(), channelGroup, true);
     }
 
     public void streamToGroup(Object msg, ChannelGroup channelGroup, boolean flush) {
@@ -888,26 +957,20 @@ public class IpCameraHandler extends BaseThingHandler {
         }
     }
 
-    private void storeSnapshots() {
+    private void storeSnapshots(List<ByteBuf> snapshots) {
         int count = 0;
-        // Need to lock as fifoSnapshotBuffer is not thread safe and new snapshots can be incoming.
-        lockCurrentSnapshot.lock();
-        try {
-            for (byte[] foo : fifoSnapshotBuffer) {
-                File file = new File(cameraConfig.getFfmpegOutput() + "snapshot" + count + ".jpg");
-                count++;
-                try {
-                    OutputStream fos = new FileOutputStream(file);
-                    fos.write(foo);
-                    fos.close();
-                } catch (FileNotFoundException e) {
-                    logger.warn("FileNotFoundException {}", e.getMessage());
-                } catch (IOException e) {
-                    logger.warn("IOException {}", e.getMessage());
-                }
+        for (ByteBuf snapshot : snapshots) {
+            File file = new File(cameraConfig.getFfmpegOutput() + "snapshot" + count + ".jpg");
+            count++;
+            try {
+                OutputStream fos = new FileOutputStream(file);
+                snapshot.getBytes(snapshot.readerIndex(), fos, snapshot.readableBytes());
+                fos.close();
+            } catch (FileNotFoundException e) {
+                logger.warn("FileNotFoundException {}", e.getMessage());
+            } catch (IOException e) {
+                logger.warn("IOException {}", e.getMessage());
             }
-        } finally {
-            lockCurrentSnapshot.unlock();
         }
     }
 
@@ -955,8 +1018,9 @@ public class IpCameraHandler extends BaseThingHandler {
                 break;
             case GIF:
                 if (cameraConfig.getGifPreroll() > 0) {
+                    // the snapshots of the preroll are written to the stdin of ffmpeg
                     ffmpegGIF = new Ffmpeg(this, format, cameraConfig.getFfmpegLocation(),
-                            "-y -r 1 -hide_banner -loglevel warning", cameraConfig.getFfmpegOutput() + "snapshot%d.jpg",
+                            "-y -f image2pipe -r 1 -hide_banner -loglevel warning", "-",
                             "-frames:v " + (cameraConfig.getGifPreroll() + gifRecordTime) + " "
                                     + cameraConfig.getGifOutOptions(),
                             cameraConfig.getFfmpegOutput() + gifFilename + ".gif", cameraConfig.getUser(),
@@ -971,12 +1035,20 @@ public class IpCameraHandler extends BaseThingHandler {
                             cameraConfig.getGifOutOptions(), cameraConfig.getFfmpegOutput() + gifFilename + ".gif",
                             cameraConfig.getUser(), cameraConfig.getPassword());
                 }
-                if (cameraConfig.getGifPreroll() > 0) {
-                    storeSnapshots();
-                }
                 Ffmpeg localGIF = ffmpegGIF;
                 if (localGIF != null) {
-                    localGIF.startConverting();
+                    if (cameraConfig.getGifPreroll() > 0) {
+                        List<ByteBuf> snapshots = snapshotBuffer.retainSnapshots();
+                        if (snapshots.isEmpty()) {
+                            logger.warn("No snapshots were received from the camera to create the GIF.");
+                            setChannelState(CHANNEL_RECORDING_GIF, DecimalType.ZERO);
+                            return;
+                        }
+                        storeSnapshots(snapshots);
+                        localGIF.startConverting(snapshots);
+                    } else {
+                        localGIF.startConverting();
+                    }
                     if (gifHistory.isEmpty()) {
                         gifHistory = gifFilename;
                     } else if (!gifFilename.equals("ipcamera")) {
@@ -1602,6 +1674,9 @@ public class IpCameraHandler extends BaseThingHandler {
             }
             sendHttpGET(lowPriorityRequests.get(lowPriorityCounter++));
         }
+        if (cameraConfig.getGifPreroll() > 0) {
+            setChannelState(CHANNEL_GIF_PREROLL_MEMORY, new DecimalType(snapshotBuffer.getHeldBytes()));
+        }
         // what needs to be done every poll//
         switch (thing.getThingTypeUID().getId()) {
             case GENERIC_THING:
@@ -1807,6 +1882,15 @@ public class IpCameraHandler extends BaseThingHandler {
             localFfmpeg.stopConverting();
         }
         channelTrackingMap.clear();
+
+        lockCurrentSnapshot.lock();
+        try {
+            currentSnapshot.release();
+            currentSnapshot = Unpooled.EMPTY_BUFFER;
+            snapshotBuffer.clear();
+        } finally {
+            lockCurrentSnapshot.unlock();
+        }
     }
 
     public void setStreamServerHandler(StreamServerHandler streamServerHandler2) {
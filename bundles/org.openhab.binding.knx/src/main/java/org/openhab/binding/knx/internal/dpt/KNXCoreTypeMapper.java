@@ -108,6 +108,12 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     /** stores the default KNX DPT to use for each openHAB type */
     private final Map<Class<? extends Type>, String> defaultDptMap;
 
+    /**
+     * caches the resolved translators per KNX datapoint type id. Calimero translators are not thread-safe, so every
+     * thread receiving telegrams keeps its own set of translators.
+     */
+    private final ThreadLocal<Map<String, ResolvedTranslator>> translatorCache = ThreadLocal.withInitial(HashMap::new);
+
     public KNXCoreTypeMapper() {
         @SuppressWarnings("unused")
         final List<Class<?>> xlators = Arrays.<Class<?>> asList(DPTXlator1BitControlled.class,
@@ -674,23 +680,23 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
     @Override
     public Type toType(Datapoint datapoint, byte[] data) {
         try {
-            DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
-            translator.setData(data);
-            String value = translator.getValue();
-
-            String id = translator.getType().getID();
-            logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
-
-            int mainNumber = getMainNumber(id);
-            if (mainNumber == -1) {
-                logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
+            ResolvedTranslator resolved = getResolvedTranslator(datapoint);
+            if (resolved == null) {
                 return null;
             }
-            int subNumber = getSubNumber(id);
-            if (subNumber == -1) {
-                logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
-                return null;
+            logger.trace("toType datapoint DPT = {}", datapoint.getDPT());
+
+            Type fastType = toTypeFast(resolved, data);
+            if (fastType != null) {
+                return fastType;
             }
+
+            DPTXlator translator = resolved.translator;
+            translator.setData(data);
+            String value = translator.getValue();
+
+            int mainNumber = resolved.mainNumber;
+            int subNumber = resolved.subNumber;
             /*
              * Following code section deals with specific mapping of values from KNX to openHAB types were the String
              * received from the DPTXlator is not sufficient to set the openHAB type or has bugs
@@ -813,7 +819,7 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
                     break;
             }
 
-            Class<? extends Type> typeClass = toTypeClass(id);
+            Class<? extends Type> typeClass = resolved.typeClass;
             if (typeClass == null) {
                 return null;
             }
@@ -860,6 +866,99 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         return null;
     }
 
+    /**
+     * Returns the translator for the datapoint from the thread-local cache, creating and resolving it on first use.
+     *
+     * @param datapoint the datapoint to get a translator for
+     * @return the resolved translator or {@code null} if the datapoint type id could not be parsed
+     * @throws KNXException if calimero can't provide a translator for the datapoint type
+     */
+    private ResolvedTranslator getResolvedTranslator(Datapoint datapoint) throws KNXException {
+        Map<String, ResolvedTranslator> translators = translatorCache.get();
+        ResolvedTranslator resolved = translators.get(datapoint.getDPT());
+        if (resolved != null) {
+            return resolved;
+        }
+
+        DPTXlator translator = TranslatorTypes.createTranslator(datapoint.getMainNumber(), datapoint.getDPT());
+        String id = translator.getType().getID();
+        int mainNumber = getMainNumber(id);
+        if (mainNumber == -1) {
+            logger.debug("toType: couldn't identify mainnumber in dptID: {}.", id);
+            return null;
+        }
+        int subNumber = getSubNumber(id);
+        if (subNumber == -1) {
+            logger.debug("toType: couldn't identify sub number in dptID: {}.", id);
+            return null;
+        }
+        resolved = new ResolvedTranslator(translator, mainNumber, subNumber, toTypeClass(id));
+        translators.put(datapoint.getDPT(), resolved);
+        return resolved;
+    }
+
+    /**
+     * Converts the raw data of the most common datapoint types directly into an openHAB type, without going through
+     * the translator and its String representation. The decoding is identical to the one done by calimero.
+     *
+     * @param resolved the resolved translator for the datapoint
+     * @param data the raw data received from the bus
+     * @return the openHAB type or {@code null} if there is no fast path for this datapoint type
+     */
+    private Type toTypeFast(ResolvedTranslator resolved, byte[] data) {
+        switch (resolved.mainNumber) {
+            case 1:
+                if (data.length < 1) {
+                    return null;
+                }
+                boolean value = (data[0] & 0x01) != 0;
+                switch (resolved.subNumber) {
+                    case 8:
+                        return value ? UpDownType.DOWN : UpDownType.UP;
+                    case 9:
+                    case 19:
+                        return value ? OpenClosedType.OPEN : OpenClosedType.CLOSED;
+                    case 10:
+                        return value ? StopMoveType.MOVE : StopMoveType.STOP;
+                    case 22:
+                        return new DecimalType(value ? 1 : 0);
+                    default:
+                        return value ? OnOffType.ON : OnOffType.OFF;
+                }
+            case 5:
+                if (resolved.subNumber != 1 || data.length < 1) {
+                    return null;
+                }
+                return toNumberType(resolved.typeClass, (data[0] & 0xff) * 100.0 / 255);
+            case 9:
+                if (data.length < 2) {
+                    return null;
+                }
+                // DPT bits high byte: MEEEEMMM, low byte: MMMMMMMM
+                int mantissa = ((data[0] & 0x80) << 24 | (data[0] & 0x07) << 28 | (data[1] & 0xff) << 20) >> 20;
+                int exponent = (data[0] & 0x78) >> 3;
+                return toNumberType(resolved.typeClass, ((1 << exponent) * mantissa) * 0.01);
+            case 14:
+                if (data.length < 4) {
+                    return null;
+                }
+                int bits = (data[0] & 0xff) << 24 | (data[1] & 0xff) << 16 | (data[2] & 0xff) << 8 | (data[3] & 0xff);
+                return toNumberType(resolved.typeClass, Float.intBitsToFloat(bits));
+            default:
+                return null;
+        }
+    }
+
+    private Type toNumberType(Class<? extends Type> typeClass, double value) {
+        if (PercentType.class.equals(typeClass)) {
+            return new PercentType(BigDecimal.valueOf(Math.round(value)));
+        }
+        if (DecimalType.class.equals(typeClass)) {
+            return new DecimalType(value);
+        }
+        return null;
+    }
+
     /**
      * Converts a datapoint type id into an openHAB type class
      *
@@ -1020,4 +1119,22 @@ public class KNXCoreTypeMapper implements KNXTypeMapper {
         return percent.toBigDecimal().multiply(BigDecimal.valueOf(255))
                 .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP).intValue();
     }
+
+    /**
+     * A calimero translator together with the values derived from its datapoint type id.
+     */
+    private static class ResolvedTranslator {
+        private final DPTXlator translator;
+        private final int mainNumber;
+        private final int subNumber;
+        private final Class<? extends Type> typeClass;
+
+        private ResolvedTranslator(DPTXlator translator, int mainNumber, int subNumber,
+                Class<? extends Type> typeClass) {
+            this.translator = translator;
+            this.mainNumber = mainNumber;
+            this.subNumber = subNumber;
+            this.typeClass = typeClass;
+        }
+    }
 }
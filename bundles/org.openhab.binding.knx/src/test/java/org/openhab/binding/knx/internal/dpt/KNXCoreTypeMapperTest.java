@@ -16,6 +16,14 @@ import static org.junit.jupiter.api.Assertions.*;
 
 import org.junit.jupiter.api.Test;
 import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.library.types.OpenClosedType;
+import org.openhab.core.library.types.PercentType;
+import org.openhab.core.library.types.UpDownType;
+
+import tuwien.auto.calimero.GroupAddress;
+import tuwien.auto.calimero.datapoint.CommandDP;
+import tuwien.auto.calimero.datapoint.Datapoint;
 
 /**
  *
@@ -29,4 +37,66 @@ public class KNXCoreTypeMapperTest {
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3"), "17.001"));
         assertEquals("3", new KNXCoreTypeMapper().toDPTValue(new DecimalType("3.0"), "17.001"));
     }
+
+    @Test
+    public void testToType_booleanFastPath() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(OnOffType.ON, mapper.toType(datapoint(1, "1.001"), new byte[] { 0x01 }));
+        assertEquals(OnOffType.OFF, mapper.toType(datapoint(1, "1.001"), new byte[] { 0x00 }));
+        assertEquals(UpDownType.DOWN, mapper.toType(datapoint(1, "1.008"), new byte[] { 0x01 }));
+        assertEquals(OpenClosedType.CLOSED, mapper.toType(datapoint(1, "1.019"), new byte[] { 0x00 }));
+        assertEquals(new DecimalType(1), mapper.toType(datapoint(1, "1.022"), new byte[] { 0x01 }));
+    }
+
+    @Test
+    public void testToType_scalingFastPath() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertEquals(PercentType.ZERO, mapper.toType(datapoint(5, "5.001"), new byte[] { 0x00 }));
+        assertEquals(new PercentType(50), mapper.toType(datapoint(5, "5.001"), new byte[] { (byte) 0x80 }));
+        assertEquals(PercentType.HUNDRED, mapper.toType(datapoint(5, "5.001"), new byte[] { (byte) 0xFF }));
+    }
+
+    @Test
+    public void testToType_2ByteFloatFastPath() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        // 21.5 °C = 0x0C33 (M=1075, E=1)
+        assertEquals(21.5, ((DecimalType) mapper.toType(datapoint(9, "9.001"), new byte[] { 0x0C, 0x33 }))
+                .doubleValue(), 0.001);
+        // -1.0 °C = 0x879C (M=-100, E=0)
+        assertEquals(-1.0, ((DecimalType) mapper.toType(datapoint(9, "9.001"), new byte[] { (byte) 0x87,
+                (byte) 0x9C })).doubleValue(), 0.001);
+        // 9.007 humidity is mapped to a PercentType
+        assertEquals(new PercentType(22), mapper.toType(datapoint(9, "9.007"), new byte[] { 0x0C, 0x33 }));
+    }
+
+    @Test
+    public void testToType_4ByteFloatFastPath() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        // 1234.5 = 0x449A5000
+        assertEquals(1234.5, ((DecimalType) mapper.toType(datapoint(14, "14.056"),
+                new byte[] { 0x44, (byte) 0x9A, 0x50, 0x00 })).doubleValue(), 0.001);
+    }
+
+    @Test
+    public void testToType_cachedTranslatorIsReused() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        Datapoint datapoint = datapoint(7, "7.001");
+        assertEquals(new DecimalType(258), mapper.toType(datapoint, new byte[] { 0x01, 0x02 }));
+        assertEquals(new DecimalType(772), mapper.toType(datapoint, new byte[] { 0x03, 0x04 }));
+    }
+
+    @Test
+    public void testToType_shortDataIsRejected() {
+        KNXCoreTypeMapper mapper = new KNXCoreTypeMapper();
+        assertNull(mapper.toType(datapoint(9, "9.001"), new byte[] { 0x0C }));
+        assertNull(mapper.toType(datapoint(14, "14.056"), new byte[] { 0x44, (byte) 0x9A }));
+    }
+
+    private static Datapoint datapoint(int mainNumber, String dpt) {
+        try {
+            return new CommandDP(new GroupAddress("1/2/3"), "test", mainNumber, dpt);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * Splits the data read from a file into lines. A line is terminated by \n, \r or \r\n, the bytes of an unterminated
+ * line are kept for the next data, also if a \r\n is split between two buffers.
+ *
+ * This class is not thread safe, it is only used by the reader thread.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class LineSplitter {
+
+    private final Charset charset;
+
+    private byte[] lineBytes = new byte[256];
+    private int lineLength;
+    private boolean lastByteWasCR;
+
+    LineSplitter(Charset charset) {
+        this.charset = charset;
+    }
+
+    /**
+     * Add the complete lines of the data to the list and keep the rest for the next data.
+     */
+    void split(ByteBuffer buffer, List<String> lines) {
+        int lineStart = buffer.position();
+        int limit = buffer.limit();
+        for (int i = lineStart; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') {
+                if (b == '\n' && lastByteWasCR) {
+                    // second byte of \r\n
+                    lastByteWasCR = false;
+                    lineStart = i + 1;
+                    continue;
+                }
+                appendToLine(buffer, lineStart, i);
+                lines.add(new String(lineBytes, 0, lineLength, charset));
+                lineLength = 0;
+                lastByteWasCR = b == '\r';
+                lineStart = i + 1;
+            } else {
+                lastByteWasCR = false;
+            }
+        }
+        appendToLine(buffer, lineStart, limit);
+    }
+
+    /**
+     * Add the unterminated line to the list, e.g. the last line of a rotated file, and start a new line.
+     */
+    void flush(List<String> lines) {
+        if (lineLength > 0) {
+            lines.add(new String(lineBytes, 0, lineLength, charset));
+        }
+        clear();
+    }
+
+    /**
+     * Drop the unterminated line.
+     */
+    void clear() {
+        lineLength = 0;
+        lastByteWasCR = false;
+    }
+
+    private void appendToLine(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        if (length <= 0) {
+            return;
+        }
+        if (lineLength + length > lineBytes.length) {
+            lineBytes = Arrays.copyOf(lineBytes, Math.max(lineBytes.length * 2, lineLength + length));
+        }
+        buffer.position(start);
+        buffer.get(lineBytes, lineLength, length);
+        lineLength += length;
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderException;
+import org.openhab.binding.logreader.internal.filereader.api.LogFileReader;
+import org.openhab.core.common.NamedThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * NIO based log file reader implementation.
+ *
+ * The file is read with a {@link FileChannel} into a large buffer and all lines that were read at once are sent to the
+ * listeners as one batch. The reader is woken up by a {@link WatchService} when the file changes, if the file system
+ * does not support this, the file is checked every refresh interval.
+ *
+ * A rotation is detected if the file at the path is a different file than the open one (e.g. another inode) or if the
+ * file got shorter than the read position. The rest of the old file, including an unterminated last line, is read
+ * before the new file is opened.
+ *
+ * @author agent - Initial contribution
+ */
+public class NioFileTailer extends AbstractLogFileReader implements LogFileReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_BATCH_SIZE = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(NioFileTailer.class);
+    private final Charset charset = Charset.defaultCharset();
+
+    private @Nullable ExecutorService executor;
+    private volatile boolean running;
+
+    private final LineSplitter lineSplitter = new LineSplitter(charset);
+
+    @Override
+    public void start(String filePath, long refreshRate) throws FileReaderException {
+        Path path;
+        try {
+            path = Paths.get(filePath);
+        } catch (Exception e) {
+            throw new FileReaderException(e);
+        }
+        running = true;
+        ExecutorService localExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("logreader"));
+        executor = localExecutor;
+        logger.debug("Start reading {}", path);
+        localExecutor.execute(() -> tail(path, refreshRate));
+    }
+
+    @Override
+    public void stop() {
+        logger.debug("Shutdown");
+        running = false;
+        ExecutorService localExecutor = executor;
+        if (localExecutor != null) {
+            localExecutor.shutdownNow();
+        }
+        executor = null;
+    }
+
+    private void tail(Path path, long refreshRate) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        FileChannel channel = null;
+        Object fileKey = null;
+        boolean startAtEnd = true;
+
+        try (WatchService watchService = createWatchService(path)) {
+            while (running) {
+                if (channel == null) {
+                    if (!Files.exists(path)) {
+                        sendFileNotFoundToListeners();
+                        waitForChanges(watchService, path, refreshRate);
+                        continue;
+                    }
+                    channel = FileChannel.open(path, StandardOpenOption.READ);
+                    fileKey = Files.readAttributes(path, BasicFileAttributes.class).fileKey();
+                    if (startAtEnd) {
+                        channel.position(channel.size());
+                        startAtEnd = false;
+                    }
+                    lineSplitter.clear();
+                }
+
+                if (!readLines(channel, buffer) && running) {
+                    if (isRotated(path, channel, fileKey)) {
+                        logger.debug("File {} was rotated", path);
+                        // the last line of the old file might not be terminated
+                        List<String> lastLine = new ArrayList<>(1);
+                        lineSplitter.flush(lastLine);
+                        if (!lastLine.isEmpty()) {
+                            sendLinesToListeners(lastLine);
+                        }
+                        channel.close();
+                        channel = null;
+                        sendFileRotationToListeners();
+                    } else {
+                        waitForChanges(watchService, path, refreshRate);
+                    }
+                }
+            }
+        } catch (ClosedByInterruptException e) {
+            logger.debug("Reading {} was stopped", path);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            if (running) {
+                sendExceptionToListeners(e);
+            }
+        } finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    logger.debug("Closing {} failed: {}", path, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Read all available data and send the complete lines to the listeners.
+     *
+     * @return true if data was read.
+     */
+    private boolean readLines(FileChannel channel, ByteBuffer buffer) throws IOException {
+        boolean dataRead = false;
+        List<String> lines = new ArrayList<>();
+
+        while (running && channel.read(buffer) > 0) {
+            dataRead = true;
+            buffer.flip();
+            lineSplitter.split(buffer, lines);
+            buffer.clear();
+            if (lines.size() >= MAX_BATCH_SIZE) {
+                sendLinesToListeners(lines);
+                lines = new ArrayList<>();
+            }
+        }
+        if (!lines.isEmpty()) {
+            sendLinesToListeners(lines);
+        }
+        return dataRead;
+    }
+
+    private boolean isRotated(Path path, FileChannel channel, @Nullable Object fileKey) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return true;
+        }
+        Object currentFileKey = attributes.fileKey();
+        if (fileKey != null && currentFileKey != null && !fileKey.equals(currentFileKey)) {
+            return true;
+        }
+        return attributes.size() < channel.position();
+    }
+
+    private @Nullable WatchService createWatchService(Path path) {
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory == null) {
+            return null;
+        }
+        WatchService watchService = null;
+        try {
+            watchService = directory.getFileSystem().newWatchService();
+            directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+            return watchService;
+        } catch (IOException | UnsupportedOperationException e) {
+            logger.debug("Cannot watch {}, checking the file every refresh interval: {}", directory, e.getMessage());
+            if (watchService != null) {
+                try {
+                    watchService.close();
+                } catch (IOException ex) {
+                    // ignore
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Wait until the file was changed or the refresh interval is over.
+     */
+    private void waitForChanges(@Nullable WatchService watchService, Path path, long refreshRate)
+            throws InterruptedException {
+        if (watchService == null) {
+            Thread.sleep(refreshRate);
+            return;
+        }
+        Path fileName = path.getFileName();
+        long end = System.currentTimeMillis() + refreshRate;
+        long timeout = refreshRate;
+        while (timeout > 0) {
+            WatchKey key = watchService.poll(timeout, TimeUnit.MILLISECONDS);
+            if (key == null) {
+                return;
+            }
+            boolean fileChanged = false;
+            for (WatchEvent<?> event : key.pollEvents()) {
+                // other files in the same directory change as well
+                fileChanged |= event.kind() == OVERFLOW || fileName.equals(event.context());
+            }
+            key.reset();
+            if (fileChanged) {
+                return;
+            }
+            timeout = end - System.currentTimeMillis();
+        }
+    }
+}
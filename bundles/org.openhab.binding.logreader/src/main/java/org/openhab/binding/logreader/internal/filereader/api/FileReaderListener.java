@@ -12,6 +12,8 @@
  */
 package org.openhab.binding.logreader.internal.filereader.api;
 
+import java.util.List;
+
 /**
  * Interface for file reader listeners.
  *
@@ -37,6 +39,17 @@ public interface FileReaderListener {
      */
     void handle(String line);
 
+    /**
+     * This method is called when new lines are detected.
+     *
+     * @param lines the lines in the order they were read.
+     */
+    default void handle(List<String> lines) {
+        for (String line : lines) {
+            handle(line);
+        }
+    }
+
     /**
      * This method is called when exception has occurred.
      *
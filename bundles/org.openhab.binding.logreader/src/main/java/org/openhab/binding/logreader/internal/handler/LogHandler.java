@@ -15,6 +15,7 @@ package org.openhab.binding.logreader.internal.handler;
 import static org.openhab.binding.logreader.internal.LogReaderBindingConstants.*;
 
 import java.time.ZonedDateTime;
+import java.util.List;
 import java.util.regex.PatternSyntaxException;
 
 import org.openhab.binding.logreader.internal.config.LogReaderConfiguration;
@@ -175,25 +176,43 @@ public class LogHandler extends BaseThingHandler implements FileReaderListener {
         if (line == null) {
             return;
         }
+        handle(List.of(line));
+    }
 
+    @Override
+    public void handle(List<String> lines) {
         if (!(thing.getStatus() == ThingStatus.ONLINE)) {
             updateStatus(ThingStatus.ONLINE);
         }
 
-        if (errorEngine.isMatching(line)) {
-            updateChannelIfLinked(CHANNEL_ERRORS, new DecimalType(errorEngine.getMatchCount()));
-            updateChannelIfLinked(CHANNEL_LASTERROR, new StringType(line));
-            triggerChannel(CHANNEL_NEWERROR, line);
-        }
-        if (warningEngine.isMatching(line)) {
-            updateChannelIfLinked(CHANNEL_WARNINGS, new DecimalType(warningEngine.getMatchCount()));
-            updateChannelIfLinked(CHANNEL_LASTWARNING, new StringType(line));
-            triggerChannel(CHANNEL_NEWWARNING, line);
+        String lastError = null;
+        String lastWarning = null;
+        String lastCustomEvent = null;
+        for (String line : lines) {
+            if (errorEngine.isMatching(line)) {
+                lastError = line;
+                triggerChannel(CHANNEL_NEWERROR, line);
+            }
+            if (warningEngine.isMatching(line)) {
+                lastWarning = line;
+                triggerChannel(CHANNEL_NEWWARNING, line);
+            }
+            if (customEngine.isMatching(line)) {
+                lastCustomEvent = line;
+                triggerChannel(CHANNEL_NEWCUSTOM, line);
+            }
         }
-        if (customEngine.isMatching(line)) {
-            updateChannelIfLinked(CHANNEL_CUSTOMEVENTS, new DecimalType(customEngine.getMatchCount()));
-            updateChannelIfLinked(CHANNEL_LASTCUSTOMEVENT, new StringType(line));
-            triggerChannel(CHANNEL_NEWCUSTOM, line);
+
+        // the lines are triggered in the order they were read, but the states are only updated once per batch
+        updateMatches(lastError, errorEngine, CHANNEL_ERRORS, CHANNEL_LASTERROR);
+        updateMatches(lastWarning, warningEngine, CHANNEL_WARNINGS, CHANNEL_LASTWARNING);
+        updateMatches(lastCustomEvent, customEngine, CHANNEL_CUSTOMEVENTS, CHANNEL_LASTCUSTOMEVENT);
+    }
+
+    private void updateMatches(String lastMatch, SearchEngine engine, String countChannel, String lastChannel) {
+        if (lastMatch != null) {
+            updateChannelIfLinked(countChannel, new DecimalType(engine.getMatchCount()));
+            updateChannelIfLinked(lastChannel, new StringType(lastMatch));
         }
     }
 
@@ -14,7 +14,6 @@ package org.openhab.binding.logreader.internal.searchengine;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -23,12 +22,19 @@ import org.eclipse.jdt.annotation.Nullable;
 /**
  * This class implements logic for regular expression based searching.
  *
+ * Every match of a search pattern contains the literal text the pattern starts with, e.g. "ERRO" for "ERROR+". Lines
+ * without that text are rejected with a plain substring search, which is much cheaper than running the regular
+ * expression. Patterns without any regular expression syntax do not need the regular expression at all.
+ *
  * @author Pauli Anttila - Initial contribution
  */
 public class SearchEngine {
 
-    private List<Pattern> matchers;
-    private List<Pattern> blacklistingMatchers;
+    private static final String METACHARACTERS = "\\^$.|?*+()[]{}";
+    private static final String QUANTIFIERS = "?*+{";
+
+    private List<SearchPattern> matchers;
+    private List<SearchPattern> blacklistingMatchers;
 
     private long matchCount;
 
@@ -78,14 +84,14 @@ public class SearchEngine {
      * @param patterns patterns which will handled.
      * @return list of precompiled patterns. If pattern parameter is null, empty list is returned.
      */
-    private List<Pattern> compilePatterns(@Nullable String patterns) throws PatternSyntaxException {
-        List<Pattern> patternsList = new ArrayList<>();
+    private List<SearchPattern> compilePatterns(@Nullable String patterns) throws PatternSyntaxException {
+        List<SearchPattern> patternsList = new ArrayList<>();
 
         if (patterns != null && !patterns.isEmpty()) {
             String list[] = patterns.split("\\|");
             if (list.length > 0) {
                 for (String patternStr : list) {
-                    patternsList.add(Pattern.compile(patternStr));
+                    patternsList.add(new SearchPattern(patternStr));
                 }
             }
         }
@@ -96,15 +102,54 @@ public class SearchEngine {
         return !isMatching(blacklistingMatchers, data);
     }
 
-    private boolean isMatching(@Nullable List<Pattern> patterns, String data) {
+    private boolean isMatching(@Nullable List<SearchPattern> patterns, String data) {
         if (patterns != null) {
-            for (Pattern pattern : patterns) {
-                Matcher matcher = pattern.matcher(data);
-                if (matcher.find()) {
+            for (SearchPattern pattern : patterns) {
+                if (pattern.find(data)) {
                     return true;
                 }
             }
         }
         return false;
     }
+
+    /**
+     * Get the literal text every match of the pattern starts with.
+     *
+     * @param pattern regular expression.
+     * @return the characters before the first regular expression syntax, without a quantified last character. An
+     *         empty string if the pattern contains an alternation, as its alternatives might not share a prefix.
+     */
+    static String getLiteralPrefix(String pattern) {
+        if (pattern.indexOf('|') >= 0) {
+            return "";
+        }
+        int end = 0;
+        while (end < pattern.length() && METACHARACTERS.indexOf(pattern.charAt(end)) < 0) {
+            end++;
+        }
+        if (end > 0 && end < pattern.length() && QUANTIFIERS.indexOf(pattern.charAt(end)) >= 0) {
+            end--;
+        }
+        return pattern.substring(0, end);
+    }
+
+    private static class SearchPattern {
+        private final String literalPrefix;
+        private final @Nullable Pattern pattern;
+
+        SearchPattern(String pattern) throws PatternSyntaxException {
+            Pattern compiledPattern = Pattern.compile(pattern);
+            literalPrefix = getLiteralPrefix(pattern);
+            this.pattern = literalPrefix.length() == pattern.length() ? null : compiledPattern;
+        }
+
+        boolean find(String data) {
+            if (!data.contains(literalPrefix)) {
+                return false;
+            }
+            Pattern localPattern = pattern;
+            return localPattern == null || localPattern.matcher(data).find();
+        }
+    }
 }
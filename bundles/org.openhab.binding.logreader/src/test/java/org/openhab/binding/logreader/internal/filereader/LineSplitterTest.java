@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the splitting of the read data into lines by the {@link LineSplitter}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class LineSplitterTest {
+
+    private final LineSplitter splitter = new LineSplitter(StandardCharsets.UTF_8);
+    private final List<String> lines = new ArrayList<>();
+
+    @Test
+    public void allLineTerminatorsAreSupported() {
+        split("first\nsecond\rthird\r\nfourth\n");
+
+        assertEquals(List.of("first", "second", "third", "fourth"), lines);
+    }
+
+    @Test
+    public void emptyLinesAreKept() {
+        split("first\n\nthird\r\r\n");
+
+        assertEquals(List.of("first", "", "third", ""), lines);
+    }
+
+    @Test
+    public void lineSplitBetweenBuffersIsJoined() {
+        split("fir");
+        assertEquals(List.of(), lines);
+
+        split("st\nsec");
+        split("ond\n");
+
+        assertEquals(List.of("first", "second"), lines);
+    }
+
+    @Test
+    public void crLfSplitBetweenBuffersIsOneTerminator() {
+        split("first\r");
+        split("\nsecond\n");
+
+        assertEquals(List.of("first", "second"), lines);
+    }
+
+    @Test
+    public void lineLongerThanTheLineBufferIsKept() {
+        String longLine = "x".repeat(1000);
+        split(longLine.substring(0, 300));
+        split(longLine.substring(300) + "\n");
+
+        assertEquals(List.of(longLine), lines);
+    }
+
+    @Test
+    public void multiByteCharacterSplitBetweenBuffersIsDecoded() {
+        byte[] bytes = "äöü\n".getBytes(StandardCharsets.UTF_8);
+        splitter.split(ByteBuffer.wrap(bytes, 0, 1), lines);
+        splitter.split(ByteBuffer.wrap(bytes, 1, bytes.length - 1), lines);
+
+        assertEquals(List.of("äöü"), lines);
+    }
+
+    @Test
+    public void flushAddsTheUnterminatedLine() {
+        split("first\nlast");
+        assertEquals(List.of("first"), lines);
+
+        splitter.flush(lines);
+        splitter.flush(lines);
+
+        assertEquals(List.of("first", "last"), lines);
+    }
+
+    @Test
+    public void clearDropsTheUnterminatedLine() {
+        split("first\r");
+        split("partial");
+        splitter.clear();
+        split("\nnext\n");
+
+        assertEquals(List.of("first", "", "next"), lines);
+    }
+
+    private void split(String data) {
+        splitter.split(ByteBuffer.wrap(data.getBytes(StandardCharsets.UTF_8)), lines);
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.filereader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.binding.logreader.internal.filereader.api.FileReaderListener;
+
+/**
+ * Tests the reading and the rotation detection of the {@link NioFileTailer} with a temporary log file.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class NioFileTailerTest {
+
+    private static final String ROTATED = "<rotated>";
+    private static final long REFRESH_RATE = 50;
+
+    private @TempDir @NonNullByDefault({}) File folder;
+    private @NonNullByDefault({}) Path logFile;
+
+    private final NioFileTailer tailer = new NioFileTailer();
+    private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        logFile = folder.toPath().resolve("openhab.log");
+        Files.writeString(logFile, "old line\n", Charset.defaultCharset());
+
+        tailer.registerListener(new FileReaderListener() {
+            @Override
+            public void fileNotFound() {
+            }
+
+            @Override
+            public void fileRotated() {
+                events.add(ROTATED);
+            }
+
+            @Override
+            public void handle(String line) {
+                events.add(line);
+            }
+
+            @Override
+            public void handle(Exception ex) {
+                events.add(ex.toString());
+            }
+        });
+        tailer.start(logFile.toString(), REFRESH_RATE);
+        // the file is read from the end, append lines until the reader has opened it
+        String line = null;
+        for (int i = 0; i < 100 && line == null; i++) {
+            append("sync\n");
+            line = events.poll(REFRESH_RATE, TimeUnit.MILLISECONDS);
+        }
+        assertEquals("sync", line);
+        while (events.poll(2 * REFRESH_RATE, TimeUnit.MILLISECONDS) != null) {
+            // drop the remaining sync lines
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        tailer.stop();
+    }
+
+    @Test
+    public void appendedLinesAreRead() throws Exception {
+        append("first\nsecond\r\nthird");
+
+        assertEquals("first", nextEvent());
+        assertEquals("second", nextEvent());
+
+        append(" continued\n");
+        assertEquals("third continued", nextEvent());
+    }
+
+    @Test
+    public void unterminatedLastLineIsReadWhenTheFileIsRotated() throws Exception {
+        append("first\nlast");
+        assertEquals("first", nextEvent());
+
+        Files.move(logFile, folder.toPath().resolve("openhab.log.1"));
+        Files.writeString(logFile, "new\n", Charset.defaultCharset());
+
+        assertEquals("last", nextEvent());
+        assertEquals(ROTATED, nextEvent());
+        assertEquals("new", nextEvent());
+    }
+
+    @Test
+    public void truncatedFileIsReadFromTheStart() throws Exception {
+        append("first\n");
+        assertEquals("first", nextEvent());
+
+        Files.writeString(logFile, "new\n", Charset.defaultCharset());
+
+        assertEquals(ROTATED, nextEvent());
+        assertEquals("new", nextEvent());
+        assertEquals(List.of(), List.copyOf(events));
+    }
+
+    private void append(String data) throws IOException {
+        Files.writeString(logFile, data, Charset.defaultCharset(), StandardOpenOption.APPEND);
+    }
+
+    private @Nullable String nextEvent() throws InterruptedException {
+        return events.poll(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.logreader.internal.searchengine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the literal prefilter and the search of the {@link SearchEngine}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class SearchEngineTest {
+
+    @Test
+    public void patternWithoutSyntaxIsTheLiteralPrefix() {
+        assertEquals("ERROR", SearchEngine.getLiteralPrefix("ERROR"));
+        assertEquals("Exception in thread", SearchEngine.getLiteralPrefix("Exception in thread"));
+    }
+
+    @Test
+    public void prefixEndsAtTheFirstMetacharacter() {
+        assertEquals("ERR", SearchEngine.getLiteralPrefix("ERR.R"));
+        assertEquals("", SearchEngine.getLiteralPrefix("^ERROR"));
+        assertEquals("", SearchEngine.getLiteralPrefix("[EW]RROR"));
+        assertEquals("", SearchEngine.getLiteralPrefix("(?i)error"));
+        assertEquals("Exception in ", SearchEngine.getLiteralPrefix("Exception in (thread)"));
+        assertEquals("end", SearchEngine.getLiteralPrefix("end$"));
+    }
+
+    @Test
+    public void prefixEndsBeforeAnEscape() {
+        assertEquals("org", SearchEngine.getLiteralPrefix("org\\.openhab"));
+        assertEquals("", SearchEngine.getLiteralPrefix("\\[ERROR\\]"));
+        assertEquals("value", SearchEngine.getLiteralPrefix("value\\d+"));
+    }
+
+    @Test
+    public void quantifiedLastCharacterIsNotPartOfThePrefix() {
+        assertEquals("ERRO", SearchEngine.getLiteralPrefix("ERROR?"));
+        assertEquals("ERRO", SearchEngine.getLiteralPrefix("ERROR*"));
+        assertEquals("ERRO", SearchEngine.getLiteralPrefix("ERROR+"));
+        assertEquals("ERRO", SearchEngine.getLiteralPrefix("ERROR{0,2}"));
+        assertEquals("", SearchEngine.getLiteralPrefix("E?RROR"));
+    }
+
+    @Test
+    public void alternationHasNoPrefix() {
+        assertEquals("", SearchEngine.getLiteralPrefix("ERROR|WARN"));
+        assertEquals("", SearchEngine.getLiteralPrefix("ERR(OR|ROR)"));
+    }
+
+    @Test
+    public void linesAreMatchedLikeTheRegularExpression() {
+        SearchEngine engine = new SearchEngine("ERROR+|Exception in \\w+|WARN?", "");
+
+        assertTrue(engine.isMatching("2021-01-01 [ERRORR] failure"));
+        assertFalse(engine.isMatching("2021-01-01 [ERRO ] failure"));
+        assertTrue(engine.isMatching("Exception in thread"));
+        assertTrue(engine.isMatching("[WAR ] warning"));
+        assertFalse(engine.isMatching("[INFO ] info"));
+        assertFalse(engine.isMatching("Exception in "));
+        assertEquals(3, engine.getMatchCount());
+    }
+
+    @Test
+    public void blacklistedLinesAreNotMatched() {
+        SearchEngine engine = new SearchEngine("ERROR", "ignored\\.binding");
+
+        assertTrue(engine.isMatching("[ERROR] org.openhab.binding"));
+        assertFalse(engine.isMatching("[ERROR] ignored.binding"));
+        assertTrue(engine.isMatching("[ERROR] ignoredXbinding"));
+        assertEquals(2, engine.getMatchCount());
+    }
+}
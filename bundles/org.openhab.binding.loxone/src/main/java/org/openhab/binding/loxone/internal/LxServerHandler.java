@@ -44,6 +44,7 @@ import org.openhab.binding.loxone.internal.types.LxResponse;
 import org.openhab.binding.loxone.internal.types.LxState;
 import org.openhab.binding.loxone.internal.types.LxStateUpdate;
 import org.openhab.binding.loxone.internal.types.LxUuid;
+import org.openhab.binding.loxone.internal.types.LxUuidMap;
 import org.openhab.core.config.core.Configuration;
 import org.openhab.core.thing.Channel;
 import org.openhab.core.thing.ChannelUID;
@@ -87,7 +88,8 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
     // State with a unique UUID can be configured in many controls and each control can even have a different name of
     // the state. It must be ensured that updates received for this state UUID are passed to all controls that have this
     // state UUID configured.
-    private Map<LxUuid, Map<LxUuid, LxState>> states = new HashMap<>();
+    // States are indexed by the two halves of their UUID, so updates can be dispatched without creating UUID objects.
+    private final LxUuidMap<Map<LxUuid, LxState>> states = new LxUuidMap<>();
 
     private LxWebSocket socket;
     private WebSocketClient wsClient;
@@ -462,36 +464,43 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
     }
 
     /**
-     * Put a new state update event to the queue for processing and signal thread to process it
+     * Put a batch of state update events to the queue for processing and signal thread to process it
      *
-     * @param uuid state uuid (null indicates websocket session should be closed)
-     * @param value new state value
+     * @param update state updates of one event table
      */
-    void queueStateUpdate(LxUuid uuid, Object value) {
-        stateUpdateQueue.add(new LxStateUpdate(uuid, value));
+    void queueStateUpdate(LxStateUpdate update) {
+        stateUpdateQueue.add(update);
     }
 
     /**
-     * Update to the new value of a state received from Miniserver. This method will go through all instances of this
+     * Update to the new values of states received from Miniserver. This method will go through all instances of each
      * state UUID and update their value, which will trigger corresponding control state update method in each control
      * that has this state.
      *
-     * @param update Miniserver's update event
+     * @param update Miniserver's update events
      */
-    private void updateStateValue(LxStateUpdate update) {
-        Map<LxUuid, LxState> perStateUuid = states.get(update.getUuid());
-        if (perStateUuid != null) {
-            perStateUuid.forEach((controlUuid, state) -> {
-                logger.debug("[{}] State update (UUID={}, value={}) dispatched to control UUID={}, state name={}",
-                        debugId, update.getUuid(), update.getValue(), controlUuid, state.getName());
-
-                state.setStateValue(update.getValue());
-            });
-            if (perStateUuid.size() == 0) {
-                logger.debug("[{}] State update UUID={} has empty controls table", debugId, update.getUuid());
+    private void updateStateValues(LxStateUpdate update) {
+        for (int i = 0; i < update.size(); i++) {
+            long mostSignificantBits = update.getMostSignificantBits(i);
+            long leastSignificantBits = update.getLeastSignificantBits(i);
+            Map<LxUuid, LxState> perStateUuid = states.get(mostSignificantBits, leastSignificantBits);
+            if (perStateUuid != null) {
+                Object value = update.getValue(i);
+                perStateUuid.forEach((controlUuid, state) -> {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("[{}] State update (UUID={}, value={}) dispatched to control UUID={}, state name={}",
+                                debugId, state.getUuid(), value, controlUuid, state.getName());
+                    }
+                    state.setStateValue(value);
+                });
+                if (perStateUuid.size() == 0 && logger.isDebugEnabled()) {
+                    logger.debug("[{}] State update UUID={} has empty controls table", debugId,
+                            LxUuid.toString(mostSignificantBits, leastSignificantBits));
+                }
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("[{}] State update UUID={} has no controls table", debugId,
+                        LxUuid.toString(mostSignificantBits, leastSignificantBits));
             }
-        } else {
-            logger.debug("[{}] State update UUID={} has no controls table", debugId, update.getUuid());
         }
     }
 
@@ -509,10 +518,17 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
         LxUuid uuid = control.getUuid();
         logger.debug("[{}] Adding control to handler: {}, {}", debugId, uuid, control.getName());
         control.getStates().values().forEach(state -> {
-            Map<LxUuid, LxState> perUuid = states.get(state.getUuid());
+            LxUuid stateUuid = state.getUuid();
+            if (!stateUuid.isBinary()) {
+                // such a state can not be addressed by Miniserver's binary state updates
+                logger.debug("[{}] State {} of control {} has an invalid UUID {}", debugId, state.getName(), uuid,
+                        stateUuid);
+                return;
+            }
+            Map<LxUuid, LxState> perUuid = states.get(stateUuid);
             if (perUuid == null) {
                 perUuid = new HashMap<>();
-                states.put(state.getUuid(), perUuid);
+                states.put(stateUuid, perUuid);
             }
             perUuid.put(uuid, state);
         });
@@ -710,7 +726,7 @@ public class LxServerHandler extends BaseThingHandler implements LxServerHandler
                     elapsed = 0;
                 }
                 if (update != null) {
-                    updateStateValue(update);
+                    updateStateValues(update);
                 }
             }
         }
@@ -39,6 +39,7 @@ import org.openhab.binding.loxone.internal.security.LxWsSecurity;
 import org.openhab.binding.loxone.internal.types.LxConfig;
 import org.openhab.binding.loxone.internal.types.LxErrorCode;
 import org.openhab.binding.loxone.internal.types.LxResponse;
+import org.openhab.binding.loxone.internal.types.LxStateUpdate;
 import org.openhab.binding.loxone.internal.types.LxUuid;
 import org.openhab.binding.loxone.internal.types.LxWsBinaryHeader;
 import org.openhab.binding.loxone.internal.types.LxWsSecurityType;
@@ -62,6 +63,7 @@ public class LxWebSocket {
     private static final String CMD_KEEPALIVE = "keepalive";
     private static final String CMD_ENABLE_UPDATES = "jdev/sps/enablebinstatusupdate";
     private static final String CMD_GET_APP_CONFIG = "data/LoxAPP3.json";
+    private static final int VALUE_STATE_SIZE = 24;
 
     private final int debugId;
     private final Gson gson;
@@ -238,24 +240,10 @@ public class LxWebSocket {
                 switch (header.getType()) {
                     case EVENT_TABLE_OF_VALUE_STATES:
                         stopResponseTimeout();
-                        while (length > 0) {
-                            Double value = ByteBuffer.wrap(data, offset + 16, 8).order(ByteOrder.LITTLE_ENDIAN)
-                                    .getDouble();
-                            thingHandler.queueStateUpdate(new LxUuid(data, offset), value);
-                            offset += 24;
-                            length -= 24;
-                        }
+                        thingHandler.queueStateUpdate(decodeValueStates(data, offset, length));
                         break;
                     case EVENT_TABLE_OF_TEXT_STATES:
-                        while (length > 0) {
-                            // unused today at (offset + 16): iconUuid
-                            int textLen = ByteBuffer.wrap(data, offset + 32, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
-                            String value = new String(data, offset + 36, textLen);
-                            int size = 36 + (textLen % 4 > 0 ? textLen + 4 - (textLen % 4) : textLen);
-                            thingHandler.queueStateUpdate(new LxUuid(data, offset), value);
-                            offset += size;
-                            length -= size;
-                        }
+                        thingHandler.queueStateUpdate(decodeTextStates(data, offset, length));
                         break;
                     case KEEPALIVE_RESPONSE:
                     case TEXT_MESSAGE:
@@ -272,6 +260,50 @@ public class LxWebSocket {
         }
     }
 
+    /**
+     * Decode an event table of value states. Each entry consists of the state UUID and a double value.
+     *
+     * @param data message data
+     * @param offset offset of the table in the message data
+     * @param length length of the table
+     * @return batch with all updates of the table
+     */
+    static LxStateUpdate decodeValueStates(byte data[], int offset, int length) {
+        ByteBuffer buffer = ByteBuffer.wrap(data, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+        int count = length / VALUE_STATE_SIZE;
+        LxStateUpdate update = new LxStateUpdate(count, false);
+        for (int i = 0, index = offset; i < count; i++, index += VALUE_STATE_SIZE) {
+            update.add(LxUuid.getMostSignificantBits(buffer, index), LxUuid.getLeastSignificantBits(buffer, index),
+                    buffer.getDouble(index + 16));
+        }
+        return update;
+    }
+
+    /**
+     * Decode an event table of text states. Each entry consists of the state UUID, icon UUID and a text padded to a
+     * multiple of 4 bytes.
+     *
+     * @param data message data
+     * @param offset offset of the table in the message data
+     * @param length length of the table
+     * @return batch with all updates of the table
+     */
+    static LxStateUpdate decodeTextStates(byte data[], int offset, int length) {
+        ByteBuffer buffer = ByteBuffer.wrap(data, offset, length).order(ByteOrder.LITTLE_ENDIAN);
+        LxStateUpdate update = new LxStateUpdate(16, true);
+        int index = offset;
+        int end = offset + length;
+        while (index < end) {
+            // unused today at (index + 16): iconUuid
+            int textLen = buffer.getInt(index + 32);
+            String value = new String(data, index + 36, textLen);
+            update.add(LxUuid.getMostSignificantBits(buffer, index), LxUuid.getLeastSignificantBits(buffer, index),
+                    value);
+            index += 36 + (textLen % 4 > 0 ? textLen + 4 - (textLen % 4) : textLen);
+        }
+        return update;
+    }
+
     @OnWebSocketMessage
     public void onMessage(String msg) {
         webSocketLock.lock();
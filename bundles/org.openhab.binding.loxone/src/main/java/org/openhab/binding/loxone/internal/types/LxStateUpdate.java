@@ -12,27 +12,101 @@
  */
 package org.openhab.binding.loxone.internal.types;
 
+import java.util.Arrays;
+
 /**
- * A state update event. It is used to defer and queue processing of Loxone state updates, so they are not processed in
- * the websocket thread.
+ * A batch of state update events. It is used to defer and queue processing of Loxone state updates, so they are not
+ * processed in the websocket thread.
+ * <p>
+ * All updates of one event table are kept in one batch. UUIDs are stored as their two halves and the values of value
+ * states as primitive doubles, so no objects are created for the single updates.
  *
  * @author Pawel Pieczul - initial contribution
  *
  */
 public class LxStateUpdate {
-    private final LxUuid uuid;
-    private final Object value;
+    private long[] uuids;
+    private double[] values;
+    private String[] texts;
+    private int size;
+
+    /**
+     * Create a batch for the updates of one event table.
+     *
+     * @param capacity expected number of updates
+     * @param text true if the updates have text values, false for numeric values
+     */
+    public LxStateUpdate(int capacity, boolean text) {
+        int initialCapacity = Math.max(1, capacity);
+        uuids = new long[2 * initialCapacity];
+        if (text) {
+            texts = new String[initialCapacity];
+        } else {
+            values = new double[initialCapacity];
+        }
+    }
+
+    /**
+     * Add an update of a value state.
+     *
+     * @param mostSignificantBits most significant 64 bits of the state UUID
+     * @param leastSignificantBits least significant 64 bits of the state UUID
+     * @param value new value
+     */
+    public void add(long mostSignificantBits, long leastSignificantBits, double value) {
+        ensureCapacity();
+        setUuid(mostSignificantBits, leastSignificantBits);
+        values[size++] = value;
+    }
+
+    /**
+     * Add an update of a text state.
+     *
+     * @param mostSignificantBits most significant 64 bits of the state UUID
+     * @param leastSignificantBits least significant 64 bits of the state UUID
+     * @param text new text
+     */
+    public void add(long mostSignificantBits, long leastSignificantBits, String text) {
+        ensureCapacity();
+        setUuid(mostSignificantBits, leastSignificantBits);
+        texts[size++] = text;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getMostSignificantBits(int index) {
+        return uuids[2 * index];
+    }
+
+    public long getLeastSignificantBits(int index) {
+        return uuids[2 * index + 1];
+    }
 
-    public LxStateUpdate(LxUuid uuid, Object value) {
-        this.uuid = uuid;
-        this.value = value;
+    /**
+     * Gets the value of an update.
+     *
+     * @param index index of the update
+     * @return {@link Double} value of a value state or {@link String} of a text state
+     */
+    public Object getValue(int index) {
+        return texts != null ? texts[index] : Double.valueOf(values[index]);
     }
 
-    public LxUuid getUuid() {
-        return uuid;
+    private void setUuid(long mostSignificantBits, long leastSignificantBits) {
+        uuids[2 * size] = mostSignificantBits;
+        uuids[2 * size + 1] = leastSignificantBits;
     }
 
-    public Object getValue() {
-        return value;
+    private void ensureCapacity() {
+        if (2 * size == uuids.length) {
+            uuids = Arrays.copyOf(uuids, 2 * uuids.length);
+            if (texts != null) {
+                texts = Arrays.copyOf(texts, 2 * texts.length);
+            } else {
+                values = Arrays.copyOf(values, 2 * values.length);
+            }
+        }
     }
 }
@@ -31,8 +31,13 @@ import com.google.gson.JsonParseException;
  *
  */
 public class LxUuid {
+    private static final int UUID_DIGITS = 32;
+
     private final String uuid;
     private final String uuidOriginal;
+    private final long mostSignificantBits;
+    private final long leastSignificantBits;
+    private final boolean binary;
 
     public static final JsonDeserializer<LxUuid> DESERIALIZER = new JsonDeserializer<LxUuid>() {
         @Override
@@ -54,17 +59,62 @@ public class LxUuid {
     public LxUuid(String uuid) {
         uuidOriginal = uuid;
         this.uuid = init(uuid);
+        String digits = uuid.replace("-", "");
+        if (digits.length() == UUID_DIGITS && digits.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            mostSignificantBits = Long.parseUnsignedLong(digits.substring(0, UUID_DIGITS / 2), 16);
+            leastSignificantBits = Long.parseUnsignedLong(digits.substring(UUID_DIGITS / 2), 16);
+            binary = true;
+        } else {
+            mostSignificantBits = 0;
+            leastSignificantBits = 0;
+            binary = false;
+        }
     }
 
     public LxUuid(byte data[], int offset) {
-        String id = String.format("%08x-%04x-%04x-%02x%02x%02x%02x%02x%02x%02x%02x",
-                ByteBuffer.wrap(data, offset, 4).order(ByteOrder.LITTLE_ENDIAN).getInt(),
-                ByteBuffer.wrap(data, offset + 4, 2).order(ByteOrder.LITTLE_ENDIAN).getShort(),
-                ByteBuffer.wrap(data, offset + 6, 2).order(ByteOrder.LITTLE_ENDIAN).getShort(), data[offset + 8],
-                data[offset + 9], data[offset + 10], data[offset + 11], data[offset + 12], data[offset + 13],
-                data[offset + 14], data[offset + 15]);
-        uuidOriginal = id;
-        this.uuid = init(id);
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        mostSignificantBits = getMostSignificantBits(buffer, offset);
+        leastSignificantBits = getLeastSignificantBits(buffer, offset);
+        binary = true;
+        uuidOriginal = String.format("%08x-%04x-%04x-%016x", mostSignificantBits >>> 32,
+                (mostSignificantBits >>> 16) & 0xffff, mostSignificantBits & 0xffff, leastSignificantBits);
+        this.uuid = init(uuidOriginal);
+    }
+
+    /**
+     * Reads the first half of a UUID in the binary form used in Miniserver's event tables.
+     *
+     * @param buffer little-endian buffer with the binary UUID
+     * @param index index of the UUID in the buffer
+     * @return most significant 64 bits of the UUID
+     */
+    public static long getMostSignificantBits(ByteBuffer buffer, int index) {
+        return (buffer.getInt(index) & 0xffffffffL) << 32 | (buffer.getShort(index + 4) & 0xffffL) << 16
+                | (buffer.getShort(index + 6) & 0xffffL);
+    }
+
+    /**
+     * Reads the second half of a UUID in the binary form used in Miniserver's event tables.
+     *
+     * @param buffer little-endian buffer with the binary UUID
+     * @param index index of the UUID in the buffer
+     * @return least significant 64 bits of the UUID
+     */
+    public static long getLeastSignificantBits(ByteBuffer buffer, int index) {
+        // the last 8 bytes are stored in the order in which they are written in the string form
+        return Long.reverseBytes(buffer.getLong(index + 8));
+    }
+
+    /**
+     * Returns the string form of a UUID that is given by its two halves.
+     *
+     * @param mostSignificantBits most significant 64 bits of the UUID
+     * @param leastSignificantBits least significant 64 bits of the UUID
+     * @return UUID string, as returned by {@link #toString()}
+     */
+    public static String toString(long mostSignificantBits, long leastSignificantBits) {
+        return String.format("%08X-%04X-%04X-%016X", mostSignificantBits >>> 32, (mostSignificantBits >>> 16) & 0xffff,
+                mostSignificantBits & 0xffff, leastSignificantBits);
     }
 
     private String init(String uuid) {
@@ -96,6 +146,33 @@ public class LxUuid {
         return uuid;
     }
 
+    /**
+     * Checks if the UUID has the 128 bit form, which is used for states in Miniserver's binary messages.
+     *
+     * @return true if the UUID can be represented by its two halves
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+
+    /**
+     * Returns the most significant 64 bits of a UUID in the 128 bit form.
+     *
+     * @return most significant bits, 0 if the UUID is not in the 128 bit form
+     */
+    public long getMostSignificantBits() {
+        return mostSignificantBits;
+    }
+
+    /**
+     * Returns the least significant 64 bits of a UUID in the 128 bit form.
+     *
+     * @return least significant bits, 0 if the UUID is not in the 128 bit form
+     */
+    public long getLeastSignificantBits() {
+        return leastSignificantBits;
+    }
+
     /**
      * Returns an original string that was used to create UUID.
      *
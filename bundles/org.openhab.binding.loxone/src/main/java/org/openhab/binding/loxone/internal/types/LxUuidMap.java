@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal.types;
+
+import java.util.Arrays;
+
+/**
+ * A map of UUIDs in the 128 bit form to values.
+ * <p>
+ * Keys are stored as two long values in an open addressing table with linear probing, so values can be looked up
+ * with the halves of a UUID received in a binary message without creating any objects.
+ *
+ * @author agent - initial contribution
+ *
+ * @param <V> type of the values
+ */
+public class LxUuidMap<V> {
+    private static final int INITIAL_CAPACITY = 256;
+
+    // two longs per slot, slot is empty if its value is null
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int shift;
+    private int size;
+
+    public LxUuidMap() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Gets the value of a UUID.
+     *
+     * @param mostSignificantBits most significant 64 bits of the UUID
+     * @param leastSignificantBits least significant 64 bits of the UUID
+     * @return value or null if there is no value for this UUID
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long mostSignificantBits, long leastSignificantBits) {
+        int slot = slot(mostSignificantBits, leastSignificantBits);
+        while (values[slot] != null) {
+            if (keys[2 * slot] == mostSignificantBits && keys[2 * slot + 1] == leastSignificantBits) {
+                return (V) values[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the value of a UUID.
+     *
+     * @param uuid UUID, which does not have to be in the 128 bit form
+     * @return value or null if there is no value for this UUID
+     */
+    public V get(LxUuid uuid) {
+        return uuid.isBinary() ? get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()) : null;
+    }
+
+    /**
+     * Sets the value of a UUID.
+     *
+     * @param uuid UUID in the 128 bit form
+     * @param value value, must not be null
+     * @throws IllegalArgumentException if the UUID is not in the 128 bit form
+     */
+    public void put(LxUuid uuid, V value) {
+        if (!uuid.isBinary()) {
+            throw new IllegalArgumentException("UUID " + uuid + " is not in the 128 bit form");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Value must not be null");
+        }
+        if (2 * (size + 1) > values.length) {
+            resize();
+        }
+        long mostSignificantBits = uuid.getMostSignificantBits();
+        long leastSignificantBits = uuid.getLeastSignificantBits();
+        int slot = slot(mostSignificantBits, leastSignificantBits);
+        while (values[slot] != null) {
+            if (keys[2 * slot] == mostSignificantBits && keys[2 * slot + 1] == leastSignificantBits) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[2 * slot] = mostSignificantBits;
+        keys[2 * slot + 1] = leastSignificantBits;
+        values[slot] = value;
+        size++;
+    }
+
+    /**
+     * Removes the value of a UUID.
+     *
+     * @param uuid UUID, which does not have to be in the 128 bit form
+     */
+    public void remove(LxUuid uuid) {
+        if (!uuid.isBinary()) {
+            return;
+        }
+        long mostSignificantBits = uuid.getMostSignificantBits();
+        long leastSignificantBits = uuid.getLeastSignificantBits();
+        int slot = slot(mostSignificantBits, leastSignificantBits);
+        while (values[slot] != null) {
+            if (keys[2 * slot] == mostSignificantBits && keys[2 * slot + 1] == leastSignificantBits) {
+                values[slot] = null;
+                size--;
+                closeGap(slot);
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * @return number of UUIDs with a value
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Moves the entries following a removed entry back, so no entry is behind an empty slot on its probing sequence.
+     */
+    private void closeGap(int emptySlot) {
+        int gap = emptySlot;
+        int slot = gap;
+        while (true) {
+            slot = (slot + 1) & mask;
+            if (values[slot] == null) {
+                return;
+            }
+            int home = slot(keys[2 * slot], keys[2 * slot + 1]);
+            // the entry can be moved to the gap if its home slot is not between the gap and its current slot
+            boolean reachable = gap <= slot ? gap < home && home <= slot : gap < home || home <= slot;
+            if (!reachable) {
+                keys[2 * gap] = keys[2 * slot];
+                keys[2 * gap + 1] = keys[2 * slot + 1];
+                values[gap] = values[slot];
+                values[slot] = null;
+                gap = slot;
+            }
+        }
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(oldValues.length * 2);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[2 * i], oldKeys[2 * i + 1]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[2 * slot] = oldKeys[2 * i];
+                keys[2 * slot + 1] = oldKeys[2 * i + 1];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[2 * capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        shift = Long.numberOfLeadingZeros(mask);
+    }
+
+    private int slot(long mostSignificantBits, long leastSignificantBits) {
+        // UUIDs of one Miniserver often differ only in a few bits, the multiplication spreads them to the upper bits
+        return (int) (((mostSignificantBits ^ leastSignificantBits) * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+}
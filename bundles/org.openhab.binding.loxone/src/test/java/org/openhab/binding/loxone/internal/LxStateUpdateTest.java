@@ -0,0 +1,181 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.loxone.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.openhab.binding.loxone.internal.types.LxStateUpdate;
+import org.openhab.binding.loxone.internal.types.LxUuid;
+import org.openhab.binding.loxone.internal.types.LxUuidMap;
+
+/**
+ * Tests decoding of Miniserver's event tables and looking up their states, using the UUIDs of the test configuration
+ *
+ * @author agent - initial contribution
+ *
+ */
+public class LxStateUpdateTest {
+    private static final Pattern UUID_PATTERN = Pattern
+            .compile("\"([0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{16})\"");
+
+    private List<LxUuid> uuids;
+    private byte[] valueTable;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        String config;
+        try (InputStream stream = LxStateUpdateTest.class.getResourceAsStream("controls/LoxAPP3.json")) {
+            assertNotNull(stream);
+            config = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        Set<String> strings = new LinkedHashSet<>();
+        Matcher matcher = UUID_PATTERN.matcher(config);
+        while (matcher.find()) {
+            strings.add(matcher.group(1));
+        }
+        uuids = new ArrayList<>();
+        strings.forEach(s -> uuids.add(new LxUuid(s)));
+        assertTrue(uuids.size() > 100);
+
+        // a table with an update of each UUID, as sent by the Miniserver after enabling status updates
+        ByteBuffer buffer = ByteBuffer.allocate(uuids.size() * 24).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < uuids.size(); i++) {
+            putUuid(buffer, uuids.get(i).getOriginalString());
+            buffer.putDouble(i + 0.5);
+        }
+        valueTable = buffer.array();
+    }
+
+    @Test
+    public void testUuidParsing() {
+        for (LxUuid uuid : uuids) {
+            assertTrue(uuid.isBinary());
+            assertEquals(uuid.toString(),
+                    LxUuid.toString(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+        }
+        assertFalse(new LxUuid("not-a-uuid").isBinary());
+        assertFalse(new LxUuid("0fec5dc3-003e-8800-ffff403fb0c34b9e1").isBinary());
+    }
+
+    @Test
+    public void testValueTable() {
+        LxStateUpdate update = LxWebSocket.decodeValueStates(valueTable, 0, valueTable.length);
+        assertEquals(uuids.size(), update.size());
+        for (int i = 0; i < update.size(); i++) {
+            assertEquals(uuids.get(i),
+                    new LxUuid(LxUuid.toString(update.getMostSignificantBits(i), update.getLeastSignificantBits(i))));
+            assertEquals(uuids.get(i), new LxUuid(valueTable, i * 24));
+            assertEquals(i + 0.5, update.getValue(i));
+        }
+    }
+
+    @Test
+    public void testTextTable() {
+        ByteBuffer buffer = ByteBuffer.allocate(200).order(ByteOrder.LITTLE_ENDIAN);
+        String[] texts = { "", "abc", "abcd", "Living room" };
+        for (int i = 0; i < texts.length; i++) {
+            putUuid(buffer, uuids.get(i).getOriginalString());
+            putUuid(buffer, uuids.get(i + texts.length).getOriginalString());
+            byte[] text = texts[i].getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(text.length);
+            buffer.put(text);
+            buffer.position((buffer.position() + 3) & ~3);
+        }
+        LxStateUpdate update = LxWebSocket.decodeTextStates(buffer.array(), 0, buffer.position());
+        assertEquals(texts.length, update.size());
+        for (int i = 0; i < texts.length; i++) {
+            assertEquals(uuids.get(i).getMostSignificantBits(), update.getMostSignificantBits(i));
+            assertEquals(uuids.get(i).getLeastSignificantBits(), update.getLeastSignificantBits(i));
+            assertEquals(texts[i], update.getValue(i));
+        }
+    }
+
+    @Test
+    public void testUuidMap() {
+        LxUuidMap<Integer> map = new LxUuidMap<>();
+        for (int i = 0; i < uuids.size(); i++) {
+            map.put(uuids.get(i), i);
+        }
+        assertEquals(uuids.size(), map.size());
+        for (int i = 0; i < uuids.size(); i++) {
+            assertEquals(Integer.valueOf(i), map.get(new LxUuid(uuids.get(i).toString())));
+        }
+        assertNull(map.get(new LxUuid("not-a-uuid")));
+        assertThrows(IllegalArgumentException.class, () -> map.put(new LxUuid("not-a-uuid"), 0));
+
+        // remove every other entry, the remaining ones must still be found
+        for (int i = 0; i < uuids.size(); i += 2) {
+            map.remove(uuids.get(i));
+        }
+        for (int i = 0; i < uuids.size(); i++) {
+            if (i % 2 == 0) {
+                assertNull(map.get(uuids.get(i)));
+            } else {
+                assertEquals(Integer.valueOf(i), map.get(uuids.get(i)));
+            }
+        }
+        assertEquals(uuids.size() / 2, map.size());
+        map.clear();
+        assertEquals(0, map.size());
+        assertNull(map.get(uuids.get(1)));
+    }
+
+    @Test
+    public void testUuidMapAgainstHashMap() {
+        LxUuidMap<Integer> map = new LxUuidMap<>();
+        Map<LxUuid, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+        // many puts and removes of UUIDs, which differ only in a few bits, move entries back into removed slots
+        for (int i = 0; i < 20000; i++) {
+            LxUuid uuid = new LxUuid(LxUuid.toString(0x0fec5dc3003e8800L, 0xffff403fb0c34b00L + random.nextInt(1000)));
+            if (random.nextInt(3) == 0) {
+                map.remove(uuid);
+                expected.remove(uuid);
+            } else {
+                map.put(uuid, i);
+                expected.put(uuid, i);
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        for (int i = 0; i < 1000; i++) {
+            LxUuid uuid = new LxUuid(LxUuid.toString(0x0fec5dc3003e8800L, 0xffff403fb0c34b00L + i));
+            assertEquals(expected.get(uuid), map.get(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+        }
+    }
+
+    private void putUuid(ByteBuffer buffer, String uuid) {
+        String digits = uuid.replace("-", "");
+        buffer.putInt(Integer.parseUnsignedInt(digits.substring(0, 8), 16));
+        buffer.putShort((short) Integer.parseInt(digits.substring(8, 12), 16));
+        buffer.putShort((short) Integer.parseInt(digits.substring(12, 16), 16));
+        buffer.order(ByteOrder.BIG_ENDIAN).putLong(Long.parseUnsignedLong(digits.substring(16), 16))
+                .order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
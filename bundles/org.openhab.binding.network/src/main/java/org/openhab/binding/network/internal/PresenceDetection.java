@@ -319,7 +319,7 @@ public class PresenceDetection implements IPRequestReceivedCallback {
             detectionChecks += 1;
         }
         if (arpPingMethod != ArpPingUtilEnum.UNKNOWN_TOOL) {
-            interfaceNames = networkUtils.getInterfaceNames();
+            interfaceNames = getArpInterfaceNames();
             detectionChecks += interfaceNames.size();
         }
 
@@ -377,6 +377,21 @@ public class PresenceDetection implements IPRequestReceivedCallback {
         return true;
     }
 
+    /**
+     * ARP requests are only answered on the network of the destination, so the ARP ping is only performed on the
+     * interfaces connected to it. All interfaces are used if the destination is not on a local network.
+     */
+    private Set<String> getArpInterfaceNames() {
+        InetAddress destinationAddress = destination.getValue();
+        if (destinationAddress != null) {
+            Set<String> interfaceNames = networkUtils.getInterfaceNames(destinationAddress);
+            if (!interfaceNames.isEmpty()) {
+                return interfaceNames;
+            }
+        }
+        return networkUtils.getInterfaceNames();
+    }
+
     /**
      * Calls updateListener.finalDetectionResult() with a final result value.
      * Safe to be called from different threads. After a call to this method,
@@ -21,6 +21,7 @@ import java.net.DatagramSocket;
 import java.net.Inet4Address;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.net.InterfaceAddress;
 import java.net.NetworkInterface;
 import java.net.NoRouteToHostException;
 import java.net.PortUnreachableException;
@@ -53,6 +54,9 @@ import org.slf4j.LoggerFactory;
  */
 @NonNullByDefault
 public class NetworkUtils {
+    // shared by all things and the discovery, so that identical pings only fork one process
+    private static final ProbeCoalescer NATIVE_PROBES = new ProbeCoalescer();
+
     private final Logger logger = LoggerFactory.getLogger(NetworkUtils.class);
 
     private LatencyParser latencyParser = new LatencyParser();
@@ -91,6 +95,53 @@ public class NetworkUtils {
         return result;
     }
 
+    /**
+     * Get the names of all interfaces that are connected to the IPv4 network of the given address. ARP requests for
+     * the address can only be answered on these interfaces.
+     *
+     * @param address The destination address
+     * @return Set of interface names, empty if the address is not on a local IPv4 network
+     */
+    public Set<String> getInterfaceNames(InetAddress address) {
+        Set<String> result = new HashSet<>();
+        if (!(address instanceof Inet4Address)) {
+            return result;
+        }
+
+        try {
+            for (Enumeration<NetworkInterface> en = NetworkInterface.getNetworkInterfaces(); en.hasMoreElements();) {
+                NetworkInterface networkInterface = en.nextElement();
+                if (networkInterface.isLoopback()) {
+                    continue;
+                }
+                for (InterfaceAddress interfaceAddress : networkInterface.getInterfaceAddresses()) {
+                    InetAddress localAddress = interfaceAddress.getAddress();
+                    if (localAddress instanceof Inet4Address && isInSameNetwork(localAddress,
+                            interfaceAddress.getNetworkPrefixLength(), address)) {
+                        result.add(networkInterface.getName());
+                    }
+                }
+            }
+        } catch (SocketException ignored) {
+            // If we are not allowed to enumerate, we return an empty result set.
+        }
+
+        return result;
+    }
+
+    static boolean isInSameNetwork(InetAddress localAddress, int prefixLength, InetAddress address) {
+        if (prefixLength < 0 || prefixLength > 32) {
+            return false;
+        }
+        int mask = prefixLength == 0 ? 0 : -1 << (32 - prefixLength);
+        return (toInt(localAddress) & mask) == (toInt(address) & mask);
+    }
+
+    private static int toInt(InetAddress address) {
+        byte[] bytes = address.getAddress();
+        return (bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | (bytes[3] & 0xFF);
+    }
+
     /**
      * Determines every IP which can be assigned on all available interfaces
      *
@@ -235,12 +286,19 @@ public class NetworkUtils {
      */
     public Optional<PingResult> nativePing(@Nullable IpPingMethodEnum method, String hostname, int timeoutInMS)
             throws IOException, InterruptedException {
-        double execStartTimeInMS = System.currentTimeMillis();
-
-        Process proc;
         if (method == null) {
             return Optional.empty();
         }
+        final IpPingMethodEnum pingMethod = method;
+        return NATIVE_PROBES.probe("ping " + method + " " + hostname + " " + timeoutInMS,
+                () -> executeNativePing(pingMethod, hostname, timeoutInMS));
+    }
+
+    private Optional<PingResult> executeNativePing(IpPingMethodEnum method, String hostname, int timeoutInMS)
+            throws IOException, InterruptedException {
+        double execStartTimeInMS = System.currentTimeMillis();
+
+        Process proc;
         // Yes, all supported operating systems have their own ping utility with a different command line
         switch (method) {
             case IPUTILS_LINUX_PING:
@@ -266,7 +324,7 @@ public class NetworkUtils {
         // Exception: return code is also 0 in Windows for all requests on the local subnet.
         // see https://superuser.com/questions/403905/ping-from-windows-7-get-no-reply-but-sets-errorlevel-to-0
 
-        int result = proc.waitFor();
+        int result = waitFor(proc);
         if (result != 0) {
             return Optional.of(new PingResult(false, System.currentTimeMillis() - execStartTimeInMS));
         }
@@ -315,11 +373,19 @@ public class NetworkUtils {
      */
     public Optional<PingResult> nativeARPPing(@Nullable ArpPingUtilEnum arpingTool, @Nullable String arpUtilPath,
             String interfaceName, String ipV4address, int timeoutInMS) throws IOException, InterruptedException {
-        double execStartTimeInMS = System.currentTimeMillis();
-
         if (arpUtilPath == null || arpingTool == null || arpingTool == ArpPingUtilEnum.UNKNOWN_TOOL) {
             return Optional.empty();
         }
+        final ArpPingUtilEnum tool = arpingTool;
+        final String toolPath = arpUtilPath;
+        return NATIVE_PROBES.probe("arping " + tool + " " + interfaceName + " " + ipV4address + " " + timeoutInMS,
+                () -> executeNativeARPPing(tool, toolPath, interfaceName, ipV4address, timeoutInMS));
+    }
+
+    private Optional<PingResult> executeNativeARPPing(ArpPingUtilEnum arpingTool, String arpUtilPath,
+            String interfaceName, String ipV4address, int timeoutInMS) throws IOException, InterruptedException {
+        double execStartTimeInMS = System.currentTimeMillis();
+
         Process proc;
         if (arpingTool == ArpPingUtilEnum.THOMAS_HABERT_ARPING_WITHOUT_TIMEOUT) {
             proc = new ProcessBuilder(arpUtilPath, "-c", "1", "-i", interfaceName, ipV4address).start();
@@ -335,7 +401,20 @@ public class NetworkUtils {
 
         // The return code is 0 for a successful ping. 1 if device didn't respond and 2 if there is another error like
         // network interface not ready.
-        return Optional.of(new PingResult(proc.waitFor() == 0, System.currentTimeMillis() - execStartTimeInMS));
+        return Optional.of(new PingResult(waitFor(proc) == 0, System.currentTimeMillis() - execStartTimeInMS));
+    }
+
+    /**
+     * Waits for the process to exit. The process is destroyed if the detection is finished before, so it does not
+     * keep running until its own timeout.
+     */
+    private int waitFor(Process proc) throws InterruptedException {
+        try {
+            return proc.waitFor();
+        } catch (InterruptedException e) {
+            proc.destroy();
+            throw e;
+        }
     }
 
     /**
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+
+/**
+ * The {@link ProbeCoalescer} lets concurrent callers of the same probe (same tool, destination, interface and timeout)
+ * share a single execution. This happens for example if several things check the same host (one per service port) or
+ * a discovery scan runs while the things are refreshed.
+ * <p>
+ * If the caller executing the probe is interrupted because its detection has finished, the waiting callers execute
+ * the probe themselves, as they still need a result.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ProbeCoalescer {
+    private final Map<String, CompletableFuture<Optional<PingResult>>> runningProbes = new ConcurrentHashMap<>();
+    private final AtomicLong executedProbes = new AtomicLong();
+    private final AtomicLong coalescedProbes = new AtomicLong();
+
+    @FunctionalInterface
+    public interface Probe {
+        Optional<PingResult> execute() throws IOException, InterruptedException;
+    }
+
+    /**
+     * Executes the probe or waits for the result of an identical probe that is already running.
+     *
+     * @param key Identifies the probe, callers with the same key share the result
+     * @param probe The probe
+     * @return Ping result information. Optional is empty if the probe was not executed.
+     * @throws IOException The probe failed
+     * @throws InterruptedException The calling thread was interrupted
+     */
+    public Optional<PingResult> probe(String key, Probe probe) throws IOException, InterruptedException {
+        CompletableFuture<Optional<PingResult>> result = new CompletableFuture<>();
+        CompletableFuture<Optional<PingResult>> runningProbe = runningProbes.putIfAbsent(key, result);
+        if (runningProbe != null) {
+            coalescedProbes.incrementAndGet();
+            return awaitResult(key, probe, runningProbe);
+        }
+
+        executedProbes.incrementAndGet();
+        try {
+            Optional<PingResult> pingResult = probe.execute();
+            result.complete(pingResult);
+            return pingResult;
+        } catch (InterruptedException e) {
+            // the waiting callers must not get the result of a process that was destroyed, they retry instead
+            runningProbes.remove(key, result);
+            result.cancel(false);
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(e);
+            throw e;
+        } finally {
+            runningProbes.remove(key, result);
+        }
+    }
+
+    private Optional<PingResult> awaitResult(String key, Probe probe,
+            CompletableFuture<Optional<PingResult>> runningProbe) throws IOException, InterruptedException {
+        try {
+            return runningProbe.get();
+        } catch (CancellationException e) {
+            // the caller executing the probe was interrupted, execute it again or join another running probe
+            return probe(key, probe);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * @return the number of probes that were executed
+     */
+    public long getExecutedProbes() {
+        return executedProbes.get();
+    }
+
+    /**
+     * @return the number of probes that used the result of an identical running probe
+     */
+    public long getCoalescedProbes() {
+        return coalescedProbes.get();
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the matching of addresses to the network of an interface.
+ *
+ * @author agent - Initial contribution
+ */
+public class NetworkUtilsTest {
+
+    @Test
+    public void interfaceNetworkMatching() throws UnknownHostException {
+        InetAddress local = InetAddress.getByName("192.168.1.10");
+
+        assertTrue(NetworkUtils.isInSameNetwork(local, 24, InetAddress.getByName("192.168.1.200")));
+        assertFalse(NetworkUtils.isInSameNetwork(local, 24, InetAddress.getByName("192.168.2.200")));
+        assertTrue(NetworkUtils.isInSameNetwork(local, 16, InetAddress.getByName("192.168.2.200")));
+        assertFalse(NetworkUtils.isInSameNetwork(local, 32, InetAddress.getByName("192.168.1.11")));
+        assertTrue(NetworkUtils.isInSameNetwork(local, 0, InetAddress.getByName("10.0.0.1")));
+    }
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.network.internal.utils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests that concurrent identical probes share one execution.
+ *
+ * @author agent - Initial contribution
+ */
+public class ProbeCoalescerTest {
+
+    @Test
+    public void concurrentIdenticalProbesShareOneExecution() throws Exception {
+        ProbeCoalescer coalescer = new ProbeCoalescer();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<PingResult>> first = executor.submit(() -> coalescer.probe("ping 127.0.0.1", () -> {
+                started.countDown();
+                release.await();
+                return Optional.of(new PingResult(true, 5));
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<Optional<PingResult>> second = executor.submit(() -> coalescer.probe("ping 127.0.0.1", () -> {
+                fail("The running probe should have been used");
+                return Optional.empty();
+            }));
+            // the second probe can only complete with the result of the first one
+            waitForCoalescedProbe(coalescer);
+            release.countDown();
+
+            assertTrue(first.get(5, TimeUnit.SECONDS).get().isSuccess());
+            assertTrue(second.get(5, TimeUnit.SECONDS).get().isSuccess());
+            assertEquals(1, coalescer.getExecutedProbes());
+            assertEquals(1, coalescer.getCoalescedProbes());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void sequentialProbesAreExecutedAgain() throws Exception {
+        ProbeCoalescer coalescer = new ProbeCoalescer();
+
+        coalescer.probe("ping 127.0.0.1", () -> Optional.of(new PingResult(true, 5)));
+        Optional<PingResult> result = coalescer.probe("ping 127.0.0.1",
+                () -> Optional.of(new PingResult(false, 5)));
+
+        assertFalse(result.get().isSuccess());
+        assertEquals(2, coalescer.getExecutedProbes());
+        assertEquals(0, coalescer.getCoalescedProbes());
+    }
+
+    @Test
+    public void failedProbeIsNotCached() throws Exception {
+        ProbeCoalescer coalescer = new ProbeCoalescer();
+
+        assertThrows(IOException.class, () -> coalescer.probe("ping 127.0.0.1", () -> {
+            throw new IOException("ping not found");
+        }));
+        assertTrue(coalescer.probe("ping 127.0.0.1", () -> Optional.of(new PingResult(true, 5))).get().isSuccess());
+    }
+
+    @Test
+    public void waitingProbeIsExecutedAgainIfTheRunningProbeIsCancelled() throws Exception {
+        ProbeCoalescer coalescer = new ProbeCoalescer();
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Optional<PingResult>> first = executor.submit(() -> coalescer.probe("ping 127.0.0.1", () -> {
+                started.countDown();
+                // blocks until the detection of the first caller is finished
+                new CountDownLatch(1).await();
+                return Optional.empty();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<Optional<PingResult>> second = executor.submit(
+                    () -> coalescer.probe("ping 127.0.0.1", () -> Optional.of(new PingResult(true, 5))));
+            waitForCoalescedProbe(coalescer);
+            first.cancel(true);
+
+            // the second caller must not get an empty result, the device might be online
+            assertTrue(second.get(5, TimeUnit.SECONDS).get().isSuccess());
+            assertEquals(2, coalescer.getExecutedProbes());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void waitForCoalescedProbe(ProbeCoalescer coalescer) throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (coalescer.getCoalescedProbes() == 0) {
+            if (System.currentTimeMillis() > timeout) {
+                fail("The second probe was not started");
+            }
+            Thread.sleep(10);
+        }
+    }
+}
@@ -21,8 +21,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -96,6 +98,8 @@ public class RemoteopenhabBridgeHandler extends BaseBridgeHandler
 
     private static final int MAX_STATE_SIZE_FOR_LOGGING = 50;
 
+    private static final int SUBSCRIBED_ITEMS_UPDATE_DELAY = 2;
+
     private final Logger logger = LoggerFactory.getLogger(RemoteopenhabBridgeHandler.class);
 
     private final HttpClient httpClientTrustingCert;
@@ -107,9 +111,11 @@ public class RemoteopenhabBridgeHandler extends BaseBridgeHandler
     private @NonNullByDefault({}) RemoteopenhabServerConfiguration config;
 
     private @Nullable ScheduledFuture<?> checkConnectionJob;
+    private @Nullable ScheduledFuture<?> updateSubscribedItemsJob;
     private RemoteopenhabRestClient restClient;
 
     private Map<ChannelUID, State> channelsLastStates = new HashMap<>();
+    private boolean channelsSynchronized;
 
     public RemoteopenhabBridgeHandler(Bridge bridge, HttpClient httpClient, HttpClient httpClientTrustingCert,
             ClientBuilder clientBuilder, SseEventSourceFactory eventSourceFactory,
@@ -172,7 +178,13 @@ public class RemoteopenhabBridgeHandler extends BaseBridgeHandler
         logger.debug("Disposing remote openHAB handler for bridge {}", getThing().getUID());
         stopStreamingUpdates(false);
         stopCheckConnectionJob();
+        ScheduledFuture<?> localUpdateSubscribedItemsJob = updateSubscribedItemsJob;
+        if (localUpdateSubscribedItemsJob != null) {
+            localUpdateSubscribedItemsJob.cancel(true);
+            updateSubscribedItemsJob = null;
+        }
         channelsLastStates.clear();
+        channelsSynchronized = false;
     }
 
     @Override
@@ -338,6 +350,13 @@ public class RemoteopenhabBridgeHandler extends BaseBridgeHandler
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
                         "OH 1.x server not supported by the binding");
             } else if (getThing().getStatus() != ThingStatus.ONLINE) {
+                if (channelsSynchronized && resyncChannelStates()) {
+                    updateStatus(ThingStatus.ONLINE);
+
+                    restartStreamingUpdates();
+                    return;
+                }
+
                 List<RemoteopenhabItem> items = restClient.getRemoteItems("name,type,groupType,state,stateDescription");
 
                 if (createChannels(items, true)) {
@@ -345,6 +364,7 @@ public class RemoteopenhabBridgeHandler extends BaseBridgeHandler
                     for (RemoteopenhabItem item : items) {
                         updateChannelState(item.name, null, item.state, false);
                     }
+                    channelsSynchronized = true;
 
                     updateStatus(ThingStatus.ONLINE);
 
@@ -365,6 +385,37 @@ public class RemoteopenhabBridgeHandler extends BaseBridgeHandler
         }
     }
 
+    /**
+     * Resynchronizes the channels after a reconnection to the remote server. The state descriptions are not
+     * requested and only the states which changed while disconnected are updated.
+     *
+     * @return false if the remote items changed and the channels have to be rebuilt
+     */
+    private boolean resyncChannelStates() throws RemoteopenhabException {
+        List<RemoteopenhabItem> items = restClient.getRemoteItems("name,type,groupType,state");
+        Map<String, @Nullable String> itemTypes = new HashMap<>();
+        for (RemoteopenhabItem item : items) {
+            if (!"Group".equals(item.type)) {
+                itemTypes.put(item.name, item.type);
+            } else if (!item.groupType.isEmpty()) {
+                itemTypes.put(item.name, item.groupType);
+            }
+        }
+        Map<String, @Nullable String> channelTypes = new HashMap<>();
+        for (Channel channel : getThing().getChannels()) {
+            channelTypes.put(channel.getUID().getId(), channel.getAcceptedItemType());
+        }
+        if (!itemTypes.equals(channelTypes)) {
+            logger.debug("Remote items changed while disconnected, the channels are rebuilt");
+            return false;
+        }
+        for (RemoteopenhabItem item : items) {
+            updateChannelState(item.name, null, item.state, true);
+        }
+        logger.debug("States resynchronized for the thing {}", getThing().getUID());
+        return true;
+    }
+
     private void startCheckConnectionJob(int accessibilityInterval, int aliveInterval, boolean restartIfNoActivity) {
         ScheduledFuture<?> localCheckConnectionJob = checkConnectionJob;
         if (localCheckConnectionJob == null || localCheckConnectionJob.isCancelled()) {
@@ -405,6 +456,7 @@ public class RemoteopenhabBridgeHandler extends BaseBridgeHandler
 
     private void startStreamingUpdates() {
         synchronized (restClient) {
+            restClient.setSubscribedItems(getLinkedItemNames());
             restClient.addStreamingDataListener(this);
             restClient.addItemsDataListener(this);
             restClient.start();
@@ -423,6 +475,43 @@ public class RemoteopenhabBridgeHandler extends BaseBridgeHandler
         }
     }
 
+    private Set<String> getLinkedItemNames() {
+        Set<String> itemNames = new HashSet<>();
+        for (Channel channel : getThing().getChannels()) {
+            if (isLinked(channel.getUID())) {
+                itemNames.add(channel.getUID().getId());
+            }
+        }
+        return itemNames;
+    }
+
+    @Override
+    public void channelLinked(ChannelUID channelUID) {
+        super.channelLinked(channelUID);
+        scheduleSubscribedItemsUpdate();
+    }
+
+    @Override
+    public void channelUnlinked(ChannelUID channelUID) {
+        super.channelUnlinked(channelUID);
+        scheduleSubscribedItemsUpdate();
+    }
+
+    private void scheduleSubscribedItemsUpdate() {
+        // Links are often changed in bursts, the SSE connection is restarted only once
+        ScheduledFuture<?> localUpdateSubscribedItemsJob = updateSubscribedItemsJob;
+        if (localUpdateSubscribedItemsJob != null) {
+            localUpdateSubscribedItemsJob.cancel(false);
+        }
+        updateSubscribedItemsJob = scheduler.schedule(() -> {
+            if (getThing().getStatus() == ThingStatus.ONLINE
+                    && restClient.setSubscribedItems(getLinkedItemNames())) {
+                logger.debug("The SSE connection is restarted to receive the events of the linked items");
+                restartStreamingUpdates();
+            }
+        }, SUBSCRIBED_ITEMS_UPDATE_DELAY, TimeUnit.SECONDS);
+    }
+
     public RemoteopenhabRestClient gestRestClient() {
         return restClient;
     }
@@ -16,6 +16,7 @@ import java.io.ByteArrayOutputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Base64;
@@ -23,6 +24,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -63,7 +66,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
 
 /**
  * A client to use the openHAB REST API and to receive/parse events received from the openHAB REST API Server-Sent
@@ -75,6 +80,7 @@ import com.google.gson.JsonSyntaxException;
 public class RemoteopenhabRestClient {
 
     private static final int REQUEST_TIMEOUT = (int) TimeUnit.SECONDS.toMillis(30);
+    private static final int MAX_ITEM_TOPICS_LENGTH = 4000;
 
     private final Logger logger = LoggerFactory.getLogger(RemoteopenhabRestClient.class);
 
@@ -101,6 +107,8 @@ public class RemoteopenhabRestClient {
 
     private @Nullable SseEventSource eventSource;
     private long lastEventTimestamp;
+    private volatile @Nullable Set<String> subscribedItems;
+    private String eventTopics = "";
 
     public RemoteopenhabRestClient(final HttpClient httpClient, final ClientBuilder clientBuilder,
             final SseEventSourceFactory eventSourceFactory, final Gson jsonParser) {
@@ -293,13 +301,47 @@ public class RemoteopenhabRestClient {
         return eventSource;
     }
 
+    /**
+     * Restricts the state events received from the remote server to a set of items. The events for added, removed
+     * and updated items are always received.
+     *
+     * @param itemNames the names of the items to receive the state events for or null for all items
+     * @return true if the event source has to be reopened to apply the new filter
+     */
+    public boolean setSubscribedItems(@Nullable Set<String> itemNames) {
+        subscribedItems = itemNames == null ? null : new TreeSet<>(itemNames);
+        return !buildEventTopics().equals(eventTopics);
+    }
+
+    private String buildEventTopics() {
+        String namespace = getTopicNamespace();
+        String itemTopics = namespace + "/items/*/*";
+        Set<String> itemNames = subscribedItems;
+        if (itemNames != null) {
+            StringBuilder topics = new StringBuilder(String.join(",", namespace + "/items/*/added",
+                    namespace + "/items/*/removed", namespace + "/items/*/updated"));
+            for (String itemName : itemNames) {
+                topics.append(',').append(namespace).append("/items/").append(itemName).append("/*");
+            }
+            // A too long URL could be rejected by the remote server, the events of the other items are then dropped
+            // when they are received
+            if (topics.length() <= MAX_ITEM_TOPICS_LENGTH) {
+                itemTopics = topics.toString();
+            } else {
+                logger.debug("Too many items ({}) to filter the events on the remote server", itemNames.size());
+            }
+        }
+        return String.join(",", itemTopics, namespace + "/things/*/added", namespace + "/things/*/removed",
+                namespace + "/things/*/statuschanged", namespace + "/channels/*/triggered");
+    }
+
     private void reopenEventSource() {
         logger.debug("Reopening EventSource");
 
+        String topics = buildEventTopics();
         String url;
         try {
-            url = String.format("%s?topics=%s/items/*/*,%s/things/*/*,%s/channels/*/triggered", getRestApiUrl("events"),
-                    getTopicNamespace(), getTopicNamespace(), getTopicNamespace());
+            url = String.format("%s?topics=%s", getRestApiUrl("events"), topics);
         } catch (RemoteopenhabException e) {
             logger.debug("{}", e.getMessage());
             return;
@@ -312,6 +354,7 @@ public class RemoteopenhabRestClient {
         localEventSource.open();
 
         eventSource = localEventSource;
+        eventTopics = topics;
     }
 
     private void closeEventSource(boolean waitingForCompletion) {
@@ -326,6 +369,7 @@ public class RemoteopenhabRestClient {
             }
             eventSource = null;
         }
+        eventTopics = "";
         connected = false;
     }
 
@@ -375,7 +419,10 @@ public class RemoteopenhabRestClient {
         }
 
         try {
-            RemoteopenhabEvent event = jsonParser.fromJson(data, RemoteopenhabEvent.class);
+            RemoteopenhabEvent event = readEvent(data);
+            if (event == null) {
+                return;
+            }
             String itemName;
             String thingUID;
             RemoteopenhabEventPayload payload;
@@ -455,12 +502,77 @@ public class RemoteopenhabRestClient {
                     logger.debug("Unexpected event type {} for topic {}", event.type, event.topic);
                     break;
             }
-        } catch (RemoteopenhabException | JsonSyntaxException e) {
+        } catch (RemoteopenhabException | IOException | JsonParseException | IllegalStateException e) {
             logger.debug("An exception occurred while processing the inbound '{}' event containg data: {}", name, data,
                     e);
         }
     }
 
+    /**
+     * Reads the envelope of an event in one pass. The payload is skipped without being unescaped if the topic shows
+     * that the event would be ignored.
+     *
+     * @return the event or null if it is ignored
+     */
+    private @Nullable RemoteopenhabEvent readEvent(String data) throws IOException {
+        RemoteopenhabEvent event = new RemoteopenhabEvent();
+        boolean ignored = false;
+        try (JsonReader reader = new JsonReader(new StringReader(data))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "topic":
+                        event.topic = reader.nextString();
+                        ignored = isIgnoredTopic(event.topic);
+                        break;
+                    case "type":
+                        event.type = reader.nextString();
+                        break;
+                    case "payload":
+                        if (ignored) {
+                            reader.skipValue();
+                        } else {
+                            event.payload = reader.nextString();
+                        }
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
+                }
+            }
+            reader.endObject();
+        }
+        if (ignored) {
+            logger.trace("Ignored event type {} for topic {}", event.type, event.topic);
+            return null;
+        }
+        return event;
+    }
+
+    private boolean isIgnoredTopic(String topic) {
+        String[] parts = topic.split("/");
+        if (parts.length < 4) {
+            return false;
+        }
+        String finalPart = parts[parts.length - 1];
+        if ("items".equals(parts[1])) {
+            switch (finalPart) {
+                case "command":
+                case "statepredicted":
+                    return true;
+                case "state":
+                case "statechanged":
+                    Set<String> itemNames = subscribedItems;
+                    return itemNames != null && !itemNames.contains(parts[2]);
+                default:
+                    return false;
+            }
+        } else if ("things".equals(parts[1])) {
+            return "status".equals(finalPart) || "updated".equals(finalPart);
+        }
+        return false;
+    }
+
     private void onComplete() {
         logger.debug("Disconnected from streaming events");
         completed = true;
@@ -12,20 +12,25 @@
  */
 package org.openhab.binding.shelly.internal.coap;
 
-import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.COIOT_PORT;
+import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.*;
+import static org.openhab.binding.shelly.internal.util.ShellyUtils.substringBetween;
 
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketException;
 import java.net.UnknownHostException;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.californium.core.CoapResource;
 import org.eclipse.californium.core.CoapServer;
 import org.eclipse.californium.core.coap.CoAP;
 import org.eclipse.californium.core.coap.CoAP.Code;
 import org.eclipse.californium.core.coap.CoAP.ResponseCode;
+import org.eclipse.californium.core.coap.Option;
 import org.eclipse.californium.core.coap.Request;
 import org.eclipse.californium.core.coap.Response;
 import org.eclipse.californium.core.network.CoapEndpoint;
@@ -40,6 +45,10 @@ import org.slf4j.LoggerFactory;
 /**
  * The {@link ShellyCoapServer} implements the UDP listener and status event processor (for /cit/s messages)
  *
+ * Each message is only passed to the listener of the sending device, which is looked up by the peer address or by the
+ * MAC address in the global device id option. The number of received messages per second and the average time to
+ * dispatch and process a message are logged when the server stops.
+ *
  * @author Markus Michels - Initial contribution
  */
 @NonNullByDefault
@@ -51,6 +60,13 @@ public class ShellyCoapServer {
     private @Nullable UdpMulticastConnector statusConnector;
     private CoapServer server = new CoapServer(NetworkConfig.getStandard(), COIOT_PORT);
     private final Set<ShellyCoapListener> coapListeners = ConcurrentHashMap.newKeySet();
+    private final Map<String, ShellyCoapListener> listenersByAddress = new ConcurrentHashMap<>();
+    private final Map<String, ShellyCoapListener> listenersByMac = new ConcurrentHashMap<>();
+
+    private final AtomicLong receivedMessages = new AtomicLong();
+    private final AtomicLong unknownMessages = new AtomicLong();
+    private final AtomicLong dispatchTimeNanos = new AtomicLong();
+    private volatile long startTimeNanos = System.nanoTime();
 
     protected class ShellyStatusListener extends CoapResource {
         private ShellyCoapServer listener;
@@ -78,12 +94,28 @@ public class ShellyCoapServer {
         }
     }
 
-    public synchronized void start(String localIp, int port, ShellyCoapListener listener)
+    /**
+     * Start the server if not yet done and register a listener for the messages of a device
+     *
+     * @param localIp local IP address to listen on
+     * @param port CoIoT port
+     * @param deviceIp IP address of the device, messages from this address are passed to the listener
+     * @param deviceMac MAC address of the device, messages with this MAC in the device id are passed to the listener
+     * @param listener listener for the messages of the device
+     */
+    public void start(String localIp, int port, String deviceIp, String deviceMac, ShellyCoapListener listener)
             throws UnknownHostException, SocketException {
+        // resolve the addresses before taking the lock, a name lookup might take a while
+        InetAddress localAddr = InetAddress.getByName(localIp);
+        String deviceAddress = deviceIp.isEmpty() ? "" : InetAddress.getByName(deviceIp).getHostAddress();
+        start(localAddr, port, deviceAddress, deviceMac, listener);
+    }
+
+    private synchronized void start(InetAddress localAddr, int port, String deviceAddress, String deviceMac,
+            ShellyCoapListener listener) throws SocketException {
         if (!started) {
-            logger.debug("Initializing CoIoT listener (local IP={}:{})", localIp, port);
+            logger.debug("Initializing CoIoT listener (local IP={}:{})", localAddr.getHostAddress(), port);
             NetworkConfig nc = NetworkConfig.getStandard();
-            InetAddress localAddr = InetAddress.getByName(localIp);
             InetSocketAddress localPort = new InetSocketAddress(port);
 
             // Join the multicast group on the selected network interface
@@ -96,15 +128,124 @@ public class ShellyCoapServer {
             cit.add(s);
             server.add(cit);
             started = true;
+            resetStatistics();
         }
 
-        if (!coapListeners.contains(listener)) {
-            coapListeners.add(listener);
+        addListener(deviceAddress, deviceMac, listener);
+    }
+
+    /**
+     * Register a listener for the messages of a device
+     *
+     * @param deviceAddress resolved IP address of the device, empty if unknown
+     * @param deviceMac MAC address of the device, empty if unknown
+     * @param listener listener for the messages of the device
+     */
+    synchronized void addListener(String deviceAddress, String deviceMac, ShellyCoapListener listener) {
+        removeFromIndex(listener);
+        coapListeners.add(listener);
+        if (!deviceAddress.isEmpty()) {
+            listenersByAddress.put(deviceAddress, listener);
+        }
+        if (!deviceMac.isEmpty()) {
+            listenersByMac.put(normalizeMac(deviceMac), listener);
         }
     }
 
     protected void processResponse(Response response) {
-        coapListeners.forEach(listener -> listener.processResponse(response));
+        long start = System.nanoTime();
+        receivedMessages.incrementAndGet();
+        ShellyCoapListener listener = findListener(response);
+        if (listener != null) {
+            listener.processResponse(response);
+        } else {
+            // Shelly devices are discovered by mDNS, messages of devices without a thing are dropped
+            unknownMessages.incrementAndGet();
+            logger.trace("CoIoT message from unknown device {} ignored", response.getSourceContext().getPeerAddress());
+        }
+        dispatchTimeNanos.addAndGet(System.nanoTime() - start);
+    }
+
+    private @Nullable ShellyCoapListener findListener(Response response) {
+        InetSocketAddress peer = response.getSourceContext().getPeerAddress();
+        InetAddress peerAddress = peer.getAddress();
+        if (peerAddress != null) {
+            ShellyCoapListener listener = listenersByAddress.get(peerAddress.getHostAddress());
+            if (listener != null) {
+                return listener;
+            }
+        }
+
+        // The device may have got a new IP address, check the MAC in the CoAP header's Global Device ID
+        for (Option opt : response.getOptions().asSortedList()) {
+            if (opt.getNumber() == COIOT_OPTION_GLOBAL_DEVID) {
+                // Format: <device type>#<mac address>#<coap version>
+                String macid = substringBetween(opt.getStringValue(), "#", "#");
+                return macid.isEmpty() ? null : findListenerByMac(normalizeMac(macid));
+            }
+        }
+        return null;
+    }
+
+    private @Nullable ShellyCoapListener findListenerByMac(String macid) {
+        ShellyCoapListener listener = listenersByMac.get(macid);
+        if (listener != null) {
+            return listener;
+        }
+
+        // Some devices only send a part of the MAC address
+        for (Map.Entry<String, ShellyCoapListener> entry : listenersByMac.entrySet()) {
+            if (entry.getKey().contains(macid)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private void removeFromIndex(ShellyCoapListener listener) {
+        listenersByAddress.values().remove(listener);
+        listenersByMac.values().remove(listener);
+    }
+
+    private static String normalizeMac(String mac) {
+        return mac.replace(":", "").toUpperCase();
+    }
+
+    /**
+     * @return number of received CoIoT messages
+     */
+    public long getReceivedMessages() {
+        return receivedMessages.get();
+    }
+
+    /**
+     * @return number of received messages, which didn't belong to a registered device
+     */
+    public long getUnknownMessages() {
+        return unknownMessages.get();
+    }
+
+    /**
+     * @return average number of received messages per second since the server was started
+     */
+    public double getMessageRate() {
+        long seconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startTimeNanos);
+        return seconds > 0 ? (double) receivedMessages.get() / seconds : receivedMessages.get();
+    }
+
+    /**
+     * @return average time in microseconds to dispatch and process a message
+     */
+    public long getAverageDispatchTime() {
+        long messages = receivedMessages.get();
+        return messages > 0 ? TimeUnit.NANOSECONDS.toMicros(dispatchTimeNanos.get() / messages) : 0;
+    }
+
+    private void resetStatistics() {
+        receivedMessages.set(0);
+        unknownMessages.set(0);
+        dispatchTimeNanos.set(0);
+        startTimeNanos = System.nanoTime();
     }
 
     public static Response createResponse(Request request) {
@@ -126,6 +267,7 @@ public class ShellyCoapServer {
      * Cancel pending requests and shutdown the client
      */
     public void stop(ShellyCoapListener listener) {
+        removeFromIndex(listener);
         coapListeners.remove(listener);
         if (coapListeners.isEmpty()) {
             stop();
@@ -138,8 +280,12 @@ public class ShellyCoapServer {
             server.stop();
             statusEndpoint.stop();
             coapListeners.clear();
+            listenersByAddress.clear();
+            listenersByMac.clear();
             started = false;
-            logger.debug("CoAP Listener stopped");
+            logger.debug("CoAP Listener stopped ({} messages, {} from unknown devices, {} messages/s, {} us/message)",
+                    getReceivedMessages(), getUnknownMessages(), String.format("%.1f", getMessageRate()),
+                    getAverageDispatchTime());
         }
     }
 
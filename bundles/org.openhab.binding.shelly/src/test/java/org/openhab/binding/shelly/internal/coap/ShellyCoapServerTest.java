@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.binding.shelly.internal.coap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.openhab.binding.shelly.internal.coap.ShellyCoapJSonDTO.COIOT_OPTION_GLOBAL_DEVID;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+
+import org.eclipse.californium.core.coap.CoAP.ResponseCode;
+import org.eclipse.californium.core.coap.Option;
+import org.eclipse.californium.core.coap.Response;
+import org.eclipse.californium.elements.AddressEndpointContext;
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the dispatching of CoIoT messages by the {@link ShellyCoapServer} with synthetic packets.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class ShellyCoapServerTest {
+
+    private final ShellyCoapServer server = new ShellyCoapServer();
+    private final ShellyCoapListener relay = mock(ShellyCoapListener.class);
+    private final ShellyCoapListener dimmer = mock(ShellyCoapListener.class);
+
+    @BeforeEach
+    public void setUp() {
+        server.addListener("192.168.1.10", "A4:CF:12:F4:56:78", relay);
+        server.addListener("192.168.1.11", "", dimmer);
+    }
+
+    @Test
+    public void messageIsPassedToTheListenerOfThePeerAddress() throws UnknownHostException {
+        Response response = createPacket("192.168.1.11", "SHDM-2#E09806A9F6C2#2");
+
+        server.processResponse(response);
+
+        verify(dimmer).processResponse(response);
+        verifyNoInteractions(relay);
+    }
+
+    @Test
+    public void messageFromANewAddressIsPassedToTheListenerOfTheMac() throws UnknownHostException {
+        Response response = createPacket("192.168.1.50", "SHSW-1#A4CF12F45678#2");
+
+        server.processResponse(response);
+
+        verify(relay).processResponse(response);
+        verifyNoInteractions(dimmer);
+    }
+
+    @Test
+    public void messageWithAPartOfTheMacIsPassedToTheListenerOfTheMac() throws UnknownHostException {
+        Response response = createPacket("192.168.1.50", "SHHT-1#f45678#2");
+
+        server.processResponse(response);
+
+        verify(relay).processResponse(response);
+        verifyNoInteractions(dimmer);
+    }
+
+    @Test
+    public void messageFromAnUnknownDeviceIsDropped() throws UnknownHostException {
+        server.processResponse(createPacket("192.168.1.50", "SHSW-25#E09806A9F6C2#2"));
+        server.processResponse(createPacket("192.168.1.51", null));
+
+        verifyNoInteractions(relay, dimmer);
+        assertEquals(2, server.getReceivedMessages());
+        assertEquals(2, server.getUnknownMessages());
+    }
+
+    @Test
+    public void reregisteredListenerGetsTheMessagesOfTheNewAddress() throws UnknownHostException {
+        server.addListener("192.168.1.12", "", dimmer);
+
+        server.processResponse(createPacket("192.168.1.11", null));
+        Response response = createPacket("192.168.1.12", null);
+        server.processResponse(response);
+
+        verify(dimmer, only()).processResponse(response);
+        assertEquals(1, server.getUnknownMessages());
+    }
+
+    @Test
+    public void statisticsAreCounted() throws UnknownHostException {
+        for (int i = 0; i < 100; i++) {
+            server.processResponse(createPacket(i % 2 == 0 ? "192.168.1.10" : "192.168.1.11", null));
+        }
+
+        verify(relay, times(50)).processResponse(any());
+        verify(dimmer, times(50)).processResponse(any());
+        assertEquals(100, server.getReceivedMessages());
+        assertEquals(0, server.getUnknownMessages());
+        assertTrue(server.getMessageRate() > 0);
+        assertTrue(server.getAverageDispatchTime() >= 0);
+    }
+
+    private Response createPacket(String peerAddress, @Nullable String globalDeviceId) throws UnknownHostException {
+        Response response = new Response(ResponseCode.CONTENT);
+        response.setSourceContext(
+                new AddressEndpointContext(new InetSocketAddress(InetAddress.getByName(peerAddress), 5683)));
+        if (globalDeviceId != null) {
+            response.getOptions().addOption(new Option(COIOT_OPTION_GLOBAL_DEVID, globalDeviceId));
+        }
+        response.setPayload("{\"G\":[[0,112,1]]}");
+        return response;
+    }
+}
@@ -17,8 +17,10 @@ import java.io.StringReader;
 import java.net.URL;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -83,6 +85,24 @@ public class SonosXMLParser {
         desc
     }
 
+    private static final int MAX_CACHED_EVENTS = 32;
+
+    /** the most recently parsed AVTransport LastChange events, shared by all zone players */
+    private static final Map<String, Map<String, String>> AV_TRANSPORT_CHANGES = Collections
+            .synchronizedMap(new EventCache());
+
+    /** the most recently parsed RenderingControl LastChange events, shared by all zone players */
+    private static final Map<String, Map<String, String>> RENDERING_CONTROL_CHANGES = Collections
+            .synchronizedMap(new EventCache());
+
+    /**
+     * Looking up and creating a SAX parser is expensive compared to parsing the small XML documents sent by the zone
+     * players, so every thread reuses its own parser.
+     */
+    private static final ThreadLocal<@Nullable XMLReader> READERS = new ThreadLocal<>();
+
+    private static final DefaultHandler NO_OP_HANDLER = new DefaultHandler();
+
     /**
      * @param xml
      * @return a list of alarms from the given xml string.
@@ -92,9 +112,7 @@ public class SonosXMLParser {
     public static List<SonosAlarm> getAlarmsFromStringResult(String xml) {
         AlarmHandler handler = new AlarmHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             LOGGER.error("Could not parse Alarms from string '{}'", xml);
         } catch (SAXException s) {
@@ -112,9 +130,7 @@ public class SonosXMLParser {
     public static List<SonosEntry> getEntriesFromString(String xml) {
         EntryHandler handler = new EntryHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             LOGGER.error("Could not parse Entries from string '{}'", xml);
         } catch (SAXException s) {
@@ -157,9 +173,7 @@ public class SonosXMLParser {
     public static List<SonosZoneGroup> getZoneGroupFromXML(String xml) {
         ZoneGroupHandler handler = new ZoneGroupHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse ZoneGroup from string '{}'", xml);
@@ -173,9 +187,7 @@ public class SonosXMLParser {
     public static List<String> getRadioTimeFromXML(String xml) {
         OpmlHandler handler = new OpmlHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse RadioTime from string '{}'", xml);
@@ -186,42 +198,62 @@ public class SonosXMLParser {
         return handler.getTextFields();
     }
 
+    /**
+     * @param xml
+     * @return an unmodifiable map of the state variables contained in the given RenderingControl LastChange event.
+     *         Identical events (e.g. received by several members of a group) are only parsed once.
+     */
     public static Map<String, String> getRenderingControlFromXML(String xml) {
+        Map<String, String> changes = RENDERING_CONTROL_CHANGES.get(xml);
+        if (changes != null) {
+            return changes;
+        }
         RenderingControlEventHandler handler = new RenderingControlEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
+            changes = Collections.unmodifiableMap(handler.getChanges());
+            RENDERING_CONTROL_CHANGES.put(xml, changes);
+            return changes;
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse Rendering Control from string '{}'", xml);
         } catch (SAXException s) {
             LOGGER.error("Could not parse Rendering Control from string '{}'", xml);
         }
-        return handler.getChanges();
+        // a failed parse is not cached, the changes found up to the error are returned
+        return Collections.unmodifiableMap(handler.getChanges());
     }
 
+    /**
+     * @param xml
+     * @return an unmodifiable map of the state variables contained in the given AVTransport LastChange event.
+     *         Identical events (e.g. received by several members of a group) are only parsed once.
+     */
     public static Map<String, String> getAVTransportFromXML(String xml) {
+        Map<String, String> changes = AV_TRANSPORT_CHANGES.get(xml);
+        if (changes != null) {
+            return changes;
+        }
         AVTransportEventHandler handler = new AVTransportEventHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
+            changes = Collections.unmodifiableMap(handler.getChanges());
+            AV_TRANSPORT_CHANGES.put(xml, changes);
+            return changes;
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse AV Transport from string '{}'", xml);
         } catch (SAXException s) {
             LOGGER.error("Could not parse AV Transport from string '{}'", xml);
         }
-        return handler.getChanges();
+        // a failed parse is not cached, the changes found up to the error are returned
+        return Collections.unmodifiableMap(handler.getChanges());
     }
 
     public static SonosMetaData getMetaDataFromXML(String xml) {
         MetaDataHandler handler = new MetaDataHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse MetaData from string '{}'", xml);
@@ -235,9 +267,7 @@ public class SonosXMLParser {
     public static List<SonosMusicService> getMusicServicesFromXML(String xml) {
         MusicServiceHandler handler = new MusicServiceHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(handler);
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             LOGGER.error("Could not parse music services from string '{}'", xml);
@@ -247,6 +277,49 @@ public class SonosXMLParser {
         return handler.getServices();
     }
 
+    private static void parse(String xml, DefaultHandler handler) throws IOException, SAXException {
+        parse(new InputSource(new StringReader(xml)), handler);
+    }
+
+    private static void parse(InputSource input, DefaultHandler handler) throws IOException, SAXException {
+        XMLReader reader = READERS.get();
+        if (reader == null) {
+            reader = XMLReaderFactory.createXMLReader();
+        } else {
+            // prevent a nested parse on the same thread from using the reader at the same time
+            READERS.remove();
+        }
+        boolean success = false;
+        try {
+            reader.setContentHandler(handler);
+            reader.parse(input);
+            success = true;
+        } finally {
+            reader.setContentHandler(NO_OP_HANDLER);
+            // a reader that failed might be left in an inconsistent state, so don't reuse it
+            if (success) {
+                READERS.set(reader);
+            }
+        }
+    }
+
+    /**
+     * A small LRU cache of parsed LastChange events, keyed by the raw event XML.
+     */
+    private static class EventCache extends LinkedHashMap<String, Map<String, String>> {
+
+        private static final long serialVersionUID = 1L;
+
+        public EventCache() {
+            super(MAX_CACHED_EVENTS, 0.75f, true);
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.@Nullable Entry<String, Map<String, String>> eldest) {
+            return size() > MAX_CACHED_EVENTS;
+        }
+    }
+
     private static class EntryHandler extends DefaultHandler {
 
         // Maintain a set of elements about which it is unuseful to complain about.
@@ -936,10 +1009,8 @@ public class SonosXMLParser {
     public static @Nullable String getRoomName(String descriptorXML) {
         RoomNameHandler roomNameHandler = new RoomNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(roomNameHandler);
             URL url = new URL(descriptorXML);
-            reader.parse(new InputSource(url.openStream()));
+            parse(new InputSource(url.openStream()), roomNameHandler);
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos room name from string '{}'", descriptorXML);
         }
@@ -975,10 +1046,8 @@ public class SonosXMLParser {
     public static @Nullable String parseModelDescription(URL descriptorURL) {
         ModelNameHandler modelNameHandler = new ModelNameHandler();
         try {
-            XMLReader reader = XMLReaderFactory.createXMLReader();
-            reader.setContentHandler(modelNameHandler);
             URL url = new URL(descriptorURL.toString());
-            reader.parse(new InputSource(url.openStream()));
+            parse(new InputSource(url.openStream()), modelNameHandler);
         } catch (IOException | SAXException e) {
             LOGGER.error("Could not parse Sonos model name from string '{}'", descriptorURL.toString());
         }
@@ -484,6 +484,8 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
             // pre-process some variables, eg XML processing
             if (service.equals(SERVICE_AV_TRANSPORT) && variable.equals("LastChange")) {
                 Map<String, String> parsedValues = SonosXMLParser.getAVTransportFromXML(value);
+                // The media information is unchanged when the event only repeats already known values
+                boolean mediaChanged = hasAnyValueChanged(parsedValues);
                 parsedValues.forEach((variable1, value1) -> {
                     // Update the transport state after the update of the media information
                     // to not break the notification mechanism
@@ -498,7 +500,12 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
                         onValueReceived("CurrentURIMetaData", value1, service);
                     }
                 });
-                updateMediaInformation();
+                // The information of a radio station (e.g. the current show) is requested again on every event
+                String currentURI = getCurrentURI();
+                if (mediaChanged || isPlayingStream(currentURI) || isPlayingRadioStartedByAmazonEcho(currentURI)
+                        || isPlayingRadio(currentURI)) {
+                    updateMediaInformation();
+                }
                 if (parsedValues.get("TransportState") != null) {
                     onValueReceived("TransportState", parsedValues.get("TransportState"), service);
                 }
@@ -1034,6 +1041,28 @@ public class ZonePlayerHandler extends BaseThingHandler implements UpnpIOPartici
         return oldValue != null ? !oldValue.equals(value) : value != null;
     }
 
+    /**
+     * Checks whether at least one of the values parsed from an AVTransport LastChange event differs from the current
+     * state, including the CurrentURI/CurrentURIMetaData variables derived from it.
+     */
+    private boolean hasAnyValueChanged(Map<String, String> parsedValues) {
+        for (Map.Entry<String, String> entry : parsedValues.entrySet()) {
+            String variable = entry.getKey();
+            String value = entry.getValue();
+            if (hasValueChanged(value, stateMap.get(variable))) {
+                return true;
+            }
+            if (variable.equals("AVTransportURI") && hasValueChanged(value, stateMap.get("CurrentURI"))) {
+                return true;
+            }
+            if (variable.equals("AVTransportURIMetaData")
+                    && hasValueChanged(value, stateMap.get("CurrentURIMetaData"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Similar to the AVTransport eventing, the Queue events its state variables
      * as sub values within a synthesized LastChange state variable.
@@ -236,7 +236,9 @@ public class SysteminfoHandler extends BaseThingHandler {
         }, WAIT_TIME_CHANNEL_ITEM_LINK_INIT, TimeUnit.SECONDS);
     }
 
-    private void publishData(Set<ChannelUID> channels) {
+    private synchronized void publishData(Set<ChannelUID> channels) {
+        // all channels of this refresh are served from one snapshot, only devices of linked channels are read
+        systeminfo.startSnapshot();
         Iterator<ChannelUID> iter = channels.iterator();
         while (iter.hasNext()) {
             ChannelUID channeUID = iter.next();
@@ -513,7 +515,7 @@ public class SysteminfoHandler extends BaseThingHandler {
         if (thing.getStatus().equals(ThingStatus.ONLINE)) {
             if (command instanceof RefreshType) {
                 logger.debug("Refresh command received for channel {}!", channelUID);
-                publishDataForChannel(channelUID);
+                publishData(Set.of(channelUID));
             } else {
                 logger.debug("Unsupported command {}! Supported commands: REFRESH", command);
             }
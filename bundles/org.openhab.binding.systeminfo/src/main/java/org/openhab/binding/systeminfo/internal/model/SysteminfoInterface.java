@@ -31,6 +31,12 @@ public interface SysteminfoInterface {
      */
     public void initializeSysteminfo();
 
+    /**
+     * Start a new snapshot of the dynamic system information. Values like network counters or the storage usage are
+     * read from the system at most once per snapshot, when they are requested for the first time.
+     */
+    public void startSnapshot();
+
     // Operating system info
     /**
      * Get the Family of the operating system /e.g. Windows,Unix,.../
@@ -12,10 +12,17 @@
  */
 package org.openhab.io.homekit.internal;
 
+import java.time.Duration;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.common.ThreadPoolManager;
 import org.openhab.core.items.GenericItem;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.StateChangeListener;
@@ -31,11 +38,37 @@ import io.github.hapjava.characteristics.HomekitCharacteristicChangeCallback;
  * HomeKit library takes care of insuring only a single subscription exists for
  * each accessory.
  *
+ * If a minimum notification interval is set, HomeKit clients are notified at most once per interval and item. Changes
+ * within the interval are folded into one notification per characteristic, which is sent together with the pending
+ * notifications of the other characteristics of the item at the end of the interval. HomeKit reads the current value
+ * when it is notified, so no intermediate values are lost that would still be of interest.
+ *
  * @author Andy Lintner - Initial contribution
  */
 public class HomekitAccessoryUpdater {
     private final Logger logger = LoggerFactory.getLogger(HomekitAccessoryUpdater.class);
     private final ConcurrentMap<ItemKey, Subscription> subscriptionsByName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<GenericItem, PendingNotifications> pendingNotificationsByItem =
+            new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private volatile long minimumNotificationIntervalMs = 0;
+
+    public HomekitAccessoryUpdater() {
+        this(ThreadPoolManager.getScheduledPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON));
+    }
+
+    HomekitAccessoryUpdater(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Sets the minimum interval between two notifications of HomeKit clients about changes of the same item.
+     *
+     * @param interval the interval, {@link Duration#ZERO} to notify about every change immediately
+     */
+    public void setMinimumNotificationInterval(Duration interval) {
+        minimumNotificationIntervalMs = Math.max(0, interval.toMillis());
+    }
 
     public void subscribe(GenericItem item, HomekitCharacteristicChangeCallback callback) {
         subscribe(item, null, callback);
@@ -54,10 +87,10 @@ public class HomekitAccessoryUpdater {
         subscriptionsByName.compute(itemKey, (k, v) -> {
             if (v != null) {
                 logger.debug("Received duplicate subscription for {} / {}", item, key);
-                unsubscribe(item, key);
+                removeSubscription(item, v);
             }
             logger.trace("Adding subscription for {} / {}", item, key);
-            Subscription subscription = (changedItem, oldState, newState) -> callback.changed();
+            Subscription subscription = new Subscription(callback);
             item.addStateChangeListener(subscription);
             return subscription;
         });
@@ -71,24 +104,124 @@ public class HomekitAccessoryUpdater {
         if (item == null) {
             return;
         }
-        subscriptionsByName.computeIfPresent(new ItemKey(item, key), (k, v) -> {
+        Subscription subscription = subscriptionsByName.remove(new ItemKey(item, key));
+        if (subscription != null) {
             logger.trace("Removing existing subscription for {} / {}", item, key);
-            item.removeStateChangeListener(v);
-            return null;
-        });
+            removeSubscription(item, subscription);
+        }
+    }
+
+    private void removeSubscription(GenericItem item, Subscription subscription) {
+        item.removeStateChangeListener(subscription);
+        PendingNotifications pendingNotifications = pendingNotificationsByItem.get(item);
+        if (pendingNotifications != null) {
+            pendingNotifications.remove(subscription);
+        }
+    }
+
+    private boolean hasSubscriptions(GenericItem item) {
+        return subscriptionsByName.keySet().stream().anyMatch(itemKey -> itemKey.item.equals(item));
+    }
+
+    private void notifyChanged(Item item, Subscription subscription) {
+        long interval = minimumNotificationIntervalMs;
+        if (interval <= 0 || !(item instanceof GenericItem)) {
+            subscription.notifyClients();
+            return;
+        }
+        pendingNotificationsByItem.computeIfAbsent((GenericItem) item, PendingNotifications::new).add(subscription,
+                interval);
     }
 
-    @FunctionalInterface
     @NonNullByDefault
-    private interface Subscription extends StateChangeListener {
+    private class Subscription implements StateChangeListener {
+        private final HomekitCharacteristicChangeCallback callback;
+
+        Subscription(HomekitCharacteristicChangeCallback callback) {
+            this.callback = callback;
+        }
 
         @Override
-        void stateChanged(Item item, State oldState, State newState);
+        public void stateChanged(Item item, State oldState, State newState) {
+            notifyChanged(item, this);
+        }
 
         @Override
-        default void stateUpdated(Item item, State state) {
+        public void stateUpdated(Item item, State state) {
             // Do nothing on non-change update
         }
+
+        void notifyClients() {
+            callback.changed();
+        }
+    }
+
+    /**
+     * The characteristics of an item that changed since the last notification of the HomeKit clients.
+     */
+    @NonNullByDefault
+    private class PendingNotifications {
+        private final GenericItem item;
+        private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+        private long lastFlush = 0;
+        private int foldedChanges = 0;
+        private @Nullable ScheduledFuture<?> flushJob;
+
+        PendingNotifications(GenericItem item) {
+            this.item = item;
+        }
+
+        void add(Subscription subscription, long interval) {
+            long delay;
+            synchronized (this) {
+                subscriptions.add(subscription);
+                foldedChanges++;
+                if (flushJob != null) {
+                    return;
+                }
+                delay = lastFlush + interval - System.currentTimeMillis();
+                if (delay > 0) {
+                    flushJob = scheduler.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+                    return;
+                }
+            }
+            flush();
+        }
+
+        void remove(Subscription subscription) {
+            subscriptions.remove(subscription);
+            removeIfUnsubscribed();
+        }
+
+        /**
+         * Forgets the item once it has no subscriptions and no notifications are pending.
+         */
+        private synchronized void removeIfUnsubscribed() {
+            if (flushJob == null && !hasSubscriptions(item)) {
+                pendingNotificationsByItem.remove(item, this);
+            }
+        }
+
+        private void flush() {
+            int changes;
+            synchronized (this) {
+                flushJob = null;
+                lastFlush = System.currentTimeMillis();
+                changes = foldedChanges;
+                foldedChanges = 0;
+            }
+            int notifications = 0;
+            for (Subscription subscription : subscriptions) {
+                if (subscriptions.remove(subscription)) {
+                    subscription.notifyClients();
+                    notifications++;
+                }
+            }
+            if (changes > notifications) {
+                logger.trace("Folded {} changes of {} into {} notifications", changes, item.getName(), notifications);
+            }
+            removeIfUnsubscribed();
+        }
     }
 
     private static class ItemKey {
@@ -82,6 +82,7 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
         this.itemRegistry = itemRegistry;
         this.settings = settings;
         this.metadataRegistry = metadataRegistry;
+        updater.setMinimumNotificationInterval(Duration.ofMillis(settings.minimumNotificationInterval));
         storage = storageService.getStorage(HomekitAuthInfoImpl.STORAGE_KEY);
         this.applyUpdatesDebouncer = new Debouncer("update-homekit-devices", scheduler, Duration.ofMillis(1000),
                 Clock.systemUTC(), this::applyUpdates);
@@ -237,10 +238,12 @@ public class HomekitChangeListener implements ItemRegistryChangeListener {
 
     public void setUpdater(HomekitAccessoryUpdater updater) {
         this.updater = updater;
+        updater.setMinimumNotificationInterval(Duration.ofMillis(settings.minimumNotificationInterval));
     }
 
     public void updateSettings(HomekitSettings settings) {
         this.settings = settings;
+        updater.setMinimumNotificationInterval(Duration.ofMillis(settings.minimumNotificationInterval));
     }
 
     public void stop() {
@@ -30,6 +30,7 @@ public class HomekitSettings {
     public String setupId;
     public String qrCode;
     public int startDelay = 30;
+    public int minimumNotificationInterval = 0;
     public boolean useFahrenheitTemperature = false;
     public boolean useOHmDNS = false;
     public String thermostatTargetModeHeat = "HeatOn";
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.homekit.internal;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.openhab.core.items.GenericItem;
+import org.openhab.core.items.StateChangeListener;
+import org.openhab.core.library.types.DecimalType;
+
+import io.github.hapjava.characteristics.HomekitCharacteristicChangeCallback;
+
+/**
+ * Tests the folding of item changes into notifications by the {@link HomekitAccessoryUpdater}. The flushes scheduled
+ * by the updater are run by the tests.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class HomekitAccessoryUpdaterTest {
+
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final GenericItem item = mock(GenericItem.class);
+    private final HomekitCharacteristicChangeCallback brightness = mock(HomekitCharacteristicChangeCallback.class);
+    private final HomekitCharacteristicChangeCallback hue = mock(HomekitCharacteristicChangeCallback.class);
+    private final HomekitAccessoryUpdater updater = new HomekitAccessoryUpdater(scheduler);
+
+    @BeforeEach
+    public void setUp() {
+        doReturn(mock(ScheduledFuture.class)).when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    @Test
+    public void everyChangeIsNotifiedWithoutInterval() {
+        StateChangeListener listener = subscribe("brightness", brightness);
+
+        change(listener, 3);
+
+        verify(brightness, times(3)).changed();
+        verifyNoInteractions(scheduler);
+    }
+
+    @Test
+    public void changesWithinTheIntervalAreFolded() {
+        updater.setMinimumNotificationInterval(Duration.ofMinutes(1));
+        StateChangeListener brightnessListener = subscribe("brightness", brightness);
+        StateChangeListener hueListener = subscribe("hue", hue);
+
+        // the first change is notified immediately, the following ones at the end of the interval
+        change(brightnessListener, 10);
+        change(hueListener, 10);
+        verify(brightness).changed();
+        verify(hue, never()).changed();
+
+        runScheduledFlush();
+        verify(brightness, times(2)).changed();
+        verify(hue).changed();
+    }
+
+    @Test
+    public void itemIsForgottenWhenUnsubscribedWhileAFlushIsPending() {
+        updater.setMinimumNotificationInterval(Duration.ofMinutes(1));
+        StateChangeListener listener = subscribe("brightness", brightness);
+        change(listener, 2);
+        verify(brightness).changed();
+
+        updater.unsubscribe(item, "brightness");
+        runScheduledFlush();
+        verify(brightness).changed();
+
+        // a new subscription of the item is not limited by the notifications of the previous one
+        StateChangeListener newListener = subscribe("brightness", brightness);
+        change(newListener, 1);
+        verify(brightness, times(2)).changed();
+        verify(scheduler, times(1)).schedule(any(Runnable.class), anyLong(), any());
+    }
+
+    private StateChangeListener subscribe(String key, HomekitCharacteristicChangeCallback callback) {
+        clearInvocations(item);
+        updater.subscribe(item, key, callback);
+        ArgumentCaptor<StateChangeListener> listener = ArgumentCaptor.forClass(StateChangeListener.class);
+        verify(item).addStateChangeListener(listener.capture());
+        return listener.getValue();
+    }
+
+    private void change(StateChangeListener listener, int changes) {
+        for (int i = 0; i < changes; i++) {
+            listener.stateChanged(item, new DecimalType(i), new DecimalType(i + 1));
+        }
+    }
+
+    private void runScheduledFlush() {
+        ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler).schedule(flush.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+        flush.getValue().run();
+    }
+}
@@ -20,6 +20,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.UriInfo;
@@ -83,6 +85,24 @@ public class NetworkUtils {
                 .header("Access-Control-Max-Age", "1209600");
     }
 
+    /**
+     * Creates a json response with an ETag. If the client already has the same json, 304 (not modified) is returned
+     * without a body.
+     *
+     * @param request The request, to evaluate the If-None-Match header
+     * @param json The json response
+     * @return
+     */
+    public static Response okWithETag(Request request, String json) {
+        EntityTag tag = new EntityTag(
+                Long.toHexString(((long) json.length() << 32) | (json.hashCode() & 0xFFFFFFFFL)));
+        ResponseBuilder builder = request.evaluatePreconditions(tag);
+        if (builder == null) {
+            builder = Response.ok(json);
+        }
+        return builder.tag(tag).build();
+    }
+
     /**
      * Creates a json response with the correct Hue error code
      *
@@ -13,12 +13,14 @@
 package org.openhab.io.hueemulation.internal.dto;
 
 import java.lang.reflect.Type;
+import java.util.Objects;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.items.GenericItem;
 import org.openhab.core.library.items.StringItem;
 import org.openhab.core.types.Command;
+import org.openhab.core.types.State;
 import org.openhab.io.hueemulation.internal.DeviceType;
 import org.openhab.io.hueemulation.internal.StateUtils;
 import org.openhab.io.hueemulation.internal.dto.changerequest.HueStateChange;
@@ -56,6 +58,8 @@ public class HueLightEntry {
     public transient DeviceType deviceType;
     public transient @Nullable Command lastCommand = null;
     public transient @Nullable HueStateChange lastHueChange = null;
+    /** The last serialized form of this light, see {@link Serializer} */
+    private transient volatile @Nullable SerializedLight serialized = null;
 
     public static class Config {
         public final String archetype = "classicbulb";
@@ -158,8 +162,38 @@ public class HueLightEntry {
         state = StateUtils.colorStateFromItemState(item.getState(), deviceType);
     }
 
+    /**
+     * The serialized form of a light together with the data it was computed from.
+     */
+    private static class SerializedLight {
+        final GenericItem item;
+        final State itemState;
+        final @Nullable String label;
+        final @Nullable Command lastCommand;
+        final @Nullable HueStateChange lastHueChange;
+        final JsonElement json;
+
+        SerializedLight(HueLightEntry product, State itemState, @Nullable String label, JsonElement json) {
+            this.item = product.item;
+            this.itemState = itemState;
+            this.label = label;
+            this.lastCommand = product.lastCommand;
+            this.lastHueChange = product.lastHueChange;
+            this.json = json;
+        }
+
+        boolean isValidFor(HueLightEntry product, State itemState, @Nullable String label) {
+            return item == product.item && lastCommand == product.lastCommand
+                    && lastHueChange == product.lastHueChange && this.itemState.equals(itemState)
+                    && Objects.equals(this.label, label);
+        }
+    }
+
     /**
      * This custom serializer updates the light state and label, before serializing.
+     *
+     * The result is kept in the light and reused until the item, its state or label or the last hue command change.
+     * Clients like Alexa or the Harmony hub poll all lights every few seconds, most of them are unchanged.
      */
     @NonNullByDefault({})
     public static class Serializer implements JsonSerializer<HueLightEntry> {
@@ -169,14 +203,21 @@ public class HueLightEntry {
 
         @Override
         public JsonElement serialize(HueLightEntry product, Type type, JsonSerializationContext context) {
-            product.state = StateUtils.adjustedColorStateFromItemState(product.item.getState(), product.deviceType,
-                    product.lastCommand, product.lastHueChange);
+            State itemState = product.item.getState();
             String label = product.item.getLabel();
+            SerializedLight serialized = product.serialized;
+            if (serialized != null && serialized.isValidFor(product, itemState, label)) {
+                return serialized.json;
+            }
+
+            product.state = StateUtils.adjustedColorStateFromItemState(itemState, product.deviceType,
+                    product.lastCommand, product.lastHueChange);
             if (label != null) {
                 product.name = label;
             }
 
             JsonElement jsonSubscription = context.serialize(product, HueDeviceHelper.class);
+            product.serialized = new SerializedLight(product, itemState, label, jsonSubscription);
             return jsonSubscription;
         }
     }
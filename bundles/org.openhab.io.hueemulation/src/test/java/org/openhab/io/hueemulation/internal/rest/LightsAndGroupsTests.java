@@ -335,6 +335,27 @@ public class LightsAndGroupsTests {
         assertThat(body, containsString("color"));
     }
 
+    @Test
+    public void allLightsWithETag() {
+        Response response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request().get();
+        assertEquals(200, response.getStatus());
+        String etag = response.getHeaderString("ETag");
+        String body = response.readEntity(String.class);
+
+        // Unchanged lights: served from the cached json, the client already has it
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header("If-None-Match", etag).get();
+        assertEquals(304, response.getStatus());
+
+        // A state change invalidates the cached json of the light
+        cs.ds.lights.get("1").item.setState(OnOffType.ON);
+        response = commonSetup.client.target(commonSetup.basePath + "/testuser/lights").request()
+                .header("If-None-Match", etag).get();
+        assertEquals(200, response.getStatus());
+        assertThat(response.readEntity(String.class), not(body));
+        assertThat(((HueStatePlug) cs.ds.lights.get("1").state).on, is(true));
+    }
+
     private boolean assertHueValue(ItemCommandEvent ce, int hueValue) {
         assertThat(((HSBType) ce.getItemCommand()).getHue().intValue(), is(hueValue * 360 / HueStateColorBulb.MAX_HUE));
         return true;
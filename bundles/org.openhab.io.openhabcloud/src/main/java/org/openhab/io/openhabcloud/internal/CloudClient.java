@@ -12,18 +12,28 @@
  */
 package org.openhab.io.openhabcloud.internal;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
 
 import org.eclipse.jdt.annotation.Nullable;
 import org.eclipse.jetty.client.HttpClient;
@@ -31,9 +41,9 @@ import org.eclipse.jetty.client.api.Request;
 import org.eclipse.jetty.client.util.BytesContentProvider;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
 import org.eclipse.jetty.http.HttpStatus;
-import org.eclipse.jetty.util.BufferUtil;
 import org.eclipse.jetty.util.URIUtil;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -58,6 +68,11 @@ import io.socket.engineio.client.Transport;
  * @author Kai Kreuzer - migrated code to new Jetty client and ESH APIs
  */
 public class CloudClient {
+    /*
+     * Item updates are collected for this time, so only the last state of an item changing faster is sent
+     */
+    private static final long ITEM_UPDATE_INTERVAL_MS = 200;
+
     /*
      * Logger for this class
      */
@@ -93,6 +108,30 @@ public class CloudClient {
      */
     private final Map<Integer, Request> runningRequests = new ConcurrentHashMap<>();
 
+    /*
+     * This variable holds the scheduler which sends the collected item updates
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /*
+     * This map holds the last state of the items which were updated since the last item updates were sent,
+     * access is synchronized on the map
+     */
+    private final Map<String, String> pendingItemUpdates = new LinkedHashMap<>();
+
+    /*
+     * This variable holds the job which sends the pending item updates, it is null if there are none
+     */
+    private @Nullable ScheduledFuture<?> itemUpdateJob;
+
+    /*
+     * These variables count the messages and the bytes of response bodies sent to the openHAB Cloud and the item
+     * updates which were not sent because a newer state of the item was sent instead
+     */
+    private final AtomicLong sentMessages = new AtomicLong();
+    private final AtomicLong sentBodyBytes = new AtomicLong();
+    private final AtomicLong coalescedItemUpdates = new AtomicLong();
+
     /*
      * This variable indicates if connection to the openHAB Cloud is currently in an established state
      */
@@ -129,9 +168,10 @@ public class CloudClient {
      * @param secret openHAB's Secret to connect to the openHAB Cloud
      * @param remoteAccessEnabled Allow the openHAB Cloud to be used as a remote proxy
      * @param exposedItems Items that are made available to apps connected to the openHAB Cloud
+     * @param scheduler Scheduler which sends the collected item updates
      */
     public CloudClient(HttpClient httpClient, String uuid, String secret, String baseURL, String localBaseUrl,
-            boolean remoteAccessEnabled, Set<String> exposedItems) {
+            boolean remoteAccessEnabled, Set<String> exposedItems, ScheduledExecutorService scheduler) {
         this.uuid = uuid;
         this.secret = secret;
         this.baseURL = baseURL;
@@ -139,6 +179,7 @@ public class CloudClient {
         this.remoteAccessEnabled = remoteAccessEnabled;
         this.exposedItems = exposedItems;
         this.jettyClient = httpClient;
+        this.scheduler = scheduler;
     }
 
     /**
@@ -147,7 +188,7 @@ public class CloudClient {
 
     public void connect() {
         try {
-            socket = IO.socket(baseURL);
+            socket = createSocket(baseURL);
             URL parsed = new URL(baseURL);
             protocol = parsed.getProtocol();
         } catch (URISyntaxException e) {
@@ -218,6 +259,13 @@ public class CloudClient {
         socket.connect();
     }
 
+    /**
+     * Creates the Socket.IO client, tests replace it to check the sent messages
+     */
+    Socket createSocket(String url) throws URISyntaxException {
+        return IO.socket(url);
+    }
+
     /**
      * Callback method for socket.io client which is called when connection is established
      */
@@ -237,6 +285,8 @@ public class CloudClient {
         isConnected = false;
         // And clean up the list of running requests
         runningRequests.clear();
+        logger.debug("Sent {} messages with {} bytes of response bodies, {} item updates were coalesced",
+                sentMessages.get(), sentBodyBytes.get(), coalescedItemUpdates.get());
     }
 
     /**
@@ -330,32 +380,38 @@ public class CloudClient {
                 return;
             }
 
+            boolean acceptsGzip = acceptsGzip(requestHeadersJson);
+            ByteArrayOutputStream compressedBody = new ByteArrayOutputStream();
+            AtomicReference<@Nullable GZIPOutputStream> gzipReference = new AtomicReference<>();
             request.onResponseHeaders(response -> {
                 logger.debug("onHeaders {}", requestId);
                 JSONObject responseJson = new JSONObject();
                 try {
+                    boolean compress = acceptsGzip && isCompressible(response.getStatus(), response.getHeaders());
+                    if (compress) {
+                        // every chunk is flushed on its own, so streaming responses are not delayed
+                        gzipReference.set(new GZIPOutputStream(compressedBody, true));
+                    }
                     responseJson.put("id", requestId);
-                    responseJson.put("headers", getJSONHeaders(response.getHeaders()));
+                    responseJson.put("headers", getJSONHeaders(response.getHeaders(), compress));
                     responseJson.put("responseStatusCode", response.getStatus());
                     responseJson.put("responseStatusText", "OK");
-                    socket.emit("responseHeader", responseJson);
+                    emit("responseHeader", responseJson, 0);
                     logger.trace("Sent headers to request {}", requestId);
                     logger.trace("{}", responseJson.toString());
-                } catch (JSONException e) {
+                } catch (JSONException | IOException e) {
                     logger.debug("{}", e.getMessage());
                 }
             }).onResponseContent((theResponse, content) -> {
                 logger.debug("onResponseContent: {}, content size {}", requestId, String.valueOf(content.remaining()));
-                JSONObject responseJson = new JSONObject();
+                if (logger.isTraceEnabled()) {
+                    logger.trace("{}", StandardCharsets.UTF_8.decode(content.duplicate()).toString());
+                }
+                GZIPOutputStream gzip = gzipReference.get();
                 try {
-                    responseJson.put("id", requestId);
-                    responseJson.put("body", BufferUtil.toArray(content));
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("{}", StandardCharsets.UTF_8.decode(content).toString());
-                    }
-                    socket.emit("responseContentBinary", responseJson);
-                    logger.trace("Sent content to request {}", requestId);
-                } catch (JSONException e) {
+                    byte[] body = toArray(content);
+                    sendResponseContent(requestId, gzip != null ? compress(gzip, compressedBody, body) : body);
+                } catch (IOException e) {
                     logger.debug("{}", e.getMessage());
                 }
             }).onRequestFailure((origRequest, failure) -> {
@@ -364,7 +420,7 @@ public class CloudClient {
                 try {
                     responseJson.put("id", requestId);
                     responseJson.put("responseStatusText", "openHAB connection error: " + failure.getMessage());
-                    socket.emit("responseError", responseJson);
+                    emit("responseError", responseJson, 0);
                 } catch (JSONException e) {
                     logger.debug("{}", e.getMessage());
                 }
@@ -384,10 +440,22 @@ public class CloudClient {
                         logger.debug("Response Failure: {}", result.getResponseFailure().getMessage());
                     }
                 }
+                GZIPOutputStream gzip = gzipReference.getAndSet(null);
+                if (gzip != null) {
+                    try {
+                        // writes the rest of the body and the gzip trailer and releases the deflater
+                        gzip.close();
+                        if (result != null && result.isSucceeded()) {
+                            sendResponseContent(requestId, compressedBody.toByteArray());
+                        }
+                    } catch (IOException e) {
+                        logger.debug("{}", e.getMessage());
+                    }
+                }
                 JSONObject responseJson = new JSONObject();
                 try {
                     responseJson.put("id", requestId);
-                    socket.emit("responseFinished", responseJson);
+                    emit("responseFinished", responseJson, 0);
                     logger.debug("Finished responding to request {}", requestId);
                 } catch (JSONException e) {
                     logger.debug("{}", e.getMessage());
@@ -402,6 +470,80 @@ public class CloudClient {
         }
     }
 
+    private void sendResponseContent(int requestId, byte[] body) {
+        JSONObject responseJson = new JSONObject();
+        try {
+            responseJson.put("id", requestId);
+            // Socket.IO sends byte arrays as binary attachments, not as part of the JSON message
+            responseJson.put("body", body);
+            emit("responseContentBinary", responseJson, body.length);
+            logger.trace("Sent content to request {}", requestId);
+        } catch (JSONException e) {
+            logger.debug("{}", e.getMessage());
+        }
+    }
+
+    /**
+     * Copies the content of a buffer of the Jetty client, which is reused after the content listener returned.
+     */
+    private static byte[] toArray(ByteBuffer content) {
+        byte[] body = new byte[content.remaining()];
+        content.get(body);
+        return body;
+    }
+
+    /**
+     * Compresses a chunk of the body, the returned data can be decompressed up to the end of the chunk.
+     */
+    static byte[] compress(GZIPOutputStream gzip, ByteArrayOutputStream compressedBody, byte[] chunk)
+            throws IOException {
+        gzip.write(chunk);
+        gzip.flush();
+        byte[] compressed = compressedBody.toByteArray();
+        compressedBody.reset();
+        return compressed;
+    }
+
+    private void emit(String event, JSONObject message, int bodyBytes) {
+        socket.emit(event, message);
+        sentMessages.incrementAndGet();
+        sentBodyBytes.addAndGet(bodyBytes);
+    }
+
+    static boolean acceptsGzip(JSONObject requestHeadersJson) {
+        Iterator<String> headersIterator = requestHeadersJson.keys();
+        while (headersIterator.hasNext()) {
+            String headerName = headersIterator.next();
+            if (HttpHeader.ACCEPT_ENCODING.asString().equalsIgnoreCase(headerName)) {
+                String value = requestHeadersJson.optString(headerName);
+                return value.toLowerCase(Locale.ROOT).contains("gzip");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns true if the body of a response should be compressed, i.e. if it has a textual content type and is
+     * not yet encoded. Event streams are not compressed as they are sent in small chunks.
+     */
+    static boolean isCompressible(int status, HttpFields headers) {
+        if (status == HttpStatus.NO_CONTENT_204 || status == HttpStatus.NOT_MODIFIED_304
+                || headers.containsKey(HttpHeader.CONTENT_ENCODING.asString())) {
+            return false;
+        }
+        String contentType = headers.get(HttpHeader.CONTENT_TYPE);
+        if (contentType == null) {
+            return false;
+        }
+        String mimeType = contentType.toLowerCase(Locale.ROOT);
+        if (mimeType.startsWith("text/event-stream")) {
+            return false;
+        }
+        return mimeType.startsWith("text/") || mimeType.startsWith("application/json")
+                || mimeType.startsWith("application/javascript") || mimeType.startsWith("application/xml")
+                || mimeType.startsWith("image/svg+xml") || mimeType.contains("+json") || mimeType.contains("+xml");
+    }
+
     private void setRequestHeaders(Request request, JSONObject requestHeadersJson) {
         Iterator<String> headersIterator = requestHeadersJson.keys();
         // Convert JSONObject of headers into Header ArrayList
@@ -467,7 +609,7 @@ public class CloudClient {
                 notificationMessage.put("message", message);
                 notificationMessage.put("icon", icon);
                 notificationMessage.put("severity", severity);
-                socket.emit("notification", notificationMessage);
+                emit("notification", notificationMessage, 0);
             } catch (JSONException e) {
                 logger.debug("{}", e.getMessage());
             }
@@ -490,7 +632,7 @@ public class CloudClient {
                 notificationMessage.put("message", message);
                 notificationMessage.put("icon", icon);
                 notificationMessage.put("severity", severity);
-                socket.emit("lognotification", notificationMessage);
+                emit("lognotification", notificationMessage, 0);
             } catch (JSONException e) {
                 logger.debug("{}", e.getMessage());
             }
@@ -513,7 +655,7 @@ public class CloudClient {
                 notificationMessage.put("message", message);
                 notificationMessage.put("icon", icon);
                 notificationMessage.put("severity", severity);
-                socket.emit("broadcastnotification", notificationMessage);
+                emit("broadcastnotification", notificationMessage, 0);
             } catch (JSONException e) {
                 logger.debug("{}", e.getMessage());
             }
@@ -523,7 +665,8 @@ public class CloudClient {
     }
 
     /**
-     * Send item update to openHAB Cloud
+     * Send item update to openHAB Cloud. Updates are collected for a short time and sent together,
+     * if an item is updated again in the meantime only its last state is sent.
      *
      * @param itemName the name of the item
      * @param itemState updated item state
@@ -531,18 +674,43 @@ public class CloudClient {
      */
     public void sendItemUpdate(String itemName, String itemState) {
         if (isConnected()) {
-            logger.debug("Sending update '{}' for item '{}'", itemState, itemName);
+            logger.debug("Queueing update '{}' for item '{}'", itemState, itemName);
+            synchronized (pendingItemUpdates) {
+                if (pendingItemUpdates.put(itemName, itemState) != null) {
+                    coalescedItemUpdates.incrementAndGet();
+                }
+                if (itemUpdateJob == null) {
+                    itemUpdateJob = scheduler.schedule(this::sendPendingItemUpdates, ITEM_UPDATE_INTERVAL_MS,
+                            TimeUnit.MILLISECONDS);
+                }
+            }
+        } else {
+            logger.debug("No connection, Item update is not sent");
+        }
+    }
+
+    private void sendPendingItemUpdates() {
+        Map<String, String> itemUpdates;
+        synchronized (pendingItemUpdates) {
+            itemUpdates = new LinkedHashMap<>(pendingItemUpdates);
+            pendingItemUpdates.clear();
+            itemUpdateJob = null;
+        }
+        if (!isConnected()) {
+            logger.debug("No connection, {} Item updates are not sent", itemUpdates.size());
+            return;
+        }
+        logger.debug("Sending {} Item updates", itemUpdates.size());
+        itemUpdates.forEach((itemName, itemState) -> {
             JSONObject itemUpdateMessage = new JSONObject();
             try {
                 itemUpdateMessage.put("itemName", itemName);
                 itemUpdateMessage.put("itemStatus", itemState);
-                socket.emit("itemupdate", itemUpdateMessage);
+                emit("itemupdate", itemUpdateMessage, 0);
             } catch (JSONException e) {
                 logger.debug("{}", e.getMessage());
             }
-        } else {
-            logger.debug("No connection, Item update is not sent");
-        }
+        });
     }
 
     /**
@@ -557,6 +725,14 @@ public class CloudClient {
      */
     public void shutdown() {
         logger.info("Shutting down openHAB Cloud service connection");
+        synchronized (pendingItemUpdates) {
+            ScheduledFuture<?> job = itemUpdateJob;
+            if (job != null) {
+                job.cancel(false);
+                itemUpdateJob = null;
+            }
+            pendingItemUpdates.clear();
+        }
         socket.disconnect();
     }
 
@@ -572,12 +748,26 @@ public class CloudClient {
         this.listener = listener;
     }
 
-    private JSONObject getJSONHeaders(HttpFields httpFields) {
+    private JSONObject getJSONHeaders(HttpFields httpFields, boolean compressed) {
         JSONObject headersJSON = new JSONObject();
         try {
+            String vary = null;
             for (HttpField field : httpFields) {
+                if (compressed && field.getHeader() == HttpHeader.CONTENT_LENGTH) {
+                    // the length of the compressed body is not known in advance
+                    continue;
+                }
+                if (compressed && field.getHeader() == HttpHeader.VARY) {
+                    vary = field.getValue();
+                    continue;
+                }
                 headersJSON.put(field.getName(), field.getValue());
             }
+            if (compressed) {
+                headersJSON.put(HttpHeader.CONTENT_ENCODING.asString(), "gzip");
+                headersJSON.put(HttpHeader.VARY.asString(),
+                        vary == null ? HttpHeader.ACCEPT_ENCODING.asString() : vary + ", Accept-Encoding");
+            }
         } catch (JSONException e) {
             logger.warn("Error forming response headers: {}", e.getMessage());
         }
@@ -0,0 +1,311 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.io.openhabcloud.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.socket.client.Manager;
+import io.socket.client.Socket;
+import io.socket.emitter.Emitter;
+
+/**
+ * Tests the compression of proxied responses and the collection of item updates by the {@link CloudClient}, the
+ * messages sent to the openHAB Cloud are captured by a mocked Socket.IO client.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class CloudClientTest {
+
+    private final ScheduledExecutorService scheduler = mock(ScheduledExecutorService.class);
+    private final ScheduledFuture<?> future = mock(ScheduledFuture.class);
+    private final Socket socket = mock(Socket.class);
+    private final HttpClient httpClient = new HttpClient();
+    private @Nullable HttpServer server;
+    private String localBaseUrl = "http://localhost:8080";
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        doReturn(future).when(scheduler).schedule(any(Runnable.class), anyLong(), any());
+        when(socket.io()).thenReturn(mock(Manager.class));
+        when(socket.on(anyString(), any())).thenReturn(socket);
+        httpClient.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        httpClient.stop();
+        HttpServer localServer = server;
+        if (localServer != null) {
+            localServer.stop(0);
+        }
+    }
+
+    @Test
+    public void everyCompressedChunkCanBeDecompressedRightAway() throws IOException {
+        ByteArrayOutputStream compressedBody = new ByteArrayOutputStream();
+        GZIPOutputStream gzip = new GZIPOutputStream(compressedBody, true);
+        ByteArrayOutputStream sent = new ByteArrayOutputStream();
+
+        sent.write(CloudClient.compress(gzip, compressedBody, bytes("{\"first\":")));
+        assertEquals("{\"first\":", decompress(sent.toByteArray(), 9));
+
+        sent.write(CloudClient.compress(gzip, compressedBody, bytes("\"second\"}")));
+        assertEquals("{\"first\":\"second\"}", decompress(sent.toByteArray(), 18));
+
+        gzip.close();
+        sent.write(compressedBody.toByteArray());
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(sent.toByteArray()))) {
+            assertEquals("{\"first\":\"second\"}", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void gzipIsUsedIfTheClientAcceptsIt() {
+        assertTrue(CloudClient.acceptsGzip(new JSONObject().put("accept-encoding", "gzip, deflate, br")));
+        assertTrue(CloudClient.acceptsGzip(new JSONObject().put("Accept-Encoding", "GZIP")));
+        assertFalse(CloudClient.acceptsGzip(new JSONObject().put("accept-encoding", "br")));
+        assertFalse(CloudClient.acceptsGzip(new JSONObject().put("accept", "text/html")));
+    }
+
+    @Test
+    public void onlyTextualUnencodedResponsesAreCompressed() {
+        assertTrue(CloudClient.isCompressible(200, headers("text/html; charset=UTF-8")));
+        assertTrue(CloudClient.isCompressible(200, headers("application/json")));
+        assertTrue(CloudClient.isCompressible(200, headers("application/vnd.api+json")));
+        assertTrue(CloudClient.isCompressible(200, headers("image/svg+xml")));
+
+        assertFalse(CloudClient.isCompressible(200, headers("image/png")));
+        assertFalse(CloudClient.isCompressible(200, headers("text/event-stream")));
+        assertFalse(CloudClient.isCompressible(200, new HttpFields()));
+        assertFalse(CloudClient.isCompressible(304, headers("text/html")));
+
+        HttpFields encoded = headers("text/html");
+        encoded.put(HttpHeader.CONTENT_ENCODING, "br");
+        assertFalse(CloudClient.isCompressible(200, encoded));
+    }
+
+    @Test
+    public void lastStateOfEachItemIsSentOnce() throws Exception {
+        CloudClient client = connectedClient();
+
+        client.sendItemUpdate("Light", "ON");
+        client.sendItemUpdate("Temperature", "21.5");
+        client.sendItemUpdate("Light", "OFF");
+        verify(socket, never()).emit(eq("itemupdate"), any());
+        Runnable job = scheduledJob(1);
+        job.run();
+
+        ArgumentCaptor<Object> messages = ArgumentCaptor.forClass(Object.class);
+        verify(socket, times(2)).emit(eq("itemupdate"), messages.capture());
+        assertEquals(List.of("Light=OFF", "Temperature=21.5"),
+                messages.getAllValues().stream().map(CloudClientTest::itemUpdate).collect(Collectors.toList()));
+
+        // the next update is sent by a new job
+        client.sendItemUpdate("Light", "ON");
+        scheduledJob(2).run();
+        verify(socket, times(3)).emit(eq("itemupdate"), messages.capture());
+        assertEquals("Light=ON", itemUpdate(messages.getValue()));
+    }
+
+    @Test
+    public void itemUpdatesAreDroppedWithoutConnection() throws Exception {
+        CloudClient client = createClient();
+        client.connect();
+
+        client.sendItemUpdate("Light", "ON");
+        verify(scheduler, never()).schedule(any(Runnable.class), anyLong(), any());
+
+        connectionListener(Socket.EVENT_CONNECT).call();
+        client.sendItemUpdate("Light", "OFF");
+        Runnable job = scheduledJob(1);
+        // the connection is lost before the job runs
+        connectionListener(Socket.EVENT_DISCONNECT).call();
+        job.run();
+        verify(socket, never()).emit(eq("itemupdate"), any());
+
+        // updates collected before the shutdown are not sent
+        connectionListener(Socket.EVENT_CONNECT).call();
+        client.sendItemUpdate("Light", "ON");
+        client.shutdown();
+        verify(future).cancel(false);
+        scheduledJob(2).run();
+        verify(socket, never()).emit(eq("itemupdate"), any());
+    }
+
+    @Test
+    public void proxiedTextResponseIsCompressed() throws Exception {
+        String body = IntStream.range(0, 2000).mapToObj(i -> "{\"item\":" + i + "}")
+                .collect(Collectors.joining(",", "[", "]"));
+        startServer("application/json", body);
+        CloudClient client = connectedClient();
+
+        client.onEvent("request", request(1, "gzip, deflate"));
+
+        JSONObject headers = (JSONObject) emitted("responseHeader").get(0);
+        assertEquals("gzip", headers.getJSONObject("headers").getString("Content-Encoding"));
+        assertFalse(headers.getJSONObject("headers").has("Content-Length"));
+        byte[] compressed = responseContent();
+        assertTrue(compressed.length < body.length());
+        // reading up to the end of the stream checks the trailer, which is written when the request is complete
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertEquals(body, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void proxiedResponseIsNotCompressedIfTheClientDoesNotAcceptIt() throws Exception {
+        String body = "<html>" + "openHAB ".repeat(1000) + "</html>";
+        startServer("text/html", body);
+        CloudClient client = connectedClient();
+
+        client.onEvent("request", request(2, "br"));
+
+        JSONObject headers = (JSONObject) emitted("responseHeader").get(0);
+        assertFalse(headers.getJSONObject("headers").has("Content-Encoding"));
+        assertEquals(body, new String(responseContent(), StandardCharsets.UTF_8));
+    }
+
+    private CloudClient createClient() {
+        return new CloudClient(httpClient, "uuid", "secret", "https://localhost", localBaseUrl, true, Set.of(),
+                scheduler) {
+            @Override
+            Socket createSocket(String url) {
+                return socket;
+            }
+        };
+    }
+
+    private CloudClient connectedClient() {
+        CloudClient client = createClient();
+        client.connect();
+        connectionListener(Socket.EVENT_CONNECT).call();
+        return client;
+    }
+
+    private Emitter.Listener connectionListener(String event) {
+        ArgumentCaptor<Emitter.Listener> listener = ArgumentCaptor.forClass(Emitter.Listener.class);
+        verify(socket).on(eq(event), listener.capture());
+        return listener.getValue();
+    }
+
+    /**
+     * @return the last job of the given number of jobs, which were scheduled to send the collected item updates
+     */
+    private Runnable scheduledJob(int jobs) {
+        ArgumentCaptor<Runnable> job = ArgumentCaptor.forClass(Runnable.class);
+        verify(scheduler, times(jobs)).schedule(job.capture(), eq(200L), eq(TimeUnit.MILLISECONDS));
+        return job.getValue();
+    }
+
+    /**
+     * Serves a response body in chunks without a content length, like a streamed response of openHAB.
+     */
+    private void startServer(String contentType, String body) throws IOException {
+        HttpServer localServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        localServer.createContext("/", exchange -> {
+            byte[] bytes = bytes(body);
+            exchange.getResponseHeaders().add("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                for (int offset = 0; offset < bytes.length; offset += 1000) {
+                    out.write(bytes, offset, Math.min(1000, bytes.length - offset));
+                    out.flush();
+                }
+            }
+        });
+        localServer.start();
+        server = localServer;
+        localBaseUrl = "http://localhost:" + localServer.getAddress().getPort();
+    }
+
+    private static JSONObject request(int id, String acceptEncoding) {
+        return new JSONObject().put("id", id).put("path", "/rest/items").put("method", "GET")
+                .put("headers", new JSONObject().put("accept-encoding", acceptEncoding)).put("body", "")
+                .put("query", new JSONObject());
+    }
+
+    /**
+     * Waits until the proxied request is finished and returns the messages of an event sent for it.
+     */
+    private List<Object> emitted(String event) {
+        verify(socket, timeout(5000)).emit(eq("responseFinished"), any());
+        ArgumentCaptor<Object> messages = ArgumentCaptor.forClass(Object.class);
+        verify(socket, atLeastOnce()).emit(eq(event), messages.capture());
+        return messages.getAllValues();
+    }
+
+    private byte[] responseContent() {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (Object message : emitted("responseContentBinary")) {
+            content.writeBytes((byte[]) ((JSONObject) message).get("body"));
+        }
+        return content.toByteArray();
+    }
+
+    private static String itemUpdate(Object message) {
+        JSONObject itemUpdate = (JSONObject) message;
+        return itemUpdate.getString("itemName") + "=" + itemUpdate.getString("itemStatus");
+    }
+
+    private static HttpFields headers(String contentType) {
+        HttpFields headers = new HttpFields();
+        headers.put(HttpHeader.CONTENT_TYPE, contentType);
+        return headers;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decompresses the given number of bytes of an unfinished gzip stream.
+     */
+    private static String decompress(byte[] compressed, int length) throws IOException {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -26,7 +26,6 @@ import org.eclipse.jdt.annotation.Nullable;
 import org.openhab.core.OpenHAB;
 import org.openhab.core.audio.AudioFormat;
 import org.openhab.core.audio.AudioStream;
-import org.openhab.core.audio.ByteArrayAudioStream;
 import org.openhab.core.auth.client.oauth2.OAuthFactory;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.voice.TTSException;
@@ -126,12 +125,9 @@ public class GoogleTTSService implements TTSService {
         // create cache folder
         File userData = new File(OpenHAB.getUserDataFolder());
         File cacheFolder = new File(new File(userData, CACHE_FOLDER_NAME), SERVICE_PID);
-        if (!cacheFolder.exists()) {
-            cacheFolder.mkdirs();
-        }
         logger.debug("Using cache folder {}", cacheFolder.getAbsolutePath());
 
-        apiImpl = new GoogleCloudAPI(configAdmin, oAuthFactory, cacheFolder);
+        apiImpl = new GoogleCloudAPI(configAdmin, oAuthFactory, cacheFolder, config);
         updateConfig(config);
     }
 
@@ -230,6 +226,7 @@ public class GoogleTTSService implements TTSService {
                 config.purgeCache = Boolean.parseBoolean(param);
             }
             logger.trace("New configuration: {}", config.toString());
+            apiImpl.setCacheLimits(newConfig);
 
             if (config.clientId != null && !config.clientId.isEmpty() && config.clientSecret != null
                     && !config.clientSecret.isEmpty()) {
@@ -327,11 +324,7 @@ public class GoogleTTSService implements TTSService {
             throw new TTSException("The passed AudioFormat is unsupported");
         }
 
-        // create the audio byte array for given text, locale, format
-        byte[] audio = apiImpl.synthesizeSpeech(trimmedText, (GoogleTTSVoice) voice, requestedFormat.getCodec());
-        if (audio == null) {
-            throw new TTSException("Could not read from Google Cloud TTS Service");
-        }
-        return new ByteArrayAudioStream(audio, requestedFormat);
+        // get the audio stream for given text, locale, format
+        return apiImpl.synthesizeSpeech(trimmedText, (GoogleTTSVoice) voice, requestedFormat);
     }
 }
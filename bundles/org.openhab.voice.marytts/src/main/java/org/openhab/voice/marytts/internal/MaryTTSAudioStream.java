@@ -12,6 +12,8 @@
  */
 package org.openhab.voice.marytts.internal;
 
+import static javax.sound.sampled.AudioSystem.NOT_SPECIFIED;
+
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -20,18 +22,20 @@ import java.io.SequenceInputStream;
 import javax.sound.sampled.AudioInputStream;
 
 import org.apache.commons.io.IOUtils;
-import org.openhab.core.audio.AudioException;
 import org.openhab.core.audio.AudioFormat;
 import org.openhab.core.audio.AudioSource;
-import org.openhab.core.audio.FixedLengthAudioStream;
+import org.openhab.core.audio.AudioStream;
 
 /**
  * Implementation of the {@link AudioSource} interface for the {@link MaryTTSService}
+ * <p>
+ * The WAVE header is followed by the audio data, which is read directly from the {@link AudioInputStream} of MaryTTS
+ * if its length is known.
  *
  * @author Kelly Davis - Initial contribution and API
  * @author Kai Kreuzer - Refactored to updated APIs and moved to openHAB
  */
-class MaryTTSAudioStream extends FixedLengthAudioStream {
+class MaryTTSAudioStream extends AudioStream {
 
     /**
      * {@link AudioFormat} of this {@link AudioSource}
@@ -41,10 +45,7 @@ class MaryTTSAudioStream extends FixedLengthAudioStream {
     /**
      * {@link InputStream} of this {@link AudioSource}
      */
-    private InputStream inputStream;
-
-    private final byte[] rawAudio;
-    private final int length;
+    private final InputStream inputStream;
 
     /**
      * Constructs an instance with the passed properties
@@ -54,10 +55,21 @@ class MaryTTSAudioStream extends FixedLengthAudioStream {
      * @throws IOException
      */
     public MaryTTSAudioStream(AudioInputStream inputStream, AudioFormat audioFormat) throws IOException {
-        rawAudio = IOUtils.toByteArray(inputStream);
-        this.length = rawAudio.length + 36;
-        this.inputStream = new SequenceInputStream(getWavHeaderInputStream(length), new ByteArrayInputStream(rawAudio));
         this.audioFormat = audioFormat;
+        long frameLength = inputStream.getFrameLength();
+        int frameSize = inputStream.getFormat().getFrameSize();
+        InputStream rawAudio;
+        long rawLength;
+        if (frameLength != NOT_SPECIFIED && frameSize != NOT_SPECIFIED) {
+            rawAudio = inputStream;
+            rawLength = frameLength * frameSize;
+        } else {
+            // the length is needed for the header
+            byte[] bytes = IOUtils.toByteArray(inputStream);
+            rawAudio = new ByteArrayInputStream(bytes);
+            rawLength = bytes.length;
+        }
+        this.inputStream = new SequenceInputStream(getWavHeaderInputStream(rawLength + 36), rawAudio);
     }
 
     @Override
@@ -81,11 +93,11 @@ class MaryTTSAudioStream extends FixedLengthAudioStream {
     }
 
     @Override
-    public long length() {
-        return length;
+    public void close() throws IOException {
+        inputStream.close();
     }
 
-    private InputStream getWavHeaderInputStream(int length) throws IOException {
+    private InputStream getWavHeaderInputStream(long length) throws IOException {
         // WAVE header
         // see http://www-mmsp.ece.mcgill.ca/Documents/AudioFormats/WAVE/WAVE.html
         byte[] header = new byte[44];
@@ -143,19 +155,4 @@ class MaryTTSAudioStream extends FixedLengthAudioStream {
         header[43] = (byte) ((rawLength >> 24) & 0xff);
         return new ByteArrayInputStream(header);
     }
-
-    @Override
-    public synchronized void reset() throws IOException {
-        IOUtils.closeQuietly(inputStream);
-        this.inputStream = new SequenceInputStream(getWavHeaderInputStream(length), new ByteArrayInputStream(rawAudio));
-    }
-
-    @Override
-    public InputStream getClonedStream() throws AudioException {
-        try {
-            return new SequenceInputStream(getWavHeaderInputStream(length), new ByteArrayInputStream(rawAudio));
-        } catch (IOException e) {
-            throw new AudioException(e);
-        }
-    }
 }
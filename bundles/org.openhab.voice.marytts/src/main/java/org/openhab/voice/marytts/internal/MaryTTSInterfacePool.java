@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.marytts.internal;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import marytts.MaryInterface;
+import marytts.exceptions.MaryConfigurationException;
+
+/**
+ * A pool of {@link MaryInterface}s, so texts can be synthesized concurrently.
+ * <p>
+ * A {@link MaryInterface} keeps the locale and the voice of the current request, so it can only be used by one
+ * request at a time. The interfaces are created on demand or in advance by {@link #fill()}, at most the size of the
+ * pool is created. If all interfaces are in use, a request waits until one is released.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+class MaryTTSInterfacePool {
+
+    /**
+     * Creates a new {@link MaryInterface}
+     */
+    @FunctionalInterface
+    interface MaryInterfaceFactory {
+        MaryInterface create() throws MaryConfigurationException;
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(MaryTTSInterfacePool.class);
+
+    private final MaryInterfaceFactory factory;
+    private final BlockingQueue<MaryInterface> idleInterfaces = new LinkedBlockingQueue<>();
+
+    // guarded by this
+    private int size;
+    private int created;
+    private boolean closed;
+
+    /**
+     * @param size maximum number of interfaces
+     * @param factory creates the interfaces
+     */
+    MaryTTSInterfacePool(int size, MaryInterfaceFactory factory) {
+        this.size = Math.max(1, size);
+        this.factory = factory;
+    }
+
+    /**
+     * Changes the maximum number of interfaces. If the pool is made smaller, interfaces are dropped when they are
+     * released.
+     *
+     * @param size maximum number of interfaces
+     */
+    synchronized void setSize(int size) {
+        this.size = Math.max(1, size);
+        while (created > this.size && idleInterfaces.poll() != null) {
+            created--;
+        }
+    }
+
+    synchronized int getSize() {
+        return size;
+    }
+
+    /**
+     * Creates interfaces until the pool is full. This can take some time and should not be called by a request.
+     */
+    void fill() {
+        while (reserve()) {
+            try {
+                // dropped if the pool was closed in the meantime
+                release(factory.create());
+            } catch (MaryConfigurationException | RuntimeException e) {
+                cancelReservation();
+                logger.warn("Failed to initialize MaryTTS: {}", e.getMessage());
+                return;
+            }
+        }
+        logger.debug("MaryTTS pool filled with {} interfaces", getSize());
+    }
+
+    /**
+     * Gets an interface, which must be released after use. A new interface is created if all interfaces are in use
+     * and the pool is not full.
+     *
+     * @return an interface, which is not used by another request
+     * @throws MaryConfigurationException if a new interface could not be created or the pool was closed
+     * @throws InterruptedException if the thread was interrupted while waiting for an interface
+     */
+    MaryInterface acquire() throws MaryConfigurationException, InterruptedException {
+        MaryInterface maryInterface = idleInterfaces.poll();
+        if (maryInterface != null) {
+            return maryInterface;
+        }
+        if (reserve()) {
+            try {
+                return factory.create();
+            } catch (MaryConfigurationException | RuntimeException e) {
+                cancelReservation();
+                throw e;
+            }
+        }
+        // check regularly whether the pool was closed, then no interface is released anymore
+        while (!isClosed()) {
+            maryInterface = idleInterfaces.poll(1, TimeUnit.SECONDS);
+            if (maryInterface != null) {
+                return maryInterface;
+            }
+        }
+        throw new MaryConfigurationException("MaryTTS has been stopped");
+    }
+
+    /**
+     * Releases an interface, so it can be used by other requests.
+     *
+     * @param maryInterface an interface returned by {@link #acquire()}
+     */
+    void release(MaryInterface maryInterface) {
+        synchronized (this) {
+            if (closed || created > size) {
+                created--;
+                return;
+            }
+        }
+        idleInterfaces.offer(maryInterface);
+    }
+
+    /**
+     * Closes the pool. A running {@link #fill()} stops after the current interface, the idle interfaces are dropped
+     * and the interfaces in use are dropped when they are released.
+     */
+    synchronized void close() {
+        closed = true;
+        while (idleInterfaces.poll() != null) {
+            created--;
+        }
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private synchronized boolean reserve() {
+        if (closed) {
+            return false;
+        }
+        if (created < size) {
+            created++;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void cancelReservation() {
+        created--;
+    }
+}
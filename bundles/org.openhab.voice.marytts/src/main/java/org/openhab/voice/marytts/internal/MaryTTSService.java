@@ -14,16 +14,29 @@ package org.openhab.voice.marytts.internal;
 
 import static javax.sound.sampled.AudioSystem.NOT_SPECIFIED;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
 
+import org.openhab.core.OpenHAB;
 import org.openhab.core.audio.AudioFormat;
 import org.openhab.core.audio.AudioStream;
+import org.openhab.core.common.ThreadPoolManager;
+import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.voice.TTSException;
 import org.openhab.core.voice.TTSService;
+import org.openhab.voice.ttscache.TTSCache;
+import org.osgi.framework.Constants;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
+import org.osgi.service.component.annotations.Modified;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,31 +52,99 @@ import marytts.modules.synthesis.Voice;
  * @author Kelly Davis - Initial contribution and API
  * @author Kai Kreuzer - Refactored to updated APIs and moved to openHAB
  */
-@Component
+@Component(configurationPid = MaryTTSService.SERVICE_PID, property = Constants.SERVICE_PID + "="
+        + MaryTTSService.SERVICE_PID)
+@ConfigurableService(category = "voice", label = "Mary Text-to-Speech", description_uri = "voice:marytts")
 public class MaryTTSService implements TTSService {
 
+    static final String SERVICE_PID = "org.openhab.voice.marytts";
+
+    private static final String CACHE_FOLDER_NAME = "cache";
+
+    private static final String CONFIG_POOL_SIZE = "poolSize";
+    private static final int DEFAULT_POOL_SIZE = 2;
+
     private final Logger logger = LoggerFactory.getLogger(MaryTTSService.class);
 
-    private MaryInterface marytts;
+    private final ExecutorService executor = ThreadPoolManager.getPool(ThreadPoolManager.THREAD_POOL_NAME_COMMON);
+
+    /**
+     * Pool of MaryTTS interfaces, each of them synthesizes one text at a time
+     */
+    private MaryTTSInterfacePool pool;
+
+    /**
+     * The initialization and the refills of the pool run one after the other, so MaryTTS is never started twice at
+     * the same time
+     */
+    private CompletableFuture<Void> poolSetup = CompletableFuture.completedFuture(null);
 
     /**
-     * Set of supported voices
+     * Set of supported voices, it is empty until MaryTTS is initialized
      */
-    private Set<org.openhab.core.voice.Voice> voices;
+    private volatile Set<org.openhab.core.voice.Voice> voices = Collections.emptySet();
 
     /**
-     * Set of supported audio formats
+     * Set of supported audio formats, it is empty until MaryTTS is initialized
      */
-    private Set<AudioFormat> audioFormats;
+    private volatile Set<AudioFormat> audioFormats = Collections.emptySet();
+
+    /**
+     * Cache of the synthesized audio, so repeated texts are not synthesized again
+     */
+    private TTSCache cache;
+
+    @Activate
+    protected void activate(Map<String, Object> config) {
+        cache = new TTSCache(new File(new File(OpenHAB.getUserDataFolder(), CACHE_FOLDER_NAME), SERVICE_PID), config);
+        pool = new MaryTTSInterfacePool(getPoolSize(config), LocalMaryInterface::new);
+        // starting MaryTTS takes several seconds
+        poolSetup = CompletableFuture.runAsync(this::initialize, executor);
+    }
+
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        cache.setLimits(config);
+        pool.setSize(getPoolSize(config));
+        poolSetup = poolSetup.exceptionally(e -> null).thenRunAsync(pool::fill, executor);
+    }
+
+    @Deactivate
+    protected void deactivate() {
+        // a running initialization stops after the current interface, the shared thread is not interrupted
+        pool.close();
+    }
 
-    protected void activate() {
+    private void initialize() {
+        MaryInterface marytts;
         try {
-            marytts = new LocalMaryInterface();
-            voices = initVoices();
-            audioFormats = initAudioFormats();
+            marytts = pool.acquire();
         } catch (MaryConfigurationException e) {
             logger.error("Failed to initialize MaryTTS: {}", e.getMessage(), e);
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            audioFormats = initAudioFormats(marytts);
+            voices = initVoices(marytts);
+        } finally {
+            pool.release(marytts);
         }
+        pool.fill();
+    }
+
+    private int getPoolSize(Map<String, Object> config) {
+        Object poolSize = config.get(CONFIG_POOL_SIZE);
+        if (poolSize != null) {
+            try {
+                return (int) Double.parseDouble(poolSize.toString());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid pool size '{}', using {}", poolSize, DEFAULT_POOL_SIZE);
+            }
+        }
+        return DEFAULT_POOL_SIZE;
     }
 
     @Override
@@ -114,26 +195,42 @@ public class MaryTTSService implements TTSService {
         Voice maryTTSVoice = Voice.getVoice(voice.getLabel());
         AudioFormat maryTTSVoiceAudioFormat = getAudioFormat(maryTTSVoice.dbAudioFormat());
 
-        // Synchronize on marytts
-        synchronized (marytts) {
+        return cache.get(voice.getLabel(), "wav", text, maryTTSVoiceAudioFormat,
+                () -> generateAudio(text, voice, maryTTSVoiceAudioFormat));
+    }
+
+    private AudioStream generateAudio(String text, org.openhab.core.voice.Voice voice, AudioFormat audioFormat)
+            throws TTSException {
+        MaryInterface marytts;
+        try {
+            marytts = pool.acquire();
+        } catch (MaryConfigurationException e) {
+            throw new TTSException("Error generating an AudioStream", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TTSException("Interrupted while waiting for MaryTTS", e);
+        }
+        try {
             // Set voice (Each voice supports only a single AudioFormat)
             marytts.setLocale(voice.getLocale());
             marytts.setVoice(voice.getLabel());
 
-            try {
-                return new MaryTTSAudioStream(marytts.generateAudio(text), maryTTSVoiceAudioFormat);
-            } catch (SynthesisException | IOException e) {
-                throw new TTSException("Error generating an AudioStream", e);
-            }
+            // the audio is completely generated, so the interface can be used by the next request while it is read
+            return new MaryTTSAudioStream(marytts.generateAudio(text), audioFormat);
+        } catch (SynthesisException | IOException e) {
+            throw new TTSException("Error generating an AudioStream", e);
+        } finally {
+            pool.release(marytts);
         }
     }
 
     /**
      * Initializes voices
      *
+     * @param marytts The interface to query
      * @return The voices of this instance
      */
-    private Set<org.openhab.core.voice.Voice> initVoices() {
+    private Set<org.openhab.core.voice.Voice> initVoices(MaryInterface marytts) {
         Set<org.openhab.core.voice.Voice> voices = new HashSet<>();
         for (Locale locale : marytts.getAvailableLocales()) {
             for (String voiceLabel : marytts.getAvailableVoices(locale)) {
@@ -146,9 +243,10 @@ public class MaryTTSService implements TTSService {
     /**
      * Initializes audioFormats
      *
+     * @param marytts The interface to query
      * @return The audio formats of this instance
      */
-    private Set<AudioFormat> initAudioFormats() {
+    private Set<AudioFormat> initAudioFormats(MaryInterface marytts) {
         Set<AudioFormat> audioFormats = new HashSet<>();
         for (String voiceLabel : marytts.getAvailableVoices()) {
             audioFormats.add(getAudioFormat(Voice.getVoice(voiceLabel).dbAudioFormat()));
@@ -0,0 +1,174 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.marytts.internal;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+
+import marytts.MaryInterface;
+import marytts.exceptions.MaryConfigurationException;
+
+/**
+ * Tests for the {@link MaryTTSInterfacePool}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class MaryTTSInterfacePoolTest {
+
+    private static final long SYNTHESIS_TIME_MS = 500;
+
+    private final AtomicInteger created = new AtomicInteger();
+
+    private MaryTTSInterfacePool createPool(int size) {
+        return new MaryTTSInterfacePool(size, () -> {
+            created.incrementAndGet();
+            return mock(MaryInterface.class);
+        });
+    }
+
+    @Test
+    public void interfacesAreCreatedOnDemandAndReused() throws Exception {
+        MaryTTSInterfacePool pool = createPool(2);
+
+        MaryInterface first = pool.acquire();
+        pool.release(first);
+        assertSame(first, pool.acquire());
+        MaryInterface second = pool.acquire();
+        assertNotSame(first, second);
+        assertEquals(2, created.get());
+
+        // the pool is exhausted, so the third request waits for a released interface
+        CompletableFuture<MaryInterface> third = new CompletableFuture<>();
+        Thread waiter = new Thread(() -> {
+            try {
+                third.complete(pool.acquire());
+            } catch (Exception e) {
+                third.completeExceptionally(e);
+            }
+        });
+        waiter.start();
+        awaitWaiting(waiter);
+        assertFalse(third.isDone());
+
+        pool.release(second);
+        assertSame(second, third.get(5, TimeUnit.SECONDS));
+        assertEquals(2, created.get());
+    }
+
+    @Test
+    public void fillCreatesInterfacesUpToTheSize() throws Exception {
+        MaryTTSInterfacePool pool = createPool(3);
+
+        MaryInterface first = pool.acquire();
+        pool.fill();
+        assertEquals(3, created.get());
+
+        // the idle interfaces are dropped
+        pool.setSize(1);
+        pool.release(first);
+        pool.fill();
+        assertSame(first, pool.acquire());
+        assertEquals(3, created.get());
+    }
+
+    @Test
+    public void closedPoolIsNotFilledAndDropsReleasedInterfaces() throws Exception {
+        MaryTTSInterfacePool pool = createPool(2);
+        MaryInterface inUse = pool.acquire();
+
+        pool.close();
+        pool.fill();
+        assertEquals(1, created.get());
+
+        pool.release(inUse);
+        assertThrows(MaryConfigurationException.class, pool::acquire);
+        assertEquals(1, created.get());
+    }
+
+    @Test
+    public void requestsOfAFullPoolAreSynthesizedConcurrently() throws Exception {
+        int size = 4;
+        List<MaryInterface> interfaces = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            MaryInterface maryInterface = mock(MaryInterface.class);
+            when(maryInterface.generateAudio("Hello")).thenAnswer(invocation -> {
+                Thread.sleep(SYNTHESIS_TIME_MS);
+                return null;
+            });
+            interfaces.add(maryInterface);
+        }
+        Iterator<MaryInterface> nextInterface = interfaces.iterator();
+        MaryTTSInterfacePool pool = new MaryTTSInterfacePool(size, () -> {
+            created.incrementAndGet();
+            return nextInterface.next();
+        });
+        // the interfaces are created in advance, as by the service
+        pool.fill();
+
+        ExecutorService executor = Executors.newFixedThreadPool(size);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> requests = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                requests.add(executor.submit(() -> {
+                    start.await();
+                    MaryInterface maryInterface = pool.acquire();
+                    try {
+                        return maryInterface.generateAudio("Hello");
+                    } finally {
+                        pool.release(maryInterface);
+                    }
+                }));
+            }
+            long startTime = System.nanoTime();
+            start.countDown();
+            for (Future<?> request : requests) {
+                request.get(size * SYNTHESIS_TIME_MS * 2, TimeUnit.MILLISECONDS);
+            }
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+            // one request after the other would take size * SYNTHESIS_TIME_MS
+            assertTrue(elapsed >= SYNTHESIS_TIME_MS, "Requests finished after " + elapsed + " ms");
+            assertTrue(elapsed < 2 * SYNTHESIS_TIME_MS, "Requests finished after " + elapsed + " ms");
+            assertEquals(size, created.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits until the thread is blocked, e.g. waiting for an interface.
+     */
+    private static void awaitWaiting(Thread thread) {
+        long timeout = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.TIMED_WAITING && thread.getState() != Thread.State.WAITING) {
+            assertTrue(System.nanoTime() < timeout, "Thread did not wait");
+            Thread.yield();
+        }
+    }
+}
@@ -113,6 +113,15 @@ class PicoTTSAudioStream extends FixedLengthAudioStream {
         return inputStream.read();
     }
 
+    @Override
+    public void close() throws IOException {
+        inputStream.close();
+        File file = this.file;
+        if (file != null) {
+            file.delete();
+        }
+    }
+
     @Override
     public long length() {
         return length;
@@ -12,28 +12,41 @@
  */
 package org.openhab.voice.picotts.internal;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.eclipse.jdt.annotation.NonNullByDefault;
 import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.OpenHAB;
 import org.openhab.core.audio.AudioException;
 import org.openhab.core.audio.AudioFormat;
 import org.openhab.core.audio.AudioStream;
+import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.voice.TTSException;
 import org.openhab.core.voice.TTSService;
 import org.openhab.core.voice.Voice;
+import org.openhab.voice.ttscache.TTSCache;
+import org.osgi.framework.Constants;
+import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Modified;
 
 /**
  * @author Florian Schmidt - Initial Contribution
  */
-@Component
+@Component(configurationPid = PicoTTSService.SERVICE_PID, property = Constants.SERVICE_PID + "="
+        + PicoTTSService.SERVICE_PID)
+@ConfigurableService(category = "voice", label = "Pico Text-to-Speech", description_uri = "voice:picotts")
 @NonNullByDefault
 public class PicoTTSService implements TTSService {
+    static final String SERVICE_PID = "org.openhab.voice.picotts";
+    private static final String CACHE_FOLDER_NAME = "cache";
+
     private final Set<Voice> voices = Stream
             .of(new PicoTTSVoice("de-DE"), new PicoTTSVoice("en-US"), new PicoTTSVoice("en-GB"),
                     new PicoTTSVoice("es-ES"), new PicoTTSVoice("fr-FR"), new PicoTTSVoice("it-IT"))
@@ -42,6 +55,21 @@ public class PicoTTSService implements TTSService {
     private final Set<AudioFormat> audioFormats = Collections.singleton(
             new AudioFormat(AudioFormat.CONTAINER_WAVE, AudioFormat.CODEC_PCM_SIGNED, false, 16, null, 16000L));
 
+    /**
+     * Cache of the synthesized audio, so pico2wave is not run again for repeated texts
+     */
+    private @NonNullByDefault({}) TTSCache cache;
+
+    @Activate
+    protected void activate(Map<String, Object> config) {
+        cache = new TTSCache(new File(new File(OpenHAB.getUserDataFolder(), CACHE_FOLDER_NAME), SERVICE_PID), config);
+    }
+
+    @Modified
+    protected void modified(Map<String, Object> config) {
+        cache.setLimits(config);
+    }
+
     @Override
     public Set<Voice> getAvailableVoices() {
         return this.voices;
@@ -70,11 +98,13 @@ public class PicoTTSService implements TTSService {
             throw new TTSException("The passed AudioFormat is unsupported");
         }
 
-        try {
-            return new PicoTTSAudioStream(text, voice, requestedFormat);
-        } catch (AudioException e) {
-            throw new TTSException(e);
-        }
+        return cache.get(voice.getLabel(), "wav", text, requestedFormat, () -> {
+            try {
+                return new PicoTTSAudioStream(text, voice, requestedFormat);
+            } catch (AudioException e) {
+                throw new TTSException(e);
+            }
+        });
     }
 
     @Override
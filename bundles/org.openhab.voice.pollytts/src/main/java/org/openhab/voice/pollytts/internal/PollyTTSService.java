@@ -17,7 +17,6 @@ import static org.openhab.core.audio.AudioFormat.*;
 import static org.openhab.voice.pollytts.internal.PollyTTSService.*;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Locale;
@@ -25,15 +24,15 @@ import java.util.Map;
 import java.util.Set;
 
 import org.openhab.core.OpenHAB;
-import org.openhab.core.audio.AudioException;
 import org.openhab.core.audio.AudioFormat;
 import org.openhab.core.audio.AudioStream;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.voice.TTSException;
 import org.openhab.core.voice.TTSService;
 import org.openhab.core.voice.Voice;
-import org.openhab.voice.pollytts.internal.cloudapi.CachedPollyTTSCloudImpl;
+import org.openhab.voice.pollytts.internal.cloudapi.PollyTTSCloudImpl;
 import org.openhab.voice.pollytts.internal.cloudapi.PollyTTSConfig;
+import org.openhab.voice.ttscache.TTSCache;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
@@ -78,10 +77,12 @@ public class PollyTTSService implements TTSService {
 
     private final Logger logger = LoggerFactory.getLogger(PollyTTSService.class);
 
+    private PollyTTSCloudImpl pollyTTSImpl;
+
     /**
-     * We need the cached implementation to allow for FixedLengthAudioStream.
+     * Cache of the synthesized audio, it allows for FixedLengthAudioStream.
      */
-    private CachedPollyTTSCloudImpl pollyTTSImpl;
+    private TTSCache cache;
 
     /**
      * Set of supported voices
@@ -106,14 +107,16 @@ public class PollyTTSService implements TTSService {
             pollyTTSConfig = new PollyTTSConfig(config);
             logger.debug("Using configuration {}", config);
 
-            // create cache folder
-            File cacheFolder = new File(new File(OpenHAB.getUserDataFolder(), CACHE_FOLDER_NAME), SERVICE_PID);
-            if (!cacheFolder.exists()) {
-                cacheFolder.mkdirs();
+            TTSCache localCache = cache;
+            if (localCache == null) {
+                File cacheFolder = new File(new File(OpenHAB.getUserDataFolder(), CACHE_FOLDER_NAME), SERVICE_PID);
+                logger.info("Using cache folder {}", cacheFolder.getAbsolutePath());
+                cache = new TTSCache(cacheFolder, config);
+            } else {
+                localCache.setLimits(config);
             }
-            logger.info("Using cache folder {}", cacheFolder.getAbsolutePath());
 
-            pollyTTSImpl = new CachedPollyTTSCloudImpl(pollyTTSConfig, cacheFolder);
+            pollyTTSImpl = new PollyTTSCloudImpl(pollyTTSConfig);
 
             audioFormats.clear();
             audioFormats.addAll(initAudioFormats());
@@ -164,22 +167,12 @@ public class PollyTTSService implements TTSService {
             throw new TTSException("The passed AudioFormat is unsupported");
         }
 
-        // now create the input stream for given text, locale, format. There is
-        // only a default voice
-        try {
-            File cacheAudioFile = pollyTTSImpl.getTextToSpeechAsFile(text, voice.getLabel(),
-                    getApiAudioFormat(requestedFormat));
-            if (cacheAudioFile == null) {
-                throw new TTSException("Could not read from PollyTTS service");
-            }
-            logger.debug("Audio Stream for '{}' in format {}", text, requestedFormat);
-            AudioStream audioStream = new PollyTTSAudioStream(cacheAudioFile, requestedFormat);
-            return audioStream;
-        } catch (AudioException ex) {
-            throw new TTSException("Could not create AudioStream: " + ex.getMessage(), ex);
-        } catch (IOException ex) {
-            throw new TTSException("Could not read from PollyTTS service: " + ex.getMessage(), ex);
-        }
+        // now get the audio stream for given text, voice, format from the cache or the service
+        String apiAudioFormat = getApiAudioFormat(requestedFormat);
+        AudioStream audioStream = cache.get(voice.getLabel(), apiAudioFormat, text, requestedFormat,
+                () -> pollyTTSImpl.getTextToSpeech(text, voice.getLabel(), apiAudioFormat));
+        logger.debug("Audio Stream for '{}' in format {}, {}", text, requestedFormat, cache);
+        return audioStream;
     }
 
     private Set<Voice> initVoices() {
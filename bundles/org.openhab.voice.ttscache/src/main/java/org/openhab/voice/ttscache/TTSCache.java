@@ -0,0 +1,516 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.ttscache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.eclipse.jdt.annotation.Nullable;
+import org.openhab.core.audio.AudioException;
+import org.openhab.core.audio.AudioFormat;
+import org.openhab.core.audio.AudioStream;
+import org.openhab.core.audio.ByteArrayAudioStream;
+import org.openhab.core.audio.FileAudioStream;
+import org.openhab.core.voice.TTSException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A cache for synthesized speech, which can be used by all TTS services.
+ * <p>
+ * The audio of every synthesized text is stored in a file of the cache folder. The files which were not used for the
+ * longest time are deleted if the cache gets bigger than its disk size, and the files which were not used for longer
+ * than the maximum age are deleted. Both limits can be configured by the service, they can be disabled for prefilled
+ * caches. The most recently used audio data is also kept in memory up to the memory size, so often used texts like
+ * announcements are played without reading a file.
+ * <p>
+ * Entries are identified by the voice, the audio format and a hash of the text. The cache is created for one service
+ * and its folder must not be used by another cache. The files of the previous caches of the services can not be used,
+ * they are deleted when the cache is created. Other files in the folder are ignored.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TTSCache {
+
+    public static final long DEFAULT_MEMORY_SIZE = 8 * 1024 * 1024;
+    public static final long DEFAULT_DISK_SIZE = 100 * 1024 * 1024;
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofDays(30);
+    public static final long UNLIMITED_DISK_SIZE = 0;
+    public static final Duration UNLIMITED_AGE = Duration.ZERO;
+
+    /**
+     * Configuration parameter of the services for the disk size in MB, 0 for an unlimited size
+     */
+    public static final String CONFIG_CACHE_SIZE = "cacheSize";
+
+    /**
+     * Configuration parameter of the services for the maximum age in days, 0 to keep unused files
+     */
+    public static final String CONFIG_CACHE_EXPIRATION = "cacheExpiration";
+
+    // the last use of a file is stored in its modification time, which is not updated more often than this
+    private static final long TOUCH_INTERVAL = TimeUnit.HOURS.toMillis(1);
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9_-]*_[0-9a-f]{64}\\.[a-z0-9_]+");
+    // the previous caches of the services named their audio and text files by an MD5 hash of the text
+    private static final Pattern PREVIOUS_KEY_PATTERN = Pattern.compile(".*_[0-9a-f]{32}\\.[A-Za-z0-9]+");
+
+    private final Logger logger = LoggerFactory.getLogger(TTSCache.class);
+
+    private final File cacheFolder;
+    private final long memorySize;
+    private final long maxMemoryEntrySize;
+    // guarded by this
+    private long diskSize;
+    private long maxAge;
+
+    // both maps are in access order and guarded by this
+    private final Map<String, byte[]> memoryEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, DiskEntry> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes;
+    private long diskBytes;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bytesFromCache = new AtomicLong();
+
+    /**
+     * Synthesizes the audio of a text, which is not in the cache yet.
+     */
+    @FunctionalInterface
+    public interface Synthesizer {
+        InputStream synthesize() throws TTSException, IOException;
+    }
+
+    private static class DiskEntry {
+        private final File file;
+        private final long size;
+        private long lastUsed;
+
+        private DiskEntry(File file, long size, long lastUsed) {
+            this.file = file;
+            this.size = size;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    /**
+     * Creates a cache with the default memory size, disk size and maximum age.
+     *
+     * @param cacheFolder folder of the cache files, it is created if it does not exist
+     */
+    public TTSCache(File cacheFolder) {
+        this(cacheFolder, DEFAULT_MEMORY_SIZE, DEFAULT_DISK_SIZE, DEFAULT_MAX_AGE);
+    }
+
+    /**
+     * Creates a cache with the default memory size and the disk size and maximum age of the service configuration.
+     *
+     * @param cacheFolder folder of the cache files, it is created if it does not exist
+     * @param config the configuration of the service, see {@link #setLimits(Map)}
+     */
+    public TTSCache(File cacheFolder, Map<String, Object> config) {
+        this(cacheFolder, DEFAULT_MEMORY_SIZE, getDiskSize(config), getMaxAge(config));
+    }
+
+    /**
+     * Creates a cache and indexes the files which are already in the cache folder.
+     *
+     * @param cacheFolder folder of the cache files, it is created if it does not exist
+     * @param memorySize maximum number of bytes kept in memory
+     * @param diskSize maximum number of bytes stored in the cache folder, {@link #UNLIMITED_DISK_SIZE} to keep the
+     *            files until they are too old
+     * @param maxAge files which were not used for this time are deleted, {@link #UNLIMITED_AGE} to keep them until
+     *            the disk size is exceeded
+     */
+    public TTSCache(File cacheFolder, long memorySize, long diskSize, Duration maxAge) {
+        this.cacheFolder = cacheFolder;
+        this.memorySize = memorySize;
+        // a single entry must not replace most of the other entries
+        this.maxMemoryEntrySize = memorySize / 4;
+        this.diskSize = diskSize;
+        this.maxAge = maxAge.toMillis();
+
+        if (!cacheFolder.exists()) {
+            cacheFolder.mkdirs();
+        }
+        File[] files = cacheFolder.listFiles(File::isFile);
+        if (files != null) {
+            Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+            synchronized (this) {
+                int previousFiles = 0;
+                for (File file : files) {
+                    String name = file.getName();
+                    if (name.endsWith(TEMP_FILE_EXTENSION)) {
+                        // left over from a failed write
+                        file.delete();
+                        continue;
+                    }
+                    if (!KEY_PATTERN.matcher(name).matches()) {
+                        if (PREVIOUS_KEY_PATTERN.matcher(name).matches()) {
+                            previousFiles++;
+                            file.delete();
+                        }
+                        continue;
+                    }
+                    DiskEntry entry = new DiskEntry(file, file.length(), file.lastModified());
+                    diskEntries.put(file.getName(), entry);
+                    diskBytes += entry.size;
+                }
+                if (previousFiles > 0) {
+                    logger.info("Deleted {} files of a previous cache version from {}", previousFiles,
+                            cacheFolder.getAbsolutePath());
+                }
+                evictDiskEntries(System.currentTimeMillis());
+            }
+        }
+        logger.debug("Using TTS cache folder {} with {} files ({} bytes)", cacheFolder.getAbsolutePath(),
+                diskEntries.size(), diskBytes);
+    }
+
+    /**
+     * Changes the disk size and the maximum age to the ones of the service configuration and deletes the files which
+     * exceed them.
+     *
+     * @param config the configuration of the service with the disk size in MB ({@link #CONFIG_CACHE_SIZE}) and the
+     *            maximum age in days ({@link #CONFIG_CACHE_EXPIRATION}). The defaults are used for missing or invalid
+     *            values, 0 disables the limit.
+     */
+    public synchronized void setLimits(Map<String, Object> config) {
+        diskSize = getDiskSize(config);
+        maxAge = getMaxAge(config).toMillis();
+        evictDiskEntries(System.currentTimeMillis());
+    }
+
+    private static long getDiskSize(Map<String, Object> config) {
+        long megabytes = getConfigValue(config, CONFIG_CACHE_SIZE, DEFAULT_DISK_SIZE / (1024 * 1024));
+        return megabytes * 1024 * 1024;
+    }
+
+    private static Duration getMaxAge(Map<String, Object> config) {
+        return Duration.ofDays(getConfigValue(config, CONFIG_CACHE_EXPIRATION, DEFAULT_MAX_AGE.toDays()));
+    }
+
+    private static long getConfigValue(Map<String, Object> config, String name, long defaultValue) {
+        Object value = config.get(name);
+        if (value != null) {
+            try {
+                long parsed = (long) Double.parseDouble(value.toString());
+                if (parsed >= 0) {
+                    return parsed;
+                }
+            } catch (NumberFormatException e) {
+                // the default is used
+            }
+            LoggerFactory.getLogger(TTSCache.class).warn("Invalid value '{}' of {}, using {}", value, name,
+                    defaultValue);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Gets the audio of a text from the cache or synthesizes it and stores it in the cache.
+     *
+     * @param voice the voice and all other parameters which change the synthesized audio
+     * @param format the audio format, it is used as file extension
+     * @param text the text
+     * @param audioFormat the audio format of the returned stream
+     * @param synthesizer synthesizes the text if it is not in the cache
+     * @return an audio stream
+     * @throws TTSException if the text is not in the cache and could not be synthesized
+     */
+    public AudioStream get(String voice, String format, String text, AudioFormat audioFormat, Synthesizer synthesizer)
+            throws TTSException {
+        String key = getKey(voice, format, text);
+
+        byte[] audio = getFromMemory(key);
+        if (audio != null) {
+            memoryHits.incrementAndGet();
+            bytesFromCache.addAndGet(audio.length);
+            logger.debug("Audio for '{}' found in memory", text);
+            return new ByteArrayAudioStream(audio, audioFormat);
+        }
+
+        DiskEntry entry = getFromDisk(key);
+        if (entry != null) {
+            try {
+                AudioStream audioStream = getDiskAudioStream(key, entry, audioFormat);
+                diskHits.incrementAndGet();
+                bytesFromCache.addAndGet(entry.size);
+                logger.debug("Audio for '{}' found in file {}", text, entry.file.getName());
+                return audioStream;
+            } catch (IOException | AudioException e) {
+                logger.debug("Failed to read cache file {}: {}", entry.file.getName(), e.getMessage());
+                remove(key);
+            }
+        }
+
+        misses.incrementAndGet();
+        try (InputStream inputStream = synthesizer.synthesize()) {
+            audio = inputStream.readAllBytes();
+        } catch (IOException e) {
+            throw new TTSException("Could not synthesize text: " + e.getMessage(), e);
+        }
+        put(key, audio);
+        return new ByteArrayAudioStream(audio, audioFormat);
+    }
+
+    /**
+     * Stores the audio of a text in the cache, e.g. to fill the cache in advance.
+     *
+     * @param voice the voice and all other parameters which change the synthesized audio
+     * @param format the audio format, it is used as file extension
+     * @param text the text
+     * @param inputStream the audio
+     * @throws IOException if the audio could not be read or stored
+     */
+    public void put(String voice, String format, String text, InputStream inputStream) throws IOException {
+        String key = getKey(voice, format, text);
+        if (!writeFile(key, inputStream.readAllBytes())) {
+            throw new IOException("Could not write cache file " + key);
+        }
+    }
+
+    /**
+     * Deletes all entries of the cache.
+     */
+    public synchronized void purge() {
+        memoryEntries.clear();
+        memoryBytes = 0;
+        diskEntries.values().forEach(entry -> entry.file.delete());
+        diskEntries.clear();
+        diskBytes = 0;
+        // files of previous cache versions are deleted as well
+        File[] files = cacheFolder.listFiles(File::isFile);
+        if (files != null) {
+            Arrays.stream(files).forEach(File::delete);
+        }
+        logger.debug("TTS cache {} purged", cacheFolder.getName());
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return the share of requests answered from memory or from disk, between 0 and 1
+     */
+    public double getHitRate() {
+        long hits = memoryHits.get() + diskHits.get();
+        long requests = hits + misses.get();
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    /**
+     * @return the number of audio bytes served from the cache
+     */
+    public long getBytesFromCache() {
+        return bytesFromCache.get();
+    }
+
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    public synchronized long getDiskBytes() {
+        return diskBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("TTSCache[%s, hit rate %.2f, %d memory hits, %d disk hits, %d misses, %d bytes in memory, "
+                + "%d bytes on disk]", cacheFolder.getName(), getHitRate(), getMemoryHits(), getDiskHits(),
+                getMisses(), getMemoryBytes(), getDiskBytes());
+    }
+
+    private synchronized byte @Nullable [] getFromMemory(String key) {
+        // entries which are too old are deleted from memory as well
+        long now = System.currentTimeMillis();
+        evictDiskEntries(now);
+        byte[] audio = memoryEntries.get(key);
+        if (audio != null) {
+            DiskEntry entry = diskEntries.get(key);
+            if (entry != null) {
+                touch(entry, now);
+            }
+        }
+        return audio;
+    }
+
+    private synchronized @Nullable DiskEntry getFromDisk(String key) {
+        DiskEntry entry = diskEntries.get(key);
+        if (entry != null) {
+            touch(entry, System.currentTimeMillis());
+        }
+        return entry;
+    }
+
+    private AudioStream getDiskAudioStream(String key, DiskEntry entry, AudioFormat audioFormat)
+            throws IOException, AudioException {
+        if (entry.size > maxMemoryEntrySize) {
+            // streamed from the file
+            return new FileAudioStream(entry.file, audioFormat);
+        }
+        byte[] audio = Files.readAllBytes(entry.file.toPath());
+        putInMemory(key, audio);
+        return new ByteArrayAudioStream(audio, audioFormat);
+    }
+
+    private void put(String key, byte[] audio) {
+        writeFile(key, audio);
+        putInMemory(key, audio);
+    }
+
+    private boolean writeFile(String key, byte[] audio) {
+        File file = new File(cacheFolder, key);
+        @Nullable Path tempFile = null;
+        try {
+            // concurrent requests of the same text write their own file, the last one replaces the others
+            tempFile = Files.createTempFile(cacheFolder.toPath(), key, TEMP_FILE_EXTENSION);
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                outputStream.write(audio);
+            }
+            Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the audio can still be played
+            logger.warn("Could not write {} to the TTS cache: {}", file, e.getMessage());
+            if (tempFile != null) {
+                tempFile.toFile().delete();
+            }
+            return false;
+        }
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            DiskEntry previous = diskEntries.put(key, new DiskEntry(file, audio.length, now));
+            if (previous != null) {
+                diskBytes -= previous.size;
+            }
+            diskBytes += audio.length;
+            evictDiskEntries(now);
+        }
+        return true;
+    }
+
+    private synchronized void putInMemory(String key, byte[] audio) {
+        if (audio.length > maxMemoryEntrySize) {
+            return;
+        }
+        byte[] previous = memoryEntries.put(key, audio);
+        if (previous != null) {
+            memoryBytes -= previous.length;
+        }
+        memoryBytes += audio.length;
+        Iterator<byte[]> iterator = memoryEntries.values().iterator();
+        while (memoryBytes > memorySize && iterator.hasNext()) {
+            memoryBytes -= iterator.next().length;
+            iterator.remove();
+        }
+    }
+
+    private synchronized void remove(String key) {
+        byte[] audio = memoryEntries.remove(key);
+        if (audio != null) {
+            memoryBytes -= audio.length;
+        }
+        DiskEntry entry = diskEntries.remove(key);
+        if (entry != null) {
+            diskBytes -= entry.size;
+            entry.file.delete();
+        }
+    }
+
+    /**
+     * Deletes the least recently used files while the cache is too big and the files which are too old.
+     * Must be called while holding the lock.
+     */
+    private void evictDiskEntries(long now) {
+        Iterator<Map.Entry<String, DiskEntry>> iterator = diskEntries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, DiskEntry> eldest = iterator.next();
+            DiskEntry entry = eldest.getValue();
+            boolean tooOld = maxAge > 0 && now - entry.lastUsed > maxAge;
+            if ((diskSize == UNLIMITED_DISK_SIZE || diskBytes <= diskSize) && !tooOld) {
+                // the entries are in the order of their last use, the remaining ones are younger
+                return;
+            }
+            iterator.remove();
+            diskBytes -= entry.size;
+            entry.file.delete();
+            byte[] audio = memoryEntries.remove(eldest.getKey());
+            if (audio != null) {
+                memoryBytes -= audio.length;
+            }
+            logger.trace("Deleted cache file {}", entry.file.getName());
+        }
+    }
+
+    private void touch(DiskEntry entry, long now) {
+        if (now - entry.lastUsed > TOUCH_INTERVAL) {
+            entry.file.setLastModified(now);
+        }
+        entry.lastUsed = now;
+    }
+
+    /**
+     * Gets the file name of an entry, it is preceded by the voice to make the cache folder easier to browse.
+     * <p>
+     * Sample: "Joanna_61bd6d15b850a58ca3d221084a345f97f16705bb7603631f77ea1da7a9b51f17.mp3"
+     */
+    private String getKey(String voice, String format, String text) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+        digest.update((voice + '\n' + format + '\n').getBytes(StandardCharsets.UTF_8));
+        byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+        StringBuilder key = new StringBuilder(voice.length() + 2 * hash.length + format.length() + 2);
+        key.append(voice.replaceAll("[^A-Za-z0-9-]", "_")).append('_');
+        for (byte b : hash) {
+            key.append(HEX_DIGITS[(b >> 4) & 0xf]).append(HEX_DIGITS[b & 0xf]);
+        }
+        return key.append('.').append(format.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "_")).toString();
+    }
+}
@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2010-2021 Contributors to the openHAB project
+ *
+ * See the NOTICE file(s) distributed with this work for additional
+ * information.
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ */
+package org.openhab.voice.ttscache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.jdt.annotation.NonNullByDefault;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.openhab.core.audio.AudioFormat;
+import org.openhab.core.audio.AudioStream;
+import org.openhab.core.audio.FixedLengthAudioStream;
+import org.openhab.core.voice.TTSException;
+
+/**
+ * Tests for the {@link TTSCache}.
+ *
+ * @author agent - Initial contribution
+ */
+@NonNullByDefault
+public class TTSCacheTest {
+
+    private static final AudioFormat FORMAT = AudioFormat.MP3;
+
+    public @TempDir @NonNullByDefault({}) File folder;
+
+    private final AtomicInteger synthesized = new AtomicInteger();
+
+    @Test
+    public void repeatedTextsAreServedFromMemory() throws Exception {
+        TTSCache cache = new TTSCache(folder);
+
+        assertAudio("audio-1", cache.get("Joanna", "mp3", "Hello", FORMAT, synthesizer("audio-1")));
+        assertAudio("audio-1", cache.get("Joanna", "mp3", "Hello", FORMAT, synthesizer("audio-2")));
+        assertAudio("audio-3", cache.get("Joanna", "ogg", "Hello", FORMAT, synthesizer("audio-3")));
+        assertAudio("audio-4", cache.get("Hans", "mp3", "Hello", FORMAT, synthesizer("audio-4")));
+
+        assertEquals(3, synthesized.get());
+        assertEquals(1, cache.getMemoryHits());
+        assertEquals(0, cache.getDiskHits());
+        assertEquals(3, cache.getMisses());
+        assertEquals(0.25, cache.getHitRate());
+        assertEquals(7, cache.getBytesFromCache());
+        assertEquals(3, folder.listFiles().length);
+    }
+
+    @Test
+    public void filesAreUsedAfterRestart() throws Exception {
+        new TTSCache(folder).get("Joanna", "mp3", "Hello", FORMAT, synthesizer("audio-1"));
+
+        TTSCache cache = new TTSCache(folder);
+        AudioStream audioStream = cache.get("Joanna", "mp3", "Hello", FORMAT, synthesizer("audio-2"));
+
+        assertAudio("audio-1", audioStream);
+        assertTrue(audioStream instanceof FixedLengthAudioStream);
+        assertEquals(1, synthesized.get());
+        assertEquals(1, cache.getDiskHits());
+    }
+
+    @Test
+    public void leastRecentlyUsedFilesAreDeleted() throws Exception {
+        TTSCache cache = new TTSCache(folder, 0, 20, Duration.ZERO);
+
+        cache.get("Joanna", "mp3", "one", FORMAT, synthesizer("audio-1"));
+        cache.get("Joanna", "mp3", "two", FORMAT, synthesizer("audio-2"));
+        cache.get("Joanna", "mp3", "one", FORMAT, synthesizer("audio-x"));
+        cache.get("Joanna", "mp3", "three", FORMAT, synthesizer("audio-3"));
+
+        assertEquals(14, cache.getDiskBytes());
+        assertAudio("audio-1", cache.get("Joanna", "mp3", "one", FORMAT, synthesizer("audio-x")));
+        assertAudio("audio-x", cache.get("Joanna", "mp3", "two", FORMAT, synthesizer("audio-x")));
+        assertEquals(4, synthesized.get());
+    }
+
+    @Test
+    public void prefilledFilesAreKeptWithoutLimits() throws Exception {
+        TTSCache prefilled = new TTSCache(folder, TTSCache.DEFAULT_MEMORY_SIZE, TTSCache.UNLIMITED_DISK_SIZE,
+                TTSCache.UNLIMITED_AGE);
+        prefilled.put("Joanna", "mp3", "Hello", new ByteArrayInputStream(new byte[2 * 1024 * 1024]));
+        prefilled.put("Joanna", "mp3", "World", new ByteArrayInputStream(new byte[1024 * 1024]));
+
+        TTSCache cache = new TTSCache(folder,
+                Map.of(TTSCache.CONFIG_CACHE_SIZE, "0", TTSCache.CONFIG_CACHE_EXPIRATION, "0"));
+
+        assertEquals(2, folder.listFiles().length);
+        assertEquals(3 * 1024 * 1024, cache.getDiskBytes());
+        assertEquals(1024 * 1024,
+                cache.get("Joanna", "mp3", "World", FORMAT, synthesizer("audio-1")).readAllBytes().length);
+        assertEquals(0, synthesized.get());
+    }
+
+    @Test
+    public void configuredLimitsAreApplied() throws Exception {
+        TTSCache cache = new TTSCache(folder);
+        cache.put("Joanna", "mp3", "Hello", new ByteArrayInputStream(new byte[2 * 1024 * 1024]));
+        cache.put("Joanna", "mp3", "World", new ByteArrayInputStream(new byte[1024 * 1024]));
+        File[] files = folder.listFiles();
+        for (File file : files) {
+            file.setLastModified(System.currentTimeMillis() - Duration.ofDays(40).toMillis());
+        }
+
+        // the files are younger than the configured age, but they do not fit into 2 MB together
+        new TTSCache(folder, Map.of(TTSCache.CONFIG_CACHE_SIZE, 2, TTSCache.CONFIG_CACHE_EXPIRATION, 60));
+        assertEquals(1, folder.listFiles().length);
+
+        // the default age is 30 days
+        new TTSCache(folder, Map.of());
+        assertEquals(0, folder.listFiles().length);
+    }
+
+    @Test
+    public void changedLimitsDeleteFiles() throws Exception {
+        TTSCache cache = new TTSCache(folder, Map.of(TTSCache.CONFIG_CACHE_SIZE, 0));
+        cache.put("Joanna", "mp3", "Hello", new ByteArrayInputStream(new byte[2 * 1024 * 1024]));
+        cache.put("Joanna", "mp3", "World", new ByteArrayInputStream(new byte[1024 * 1024]));
+
+        cache.setLimits(Map.of(TTSCache.CONFIG_CACHE_SIZE, 1));
+
+        assertEquals(1, folder.listFiles().length);
+        assertEquals(1024 * 1024, cache.getDiskBytes());
+    }
+
+    @Test
+    public void filesOfThePreviousCachesAreDeleted() throws Exception {
+        Files.write(new File(folder, "en-US_0123456789abcdef0123456789abcdef.mp3").toPath(), new byte[16]);
+        Files.write(new File(folder, "Joanna_0123456789abcdef0123456789abcdef.txt").toPath(), new byte[16]);
+        Files.write(new File(folder, "notes.txt").toPath(), new byte[16]);
+
+        TTSCache cache = new TTSCache(folder);
+
+        assertArrayEquals(new String[] { "notes.txt" }, folder.list());
+        assertEquals(0, cache.getDiskBytes());
+    }
+
+    @Test
+    public void concurrentMissesOfTheSameTextAreStored() throws Exception {
+        TTSCache cache = new TTSCache(folder);
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        TTSCache.Synthesizer synthesizer = () -> {
+            // both requests miss the cache and write the same file
+            try {
+                barrier.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                throw new IOException(e);
+            }
+            return new ByteArrayInputStream("audio-1".getBytes(StandardCharsets.UTF_8));
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<AudioStream> first = executor.submit(() -> cache.get("Joanna", "mp3", "Hello", FORMAT, synthesizer));
+            Future<AudioStream> second = executor
+                    .submit(() -> cache.get("Joanna", "mp3", "Hello", FORMAT, synthesizer));
+
+            assertAudio("audio-1", first.get(5, TimeUnit.SECONDS));
+            assertAudio("audio-1", second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, folder.listFiles().length);
+        assertEquals(7, cache.getDiskBytes());
+        assertAudio("audio-1", new TTSCache(folder).get("Joanna", "mp3", "Hello", FORMAT, synthesizer("audio-2")));
+    }
+
+    @Test
+    public void purgeDeletesAllEntries() throws Exception {
+        TTSCache cache = new TTSCache(folder);
+        cache.get("Joanna", "mp3", "Hello", FORMAT, synthesizer("audio-1"));
+
+        cache.purge();
+
+        assertEquals(0, folder.listFiles().length);
+        assertEquals(0, cache.getMemoryBytes());
+        assertAudio("audio-2", cache.get("Joanna", "mp3", "Hello", FORMAT, synthesizer("audio-2")));
+    }
+
+    @Test
+    public void failedSynthesisIsNotCached() throws Exception {
+        TTSCache cache = new TTSCache(folder);
+
+        assertThrows(TTSException.class, () -> cache.get("Joanna", "mp3", "Hello", FORMAT, () -> {
+            throw new IOException("service unavailable");
+        }));
+
+        assertEquals(0, folder.listFiles().length);
+        assertAudio("audio-1", cache.get("Joanna", "mp3", "Hello", FORMAT, synthesizer("audio-1")));
+    }
+
+    private TTSCache.Synthesizer synthesizer(String audio) {
+        return () -> {
+            synthesized.incrementAndGet();
+            return new ByteArrayInputStream(audio.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private void assertAudio(String expected, AudioStream audioStream) throws IOException {
+        try (InputStream inputStream = audioStream) {
+            assertEquals(expected, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
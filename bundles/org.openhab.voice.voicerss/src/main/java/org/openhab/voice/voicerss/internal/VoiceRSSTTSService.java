@@ -13,7 +13,6 @@
 package org.openhab.voice.voicerss.internal;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Locale;
@@ -21,14 +20,14 @@ import java.util.Map;
 import java.util.Set;
 
 import org.openhab.core.OpenHAB;
-import org.openhab.core.audio.AudioException;
 import org.openhab.core.audio.AudioFormat;
 import org.openhab.core.audio.AudioStream;
 import org.openhab.core.config.core.ConfigurableService;
 import org.openhab.core.voice.TTSException;
 import org.openhab.core.voice.TTSService;
 import org.openhab.core.voice.Voice;
-import org.openhab.voice.voicerss.internal.cloudapi.CachedVoiceRSSCloudImpl;
+import org.openhab.voice.ttscache.TTSCache;
+import org.openhab.voice.voicerss.internal.cloudapi.VoiceRSSCloudImpl;
 import org.osgi.framework.Constants;
 import org.osgi.service.component.annotations.Component;
 import org.osgi.service.component.annotations.Modified;
@@ -54,10 +53,12 @@ public class VoiceRSSTTSService implements TTSService {
 
     private final Logger logger = LoggerFactory.getLogger(VoiceRSSTTSService.class);
 
+    private VoiceRSSCloudImpl voiceRssImpl;
+
     /**
-     * We need the cached implementation to allow for FixedLengthAudioStream.
+     * Cache of the synthesized audio, it allows for FixedLengthAudioStream.
      */
-    private CachedVoiceRSSCloudImpl voiceRssImpl;
+    private TTSCache cache;
 
     /**
      * Set of supported voices
@@ -75,7 +76,8 @@ public class VoiceRSSTTSService implements TTSService {
     protected void activate(Map<String, Object> config) {
         try {
             modified(config);
-            voiceRssImpl = initVoiceImplementation();
+            voiceRssImpl = new VoiceRSSCloudImpl();
+            cache = new TTSCache(new File(getCacheFolderName()), config);
             voices = initVoices();
             audioFormats = initAudioFormats();
 
@@ -89,6 +91,10 @@ public class VoiceRSSTTSService implements TTSService {
     protected void modified(Map<String, Object> config) {
         if (config != null) {
             apiKey = config.containsKey(CONFIG_API_KEY) ? config.get(CONFIG_API_KEY).toString() : null;
+            TTSCache localCache = cache;
+            if (localCache != null) {
+                localCache.setLimits(config);
+            }
         }
     }
 
@@ -132,20 +138,25 @@ public class VoiceRSSTTSService implements TTSService {
             throw new TTSException("The passed AudioFormat is unsupported");
         }
 
-        // now create the input stream for given text, locale, format. There is
-        // only a default voice
-        try {
-            File cacheAudioFile = voiceRssImpl.getTextToSpeechAsFile(apiKey, trimmedText,
-                    voice.getLocale().toLanguageTag(), voice.getLabel(), getApiAudioFormat(requestedFormat));
-            if (cacheAudioFile == null) {
-                throw new TTSException("Could not read from VoiceRSS service");
-            }
-            return new VoiceRSSAudioStream(cacheAudioFile, requestedFormat);
-        } catch (AudioException ex) {
-            throw new TTSException("Could not create AudioStream: " + ex.getMessage(), ex);
-        } catch (IOException ex) {
-            throw new TTSException("Could not read from VoiceRSS service: " + ex.getMessage(), ex);
-        }
+        // now get the audio stream for given text, locale, format from the cache or the service
+        String locale = voice.getLocale().toLanguageTag();
+        String apiAudioFormat = getApiAudioFormat(requestedFormat);
+        AudioStream audioStream = cache.get(getCacheVoiceName(locale, voice.getLabel()), apiAudioFormat, trimmedText,
+                requestedFormat,
+                () -> voiceRssImpl.getTextToSpeech(apiKey, trimmedText, locale, voice.getLabel(), apiAudioFormat));
+        logger.debug("Audio stream for '{}' in format {}, {}", trimmedText, requestedFormat, cache);
+        return audioStream;
+    }
+
+    /**
+     * Gets the name of a voice in the cache, it is only the locale for the default voice.
+     *
+     * @param locale the locale, e.g. "en-US"
+     * @param voice the voice
+     * @return the voice name in the cache, e.g. "en-US" or "en-US_Linda"
+     */
+    public static String getCacheVoiceName(String locale, String voice) {
+        return VoiceRSSCloudImpl.DEFAULT_VOICE.equals(voice) ? locale : locale + "_" + voice;
     }
 
     /**
@@ -212,10 +223,6 @@ public class VoiceRSSTTSService implements TTSService {
         }
     }
 
-    private CachedVoiceRSSCloudImpl initVoiceImplementation() {
-        return new CachedVoiceRSSCloudImpl(getCacheFolderName());
-    }
-
     private String getCacheFolderName() {
         // we assume that this folder does NOT have a trailing separator
         return OpenHAB.getUserDataFolder() + File.separator + CACHE_FOLDER_NAME;
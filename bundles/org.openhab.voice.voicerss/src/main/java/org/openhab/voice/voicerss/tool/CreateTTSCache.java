@@ -16,8 +16,11 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 
-import org.openhab.voice.voicerss.internal.cloudapi.CachedVoiceRSSCloudImpl;
+import org.openhab.voice.ttscache.TTSCache;
+import org.openhab.voice.voicerss.internal.VoiceRSSTTSService;
+import org.openhab.voice.voicerss.internal.cloudapi.VoiceRSSCloudImpl;
 
 /**
  * This class fills a cache with data from the VoiceRSS TTS service.
@@ -47,7 +50,9 @@ public class CreateTTSCache {
             return RC_API_KEY_MISSING;
         }
         String apiKey = args[1];
-        String cacheDir = args[2];
+        // a prefilled cache is kept completely
+        TTSCache cache = new TTSCache(new File(args[2]), TTSCache.DEFAULT_MEMORY_SIZE, TTSCache.UNLIMITED_DISK_SIZE,
+                TTSCache.UNLIMITED_AGE);
         String locale = args[3];
         String voice = args[4];
         if (args[5].startsWith("@")) {
@@ -58,10 +63,10 @@ public class CreateTTSCache {
                 System.err.println("File " + inputFileName + " not found");
                 return RC_INPUT_FILE_NOT_FOUND;
             }
-            generateCacheForFile(apiKey, cacheDir, locale, voice, inputFileName);
+            generateCacheForFile(apiKey, cache, locale, voice, inputFileName);
         } else {
             String text = args[5];
-            generateCacheForMessage(apiKey, cacheDir, locale, voice, text);
+            generateCacheForMessage(apiKey, cache, locale, voice, text);
         }
         return RC_OK;
     }
@@ -82,19 +87,19 @@ public class CreateTTSCache {
         System.out.println();
     }
 
-    private void generateCacheForFile(String apiKey, String cacheDir, String locale, String voice, String inputFileName)
+    private void generateCacheForFile(String apiKey, TTSCache cache, String locale, String voice, String inputFileName)
             throws IOException {
         File inputFile = new File(inputFileName);
         try (BufferedReader br = new BufferedReader(new FileReader(inputFile))) {
             String line;
             while ((line = br.readLine()) != null) {
                 // process the line.
-                generateCacheForMessage(apiKey, cacheDir, locale, voice, line);
+                generateCacheForMessage(apiKey, cache, locale, voice, line);
             }
         }
     }
 
-    private void generateCacheForMessage(String apiKey, String cacheDir, String locale, String voice, String msg)
+    private void generateCacheForMessage(String apiKey, TTSCache cache, String locale, String voice, String msg)
             throws IOException {
         if (msg == null) {
             System.err.println("Ignore msg=null");
@@ -105,9 +110,10 @@ public class CreateTTSCache {
             System.err.println("Ignore msg=''");
             return;
         }
-        CachedVoiceRSSCloudImpl impl = new CachedVoiceRSSCloudImpl(cacheDir);
-        File cachedFile = impl.getTextToSpeechAsFile(apiKey, trimmedMsg, locale, voice, "MP3");
-        System.out.println(
-                "Created cached audio for locale='" + locale + "', msg='" + trimmedMsg + "' to file=" + cachedFile);
+        VoiceRSSCloudImpl impl = new VoiceRSSCloudImpl();
+        try (InputStream audio = impl.getTextToSpeech(apiKey, trimmedMsg, locale, voice, "MP3")) {
+            cache.put(VoiceRSSTTSService.getCacheVoiceName(locale, voice), "MP3", trimmedMsg, audio);
+        }
+        System.out.println("Created cached audio for locale='" + locale + "', msg='" + trimmedMsg + "'");
     }
 }